@@ -1,5 +1,12 @@
 package com.cakeshopsystem;
 
+import com.cakeshopsystem.utils.cache.CacheRegistry;
+import com.cakeshopsystem.utils.cache.CacheSnapshot;
+import com.cakeshopsystem.utils.cache.CacheVersions;
+import com.cakeshopsystem.utils.cache.InventoryCache;
+import com.cakeshopsystem.utils.databaseconnection.DB;
+import com.cakeshopsystem.utils.databaseconnection.QueryMetrics;
+import com.cakeshopsystem.utils.databaseconnection.SchemaMigrator;
 import com.cakeshopsystem.utils.session.SessionManager;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -21,6 +28,16 @@ public class CakeShopSystemApplication extends Application {
     private static final String APP_CSS_PATH    = "/assets/css/style.css";       // Global stylesheet
     private static final String APP_TITLE       = "Cake Shop System | Login Form";            // Window title
 
+    @Override
+    public void init() throws Exception {
+        // Bring the schema up to date (and check required indexes) before any screen queries it.
+        // A failure here stops startup rather than running against a half-migrated database.
+        SchemaMigrator.runOnStartup();
+
+        // Catalog caches start from the last clean exit's snapshot; the version poll catches them up
+        CacheSnapshot.open();
+    }
+
     @Override
     public void start(Stage primaryStage) throws IOException {
         Application.setUserAgentStylesheet(Application.STYLESHEET_MODENA);
@@ -66,5 +83,22 @@ public class CakeShopSystemApplication extends Application {
         primaryStage.setMaximized(true);
         primaryStage.centerOnScreen();
         primaryStage.show();
+
+        // Pick up cache changes made on other terminals (needs the FX thread running).
+        CacheVersions.start();
+        InventoryCache.startRollover();
+    }
+
+    @Override
+    public void stop() {
+        // Cache and statement statistics for this run go to the console log.
+        CacheRegistry.dump();
+        QueryMetrics.dump();
+
+        // Save the catalog caches for the next start, then close pooled database connections.
+        CacheSnapshot.save();
+        CacheVersions.stop();
+        InventoryCache.stopRollover();
+        DB.shutdown();
     }
 }
@@ -228,9 +228,9 @@ public class AddProductController {
 
         if (!ok) return;
 
-        ProductCache.refreshProducts();
-        CakeCache.refreshCake();
-        DrinkCache.refreshDrinks();
+        ProductCache.invalidate();
+        CakeCache.invalidate();
+        DrinkCache.invalidate();
 
         if (onSaved != null) onSaved.run();
 
@@ -173,7 +173,7 @@ public class AddUserController {
                 return;
             }
 
-            UserCache.refreshUsers();
+            UserCache.invalidate();
             SnackBar.show(SnackBarType.SUCCESS, "Success", result.message(), Duration.seconds(2));
 
             MainController.handleClosePopupContent();
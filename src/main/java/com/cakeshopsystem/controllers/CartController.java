@@ -3,8 +3,10 @@ package com.cakeshopsystem.controllers;
 import com.cakeshopsystem.models.CartItem;
 import com.cakeshopsystem.models.Payment;
 import com.cakeshopsystem.models.ReceiptData;
+import com.cakeshopsystem.utils.cache.InventoryCache;
 import com.cakeshopsystem.utils.components.SnackBar;
 import com.cakeshopsystem.utils.constants.SnackBarType;
+import com.cakeshopsystem.utils.dao.AsyncDAO;
 import com.cakeshopsystem.utils.dao.InventoryDAO;
 import com.cakeshopsystem.utils.dao.PaymentDAO;
 import com.cakeshopsystem.utils.services.CartService;
@@ -103,8 +105,8 @@ public class CartController {
         // Preload icons to remove first-click lag
         PAYMENT_ICON.values().forEach(this::loadIcon);
 
-        // Initialize Payment Dropdown
-        cbPaymentOptions.setItems(PaymentDAO.getActivePayments());
+        // Initialize Payment Dropdown (loaded in the background)
+        AsyncDAO.onFx(AsyncDAO.supply(PaymentDAO::getActivePayments), cbPaymentOptions::setItems);
         setupComboBox(
                 cbPaymentOptions,
                 Payment::getPaymentName,
@@ -154,8 +156,7 @@ public class CartController {
                 btnPlus.setOnAction(e -> {
                     CartItem it = getCurrentItem();
                     if (it == null) return;
-                    if (!canIncrease(it)) return;
-                    cartService.changeQty(it, +1);
+                    increaseIfAvailable(it, btnPlus);
                 });
 
                 btnDel.setOnAction(e -> {
@@ -223,11 +224,38 @@ public class CartController {
         var snapshot = new java.util.ArrayList<>(cartService.getItems());
 
         confirmOrderBtn.setDisable(true);
-        try {
-            ReceiptData rd = OrderService.placeOrderAndBuildReceipt(
-                    userId, paymentId, cashierName, paymentName, snapshot
-            );
+        AsyncDAO.onFx(
+                AsyncDAO.supply(() -> {
+                    ReceiptData rd = OrderService.placeOrderAndBuildReceipt(
+                            userId, paymentId, cashierName, paymentName, snapshot
+                    );
+                    // Stock moves by exactly what the order took; no inventory reload. The order is
+                    // committed by now, so a cache that can't follow reloads instead of failing the sale
+                    try {
+                        InventoryCache.applySale(rd.getInventoryDeltas());
+                    } catch (RuntimeException err) {
+                        System.err.println("Error applying sale to inventory cache: " + err.getLocalizedMessage());
+                        try {
+                            InventoryCache.invalidate();
+                        } catch (RuntimeException reloadErr) {
+                            System.err.println("Error reloading inventory cache: " + reloadErr.getLocalizedMessage());
+                        }
+                    }
+                    return rd;
+                }),
+                rd -> {
+                    confirmOrderBtn.setDisable(false);
+                    onOrderPlaced(rd);
+                },
+                ex -> {
+                    confirmOrderBtn.setDisable(false);
+                    SnackBar.show(SnackBarType.ERROR, "Failed", ex.getMessage(), Duration.seconds(3));
+                }
+        );
+    }
 
+    private void onOrderPlaced(ReceiptData rd) {
+        try {
             cartService.clear();
             com.cakeshopsystem.utils.events.AppEvents.fireOrderCompleted();
 
@@ -252,8 +280,6 @@ public class CartController {
 
         } catch (Exception ex) {
             SnackBar.show(SnackBarType.ERROR, "Failed", ex.getMessage(), Duration.seconds(3));
-        } finally {
-            confirmOrderBtn.setDisable(false);
         }
     }
 
@@ -270,27 +296,53 @@ public class CartController {
         return total.setScale(2, RoundingMode.HALF_UP);
     }
 
-    private boolean canIncrease(CartItem it) {
+    /**
+     * Regular stock comes from the in-memory counters. Discount stock is checked in the background;
+     * the button stays disabled until the answer is back so repeated clicks can't race past it.
+     */
+    private void increaseIfAvailable(CartItem it, Button btnPlus) {
         String opt = it.getOption();
-        if ("HOT".equals(opt) || "COLD".equals(opt)) return true;
-
-        int available;
-        if ("DISCOUNT".equals(opt)) {
-            available = InventoryDAO.getDiscountQuantityByProductId(it.getProductId());
-        } else {
-            available = InventoryDAO.getRegularQuantityByProductId(it.getProductId());
+        if ("HOT".equals(opt) || "COLD".equals(opt)) {
+            cartService.changeQty(it, +1);
+            return;
         }
 
-        if (it.getQuantity() >= available) {
-            SnackBar.show(
-                    SnackBarType.WARNING,
-                    "Failed",
-                    "Cannot increase quantity beyond available stock.",
-                    Duration.seconds(2)
-            );
-            return false;
+        int productId = it.getProductId();
+
+        // Regular stock is counted in memory (kept current by sales and other terminals); the
+        // order itself still checks the database when it is placed
+        if (!"DISCOUNT".equals(opt)) {
+            if (it.getQuantity() >= InventoryCache.getRegularQtyByProductId(productId)) warnNoMoreStock();
+            else cartService.changeQty(it, +1);
+            return;
         }
-        return true;
+
+        btnPlus.setDisable(true);
+        AsyncDAO.onFx(
+                AsyncDAO.supply(() -> InventoryDAO.getDiscountQuantityByProductId(productId)),
+                available -> {
+                    btnPlus.setDisable(false);
+
+                    if (it.getQuantity() >= available) {
+                        warnNoMoreStock();
+                        return;
+                    }
+                    cartService.changeQty(it, +1);
+                },
+                ex -> {
+                    btnPlus.setDisable(false);
+                    SnackBar.show(SnackBarType.ERROR, "Failed", "Could not check available stock.", Duration.seconds(2));
+                }
+        );
+    }
+
+    private void warnNoMoreStock() {
+        SnackBar.show(
+                SnackBarType.WARNING,
+                "Failed",
+                "Cannot increase quantity beyond available stock.",
+                Duration.seconds(2)
+        );
     }
 
     /**
@@ -1,15 +1,19 @@
 package com.cakeshopsystem.controllers;
 
 import com.cakeshopsystem.models.Cake;
+import com.cakeshopsystem.models.Member;
 import com.cakeshopsystem.models.Product;
 import com.cakeshopsystem.utils.cache.CakeCache;
+import com.cakeshopsystem.utils.cache.MemberCache;
 import com.cakeshopsystem.utils.cache.ProductCache;
 import com.cakeshopsystem.utils.components.SnackBar;
 import com.cakeshopsystem.utils.constants.SnackBarType;
+import com.cakeshopsystem.utils.dao.AsyncDAO;
 import com.cakeshopsystem.utils.dao.DiyCakeBookingDAO;
 import com.cakeshopsystem.utils.dao.MemberDAO;
 import com.cakeshopsystem.utils.services.CartService;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.*;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
@@ -17,6 +21,8 @@ import javafx.util.Duration;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -47,10 +53,18 @@ public class DiyOrderFormController {
     private Product baseCakeProduct;
     private Integer memberId;
 
+    // Bumped per availability load so a slow answer for an older date is ignored
+    private long availabilityRequest = 0;
+
     private static final double DIY_SERVICE_FEE = 10000.0;
     private static final Pattern PHONE_LOCAL = Pattern.compile("^09\\d{9}$");
     private static final Pattern PHONE_INTL  = Pattern.compile("^\\+959\\d{9}$");
 
+    // As-you-type member suggestions under the phone field
+    private static final int SUGGEST_MIN_DIGITS = 3;
+    private static final int SUGGEST_MAX = 8;
+    private final ContextMenu memberSuggestions = new ContextMenu();
+
     // =====================================
     // LIFECYCLE
     // =====================================
@@ -71,6 +85,7 @@ public class DiyOrderFormController {
         btnConfirm.setOnAction(e -> handleConfirm());
 
         tfPhoneNumber.setOnAction(e -> handleSearchMember());
+        tfPhoneNumber.textProperty().addListener((obs, o, n) -> showMemberSuggestions(n));
 
         btnConfirm.setDisable(true);
 
@@ -97,8 +112,27 @@ public class DiyOrderFormController {
     private void handleSearchMember() {
         String phone = validatePhone();
         if (phone == null) return;
+        memberSuggestions.hide();
+
+        btnSearch.setDisable(true);
+        AsyncDAO.onFx(
+                AsyncDAO.supply(() -> {
+                    // A member registered on another terminal moments ago may only be in the database yet
+                    Member member = MemberCache.getMemberByPhone(phone);
+                    return member != null ? Integer.valueOf(member.getMemberId()) : MemberDAO.findMemberIdByPhone(phone);
+                }),
+                id -> {
+                    btnSearch.setDisable(false);
+                    onMemberFound(id);
+                },
+                ex -> {
+                    btnSearch.setDisable(false);
+                    showError("Could not search member. Please try again.");
+                }
+        );
+    }
 
-        Integer id = MemberDAO.findMemberIdByPhone(phone);
+    private void onMemberFound(Integer id) {
         if (id == null) {
             showError("This phone number is not registered as a member. DIY session is members-only.");
             return;
@@ -106,6 +140,7 @@ public class DiyOrderFormController {
 
         this.memberId = id;
 
+        memberSuggestions.hide();
         vbSearchMember.setVisible(false);
         vbDiyOrder.setVisible(true);
 
@@ -115,22 +150,67 @@ public class DiyOrderFormController {
         updateConfirmEnabled();
     }
 
+    // Members whose phone starts with what was typed, from MemberCache's phone trie
+    private void showMemberSuggestions(String typed) {
+        String digits = typed == null ? "" : typed.replaceAll("\\D", "");
+        List<Member> matches = (digits.length() < SUGGEST_MIN_DIGITS || !vbSearchMember.isVisible())
+                ? List.of()
+                : MemberCache.searchByPhonePrefix(typed, SUGGEST_MAX);
+
+        if (matches.isEmpty()) {
+            memberSuggestions.hide();
+            return;
+        }
+
+        List<MenuItem> items = new ArrayList<>(matches.size());
+        for (Member m : matches) {
+            MenuItem item = new MenuItem(m.getMemberName() + "  " + m.getPhone());
+            item.setOnAction(e -> {
+                onMemberFound(m.getMemberId());
+                tfPhoneNumber.setText(m.getPhone());
+            });
+            items.add(item);
+        }
+        memberSuggestions.getItems().setAll(items);
+        if (!memberSuggestions.isShowing()) memberSuggestions.show(tfPhoneNumber, Side.BOTTOM, 0, 0);
+    }
+
     // =====================================
     // SESSION AVAILABILITY
     // =====================================
     private void refreshSessionAvailability() {
         LocalDate date = dbOrderDate.getValue();
-
-        rbFirst.setDisable(false);
-        rbSecond.setDisable(false);
-        rbThird.setDisable(false);
+        long request = ++availabilityRequest;
 
         if (date == null) {
+            setSessionsDisabled(false);
             tgSessionTime.selectToggle(null);
             return;
         }
 
-        Set<LocalTime> taken = DiyCakeBookingDAO.getTakenSessionStarts(date);
+        // Locked until we know which sessions are free
+        setSessionsDisabled(true);
+        updateConfirmEnabled();
+
+        AsyncDAO.onFx(
+                AsyncDAO.supply(() -> DiyCakeBookingDAO.getTakenSessionStarts(date)),
+                taken -> {
+                    if (request != availabilityRequest) return;
+                    applySessionAvailability(taken);
+                    updateConfirmEnabled();
+                },
+                ex -> {
+                    if (request != availabilityRequest) return;
+                    // handleConfirm re-checks the slot, so leave the sessions selectable
+                    applySessionAvailability(Set.of());
+                    updateConfirmEnabled();
+                    showError("Could not load session availability.");
+                }
+        );
+    }
+
+    private void applySessionAvailability(Set<LocalTime> taken) {
+        setSessionsDisabled(false);
 
         if (taken.contains(LocalTime.of(9, 0))) rbFirst.setDisable(true);
         if (taken.contains(LocalTime.of(12, 0))) rbSecond.setDisable(true);
@@ -142,6 +222,12 @@ public class DiyOrderFormController {
         }
     }
 
+    private void setSessionsDisabled(boolean disabled) {
+        rbFirst.setDisable(disabled);
+        rbSecond.setDisable(disabled);
+        rbThird.setDisable(disabled);
+    }
+
     // =====================================
     // CONFIRM FLOW
     // =====================================
@@ -167,12 +253,27 @@ public class DiyOrderFormController {
             return;
         }
 
-        if (!DiyCakeBookingDAO.isSlotAvailable(sessionDate, sessionStart)) {
-            showError("That session is already booked. Choose another one.");
-            refreshSessionAvailability();
-            return;
-        }
+        btnConfirm.setDisable(true);
+        AsyncDAO.onFx(
+                AsyncDAO.supply(() -> DiyCakeBookingDAO.isSlotAvailable(sessionDate, sessionStart)),
+                available -> {
+                    updateConfirmEnabled();
+
+                    if (!available) {
+                        showError("That session is already booked. Choose another one.");
+                        refreshSessionAvailability();
+                        return;
+                    }
+                    addDiyBookingToCart(sessionDate, sessionStart);
+                },
+                ex -> {
+                    updateConfirmEnabled();
+                    showError("Could not check the session. Please try again.");
+                }
+        );
+    }
 
+    private void addDiyBookingToCart(LocalDate sessionDate, LocalTime sessionStart) {
         Cake cake = CakeCache.getCakeByProductId(baseCakeProduct.getProductId());
         if (cake == null) {
             showError("Missing cake record for this product.");
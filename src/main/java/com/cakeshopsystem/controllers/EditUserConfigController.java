@@ -4,7 +4,9 @@ import com.cakeshopsystem.models.User;
 import com.cakeshopsystem.utils.AuthResult;
 import com.cakeshopsystem.utils.ImageHelper;
 import com.cakeshopsystem.utils.components.SnackBar;
+import com.cakeshopsystem.utils.cache.UserCache;
 import com.cakeshopsystem.utils.constants.SnackBarType;
+import com.cakeshopsystem.utils.dao.AsyncDAO;
 import com.cakeshopsystem.utils.dao.UserDAO;
 import com.cakeshopsystem.utils.session.SessionManager;
 import com.cakeshopsystem.utils.validators.Validator;
@@ -84,6 +86,15 @@ public class EditUserConfigController implements Initializable {
 
     private static final Duration MSG_DURATION = Duration.seconds(2);
 
+    // Outcome of the background save; title == null means success
+    private record SaveResult(String title, String message, boolean wrongPassword) {
+        static final SaveResult OK = new SaveResult(null, null, false);
+
+        static SaveResult failed(String title, String message) {
+            return new SaveResult(title, message, false);
+        }
+    }
+
     private static final String MSG_CONFIRM_REQUIRED = "Confirm password cannot be empty";
 
     private static final String CSS_ERROR_MSG  = "error-message";
@@ -393,15 +404,6 @@ public class EditUserConfigController implements Initializable {
 
         boolean wantsPasswordChange = !isBlank(newPw) || !isBlank(confirmPw);
 
-        if (wantsPasswordChange) {
-            AuthResult check = UserDAO.checkPassword(currentUser.getUserId(), currentPw);
-            if (!check.success()) {
-                applyValidation(pfCurrentPassword, tfCurrentPassword, lblCurrentPasswordError, check.message());
-                snack(SnackBarType.ERROR, "Incorrect Password", check.message());
-                return;
-            }
-        }
-
         String finalImagePath = (selectedImagePath != null && !selectedImagePath.isBlank())
                 ? selectedImagePath
                 : currentUser.getImagePath();
@@ -413,32 +415,65 @@ public class EditUserConfigController implements Initializable {
         updated.setImagePath(finalImagePath);
         updated.setActive(finalActive);
 
-        boolean okProfile = UserDAO.updateUser(updated);
-        if (!okProfile) {
-            snack(SnackBarType.ERROR, "Save Failed", "Could not update profile.");
-            return;
-        }
+        int userId = currentUser.getUserId();
+
+        // Password hashing + the updates run off the FX thread
+        btnSave.setDisable(true);
+        AsyncDAO.onFx(
+                AsyncDAO.supply(() -> saveProfile(userId, updated, wantsPasswordChange, currentPw, newPw)),
+                result -> {
+                    btnSave.setDisable(false);
+
+                    if (result.wrongPassword()) {
+                        applyValidation(pfCurrentPassword, tfCurrentPassword, lblCurrentPasswordError, result.message());
+                    }
+                    if (result.title() != null) {
+                        snack(SnackBarType.ERROR, result.title(), result.message());
+                        return;
+                    }
+
+                    // update session user (MainController listener will refresh UI if you added it)
+                    currentUser.setUserName(newUsername);
+                    currentUser.setEmail(email);
+                    currentUser.setImagePath(finalImagePath);
+                    currentUser.setActive(finalActive);
+                    SessionManager.setUser(currentUser);
+                    UserCache.userSaved(updated);
+
+                    selectedImagePath = null;
+                    clearPasswordInputs();
+                    clearPasswordErrors();
+
+                    snack(SnackBarType.SUCCESS, "Saved", "Profile updated successfully.");
+                },
+                ex -> {
+                    btnSave.setDisable(false);
+                    snack(SnackBarType.ERROR, "Save Failed", "Could not update profile.");
+                }
+        );
+    }
 
+    private static SaveResult saveProfile(int userId, User updated, boolean wantsPasswordChange,
+                                          String currentPw, String newPw) {
         if (wantsPasswordChange) {
-            AuthResult upd = UserDAO.updatePassword(currentUser.getUserId(), newPw);
-            if (!upd.success()) {
-                snack(SnackBarType.ERROR, "Password Update Failed", upd.message());
-                return;
+            AuthResult check = UserDAO.checkPassword(userId, currentPw);
+            if (!check.success()) {
+                return new SaveResult("Incorrect Password", check.message(), true);
             }
         }
 
-        // update session user (MainController listener will refresh UI if you added it)
-        currentUser.setUserName(newUsername);
-        currentUser.setEmail(email);
-        currentUser.setImagePath(finalImagePath);
-        currentUser.setActive(finalActive);
-        SessionManager.setUser(currentUser);
+        if (!UserDAO.updateUser(updated)) {
+            return SaveResult.failed("Save Failed", "Could not update profile.");
+        }
 
-        selectedImagePath = null;
-        clearPasswordInputs();
-        clearPasswordErrors();
+        if (wantsPasswordChange) {
+            AuthResult upd = UserDAO.updatePassword(userId, newPw);
+            if (!upd.success()) {
+                return SaveResult.failed("Password Update Failed", upd.message());
+            }
+        }
 
-        snack(SnackBarType.SUCCESS, "Saved", "Profile updated successfully.");
+        return SaveResult.OK;
     }
 
     @FXML
@@ -2,6 +2,7 @@ package com.cakeshopsystem.controllers;
 
 import com.cakeshopsystem.utils.AuthResult;
 import com.cakeshopsystem.utils.ChangeScene;
+import com.cakeshopsystem.utils.cache.CacheWarmup;
 import com.cakeshopsystem.utils.components.SnackBar;
 import com.cakeshopsystem.utils.constants.SnackBarType;
 import com.cakeshopsystem.utils.dao.UserDAO;
@@ -263,7 +264,11 @@ public class LoginFormController {
         return new Task<>() {
             @Override
             protected AuthResult call() throws Exception {
-                return UserDAO.authenticateUser(usernameValue, passwordValue);
+                AuthResult result = UserDAO.authenticateUser(usernameValue, passwordValue);
+
+                // Load the reference caches while the main scene is being built
+                if (result != null && Boolean.TRUE.equals(result.success())) CacheWarmup.start();
+                return result;
             }
         };
     }
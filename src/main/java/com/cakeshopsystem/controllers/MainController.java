@@ -2,6 +2,7 @@ package com.cakeshopsystem.controllers;
 
 import com.cakeshopsystem.models.User;
 import com.cakeshopsystem.utils.ImageHelper;
+import com.cakeshopsystem.utils.cache.CacheWarmup;
 import com.cakeshopsystem.utils.cache.RoleCache;
 import com.cakeshopsystem.utils.components.BreadcrumbBar;
 import com.cakeshopsystem.utils.components.BreadcrumbManager;
@@ -364,6 +365,9 @@ public class MainController {
         Task<Node> loadTask = new Task<>() {
             @Override
             protected Node call() throws IOException {
+                // Views read the catalog caches while building; let the login warm-up load those first
+                CacheWarmup.awaitViews();
+
                 URL url = requireResource(fxmlPath);
                 FXMLLoader loader = new FXMLLoader(url);
                 return loader.load();
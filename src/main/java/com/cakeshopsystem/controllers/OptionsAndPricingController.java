@@ -10,6 +10,7 @@ import com.cakeshopsystem.utils.session.SessionManager;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldTableCell;
@@ -47,6 +48,10 @@ public class OptionsAndPricingController {
     private ObservableList<Flavour> flavours;
     private ObservableList<Topping> toppings;
 
+    // The cache lists are read-only; the tables sort these views of them
+    private SortedList<Flavour> sortedFlavours;
+    private SortedList<Topping> sortedToppings;
+
     private static final DecimalFormat DF = new DecimalFormat("0.##");
 
     private static final StringConverter<Double> DOUBLE_CONVERTER = new StringConverter<>() {
@@ -95,7 +100,9 @@ public class OptionsAndPricingController {
 
     private void configureFlavourTable() {
         flavours = FlavourCache.getFlavoursList();
-        tblFlavours.setItems(flavours);
+        sortedFlavours = new SortedList<>(flavours);
+        sortedFlavours.comparatorProperty().bind(tblFlavours.comparatorProperty());
+        tblFlavours.setItems(sortedFlavours);
 
         tcFlavourName.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getFlavourName()));
         tcFlavourPrice.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().getPrice()));
@@ -164,7 +171,9 @@ public class OptionsAndPricingController {
 
     private void configureToppingTable() {
         toppings = ToppingCache.getToppingsList();
-        tblToppings.setItems(toppings);
+        sortedToppings = new SortedList<>(toppings);
+        sortedToppings.comparatorProperty().bind(tblToppings.comparatorProperty());
+        tblToppings.setItems(sortedToppings);
 
         tcToppingName.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getToppingName()));
         tcToppingPrice.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().getPrice()));
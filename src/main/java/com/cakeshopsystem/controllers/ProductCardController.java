@@ -5,6 +5,7 @@ import com.cakeshopsystem.models.CartItem;
 import com.cakeshopsystem.models.Drink;
 import com.cakeshopsystem.models.Inventory;
 import com.cakeshopsystem.models.Product;
+import com.cakeshopsystem.utils.ImageHelper;
 import com.cakeshopsystem.utils.cache.CakeCache;
 import com.cakeshopsystem.utils.cache.DrinkCache;
 import com.cakeshopsystem.utils.cache.InventoryCache;
@@ -20,7 +21,6 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
@@ -552,67 +552,10 @@ public class ProductCardController {
     // IMAGE LOADING
     // =====================================
     private void loadProductImage(String imagePath) {
-        try {
-            Image image = loadImageSmart(imagePath, 180, 140);
-
-            if (image == null || image.isError()) {
-                image = loadImageSmart("/images/default-product.png", 180, 140);
-            }
-
-            if (image != null && !image.isError()) {
-                productImage.setImage(image);
-            }
-        } catch (Exception err) {
-            System.err.println("Error loading product image: " + err.getLocalizedMessage());
-            err.printStackTrace();
-        }
-    }
-
-    //    private Image loadImageSmart(String path) {
-//        if (path == null || path.isBlank()) return null;
-//
-//        if (path.matches("^(https?|file|jar):.*")) {
-//            return new Image(path, true);
-//        }
-//
-//        String res = path.startsWith("/") ? path : "/" + path;
-//        var url = getClass().getResource(res);
-//        if (url != null) {
-//            return new Image(url.toExternalForm(), true);
-//        }
-//
-//        var f = new java.io.File(path);
-//        if (f.exists()) {
-//            return new Image(f.toURI().toString(), true);
-//        }
-//
-//        return null;
-//    }
-    private Image loadImageSmart(String path, double reqW, double reqH) {
-        if (path == null || path.isBlank()) return null;
-
-        String urlStr = null;
-
-        if (path.matches("^(https?|file|jar):.*")) {
-            urlStr = path;
-        } else {
-            String res = path.startsWith("/") ? path : "/" + path;
-            var url = getClass().getResource(res);
-            if (url != null) {
-                urlStr = url.toExternalForm();
-            } else {
-                var f = new java.io.File(path);
-                if (f.exists()) urlStr = f.toURI().toString();
-            }
-        }
-
-        if (urlStr == null) return null;
-
-        // ✅ scaled decode
-        return new Image(urlStr, reqW, reqH, true, true, true);
+        // Decoded at card size in the background; the default picture shows until then
+        ImageHelper.show(productImage, imagePath, 180, 140, ImageHelper.DEFAULT_PRODUCT);
     }
 
-
     // =====================================
     // ADMIN POPUPS & REFRESH
     // =====================================
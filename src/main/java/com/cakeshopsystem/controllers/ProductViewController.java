@@ -3,6 +3,7 @@ package com.cakeshopsystem.controllers;
 import com.cakeshopsystem.models.Inventory;
 import com.cakeshopsystem.models.Product;
 import com.cakeshopsystem.models.User;
+import com.cakeshopsystem.utils.cache.CacheWarmup;
 import com.cakeshopsystem.utils.cache.CakeCache;
 import com.cakeshopsystem.utils.cache.InventoryCache;
 import com.cakeshopsystem.utils.cache.ProductCache;
@@ -50,11 +51,12 @@ public class ProductViewController {
     private static final String PRODUCT_CARD_FXML = "/views/ProductCard.fxml";
     private String roleName = "";
 
+    // Login -> first product card is recorded once per run (CacheWarmup.firstViewMs)
+    private static boolean firstCardTimed = false;
+
+    // After a sale (CartController has already applied it to InventoryCache) or a new day's stock
     private final ChangeListener<Number> orderListener = (obs, oldV, newV) -> {
-        Platform.runLater(() -> {
-            InventoryCache.refresh();
-            reloadAllProducts();
-        });
+        Platform.runLater(this::reloadAllProducts);
     };
 
     // =====================================
@@ -85,6 +87,7 @@ public class ProductViewController {
         processExpiredBtn.setOnAction(e -> handleWasteProduct());
 
         AppEvents.orderCompletedCounterProperty().addListener(orderListener);
+        AppEvents.dayRolledOverCounterProperty().addListener(orderListener);
 
         mainScrollPane.sceneProperty().addListener(new ChangeListener<>() {
             @Override
@@ -95,6 +98,7 @@ public class ProductViewController {
             ) {
                 if (oldScene != null && newScene == null) {
                     AppEvents.orderCompletedCounterProperty().removeListener(orderListener);
+                    AppEvents.dayRolledOverCounterProperty().removeListener(orderListener);
                 }
             }
         });
@@ -147,6 +151,7 @@ public class ProductViewController {
 
                 binder.accept(controller, p);
                 targetHBox.getChildren().add(card);
+                timeFirstCard();
             } catch (Exception err) {
                 System.out.println("Error loading product card: ");
                 err.printStackTrace();
@@ -154,6 +159,15 @@ public class ProductViewController {
         }
     }
 
+    private static void timeFirstCard() {
+        long loggedInAt = SessionManager.getLoggedInAtNanos();
+        if (firstCardTimed || loggedInAt == 0) return;
+        firstCardTimed = true;
+
+        // Measured once the view built in this pulse is handed to the scene
+        Platform.runLater(() -> CacheWarmup.recordFirstView((System.nanoTime() - loggedInAt) / 1_000_000));
+    }
+
     // =====================================
     // DISCOUNTED ITEMS
     // =====================================
@@ -225,7 +239,7 @@ public class ProductViewController {
         Integer userId = SessionManager.getUser().getUserId();
         InventoryDAO.wasteExpiredInventory(userId);
 
-        InventoryCache.refresh();
+        InventoryCache.invalidate();
         reloadAllProducts();
 
         SnackBar.show(
@@ -4,9 +4,7 @@ import com.cakeshopsystem.models.Member;
 import com.cakeshopsystem.utils.cache.MemberCache;
 import com.cakeshopsystem.utils.components.SnackBar;
 import com.cakeshopsystem.utils.constants.SnackBarType;
-import com.cakeshopsystem.utils.dao.MemberDAO;
 import javafx.animation.PauseTransition;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
@@ -95,12 +93,9 @@ public class RegisterMemberController {
         String memberPhone = validateAndNormalizePhone();
         if (memberPhone == null) return;
 
-        ObservableList<Member> members = MemberCache.getMembersList();
-        for(Member m: members) {
-            if(m.getPhone().equals(memberPhone)) {
-                SnackBar.show(SnackBarType.INFO, "Already Register", "This phone number is already registered as a member", Duration.seconds(2));
-                return;
-            }
+        if (MemberCache.isPhoneRegistered(memberPhone)) {
+            SnackBar.show(SnackBarType.INFO, "Already Register", "This phone number is already registered as a member", Duration.seconds(2));
+            return;
         }
 
         btnRegister.setDisable(true);
@@ -112,7 +107,8 @@ public class RegisterMemberController {
                 LocalDateTime.now()
         );
 
-        boolean ok = MemberDAO.insertMember(newMember);
+        // Through the cache, so the phone indexes (and other terminals) pick the member up
+        boolean ok = MemberCache.addMember(newMember);
 
         if (!ok) {
             btnRegister.setDisable(false);
@@ -10,6 +10,7 @@ import com.cakeshopsystem.utils.constants.SnackBarType;
 import com.cakeshopsystem.utils.dao.DashboardDAO;
 import com.cakeshopsystem.utils.dao.ProductDAO;
 import com.cakeshopsystem.utils.databaseconnection.DB;
+import com.cakeshopsystem.utils.databaseconnection.QueryTask;
 import com.cakeshopsystem.utils.session.SessionManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -95,7 +96,8 @@ public class DashboardController {
     // STATE & CONSTANTS
     // =====================================
     private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-    private Task<DashboardData> runningTask;
+    private QueryTask<DashboardData> runningTask;
+    private QueryTask<List<StaffOrder>> cashierCardsTask;
     private static final int TOP_N = 8;
     private boolean isInitializing = true;
 
@@ -279,9 +281,9 @@ public class DashboardController {
 
         setBusy(true);
 
-        runningTask = new Task<>() {
+        QueryTask<DashboardData> task = new QueryTask<>() {
             @Override
-            protected DashboardData call() throws Exception {
+            protected DashboardData query() throws Exception {
                 var top = DashboardDAO.fetchTopProductsByQty(start, end, categoryId, TOP_N);
                 long totalQty = DashboardDAO.fetchTotalQtyAllProducts(start, end, categoryId);
                 var revenue = DashboardDAO.fetchRevenueTrend(start, end, periodSnap, categoryId);
@@ -293,9 +295,9 @@ public class DashboardController {
             }
         };
 
-        runningTask.setOnSucceeded(e -> {
+        task.setOnSucceeded(e -> {
             setBusy(false);
-            DashboardData data = runningTask.getValue();
+            DashboardData data = task.getValue();
             if (data == null) return;
 
             renderTopMode(data);
@@ -304,12 +306,13 @@ public class DashboardController {
             loadCashierCards();
         });
 
-        runningTask.setOnFailed(e -> {
+        task.setOnFailed(e -> {
             setBusy(false);
-            runningTask.getException().printStackTrace();
+            if (task.getException() != null) task.getException().printStackTrace();
         });
 
-        new Thread(runningTask, "dashboard-data-loader").start();
+        runningTask = task;
+        new Thread(task, "dashboard-data-loader").start();
     }
 
     // =====================================
@@ -377,22 +380,27 @@ public class DashboardController {
         hbStaffCard.getChildren().clear();
 
         int cashierRoleId = RoleCache.getRoleIdByName("Cashier");
-        ObservableList<User> cashiers = UserCache.getUsersByRole(cashierRoleId);
+        // Walked inside the query task, so not the live FX list
+        List<User> cashiers = UserCache.getUsersByRoleSnapshot(cashierRoleId);
 
-        if (cashiers == null || cashiers.isEmpty()) {
+        if (cashiers.isEmpty()) {
             SnackBar.show(SnackBarType.ERROR, "Failed", "No Cashier found in cache", Duration.seconds(2));
             return;
         }
 
         DateTimeRange range = getOrderDateTimeRangeSnapshot();
 
-        Task<List<StaffOrder>> task = new Task<>() {
+        if (cashierCardsTask != null && cashierCardsTask.isRunning()) {
+            cashierCardsTask.cancel();
+        }
+
+        QueryTask<List<StaffOrder>> task = new QueryTask<>() {
             @Override
-            protected List<StaffOrder> call() throws Exception {
+            protected List<StaffOrder> query() throws Exception {
                 List<StaffOrder> result = new ArrayList<>();
                 final String sql = "SELECT COUNT(*) AS total FROM orders WHERE user_id = ? AND order_date >= ? AND order_date < ?";
 
-                try (var conn = DB.connect(); var ps = conn.prepareStatement(sql)) {
+                try (var conn = DB.connectReadOnly(); var ps = conn.prepareStatement(sql)) {
                     ps.setTimestamp(2, java.sql.Timestamp.valueOf(range.startInclusive()));
                     ps.setTimestamp(3, java.sql.Timestamp.valueOf(range.endExclusive()));
 
@@ -425,6 +433,7 @@ public class DashboardController {
             SnackBar.show(SnackBarType.ERROR, "Failed", "Could not load cashier cards", Duration.seconds(2));
         });
 
+        cashierCardsTask = task;
         new Thread(task, "dashboard-cashier-cards-loader").start();
     }
 
@@ -448,7 +457,7 @@ public class DashboardController {
                         "GROUP BY o.order_id, o.order_date, o.grand_total ORDER BY o.order_date DESC";
 
                 ObservableList<StaffOrderRow> rows = FXCollections.observableArrayList();
-                try (var con = DB.connect(); var ps = con.prepareStatement(sql)) {
+                try (var con = DB.connectReadOnly(); var ps = con.prepareStatement(sql)) {
                     ps.setInt(1, user.getUserId());
                     ps.setTimestamp(2, Timestamp.valueOf(start));
                     ps.setTimestamp(3, Timestamp.valueOf(end));
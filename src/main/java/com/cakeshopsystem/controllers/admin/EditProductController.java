@@ -250,7 +250,7 @@ public class EditProductController {
             return;
         }
 
-        ProductCache.refreshProducts();
+        ProductCache.invalidate();
 
         if (isCake(currentProduct)) {
             boolean diyAllowed = rbDiyYes != null && rbDiyYes.isSelected();
@@ -259,7 +259,7 @@ public class EditProductController {
                 showError("Save failed (cakes).");
                 return;
             }
-            CakeCache.refreshCake();
+            CakeCache.invalidate();
         }
 
         SnackBar.show(SnackBarType.SUCCESS, "Updated", "Changes to the product were saved.", Duration.seconds(2));
@@ -324,7 +324,7 @@ public class EditProductController {
             return;
         }
 
-        InventoryCache.refresh();
+        InventoryCache.invalidate();
 
         // 5) Refresh UI
 //        int totalStock = InventoryDAO.getTotalAvailableQuantityByProductId(currentProduct.getProductId());
@@ -1,8 +1,8 @@
 package com.cakeshopsystem.controllers.admin;
 
 import com.cakeshopsystem.utils.dao.OrderDAO;
+import com.cakeshopsystem.utils.databaseconnection.QueryTask;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -41,7 +41,7 @@ public class RevenueController implements Initializable {
     @FXML public NumberAxis yAxis;
     @FXML private LineChart<String, Number> revenueLineChart;
 
-    private volatile Task<Void> activeTask;
+    private volatile QueryTask<Void> activeTask;
 
     // ---- Range picker state (single DatePicker) ----
     private LocalDate startDate;
@@ -309,9 +309,9 @@ public class RevenueController implements Initializable {
         final double[] salesHolder = new double[1];
         final int[] cancelHolder = new int[1];
 
-        activeTask = new Task<>() {
+        QueryTask<Void> task = new QueryTask<>() {
             @Override
-            protected Void call() {
+            protected Void query() {
                 if (isCancelled()) return null;
 
                 LinkedHashMap<String, Double> bucketRevenue = new LinkedHashMap<>();
@@ -338,6 +338,7 @@ public class RevenueController implements Initializable {
                 }
                 seriesHolder[0] = s;
 
+                if (isCancelled()) return null;
                 membersHolder[0] = OrderDAO.getTotalMembers();
                 ordersHolder[0] = OrderDAO.getTotalOrders(startDate, endDate);
                 salesHolder[0] = OrderDAO.getTotalSales(startDate, endDate);
@@ -347,7 +348,7 @@ public class RevenueController implements Initializable {
             }
         };
 
-        activeTask.setOnSucceeded(ev -> {
+        task.setOnSucceeded(ev -> {
             lblTotalMembersResult.setText(String.valueOf(membersHolder[0]));
             lblTotalOrdersResult.setText(String.valueOf(ordersHolder[0]));
             lblTotalSalesResult.setText(String.format("%,.0f", salesHolder[0]));
@@ -357,13 +358,14 @@ public class RevenueController implements Initializable {
             if (seriesHolder[0] != null) revenueLineChart.getData().add(seriesHolder[0]);
         });
 
-        activeTask.setOnFailed(ev -> {
-            Throwable ex = activeTask.getException();
+        task.setOnFailed(ev -> {
+            Throwable ex = task.getException();
             System.err.println("Revenue load failed: " + (ex == null ? "unknown error" : ex.getMessage()));
             if (ex != null) ex.printStackTrace();
         });
 
-        Thread th = new Thread(activeTask);
+        activeTask = task;
+        Thread th = new Thread(task);
         th.setDaemon(true);
         th.start();
     }
@@ -231,6 +231,7 @@ import com.cakeshopsystem.models.Product;
 import com.cakeshopsystem.models.ProductSales;
 import com.cakeshopsystem.utils.chart.ChartColorFixer;
 import com.cakeshopsystem.utils.dao.ProductDAO;
+import com.cakeshopsystem.utils.databaseconnection.QueryTask;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -271,6 +272,8 @@ public class SalesProductController {
     private final Set<LocalDate> selectedRange = new HashSet<>();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private QueryTask<SalesData> activeTask;
+
     @FXML
     public void initialize() {
 
@@ -436,9 +439,46 @@ public class SalesProductController {
     // =========================
     // Refresh + Loaders
     // =========================
+    private record SalesData(ObservableList<ProductSales> sales, ObservableList<Product> topProducts) {}
+
     private void refreshAll() {
-        refreshChart();
-        loadTopProduct();
+        if (activeTask != null && activeTask.isRunning()) {
+            activeTask.cancel();
+        }
+
+        final String filter = productFilter.getValue() == null || productFilter.getValue().isBlank()
+                ? "All"
+                : productFilter.getValue();
+        final LocalDate[] range = getDateRange();
+
+        QueryTask<SalesData> task = new QueryTask<>() {
+            @Override
+            protected SalesData query() {
+                ObservableList<ProductSales> sales = fetchSales(filter, range[0], range[1]);
+                if (isCancelled()) return null;
+
+                ObservableList<Product> topProducts = fetchTopProducts(filter, range[0], range[1]);
+                return new SalesData(sales, topProducts);
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            SalesData data = task.getValue();
+            if (data == null) return;
+
+            renderChart(data.sales());
+            loadProductCards(data.topProducts());
+        });
+
+        task.setOnFailed(e -> {
+            Throwable ex = task.getException();
+            System.err.println("Sales load failed: " + (ex == null ? "unknown error" : ex.getMessage()));
+        });
+
+        activeTask = task;
+        Thread th = new Thread(task, "sales-product-loader");
+        th.setDaemon(true);
+        th.start();
     }
 
     private void loadProductCards(ObservableList<Product> products) {
@@ -468,14 +508,8 @@ public class SalesProductController {
         };
     }
 
-    public void loadTopProduct() {
-        topProductsContainer.getChildren().clear();
-        String filter = productFilter.getValue();
-
-        LocalDate[] range = getDateRange();
-        LocalDate start = range[0];
-        LocalDate end = range[1];
-
+    // Runs on the loader thread
+    private ObservableList<Product> fetchTopProducts(String filter, LocalDate start, LocalDate end) {
         ObservableList<Product> products = FXCollections.observableArrayList();
 
         if ("All".equals(filter)) {
@@ -491,31 +525,19 @@ public class SalesProductController {
             ObservableList<Product> topAccessory = ProductDAO.getTopSellingProductsByType("Accessory", start, end);
             if (!topAccessory.isEmpty()) products.add(topAccessory.getFirst());
 
-            loadProductCards(products);
-            return;
-        }
-
-        switch (filter) {
-            case "Drink" -> products = ProductDAO.getTopDrinks(start, end);
-            case "Diy Cake" -> products = ProductDAO.getTopDiyCakes(start, end);
-            case "Custom Cake" -> products = ProductDAO.getTopCustomCakes(start, end);
-            default -> products = ProductDAO.getTopSellingProductsByType(filter, start, end);
+            return products;
         }
 
-        if (!products.isEmpty()) loadProductCards(products);
+        return switch (filter) {
+            case "Drink" -> ProductDAO.getTopDrinks(start, end);
+            case "Diy Cake" -> ProductDAO.getTopDiyCakes(start, end);
+            case "Custom Cake" -> ProductDAO.getTopCustomCakes(start, end);
+            default -> ProductDAO.getTopSellingProductsByType(filter, start, end);
+        };
     }
 
-    private void refreshChart() {
-        productBarChart.getData().clear();
-        productPieChart.getData().clear();
-
-        String filter = productFilter.getValue();
-        if (filter == null || filter.isBlank()) filter = "All";
-
-        LocalDate[] range = getDateRange();
-        LocalDate start = range[0];
-        LocalDate end = range[1];
-
+    // Runs on the loader thread
+    private ObservableList<ProductSales> fetchSales(String filter, LocalDate start, LocalDate end) {
         ObservableList<ProductSales> sales = FXCollections.observableArrayList();
 
         switch (filter) {
@@ -533,6 +555,12 @@ public class SalesProductController {
                         : FXCollections.observableArrayList();
             }
         }
+        return sales;
+    }
+
+    private void renderChart(ObservableList<ProductSales> sales) {
+        productBarChart.getData().clear();
+        productPieChart.getData().clear();
 
         // ---------------- BAR CHART ----------------
         XYChart.Series<String, Number> series = new XYChart.Series<>();
@@ -185,7 +185,7 @@ public class StaffPerformanceController {
         // String dateFilter = getDateFilter("order_date"); // make sure 'order_date' matches your DB column
         String sql = "SELECT COUNT(*) AS total FROM orders WHERE user_id = ? AND " + dateFilter;
 
-        try (var conn = DB.connect();
+        try (var conn = DB.connectReadOnly();
              var ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
             var rs = ps.executeQuery();
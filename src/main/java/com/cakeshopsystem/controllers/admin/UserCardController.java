@@ -8,7 +8,6 @@ import com.cakeshopsystem.utils.dao.OrderDAO;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 
@@ -29,9 +28,7 @@ public class UserCardController {
     private Object ScreenLoader;
 
     private void loadAvatar(String imagePath) {
-        Image avatar = ImageHelper.load(imagePath);
-        userImage.setImage(avatar);
-        ImageHelper.applyCircularAvatar(userImage, 100);
+        ImageHelper.showAvatar(userImage, imagePath, 100);
     }
 
     private void updateOrderCount() {
@@ -46,9 +43,7 @@ public class UserCardController {
     public void refreshAvatar() {
         if (user == null) return;
 
-        Image avatar = ImageHelper.load(user.getImagePath());
-        userImage.setImage(avatar);
-        ImageHelper.applyCircularAvatar(userImage, 64);
+        ImageHelper.showAvatar(userImage, user.getImagePath(), 64);
     }
 
 
@@ -97,14 +97,14 @@ public class UserViewController {
             boolean newActive = "ACTIVE".equals(statusBox.getValue());
             user.setActive(newActive);
 
-            Task<Void> task = new Task<>() {
-                @Override protected Void call() {
-                    UserDAO.updateUser(user);
-                    return null;
+            Task<Boolean> task = new Task<>() {
+                @Override protected Boolean call() {
+                    return UserDAO.updateUser(user);
                 }
             };
 
             task.setOnSucceeded(ev -> {
+                if (task.getValue()) UserCache.userSaved(user);
                 userTableView.refresh();
                 MainController.handleClosePopupContent();
             });
@@ -173,8 +173,7 @@ public class UserViewController {
                     return;
                 }
 
-                avatar.setImage(ImageHelper.load(path));
-                ImageHelper.applyCircularAvatar(avatar, 32);
+                ImageHelper.showAvatar(avatar, path, 32);
                 setGraphic(avatar);
             }
         });
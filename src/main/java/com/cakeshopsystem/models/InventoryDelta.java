@@ -0,0 +1,4 @@
+package com.cakeshopsystem.models;
+
+/** One change an order made to an inventory batch, e.g. {@code qtyChange = -2} for two units sold. */
+public record InventoryDelta(int inventoryId, int qtyChange) {}
@@ -16,6 +16,9 @@ public class ReceiptData {
     private final BigDecimal discountAmount;
     private final BigDecimal grandTotal;
 
+    // Inventory batches the order deducted, for InventoryCache.applySale
+    private final List<InventoryDelta> inventoryDeltas;
+
     public ReceiptData(int orderId,
                        LocalDateTime orderDate,
                        String cashierName,
@@ -23,7 +26,8 @@ public class ReceiptData {
                        List<CartItem> items,
                        BigDecimal subtotal,
                        BigDecimal discountAmount,
-                       BigDecimal grandTotal) {
+                       BigDecimal grandTotal,
+                       List<InventoryDelta> inventoryDeltas) {
         this.orderId = orderId;
         this.orderDate = orderDate;
         this.cashierName = cashierName;
@@ -32,6 +36,7 @@ public class ReceiptData {
         this.subtotal = subtotal;
         this.discountAmount = discountAmount;
         this.grandTotal = grandTotal;
+        this.inventoryDeltas = inventoryDeltas;
     }
 
     public int getOrderId() { return orderId; }
@@ -43,4 +48,6 @@ public class ReceiptData {
     public BigDecimal getSubtotal() { return subtotal; }
     public BigDecimal getDiscountAmount() { return discountAmount; }
     public BigDecimal getGrandTotal() { return grandTotal; }
+
+    public List<InventoryDelta> getInventoryDeltas() { return inventoryDeltas; }
 }
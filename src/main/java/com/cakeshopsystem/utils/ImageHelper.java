@@ -1,51 +1,300 @@
 package com.cakeshopsystem.utils;
 
+import com.cakeshopsystem.utils.cache.CacheStats;
+import com.cakeshopsystem.utils.dotenv.dotenv;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.shape.Circle;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.net.URI;
 import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
+/**
+ * The one image cache for avatars and product pictures.
+ * <p>
+ * Images are decoded in the background at the size they are shown ({@code path@WxH} is the key),
+ * kept in an LRU bounded by decoded pixel bytes ({@code IMAGE_CACHE_MB}), and held softly, so the
+ * GC can drop them under memory pressure before the bound is reached. {@link #show} and
+ * {@link #showAvatar} put a placeholder in the view until the image has decoded.
+ */
 public class ImageHelper {
 
-    private static final Map<String, Image> CACHE = new ConcurrentHashMap<>();
+    public static final String DEFAULT_AVATAR = "/images/default-profile.jpg";
+    public static final String DEFAULT_PRODUCT = "/images/default-product.png";
 
-    private static final Image DEFAULT_AVATAR =
-            new Image(ImageHelper.class.getResource("/images/default-profile.jpg").toExternalForm(), true);
+    private static final long MAX_BYTES = dotenv.parseLong(dotenv.image_cache_mb, 64) * 1024 * 1024;
 
+    // Which key a view is waiting for; a reused cell drops the answer to an older request
+    private static final String VIEW_KEY = "ImageHelper.key";
+
+    // Avatars: whether each image is wider than tall, read once from its header (one entry per URL)
+    private static final Map<String, Boolean> LANDSCAPE = new ConcurrentHashMap<>();
+    private static final ExecutorService HEADER_READER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r);
+        t.setDaemon(true);
+        t.setName("avatar-header-reader");
+        return t;
+    });
+
+    private static final class Entry extends SoftReference<Image> {
+        final String key;
+        long bytes;
+
+        Entry(String key, Image image, long bytes, ReferenceQueue<Image> queue) {
+            super(image, queue);
+            this.key = key;
+            this.bytes = bytes;
+        }
+    }
+
+    // Access-ordered, eldest first; everything below is guarded by LRU
+    private static final LinkedHashMap<String, Entry> LRU = new LinkedHashMap<>(64, 0.75f, true);
+    private static final ReferenceQueue<Image> CLEARED = new ReferenceQueue<>();
+    private static long totalBytes = 0;
+
+    private static final CacheStats STATS = new CacheStats("images",
+            () -> {
+                synchronized (LRU) {
+                    return LRU.size();
+                }
+            },
+            () -> {
+                synchronized (LRU) {
+                    return totalBytes;
+                }
+            });
+
+    private ImageHelper() {}
+
+    // =====================================
+    // LOADING
+    // =====================================
+    /** Full-size image, falling back to the default avatar. Prefer a sized load for anything in a list. */
     public static Image load(String path) {
-        if (path == null || path.isBlank()) return DEFAULT_AVATAR;
+        return load(path, 0, 0, DEFAULT_AVATAR);
+    }
+
+    /**
+     * {@code path} (URL, classpath resource or file) decoded to fit {@code width} x {@code height},
+     * keeping its ratio (0 = original size). An unresolvable path gives {@code fallbackPath}'s image;
+     * the result may still be loading.
+     */
+    public static Image load(String path, double width, double height, String fallbackPath) {
+        String url = resolve(path);
+        if (url == null) url = resolve(fallbackPath);
+        if (url == null) return null;
+
+        return cached(url, width, height);
+    }
+
+    /** Shows {@code path} in {@code view}: the fallback image while decoding, and if it fails to load. */
+    public static void show(ImageView view, String path, double width, double height, String fallbackPath) {
+        show(view, path, width, height, fallbackPath, v -> {});
+    }
 
-        return CACHE.computeIfAbsent(path, p -> {
+    /**
+     * {@link #show} for a circular avatar of {@code size}, re-cropped once the image has decoded. The
+     * crop keeps a centred square, so the image is decoded with its short side at {@code size}.
+     */
+    public static void showAvatar(ImageView view, String path, double size) {
+        if (view == null) return;
+
+        String url = resolve(path);
+        if (url == null) url = resolve(DEFAULT_AVATAR);
+        Boolean landscape = url == null ? Boolean.FALSE : LANDSCAPE.get(url);
+
+        if (landscape != null) {
+            show(view, path, landscape ? 0 : size, landscape ? size : 0, DEFAULT_AVATAR,
+                    v -> applyCircularAvatar(v, size));
+            return;
+        }
+
+        // First sight of this image: the placeholder until its header says which side is short
+        show(view, DEFAULT_AVATAR, size, size, null, v -> applyCircularAvatar(v, size));
+        Object shown = view.getProperties().get(VIEW_KEY);
+        String probed = url;
+
+        HEADER_READER.execute(() -> {
+            LANDSCAPE.putIfAbsent(probed, isLandscape(probed));
+            Platform.runLater(() -> {
+                if (view.getProperties().get(VIEW_KEY) == shown) showAvatar(view, path, size);
+            });
+        });
+    }
+
+    // Reads only the dimensions; an unreadable or unknown format is treated as portrait (fit width)
+    private static boolean isLandscape(String url) {
+        try (InputStream in = URI.create(url).toURL().openStream();
+             ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) return false;
+
+            ImageReader reader = readers.next();
             try {
-                // already a URL (http/file/jar)
-                if (p.matches("^(https?|file|jar):.*")) {
-                    return new Image(p, true);
-                }
+                reader.setInput(stream, true, true);
+                return reader.getWidth(0) > reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException err) {
+            return false;
+        }
+    }
 
-                // classpath resource (e.g. "/images/default-profile.jpg")
-                URL res = ImageHelper.class.getResource(p);
-                if (res != null) {
-                    return new Image(res.toExternalForm(), true);
-                }
+    private static void show(ImageView view, String path, double width, double height, String fallbackPath,
+                             Consumer<ImageView> onSet) {
+        if (view == null) return;
 
-                // filesystem path
-                File f = new File(p);
-                if (f.exists()) {
-                    return new Image(f.toURI().toString(), true);
-                }
+        Image image = load(path, width, height, fallbackPath);
+        Image placeholder = load(fallbackPath, width, height, null);
+        if (image == null) image = placeholder;
 
-            } catch (Exception ignored) { }
+        Object key = new Object();
+        view.getProperties().put(VIEW_KEY, key);
 
-            return DEFAULT_AVATAR;
+        if (image == null || image.getProgress() >= 1) {
+            set(view, (image != null && image.isError()) ? placeholder : image, onSet);
+            return;
+        }
+
+        set(view, placeholder, onSet);
+
+        Image pending = image;
+        pending.progressProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Number> obs, Number old, Number progress) {
+                boolean stale = view.getProperties().get(VIEW_KEY) != key;
+                if (progress.doubleValue() < 1 && !stale) return;
+
+                pending.progressProperty().removeListener(this);
+                if (!stale) set(view, pending.isError() ? placeholder : pending, onSet);
+            }
         });
     }
 
+    private static void set(ImageView view, Image image, Consumer<ImageView> onSet) {
+        view.setImage(image);
+        onSet.accept(view);
+    }
+
+    private static Image cached(String url, double width, double height) {
+        String key = (width > 0 || height > 0)
+                ? url + "@" + (int) Math.ceil(width) + "x" + (int) Math.ceil(height)
+                : url;
+
+        synchronized (LRU) {
+            expungeCleared();
+            Entry entry = LRU.get(key);
+            Image hit = entry == null ? null : entry.get();
+            STATS.lookup(hit != null);
+            if (hit != null) return hit;
+        }
+
+        long started = System.nanoTime();
+        Image image = new Image(url, Math.max(width, 0), Math.max(height, 0), true, true, true);
+        STATS.loaded(CacheStats.Cause.FIRST_USE, System.nanoTime() - started);
+
+        synchronized (LRU) {
+            // Another caller got here first; keep one copy
+            Entry entry = LRU.get(key);
+            Image other = entry == null ? null : entry.get();
+            if (other != null) return other;
+
+            // Until it has decoded, an image weighs what was asked for (0 if full size)
+            long guess = (width > 0 && height > 0) ? (long) Math.ceil(width) * (long) Math.ceil(height) * 4 : 0;
+            Entry fresh = new Entry(key, image, guess, CLEARED);
+            Entry replaced = LRU.put(key, fresh);
+            if (replaced != null) totalBytes -= replaced.bytes;
+            totalBytes += guess;
+            trim();
+
+            image.progressProperty().addListener((obs, old, progress) -> {
+                if (progress.doubleValue() >= 1) settle(fresh, image);
+            });
+            if (image.getProgress() >= 1) settle(fresh, image);
+        }
+        return image;
+    }
+
+    // Decoded: weigh the real pixels, or drop a failed image so the next request tries again
+    private static void settle(Entry entry, Image image) {
+        synchronized (LRU) {
+            if (LRU.get(entry.key) != entry) return;
+
+            if (image.isError()) {
+                LRU.remove(entry.key);
+                totalBytes -= entry.bytes;
+                return;
+            }
+
+            long bytes = (long) image.getWidth() * (long) image.getHeight() * 4;
+            totalBytes += bytes - entry.bytes;
+            entry.bytes = bytes;
+            trim();
+        }
+    }
+
+    // Evicts least recently used images until under the bound; the newest always stays
+    private static void trim() {
+        Iterator<Entry> it = LRU.values().iterator();
+        while (totalBytes > MAX_BYTES && LRU.size() > 1 && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.bytes;
+        }
+    }
+
+    // Images the GC reclaimed: forget their entries and bytes
+    private static void expungeCleared() {
+        Entry cleared;
+        while ((cleared = (Entry) CLEARED.poll()) != null) {
+            if (LRU.remove(cleared.key, cleared)) totalBytes -= cleared.bytes;
+        }
+    }
+
+    // URL string for a URL, classpath resource or file path; null if none of them exists
+    private static String resolve(String path) {
+        if (path == null || path.isBlank()) return null;
+
+        try {
+            // already a URL (http/file/jar)
+            if (path.matches("^(https?|file|jar):.*")) return path;
+
+            // classpath resource (e.g. "/images/default-profile.jpg")
+            URL res = ImageHelper.class.getResource(path.startsWith("/") ? path : "/" + path);
+            if (res != null) return res.toExternalForm();
+
+            // filesystem path
+            File f = new File(path);
+            if (f.exists()) return f.toURI().toString();
+        } catch (Exception ignored) {
+        }
+        return null;
+    }
+
+    // =====================================
+    // AVATARS
+    // =====================================
     public static void applyCircularAvatar(ImageView view, double size) {
         if (view == null) return;
 
@@ -6,55 +6,41 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.Map;
 
 public class BookingCache {
 
-    private static final ObservableList<Booking> bookingsList = FXCollections.observableArrayList();
-    private static final Map<Integer, Booking> bookingsMap = new HashMap<>();
+    private static final EntityCache<Integer, Booking> CACHE =
+            new EntityCache<>("bookings", Booking::getBookingId, BookingDAO::loadAllBookings);
+    private static final EntityCache.Group<LocalDate, Booking> BY_DATE =
+            CACHE.groupIndex(Booking::getBookingDate);
 
     private BookingCache() {}
 
     // ===================== Getters =====================
 
     public static ObservableList<Booking> getBookingsList() {
-        if (bookingsList.isEmpty()) refreshBookings();
-        return bookingsList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Booking> getBookingsMap() {
-        if (bookingsMap.isEmpty()) refreshBookings();
-        return bookingsMap;
+        return CACHE.asMap();
     }
 
     public static Booking getBookingById(int bookingId) {
-        if (bookingsMap.isEmpty()) refreshBookings();
-        return bookingsMap.get(bookingId);
+        return CACHE.get(bookingId);
     }
 
-    // Convenience (filter from cache)
+    // Convenience (copy of the cached date group)
     public static ObservableList<Booking> getBookingsByDate(LocalDate date) {
-        if (bookingsList.isEmpty()) refreshBookings();
-
-        ObservableList<Booking> result = FXCollections.observableArrayList();
-        if (date == null) return result;
-
-        for (Booking b : bookingsList) {
-            if (date.equals(b.getBookingDate())) result.add(b);
-        }
-        return result;
+        if (date == null) return FXCollections.observableArrayList();
+        return FXCollections.observableArrayList(BY_DATE.snapshot(date));
     }
 
     // ===================== Refresh =====================
 
     public static void refreshBookings() {
-        bookingsList.clear();
-        bookingsMap.clear();
-
-        for (Booking b : BookingDAO.getAllBookings()) {
-            cacheBooking(b);
-        }
+        CACHE.refresh();
     }
 
     // ===================== CRUD Wrappers =====================
@@ -63,7 +49,7 @@ public class BookingCache {
         if (booking == null) return false;
 
         boolean ok = BookingDAO.insertBooking(booking);
-        if (ok) cacheBooking(booking);
+        if (ok) CACHE.saved(booking);
 
         return ok;
     }
@@ -72,44 +58,14 @@ public class BookingCache {
         if (booking == null) return false;
 
         boolean ok = BookingDAO.updateBooking(booking);
-        if (ok) {
-            int idx = findIndexById(booking.getBookingId());
-            if (idx >= 0) bookingsList.set(idx, booking);
-            else bookingsList.add(booking);
-
-            bookingsMap.put(booking.getBookingId(), booking);
-        }
+        if (ok) CACHE.saved(booking);
 
         return ok;
     }
 
     public static boolean deleteBooking(int bookingId) {
         boolean ok = BookingDAO.deleteBooking(bookingId);
-        if (ok) {
-            bookingsMap.remove(bookingId);
-            bookingsList.removeIf(b -> b.getBookingId() == bookingId);
-        }
+        if (ok) CACHE.deleted(bookingId);
         return ok;
     }
-
-    // ===================== Helpers =====================
-
-    private static void cacheBooking(Booking booking) {
-        if (booking == null) return;
-
-        int id = booking.getBookingId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) bookingsList.set(idx, booking);
-        else bookingsList.add(booking);
-
-        bookingsMap.put(id, booking);
-    }
-
-    private static int findIndexById(int bookingId) {
-        for (int i = 0; i < bookingsList.size(); i++) {
-            if (bookingsList.get(i).getBookingId() == bookingId) return i;
-        }
-        return -1;
-    }
 }
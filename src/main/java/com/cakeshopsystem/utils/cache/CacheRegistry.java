@@ -0,0 +1,55 @@
+package com.cakeshopsystem.utils.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Every {@link CacheStats} of this terminal: the entity caches, {@link InventoryCache} and the
+ * image cache. Read with {@link #snapshot()} (e.g. for an admin screen) or {@link #dump()}, which
+ * also prints the last {@link CacheWarmup} timings.
+ */
+public final class CacheRegistry {
+
+    private static final List<CacheStats> STATS = new CopyOnWriteArrayList<>();
+
+    private CacheRegistry() {}
+
+    static void register(CacheStats stats) {
+        STATS.add(stats);
+    }
+
+    public static List<CacheStats.Snapshot> snapshot() {
+        List<CacheStats.Snapshot> out = new ArrayList<>(STATS.size());
+        for (CacheStats stats : STATS) out.add(stats.snapshot());
+
+        out.sort(Comparator.comparingLong(CacheStats.Snapshot::approxBytes).reversed());
+        return out;
+    }
+
+    public static Optional<CacheStats.Snapshot> snapshot(String name) {
+        for (CacheStats stats : STATS) {
+            if (stats.getName().equals(name)) return Optional.of(stats.snapshot());
+        }
+        return Optional.empty();
+    }
+
+    public static void dump() {
+        System.out.println("===== Cache statistics (largest first) =====");
+        for (CacheStats.Snapshot s : snapshot()) {
+            System.out.printf(
+                    "%s: entries=%d ~%dKB hits=%d misses=%d (%.0f%% hit) loads=%d p50/p95/max=%.1f/%.1f/%.1fms last=%s (%s)%n",
+                    s.name(), s.entries(), s.approxBytes() / 1024,
+                    s.hits(), s.misses(), s.hitRatio() * 100, s.loads(),
+                    s.loadTime().p50Ms(), s.loadTime().p95Ms(), s.loadTime().maxMs(),
+                    s.lastRefresh() == null ? "never" : s.lastRefresh(),
+                    s.lastRefreshCause() == null ? "-" : s.lastRefreshCause()
+            );
+        }
+
+        String warmup = CacheWarmup.summary();
+        if (warmup != null) System.out.println(warmup);
+    }
+}
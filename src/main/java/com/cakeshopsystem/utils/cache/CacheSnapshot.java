@@ -0,0 +1,395 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.utils.databaseconnection.DB;
+import com.cakeshopsystem.utils.databaseconnection.SchemaMigrator;
+import com.cakeshopsystem.utils.dotenv.dotenv;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk copy of the reference-data caches (products, cakes, drinks, ...), so the catalog can
+ * render at startup before the database has answered.
+ * <p>
+ * Written on a clean shutdown and memory-mapped at the next start. Every table section carries the
+ * table's {@code cache_versions} number. A cache declared with {@link EntityCache#snapshotWith}
+ * starts from its section on first use without a query, and the first {@link CacheVersions} poll
+ * reloads it in the background if the database has moved past that version.
+ * <p>
+ * Two slot files ({@code <path>.0}, {@code <path>.1}) are written in turn. At startup both are
+ * checked with plain reads and only the newest complete one is mapped, so the other is never
+ * mapped and can always be rewritten (Windows refuses to truncate a mapped file); a crash
+ * mid-write leaves the mapped one intact. Files from another schema version or database, or
+ * without a complete trailer, are ignored, and so is a table written with another codec layout.
+ */
+public final class CacheSnapshot {
+
+    /**
+     * Writes and reads one row of a table; fields in the same order both ways. Bump {@code layout}
+     * whenever the fields change, so a section written by the old code is reloaded, not misread.
+     */
+    public record Codec<V>(int layout, RowWriter<V> writer, RowReader<V> reader) {}
+
+    @FunctionalInterface
+    public interface RowWriter<V> {
+        void write(DataOutputStream out, V row) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface RowReader<V> {
+        V read(ByteBuffer in);
+    }
+
+    private static final int MAGIC = 0x43414B45;   // "CAKE"
+    private static final int TRAILER = 0x454E4421; // "END!"
+    private static final int FORMAT = 2;
+
+    // Blank path turns snapshots off; the embedded database is rebuilt per run, so never there
+    private static final String PATH = dotenv.cache_snapshot_path == null ? "" : dotenv.cache_snapshot_path.trim();
+    private static final boolean ENABLED = !PATH.isEmpty() && !DB.isEmbedded();
+
+    record Section(long version, int layout, int rowCount, ByteBuffer bytes) {}
+
+    // Where a slot file keeps each table, found without mapping it
+    record Index(long seq, long size, List<Entry> entries) {}
+
+    record Entry(String name, long version, int layout, int rowCount, long offset, int length) {}
+
+    private record Persisted<V>(EntityCache<?, V> cache, Codec<V> codec) {}
+
+    record Table(String name, long version, int layout, int rowCount, byte[] bytes) {}
+
+    // Sections of the mapped file not yet handed to a cache
+    private static final Map<String, Section> sections = new ConcurrentHashMap<>();
+
+    private static final Map<String, Persisted<?>> persisted = new ConcurrentHashMap<>();
+
+    private static int openedSlot = -1;
+    private static long sequence = 0;
+
+    private CacheSnapshot() {}
+
+    // =====================================
+    // STARTUP
+    // =====================================
+    /** Maps the newest valid slot file, if any. Call once before the caches are first used. */
+    public static synchronized void open() {
+        if (!ENABLED || openedSlot >= 0) return;
+
+        int newest = -1;
+        Index newestIndex = null;
+        for (int slot = 0; slot <= 1; slot++) {
+            Path file = slotFile(slot);
+            if (!Files.isRegularFile(file)) continue;
+
+            try {
+                Index index = readIndex(file);
+                if (newestIndex == null || index.seq() > newestIndex.seq()) {
+                    newest = slot;
+                    newestIndex = index;
+                }
+            } catch (IOException | RuntimeException err) {
+                // Stale schema, another database or a torn write: just don't use this slot
+                System.err.println("Ignoring cache snapshot " + file + ": " + err.getLocalizedMessage());
+            }
+        }
+        if (newestIndex == null) return;
+
+        Path file = slotFile(newest);
+        try {
+            sections.putAll(map(file, newestIndex));
+            sequence = newestIndex.seq();
+            openedSlot = newest;
+        } catch (IOException err) {
+            System.err.println("Error mapping cache snapshot " + file + ": " + err.getLocalizedMessage());
+        }
+    }
+
+    /** Each table of a checked slot file, as a slice of one read-only mapping. */
+    static Map<String, Section> map(Path file, Index index) throws IOException {
+        Map<String, Section> mappedSections = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, index.size());
+            for (Entry e : index.entries()) {
+                mappedSections.put(e.name(), new Section(e.version(), e.layout(), e.rowCount(), mapped.slice((int) e.offset(), e.length())));
+            }
+        }
+        return mappedSections;
+    }
+
+    /** True when this run started from a snapshot file. */
+    public static boolean isOpen() {
+        return openedSlot >= 0;
+    }
+
+    /** Walks the file's headers once (skipping the row bytes), checking the header and trailer. */
+    static Index readIndex(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readIndex(new FileReader(channel));
+        }
+    }
+
+    private static Index readIndex(FileReader in) throws IOException {
+        if (in.getInt() != MAGIC || in.getInt() != FORMAT) throw new IllegalStateException("not a snapshot file");
+        if (in.getInt() != SchemaMigrator.latestVersion()) throw new IllegalStateException("older schema");
+        if (!source().equals(in.getString())) throw new IllegalStateException("another database");
+
+        long seq = in.getLong();
+        int tables = in.getInt();
+
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(tables, 64)));
+        for (int i = 0; i < tables; i++) {
+            String name = in.getString();
+            long version = in.getLong();
+            int layout = in.getInt();
+            int rowCount = in.getInt();
+            int length = in.getInt();
+
+            entries.add(new Entry(name, version, layout, rowCount, in.position(), length));
+            in.skip(length);
+        }
+
+        if (in.getInt() != TRAILER || in.getLong() != seq) throw new IllegalStateException("incomplete file");
+        if (in.position() > Integer.MAX_VALUE) throw new IllegalStateException("file too large");
+        return new Index(seq, in.position(), entries);
+    }
+
+    // Positional reads of a slot file's header fields, so checking a slot doesn't map it
+    private static final class FileReader {
+        private final FileChannel channel;
+        private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+        private long position = 0;
+
+        FileReader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return position;
+        }
+
+        int getInt() throws IOException {
+            return read(Integer.BYTES).getInt();
+        }
+
+        long getLong() throws IOException {
+            return read(Long.BYTES).getLong();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0) return null;
+            if (length > channel.size() - position) throw new EOFException("string past end of file");
+
+            ByteBuffer bytes = ByteBuffer.allocate(length);
+            readFully(bytes);
+            return new String(bytes.array(), StandardCharsets.UTF_8);
+        }
+
+        void skip(int length) throws IOException {
+            if (length < 0 || length > channel.size() - position) throw new EOFException("section past end of file");
+            position += length;
+        }
+
+        private ByteBuffer read(int length) throws IOException {
+            scratch.clear().limit(length);
+            readFully(scratch);
+            return scratch.flip();
+        }
+
+        private void readFully(ByteBuffer into) throws IOException {
+            while (into.hasRemaining()) {
+                int read = channel.read(into, position);
+                if (read < 0) throw new EOFException("file ends early");
+                position += read;
+            }
+        }
+    }
+
+    /**
+     * Called once per cache: remembers it for {@link #save()} and, when the open snapshot has its
+     * table, fills it from there instead of the first query.
+     */
+    static <V> void register(EntityCache<?, V> cache, Codec<V> codec) {
+        if (!ENABLED) return;
+        persisted.put(cache.getName(), new Persisted<>(cache, codec));
+
+        Section section = sections.remove(cache.getName());
+        if (section == null) return;
+
+        List<V> rows;
+        try {
+            rows = decode(section, codec);
+        } catch (RuntimeException err) {
+            // Any bad section (a reader throwing on stray bytes included) just means a normal first load
+            System.err.println("Error reading " + cache.getName() + " from cache snapshot: " + err.getLocalizedMessage());
+            return;
+        }
+
+        cache.preload(rows, section.version());
+        CacheVersions.seed(cache.getName(), section.version());
+    }
+
+    static <V> List<V> decode(Section section, Codec<V> codec) {
+        if (section.layout() != codec.layout()) {
+            throw new IllegalArgumentException("row layout " + section.layout() + ", expected " + codec.layout());
+        }
+
+        ByteBuffer in = section.bytes().duplicate();
+        List<V> rows = new ArrayList<>(section.rowCount());
+        for (int i = 0; i < section.rowCount(); i++) rows.add(codec.reader().read(in));
+        if (in.hasRemaining()) throw new IllegalArgumentException("bytes left after the last row");
+        return rows;
+    }
+
+    // =====================================
+    // SHUTDOWN
+    // =====================================
+    /** Writes every loaded table (and untouched sections of the old file) to the other slot. */
+    public static synchronized void save() {
+        if (!ENABLED) return;
+
+        int slot = openedSlot == 0 ? 1 : 0;
+        Path file = slotFile(slot);
+
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+
+            List<Table> tables = new ArrayList<>();
+            for (Persisted<?> p : persisted.values()) {
+                // Unknown version (couldn't be read when the rows loaded): leave it out
+                long version = p.cache().version();
+                if (version < 0) continue;
+
+                Table table = encode(p, version);
+                if (table != null) tables.add(table);
+            }
+
+            // Tables this run never used are still good as read
+            for (Map.Entry<String, Section> e : sections.entrySet()) {
+                Section s = e.getValue();
+                byte[] bytes = new byte[s.bytes().remaining()];
+                s.bytes().duplicate().get(bytes);
+                tables.add(new Table(e.getKey(), s.version(), s.layout(), s.rowCount(), bytes));
+            }
+
+            write(file, sequence + 1, tables);
+        } catch (IOException err) {
+            System.err.println("Error writing cache snapshot: " + err.getLocalizedMessage());
+        }
+    }
+
+    /** Writes one slot file: header, each table's rows, then the trailer that marks it complete. */
+    static void write(Path file, long seq, List<Table> tables) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(SchemaMigrator.latestVersion());
+            writeString(out, source());
+            out.writeLong(seq);
+            out.writeInt(tables.size());
+
+            for (Table table : tables) {
+                writeString(out, table.name());
+                out.writeLong(table.version());
+                out.writeInt(table.layout());
+                out.writeInt(table.rowCount());
+                out.writeInt(table.bytes().length);
+                out.write(table.bytes());
+            }
+
+            out.writeInt(TRAILER);
+            out.writeLong(seq);
+        }
+    }
+
+    /** One loaded table as a section, or null if it was never loaded this run. */
+    private static <V> Table encode(Persisted<V> p, long version) throws IOException {
+        List<V> rows = p.cache().snapshotRows();
+        if (rows == null) return null;
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * rows.size() + 16);
+        DataOutputStream out = new DataOutputStream(buffer);
+        for (V row : rows) p.codec().writer().write(out, row);
+        out.flush();
+        return new Table(p.cache().getName(), version, p.codec().layout(), rows.size(), buffer.toByteArray());
+    }
+
+    private static Path slotFile(int slot) {
+        return Path.of(PATH + "." + slot);
+    }
+
+    // Which database the rows came from
+    private static String source() {
+        return dotenv.mysql_url == null ? "" : dotenv.mysql_url;
+    }
+
+    // =====================================
+    // FIELD HELPERS (for codecs)
+    // =====================================
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeInt(value);
+    }
+
+    public static Integer readNullableInt(ByteBuffer in) {
+        return in.get() != 0 ? in.getInt() : null;
+    }
+
+    public static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeDouble(value);
+    }
+
+    public static Double readNullableDouble(ByteBuffer in) {
+        return in.get() != 0 ? in.getDouble() : null;
+    }
+
+    public static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value == null ? null : value.name());
+    }
+
+    public static <E extends Enum<E>> E readEnum(ByteBuffer in, Class<E> type) {
+        String name = readString(in);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    public static boolean readBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+}
@@ -0,0 +1,204 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.utils.databaseconnection.LatencyHistogram;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Hit/miss/load counters for one cache, registered in {@link CacheRegistry} when created.
+ * <p>
+ * Recording is a counter increment, so it is safe on every read. Entries and retained bytes are
+ * only worked out when a {@link Snapshot} is taken.
+ */
+public final class CacheStats {
+
+    /** Why a cache last refreshed. */
+    public enum Cause {
+        FIRST_USE,      // first read found the cache empty
+        EXPLICIT,       // refresh()/invalidate() after a write or on request
+        REMOTE_CHANGE,  // another terminal bumped cache_versions
+        SNAPSHOT,       // filled from the on-disk snapshot, no query
+        DAY_ROLLOVER,   // reclassified for a new day, no query
+        DRIFT           // the cache didn't match a change applied to it
+    }
+
+    public record Snapshot(
+            String name,
+            long hits,
+            long misses,
+            long loads,
+            LatencyHistogram.Summary loadTime,
+            long entries,
+            long approxBytes,
+            Instant lastRefresh,
+            Cause lastRefreshCause
+    ) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : hits / (double) total;
+        }
+    }
+
+    private final String name;
+    private final LongSupplier entries;
+    private final LongSupplier approxBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LatencyHistogram loadTime = new LatencyHistogram();
+
+    private volatile Instant lastRefresh;
+    private volatile Cause lastRefreshCause;
+
+    /** Creates and registers the stats; the suppliers are only called when a snapshot is taken. */
+    public CacheStats(String name, LongSupplier entries, LongSupplier approxBytes) {
+        this.name = name;
+        this.entries = entries;
+        this.approxBytes = approxBytes;
+
+        CacheRegistry.register(this);
+    }
+
+    // =====================================
+    // RECORDING
+    // =====================================
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    /** A read that may have missed: counts a hit if {@code found}, a miss otherwise. */
+    public void lookup(boolean found) {
+        if (found) hits.increment();
+        else misses.increment();
+    }
+
+    /** A refresh that queried the database, taking {@code nanos}. */
+    public void loaded(Cause cause, long nanos) {
+        loads.increment();
+        loadTime.recordNanos(nanos);
+        refreshed(cause);
+    }
+
+    /** A refresh without a query (snapshot, day rollover). */
+    public void refreshed(Cause cause) {
+        lastRefreshCause = cause;
+        lastRefresh = Instant.now();
+    }
+
+    // =====================================
+    // READING
+    // =====================================
+    public String getName() {
+        return name;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(
+                name,
+                hits.sum(),
+                misses.sum(),
+                loads.sum(),
+                loadTime.summarize(),
+                entries.getAsLong(),
+                approxBytes.getAsLong(),
+                lastRefresh,
+                lastRefreshCause
+        );
+    }
+
+    // =====================================
+    // SIZE ESTIMATE
+    // =====================================
+    private static final int SAMPLE_ROWS = 32;
+
+    // Object header + alignment, reference, and a HashMap/list entry on a 64-bit JVM with compressed oops
+    private static final int HEADER = 12;
+    private static final int REF = 4;
+    private static final int MAP_ENTRY = 48;
+
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+    /**
+     * Rough heap held by {@code rows}: the average shallow size of up to 32 sampled rows (strings,
+     * boxed numbers and dates included) times the row count, plus {@code mapsPerRow} map entries
+     * per row for the structures indexing them. Good for comparing caches, not for exact sizing.
+     */
+    public static long estimateBytes(List<?> rows, int mapsPerRow) {
+        int n = rows.size();
+        if (n == 0) return 0;
+
+        int step = Math.max(1, n / SAMPLE_ROWS);
+        long sampled = 0;
+        int count = 0;
+        for (int i = 0; i < n && count < SAMPLE_ROWS; i += step, count++) {
+            sampled += rowBytes(rows.get(i));
+        }
+
+        return (sampled / count + REF + (long) mapsPerRow * MAP_ENTRY) * n;
+    }
+
+    private static long rowBytes(Object row) {
+        if (row == null) return 0;
+
+        long bytes = HEADER;
+        for (Field f : fieldsOf(row.getClass())) {
+            Class<?> type = f.getType();
+            if (type.isPrimitive()) {
+                bytes += (type == long.class || type == double.class) ? 8 : 4;
+                continue;
+            }
+
+            bytes += REF;
+            try {
+                bytes += valueBytes(f.get(row));
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        return align(bytes);
+    }
+
+    // Values a row owns outright; anything else is counted as a reference only
+    private static long valueBytes(Object value) {
+        if (value == null) return 0;
+        if (value instanceof String s) return align(HEADER + 8) + align(16 + s.length());
+        if (value instanceof Enum<?>) return 0;
+        if (value instanceof Number || value instanceof Boolean) return 16;
+        if (value instanceof Temporal) return 48;
+        return 0;
+    }
+
+    private static List<Field> fieldsOf(Class<?> type) {
+        return FIELDS.computeIfAbsent(type, t -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = t; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers())) continue;
+                    try {
+                        f.setAccessible(true);
+                        fields.add(f);
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+            }
+            return List.copyOf(fields);
+        });
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,128 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.utils.dao.CacheVersionDAO;
+import com.cakeshopsystem.utils.dotenv.dotenv;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the caches of several terminals on one database coherent.
+ * <p>
+ * Cache writes bump their table's row in {@code cache_versions}. Every {@code CACHE_POLL_SECONDS}
+ * each terminal reads that (tiny) table and reloads only the caches whose version moved since
+ * the last poll. A terminal's own bumps are recorded as seen, so they don't reload it again.
+ */
+public final class CacheVersions {
+
+    private static final long POLL_SECONDS = dotenv.parseLong(dotenv.cache_poll_seconds, 5);
+
+    // entity -> reload for a change made on another terminal
+    private static final Map<String, Runnable> reloaders = new ConcurrentHashMap<>();
+
+    // entity -> last version this terminal has caught up with
+    private static final Map<String, Long> known = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService poller;
+    private static volatile boolean baselined = false;
+    private static volatile boolean pollFailing = false;
+
+    private CacheVersions() {}
+
+    // =====================================
+    // LIFECYCLE
+    // =====================================
+    /** Starts polling (no-op when disabled or already running). */
+    public static synchronized void start() {
+        if (poller != null || POLL_SECONDS <= 0) return;
+
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-version-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(CacheVersions::pollOnce, 0, POLL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (poller == null) return;
+        poller.shutdownNow();
+        poller = null;
+    }
+
+    // =====================================
+    // REGISTRATION & BUMPS
+    // =====================================
+    static void watch(String entity, Runnable reload) {
+        reloaders.put(entity, reload);
+    }
+
+    /** Records a local write to {@code entity} for the other terminals; returns its version, or -1 if the bump failed. */
+    public static long bump(String entity) {
+        long version = CacheVersionDAO.bump(entity);
+        if (version <= 0) return -1;
+
+        // Only skip our own change if nobody else's slipped in before it. A table the poll hasn't
+        // listed had no row yet, i.e. version 0, so its first bump is recorded too
+        known.compute(entity, (k, seen) -> (seen == null ? 0 : seen) == version - 1 ? Long.valueOf(version) : seen);
+        return version;
+    }
+
+    /** Version of {@code entity} in the database right now; -1 if it couldn't be read. */
+    static long current(String entity) {
+        return CacheVersionDAO.getVersion(entity);
+    }
+
+    /** {@code entity} was filled from a snapshot taken at {@code version}; the next poll reloads it if that's behind. */
+    static void seed(String entity, long version) {
+        known.put(entity, version);
+    }
+
+    /** Forces a reload of {@code entity} on the next poll. */
+    static void reloadOnNextPoll(String entity) {
+        known.put(entity, -1L);
+    }
+
+    // =====================================
+    // POLLING
+    // =====================================
+    static void pollOnce() {
+        Map<String, Long> versions;
+        try {
+            versions = CacheVersionDAO.getAllVersions();
+        } catch (SQLException err) {
+            // Logged once per outage rather than every few seconds
+            if (!pollFailing) System.err.println("Error polling cache versions: " + err.getLocalizedMessage());
+            pollFailing = true;
+            return;
+        }
+        pollFailing = false;
+
+        for (Map.Entry<String, Long> e : versions.entrySet()) {
+            String entity = e.getKey();
+            long version = e.getValue();
+
+            Long seen = known.put(entity, version);
+
+            // The first poll only records where every table stands, except tables started from a snapshot
+            if (!baselined && seen == null) continue;
+            if (seen != null && seen >= version) continue;
+
+            Runnable reload = reloaders.get(entity);
+            if (reload == null) continue;
+
+            try {
+                reload.run();
+            } catch (RuntimeException err) {
+                System.err.println("Error reloading " + entity + " cache: " + err.getLocalizedMessage());
+                known.put(entity, -1L);
+            }
+        }
+
+        baselined = true;
+    }
+}
@@ -0,0 +1,139 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.utils.dao.AsyncDAO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the reference caches right after login, in parallel on background threads, so the first
+ * screen doesn't pay for every table one after another on first touch.
+ * <p>
+ * Each step waits only for the steps it names in {@code after}. A failed step is logged and
+ * skipped (that cache then loads lazily as before); it never holds up the rest. Views await
+ * {@link #awaitViews()} before building: only the catalog steps, which come from the cache snapshot
+ * when there is one. Members and inventory are queried on every login and keep loading behind the
+ * first screen; a view that reads stock before then shares the inventory step's query. The
+ * timings are printed when a warm-up finishes, read with {@link #lastTimings()}, and repeated by
+ * {@link CacheRegistry#dump()}.
+ */
+public final class CacheWarmup {
+
+    private record Step(String name, boolean forViews, Runnable load, String... after) {}
+
+    // Getters that load on first use; a cache already loaded (e.g. from the snapshot) is a no-op
+    private static final List<Step> STEPS = List.of(
+            new Step("roles", true, RoleCache::getRolesList),
+            new Step("categories", true, CategoryCache::getCategoriesList),
+            new Step("products", true, ProductCache::getProductsList),
+            new Step("sizes", true, SizeCache::getSizesList),
+            new Step("flavours", true, FlavourCache::getFlavoursList),
+            new Step("toppings", true, ToppingCache::getToppingsList),
+            new Step("payments", true, PaymentCache::getPaymentsList),
+            new Step("members", false, MemberCache::getMembersList),
+            new Step("cakes", true, CakeCache::getCakesList, "products"),
+            new Step("drinks", true, DrinkCache::getDrinksList, "products"),
+            new Step("inventory", false, InventoryCache::getDiscountCandidates, "products")
+    );
+
+    private static volatile CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
+    private static volatile CompletableFuture<Void> viewsReady = CompletableFuture.completedFuture(null);
+    private static volatile Map<String, Long> lastTimings = Map.of();
+    private static volatile long lastTotalMs = -1;
+    private static volatile long firstViewMs = -1;
+
+    private CacheWarmup() {}
+
+    /** Starts loading every step; the returned future (also {@link #ready()}) never fails. */
+    public static synchronized CompletableFuture<Void> start() {
+        long started = System.nanoTime();
+        Map<String, Long> took = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<Void>> steps = new HashMap<>();
+        List<CompletableFuture<Void>> forViews = new ArrayList<>();
+
+        for (Step step : STEPS) {
+            CompletableFuture<?>[] deps = new CompletableFuture<?>[step.after().length];
+            for (int i = 0; i < deps.length; i++) deps[i] = steps.get(step.after()[i]);
+
+            CompletableFuture<Void> done = CompletableFuture.allOf(deps)
+                    .thenCompose(v -> AsyncDAO.run(() -> {
+                        long t0 = System.nanoTime();
+                        step.load().run();
+                        took.put(step.name(), (System.nanoTime() - t0) / 1_000_000);
+                    }))
+                    .exceptionally(err -> {
+                        System.err.println("Error warming up " + step.name() + " cache: "
+                                + AsyncDAO.unwrap(err).getLocalizedMessage());
+                        return null;
+                    });
+            steps.put(step.name(), done);
+            if (step.forViews()) forViews.add(done);
+        }
+
+        viewsReady = CompletableFuture.allOf(forViews.toArray(new CompletableFuture<?>[0]));
+
+        ready = CompletableFuture.allOf(steps.values().toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> report(took, (System.nanoTime() - started) / 1_000_000));
+        return ready;
+    }
+
+    /** Completes when the last warm-up has finished; already complete if none was started. */
+    public static CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    /** Blocks until the steps views read are done; call from a background thread, never the FX thread. */
+    public static void awaitViews() {
+        viewsReady.join();
+    }
+
+    /** Milliseconds each cache took in the last warm-up, in step order (failed steps missing). */
+    public static Map<String, Long> lastTimings() {
+        return lastTimings;
+    }
+
+    /** Milliseconds the last warm-up took end to end; -1 before the first one finishes. */
+    public static long lastTotalMs() {
+        return lastTotalMs;
+    }
+
+    /** Milliseconds from login to the first product card on screen this run; -1 until then. */
+    public static long firstViewMs() {
+        return firstViewMs;
+    }
+
+    /** Called by the first view that shows a product card after login. */
+    public static void recordFirstView(long ms) {
+        firstViewMs = ms;
+        System.out.println("First product card shown " + ms + "ms after login");
+    }
+
+    /** One line with the last warm-up's timings; null before the first one finishes. */
+    static String summary() {
+        if (lastTotalMs < 0) return null;
+
+        StringJoiner steps = new StringJoiner(", ");
+        lastTimings.forEach((name, ms) -> steps.add(name + " " + ms + "ms"));
+        return "Cache warm-up: " + lastTotalMs + "ms (" + steps + ") first view="
+                + (firstViewMs < 0 ? "-" : firstViewMs + "ms");
+    }
+
+    private static void report(Map<String, Long> took, long totalMs) {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (Step step : STEPS) {
+            Long ms = took.get(step.name());
+            if (ms != null) ordered.put(step.name(), ms);
+        }
+
+        lastTimings = Collections.unmodifiableMap(ordered);
+        lastTotalMs = totalMs;
+        System.out.println(summary());
+    }
+}
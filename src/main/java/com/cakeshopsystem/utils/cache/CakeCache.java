@@ -1,43 +1,60 @@
 package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Cake;
+import com.cakeshopsystem.utils.constants.CakeShape;
 import com.cakeshopsystem.utils.constants.CakeType;
 import com.cakeshopsystem.utils.dao.CakeDAO;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class CakeCache {
 
-    private static final ObservableList<Cake> cakesList = FXCollections.observableArrayList();
-    private static final Map<Integer, Cake> cakesMap = new HashMap<>();
-    private static final Map<Integer, Integer> productIdToCakeIdMap = new HashMap<>();
+    private static final EntityCache<Integer, Cake> CACHE =
+            new EntityCache<>("cakes", Cake::getCakeId, CakeDAO::loadAllCakes);
+    private static final EntityCache.IntUnique<Cake> BY_PRODUCT =
+            CACHE.intIndex(Cake::getProductId);
+
+    static {
+        CACHE.snapshotWith(new CacheSnapshot.Codec<>(
+                1,
+                (out, c) -> {
+                    out.writeInt(c.getCakeId());
+                    out.writeInt(c.getProductId());
+                    out.writeInt(c.getFlavourId());
+                    out.writeInt(c.getToppingId());
+                    out.writeInt(c.getSizeId());
+                    CacheSnapshot.writeEnum(out, c.getCakeType());
+                    CacheSnapshot.writeEnum(out, c.getShape());
+                    out.writeBoolean(c.isDiyAllowed());
+                },
+                in -> new Cake(
+                        in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(),
+                        CacheSnapshot.readEnum(in, CakeType.class),
+                        CacheSnapshot.readEnum(in, CakeShape.class),
+                        CacheSnapshot.readBoolean(in))
+        ));
+    }
 
     private CakeCache() {}
 
     // ===================== Getters =====================
 
     public static ObservableList<Cake> getCakesList() {
-        if (cakesList.isEmpty()) refreshCake();
-        return cakesList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Cake> getCakesMap() {
-        if (cakesMap.isEmpty()) refreshCake();
-        return cakesMap;
+        return CACHE.asMap();
     }
 
     public static Cake getCakeById(int cakeId) {
-        if (cakesMap.isEmpty()) refreshCake();
-        return cakesMap.get(cakeId);
+        return CACHE.get(cakeId);
     }
 
     public static Cake getCakeByProductId(int productId) {
-        if (productIdToCakeIdMap.isEmpty()) refreshCake();
-        Integer cakeId = productIdToCakeIdMap.get(productId);
-        return cakeId == null ? null : getCakeById(cakeId);
+        return BY_PRODUCT.get(productId);
     }
 
     public static ObservableList<Cake> getCakesByType(CakeType cakeType) {
@@ -61,13 +78,13 @@ public class CakeCache {
     // ===================== Refresh =====================
 
     public static void refreshCake() {
-        cakesList.clear();
-        cakesMap.clear();
-        productIdToCakeIdMap.clear();
+        CACHE.refresh();
+    }
 
-        for (Cake cake : CakeDAO.getAllCakes()) {
-            cacheCake(cake);
-        }
+    /** Reload after writing cakes through the DAO directly; other terminals reload too. */
+    public static void invalidate() {
+        CACHE.refresh();
+        CACHE.changed();
     }
 
     // ===================== CRUD Wrappers =====================
@@ -76,7 +93,7 @@ public class CakeCache {
         if (cake == null) return false;
 
         boolean ok = CakeDAO.insertCake(cake);
-        if (ok) cacheCake(cake);
+        if (ok) CACHE.saved(cake);
 
         return ok;
     }
@@ -84,58 +101,15 @@ public class CakeCache {
     public static boolean updateCake(Cake cake) {
         if (cake == null) return false;
 
-        Cake old = cakesMap.get(cake.getCakeId());
-
         boolean ok = CakeDAO.updateCake(cake);
-        if (ok) {
-            if (old != null) productIdToCakeIdMap.remove(old.getProductId());
-            cacheCake(cake);
-        }
+        if (ok) CACHE.saved(cake);
 
         return ok;
     }
 
     public static boolean deleteCake(int cakeId) {
         boolean ok = CakeDAO.deleteCake(cakeId);
-        if (ok) {
-            Cake removed = cakesMap.remove(cakeId);
-            cakesList.removeIf(c -> c.getCakeId() == cakeId);
-
-            if (removed != null) {
-                productIdToCakeIdMap.remove(removed.getProductId());
-            } else {
-                rebuildProductMapFromList();
-            }
-        }
+        if (ok) CACHE.deleted(cakeId);
         return ok;
     }
-
-    // ===================== Helpers =====================
-
-    private static void cacheCake(Cake cake) {
-        if (cake == null) return;
-
-        int cakeId = cake.getCakeId();
-
-        int idx = findIndexById(cakeId);
-        if (idx >= 0) cakesList.set(idx, cake);
-        else cakesList.add(cake);
-
-        cakesMap.put(cakeId, cake);
-        productIdToCakeIdMap.put(cake.getProductId(), cakeId);
-    }
-
-    private static int findIndexById(int cakeId) {
-        for (int i = 0; i < cakesList.size(); i++) {
-            if (cakesList.get(i).getCakeId() == cakeId) return i;
-        }
-        return -1;
-    }
-
-    private static void rebuildProductMapFromList() {
-        productIdToCakeIdMap.clear();
-        for (Cake cake : cakesList) {
-            productIdToCakeIdMap.put(cake.getProductId(), cake.getCakeId());
-        }
-    }
 }
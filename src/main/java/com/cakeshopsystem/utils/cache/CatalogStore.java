@@ -0,0 +1,190 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.models.Drink;
+import com.cakeshopsystem.models.Product;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Stock counters by primitive product id, behind the {@link InventoryCache} quantity getters, so a
+ * product card or a cart check reads them without boxing an id or allocating. Products, cakes and
+ * drinks answer the same way from their own {@link EntityCache.IntUnique} index, so a product
+ * lookup loads only products and a write updates its index like any other.
+ * <p>
+ * Stock is derived from the inventory state alone and rebuilt when that changes (a sale, a reload)
+ * or its day ends.
+ * <p>
+ * {@link #loadedCatalog()} captures the product and drink indexes with the {@code cache_versions}
+ * they include, so {@link CheckoutReference} can check them against the database before a sale
+ * relies on them.
+ */
+final class CatalogStore {
+
+    // Product and drink rows as published, with the versions read before them
+    record Catalog(long productsVersion,
+                   long drinksVersion,
+                   IntTrie<Product> products,
+                   IntTrie<Drink> hotDrinks,
+                   IntTrie<Drink> coldDrinks) {
+
+        Product product(int productId) {
+            return products.get(productId);
+        }
+
+        Drink drink(int productId, boolean isCold) {
+            return (isCold ? coldDrinks : hotDrinks).get(productId);
+        }
+    }
+
+    // Stock by slot, valid for one inventory state and (in epoch millis) one day
+    private record Stock(InventoryCache.Snapshot source,
+                         long validFrom,
+                         long validUntil,
+                         IntSlots slots,
+                         int[] totalQty,
+                         int[] regularQty) {}
+
+    // Built without a lock: two racing rebuilds publish equivalent data, and an older one is
+    // simply rebuilt again by the next read
+    private static volatile Stock stock;
+
+    private static final CacheStats stats = new CacheStats("stock",
+            () -> stock == null ? 0 : stock.slots().size(),
+            () -> stock == null ? 0 : stock.slots().bytes() + 8L * stock.totalQty().length);
+
+    private CatalogStore() {}
+
+    // =====================================
+    // READS
+    // =====================================
+    static int totalQty(int productId) {
+        Stock s = stock();
+        int slot = s.slots().slotOf(productId);
+        stats.hit();
+        return slot >= 0 ? s.totalQty()[slot] : 0;
+    }
+
+    static int regularQty(int productId) {
+        Stock s = stock();
+        int slot = s.slots().slotOf(productId);
+        stats.hit();
+        return slot >= 0 ? s.regularQty()[slot] : 0;
+    }
+
+    /** The product and drink rows, or null if either table isn't loaded yet (this never loads them). */
+    static Catalog loadedCatalog() {
+        if (!ProductCache.cache().isLoaded() || !DrinkCache.cache().isLoaded()) return null;
+
+        // Versions before rows: rows newer than their stamp only make a checkout query instead
+        long productsVersion = ProductCache.cache().version();
+        long drinksVersion = DrinkCache.cache().version();
+        return new Catalog(productsVersion, drinksVersion,
+                ProductCache.byId().table(), DrinkCache.byProduct(false).table(), DrinkCache.byProduct(true).table());
+    }
+
+    // =====================================
+    // REBUILDS
+    // =====================================
+    private static Stock stock() {
+        Stock s = stock;
+        long now = System.currentTimeMillis();
+        if (s != null
+                && s.source() == InventoryCache.published()
+                && now >= s.validFrom() && now < s.validUntil()) {
+            return s;
+        }
+        return rebuildStock();
+    }
+
+    private static Stock rebuildStock() {
+        long started = System.nanoTime();
+
+        // Rolls the inventory over first if the day has changed
+        InventoryCache.Snapshot source = InventoryCache.state();
+
+        // Regular stock is part of the total, so the total's products cover both
+        int[] ids = new int[source.totalQtyByProduct().size()];
+        int n = 0;
+        for (int productId : source.totalQtyByProduct().keySet()) ids[n++] = productId;
+        IntSlots slots = new IntSlots(ids);
+
+        int[] total = new int[slots.size()];
+        int[] regular = new int[slots.size()];
+        fill(total, source.totalQtyByProduct(), slots);
+        fill(regular, source.regularQtyByProduct(), slots);
+
+        ZoneId zone = ZoneId.systemDefault();
+        Stock fresh = new Stock(source,
+                source.day().atStartOfDay(zone).toInstant().toEpochMilli(),
+                source.day().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+                slots, total, regular);
+        CacheStats.Cause cause = stock == null ? CacheStats.Cause.FIRST_USE : CacheStats.Cause.EXPLICIT;
+        stock = fresh;
+        stats.loaded(cause, System.nanoTime() - started);
+        return fresh;
+    }
+
+    private static void fill(int[] into, Map<Integer, Integer> qtyByProduct, IntSlots slots) {
+        for (Map.Entry<Integer, Integer> e : qtyByProduct.entrySet()) {
+            int slot = slots.slotOf(e.getKey());
+            if (slot >= 0) into[slot] = e.getValue();
+        }
+    }
+
+    // =====================================
+    // INT TABLE
+    // =====================================
+    /**
+     * Product id -> dense slot (0..size-1, in first-seen order). Open addressing with linear
+     * probing in two parallel int arrays, at most half full, so a lookup is a few array reads.
+     */
+    private static final class IntSlots {
+
+        private final int[] keys;
+        private final int[] slots;   // -1 = empty bucket
+        private final int mask;
+        private final int size;
+
+        IntSlots(int[] ids) {
+            int capacity = Integer.highestOneBit(Math.max(4, ids.length) * 2 - 1) << 1;
+            keys = new int[capacity];
+            slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            mask = capacity - 1;
+
+            int next = 0;
+            for (int id : ids) {
+                int i = bucket(id);
+                while (slots[i] >= 0 && keys[i] != id) i = (i + 1) & mask;
+                if (slots[i] >= 0) continue;
+
+                keys[i] = id;
+                slots[i] = next++;
+            }
+            size = next;
+        }
+
+        int slotOf(int id) {
+            for (int i = bucket(id); ; i = (i + 1) & mask) {
+                int slot = slots[i];
+                if (slot < 0 || keys[i] == id) return slot;
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        long bytes() {
+            return 8L * keys.length;
+        }
+
+        // Spreads sequential ids over the table
+        private int bucket(int id) {
+            int h = id * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.models.Drink;
+import com.cakeshopsystem.models.Product;
+import com.cakeshopsystem.utils.dao.CacheVersionDAO;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * The product and drink rows a checkout looks up per cart line (price, track_inventory, drink id),
+ * read from the cached catalog instead of one query each.
+ * <p>
+ * Immutable: one {@link CatalogStore} catalog with the {@code cache_versions} of products and
+ * drinks its rows include. {@link #ifCurrent} compares those with the database on the checkout's
+ * own connection, so a sale only uses it while no terminal has changed either table since.
+ */
+public final class CheckoutReference {
+
+    private static final String PRODUCTS = ProductCache.cache().getName();
+    private static final String DRINKS = DrinkCache.cache().getName();
+
+    // hit = checkout used the reference, miss = it queried per line
+    private static final CacheStats stats = new CacheStats("checkout-reference", () -> 0, () -> 0);
+
+    private final CatalogStore.Catalog catalog;
+
+    private CheckoutReference(CatalogStore.Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * The reference if it is as new as the database, read on {@code con} (inside the checkout
+     * transaction); null if it is behind, its version is unknown or the tables aren't loaded.
+     */
+    public static CheckoutReference ifCurrent(Connection con) throws SQLException {
+        CatalogStore.Catalog c = CatalogStore.loadedCatalog();
+        if (c == null || c.productsVersion() < 0 || c.drinksVersion() < 0) {
+            stats.miss();
+            return null;
+        }
+
+        Map<String, Long> db = CacheVersionDAO.getVersions(con, PRODUCTS, DRINKS);
+        if (db.get(PRODUCTS) != c.productsVersion() || db.get(DRINKS) != c.drinksVersion()) {
+            stats.miss();
+            return null;
+        }
+
+        stats.hit();
+        return new CheckoutReference(c);
+    }
+
+    /** null if the product isn't in the reference (ask the database). */
+    public Product product(int productId) {
+        return catalog.product(productId);
+    }
+
+    /** null if the product has no such drink row in the reference (ask the database). */
+    public Drink drink(int productId, boolean isCold) {
+        return catalog.drink(productId, isCold);
+    }
+}
@@ -2,52 +2,38 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.DiyCakeBooking;
 import com.cakeshopsystem.utils.dao.DiyCakeBookingDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class DiyCakeBookingCache {
 
-    private static final ObservableList<DiyCakeBooking> list = FXCollections.observableArrayList();
-    private static final Map<Integer, DiyCakeBooking> byId = new HashMap<>();
-    private static final Map<Integer, Integer> orderIdToDiyId = new HashMap<>();
-
-    private static boolean loaded = false;
+    private static final EntityCache<Integer, DiyCakeBooking> CACHE = new EntityCache<>(
+            "diy_cake_bookings",
+            DiyCakeBooking::getDiyCakeBookingId,
+            DiyCakeBookingDAO::loadAllDiyCakeBookings
+    );
+    private static final EntityCache.Unique<Integer, DiyCakeBooking> BY_ORDER =
+            CACHE.uniqueIndex(DiyCakeBooking::getOrderId);
 
     private DiyCakeBookingCache() {}
 
     // ===================== GETTERS =====================
 
     public static ObservableList<DiyCakeBooking> getList() {
-        if (!loaded) refresh();
-        return list;
+        return CACHE.view();
     }
 
     public static DiyCakeBooking getById(int diyCakeBookingId) {
-        if (!loaded) refresh();
-        return byId.get(diyCakeBookingId);
+        return CACHE.get(diyCakeBookingId);
     }
 
     public static DiyCakeBooking getByOrderId(int orderId) {
-        if (!loaded) refresh();
-        Integer diyId = orderIdToDiyId.get(orderId);
-        return (diyId == null) ? null : byId.get(diyId);
+        return BY_ORDER.get(orderId);
     }
 
     // ===================== REFRESH =====================
 
     public static void refresh() {
-        list.clear();
-        byId.clear();
-        orderIdToDiyId.clear();
-
-        for (DiyCakeBooking b : DiyCakeBookingDAO.getAllDiyCakeBookings()) {
-            cacheOne(b);
-        }
-
-        loaded = true;
+        CACHE.refresh();
     }
 
     // ===================== READ-ONLY CACHE =====================
@@ -55,26 +41,4 @@ public class DiyCakeBookingCache {
     // - Do NOT insert/update/delete diy_cake_bookings here.
     // - Insert must be done in OrderService transaction (reserve quota + insert booking).
     // - Cancel should be done via BookingDAO.updateBookingStatus(...) which releases quota.
-
-    // ===================== HELPERS =====================
-
-    private static void cacheOne(DiyCakeBooking booking) {
-        if (booking == null) return;
-
-        int id = booking.getDiyCakeBookingId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) list.set(idx, booking);
-        else list.add(booking);
-
-        byId.put(id, booking);
-        orderIdToDiyId.put(booking.getOrderId(), id);
-    }
-
-    private static int findIndexById(int id) {
-        for (int i = 0; i < list.size(); i++) {
-            if (list.get(i).getDiyCakeBookingId() == id) return i;
-        }
-        return -1;
-    }
 }
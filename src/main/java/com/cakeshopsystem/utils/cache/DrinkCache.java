@@ -5,64 +5,79 @@ import com.cakeshopsystem.utils.dao.DrinkDAO;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class DrinkCache {
 
-    private static final ObservableList<Drink> drinksList = FXCollections.observableArrayList();
-    private static final Map<Integer, Drink> drinksMap = new HashMap<>();
-    private static final Map<String, Integer> productColdKeyToDrinkIdMap = new HashMap<>();
+    private static final EntityCache<Integer, Drink> CACHE =
+            new EntityCache<>("drinks", Drink::getDrinkId, DrinkDAO::loadAllDrinks);
+    private static final EntityCache.Group<Integer, Drink> BY_PRODUCT =
+            CACHE.groupIndex(Drink::getProductId);
+    private static final EntityCache.IntUnique<Drink> HOT_BY_PRODUCT =
+            CACHE.intIndex(d -> d.isCold() ? null : d.getProductId());
+    private static final EntityCache.IntUnique<Drink> COLD_BY_PRODUCT =
+            CACHE.intIndex(d -> d.isCold() ? d.getProductId() : null);
+
+    static {
+        CACHE.snapshotWith(new CacheSnapshot.Codec<>(
+                1,
+                (out, d) -> {
+                    out.writeInt(d.getDrinkId());
+                    out.writeInt(d.getProductId());
+                    out.writeBoolean(d.isCold());
+                    CacheSnapshot.writeNullableDouble(out, d.getPriceDelta());
+                },
+                in -> new Drink(in.getInt(), in.getInt(), CacheSnapshot.readBoolean(in), CacheSnapshot.readNullableDouble(in))
+        ));
+    }
 
     private DrinkCache() {}
 
     // ===================== Getters =====================
 
     public static ObservableList<Drink> getDrinksList() {
-        if (drinksList.isEmpty()) refreshDrinks();
-        return drinksList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Drink> getDrinksMap() {
-        if (drinksMap.isEmpty()) refreshDrinks();
-        return drinksMap;
+        return CACHE.asMap();
     }
 
     public static Drink getDrinkById(int drinkId) {
-        if (drinksMap.isEmpty()) refreshDrinks();
-        return drinksMap.get(drinkId);
+        return CACHE.get(drinkId);
     }
 
     public static Drink getDrinkByProductIdAndCold(int productId, boolean isCold) {
-        if (productColdKeyToDrinkIdMap.isEmpty()) refreshDrinks();
-        Integer drinkId = productColdKeyToDrinkIdMap.get(key(productId, isCold));
-        return drinkId == null ? null : getDrinkById(drinkId);
+        return byProduct(isCold).get(productId);
     }
 
     public static int getDrinkIdByProductIdAndCold(int productId, boolean isCold) {
-        if (productColdKeyToDrinkIdMap.isEmpty()) refreshDrinks();
-        return productColdKeyToDrinkIdMap.getOrDefault(key(productId, isCold), -1);
+        Drink drink = getDrinkByProductIdAndCold(productId, isCold);
+        return drink == null ? -1 : drink.getDrinkId();
     }
 
     public static ObservableList<Drink> getVariantsByProductId(int productId) {
-        if (drinksList.isEmpty()) refreshDrinks();
-        ObservableList<Drink> list = FXCollections.observableArrayList();
-        for (Drink d : drinksList) {
-            if (d.getProductId() == productId) list.add(d);
-        }
-        return list;
+        return FXCollections.observableArrayList(BY_PRODUCT.snapshot(productId));
+    }
+
+    static EntityCache<Integer, Drink> cache() {
+        return CACHE;
+    }
+
+    static EntityCache.IntUnique<Drink> byProduct(boolean isCold) {
+        return isCold ? COLD_BY_PRODUCT : HOT_BY_PRODUCT;
     }
 
     // ===================== Refresh =====================
 
     public static void refreshDrinks() {
-        drinksList.clear();
-        drinksMap.clear();
-        productColdKeyToDrinkIdMap.clear();
+        CACHE.refresh();
+    }
 
-        for (Drink drink : DrinkDAO.getAllDrinks()) {
-            cacheDrink(drink);
-        }
+    /** Reload after writing drinks through the DAO directly; other terminals reload too. */
+    public static void invalidate() {
+        CACHE.refresh();
+        CACHE.changed();
     }
 
     // ===================== CRUD Wrappers =====================
@@ -71,7 +86,7 @@ public class DrinkCache {
         if (drink == null) return false;
 
         boolean ok = DrinkDAO.insertDrink(drink);
-        if (ok) cacheDrink(drink);
+        if (ok) CACHE.saved(drink);
 
         return ok;
     }
@@ -79,55 +94,14 @@ public class DrinkCache {
     public static boolean updateDrink(Drink drink) {
         if (drink == null) return false;
 
-        // remove old key mapping if productId/isCold changed
-        Drink old = drinksMap.get(drink.getDrinkId());
-
         boolean ok = DrinkDAO.updateDrink(drink);
-        if (ok) {
-            if (old != null) {
-                productColdKeyToDrinkIdMap.remove(key(old.getProductId(), old.isCold()));
-            }
-            cacheDrink(drink);
-        }
+        if (ok) CACHE.saved(drink);
         return ok;
     }
 
     public static boolean deleteDrink(int drinkId) {
         boolean ok = DrinkDAO.deleteDrink(drinkId);
-        if (ok) {
-            Drink removed = drinksMap.remove(drinkId);
-            drinksList.removeIf(d -> d.getDrinkId() == drinkId);
-
-            if (removed != null) {
-                productColdKeyToDrinkIdMap.remove(key(removed.getProductId(), removed.isCold()));
-            }
-        }
+        if (ok) CACHE.deleted(drinkId);
         return ok;
     }
-
-    // ===================== Helpers =====================
-
-    private static void cacheDrink(Drink drink) {
-        if (drink == null) return;
-
-        int id = drink.getDrinkId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) drinksList.set(idx, drink);
-        else drinksList.add(drink);
-
-        drinksMap.put(id, drink);
-        productColdKeyToDrinkIdMap.put(key(drink.getProductId(), drink.isCold()), id);
-    }
-
-    private static int findIndexById(int drinkId) {
-        for (int i = 0; i < drinksList.size(); i++) {
-            if (drinksList.get(i).getDrinkId() == drinkId) return i;
-        }
-        return -1;
-    }
-
-    private static String key(int productId, boolean isCold) {
-        return productId + "|" + (isCold ? 1 : 0);
-    }
 }
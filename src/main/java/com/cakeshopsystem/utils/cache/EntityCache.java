@@ -0,0 +1,1198 @@
+package com.cakeshopsystem.utils.cache;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Keyed, indexed in-memory table behind the static caches.
+ * <p>
+ * Everything a read needs (the rows, the key -> row map and every secondary index) lives in one
+ * immutable state. Writers take turns on a lock, build the next state to the side and publish it
+ * through a volatile field, so reads take no lock and always see one whole state, never a
+ * half-built one. A full load builds the new state in one pass over the loaded rows. A single-row
+ * write copies only the path to that row in each structure ({@link HashTrie}, {@link SeqList})
+ * and shares the rest, so it costs O(log n) whatever the table size. Secondary indexes are
+ * declared once:
+ * <pre>{@code
+ * private static final EntityCache<Integer, Product> CACHE =
+ *         new EntityCache<>("products", Product::getProductId, ProductDAO::loadAllProducts);
+ * private static final EntityCache.Unique<String, Product> BY_NAME =
+ *         CACHE.uniqueIndex(p -> normalize(p.getProductName()));
+ * private static final EntityCache.Group<Integer, Product> BY_CATEGORY =
+ *         CACHE.groupIndex(Product::getCategoryId);
+ * }</pre>
+ * A {@link Prefix} index files rows in a digit trie for as-you-type search, and an {@link IntUnique}
+ * index is a {@link Unique} one looked up by a primitive int (no boxing). Each index remembers
+ * the key it filed a row under, so a row edited in place and then
+ * upserted is moved out of its old slot correctly. Rows with a {@code null} index key are not
+ * indexed.
+ * <p>
+ * The FX lists views bind to ({@link #view()}, {@link Group#get}) mirror the published state and
+ * are brought up to date with one {@code setAll} on the FX thread. A load started off the FX
+ * thread waits for that, so its caller finds the lists filled. Code that only iterates,
+ * especially off the FX thread, should use {@link #snapshot()} / {@link Group#snapshot}.
+ * <p>
+ * The first read loads everything through the {@link Loader}; after that only {@link #refresh()}
+ * goes back to the database. An empty table counts as loaded, a failed load doesn't: readers then
+ * see an empty table and a read a couple of seconds later tries again. Readers that arrive while the first
+ * load is running wait for it instead of starting their own, and {@link #getOrFetch} does the same
+ * per key for single-row lookups, remembering absent keys for a short while.
+ * <p>
+ * Writes made through a cache use {@link #saved}/{@link #deleted}, which also bump the table's
+ * row in {@code cache_versions}; {@link CacheVersions} sees the bump on the other terminals and
+ * reloads just this table there.
+ * <p>
+ * Reads, loads and their causes are counted in a {@link CacheStats} under the table name.
+ */
+public final class EntityCache<K, V> {
+
+    /**
+     * Full load of the table, typically a DAO {@code loadAll*} method reference. A failed query must
+     * throw: an empty result is taken as an empty table.
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        Collection<? extends V> loadAll() throws SQLException;
+    }
+
+    /**
+     * One row by key for {@link #getOrFetch}, typically a DAO {@code load*ById} method reference.
+     * Returns null only when the row doesn't exist; a failed query must throw, or it would be
+     * remembered as missing.
+     */
+    @FunctionalInterface
+    public interface Fetcher<K, V> {
+        V fetch(K key) throws SQLException;
+    }
+
+    /** One published version of the table; nothing in it changes after publication. */
+    private record State<K, V>(SeqList<V> rows, HashTrie<K, Slot<V>> byKey, Object[] indexes) {}
+
+    /** A row and its position in the table: rows are kept in seq order, and a replace keeps the seq. */
+    private record Slot<V>(long seq, V value) {}
+
+    private final String name;
+    private final Function<? super V, ? extends K> keyOf;
+    private final Loader<V> loader;
+
+    // Whether the table has a cache_versions row to stamp loads with and bump on writes
+    private final boolean versioned;
+
+    private final CacheStats stats;
+
+    private final Object writeLock = new Object();
+    private volatile State<K, V> state = new State<>(SeqList.empty(), HashTrie.empty(), new Object[0]);
+    private volatile boolean loaded = false;
+
+    // cache_versions version the published rows are known to include; -1 if unknown. Written
+    // after the state it describes, so a reader that sees a stamp also sees those rows
+    private volatile long version = -1;
+
+    // Bumped by every local change (under writeLock), so a remote reload can tell its rows went stale
+    private long modCount = 0;
+
+    // Seq the next new row gets (under writeLock)
+    private long nextSeq = 0;
+
+    // First load in progress, shared by every reader that finds the table unloaded (under writeLock)
+    private CompletableFuture<Void> firstLoad;
+
+    // After a failed first load, reads don't query again before this System.nanoTime() (0 = no wait)
+    private static final long RETRY_AFTER_FAILURE_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private volatile long retryAt = 0;
+
+    // Single-row lookups in progress, and keys the database didn't have (until System.nanoTime())
+    private static final long MISS_TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private final Map<K, CompletableFuture<V>> fetching = new ConcurrentHashMap<>();
+    private final Map<K, Long> missingUntil = new ConcurrentHashMap<>();
+
+    private final List<Index<?, V, ?>> indexes = new CopyOnWriteArrayList<>();
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+
+    // FX mirror of state.rows, only touched on the FX thread. Kept up to date from the first
+    // view() on, so tables only read through snapshot() don't copy every row on each write
+    private final ObservableList<V> fxRows = FXCollections.observableArrayList();
+    private final ObservableList<V> fxRowsView = FXCollections.unmodifiableObservableList(fxRows);
+    private List<V> fxRowsShown = List.of();
+    private volatile boolean fxRowsWanted = false;
+    private final AtomicBoolean fxSyncQueued = new AtomicBoolean();
+
+    // Read-only key -> row map that always reads the current state
+    private final Map<K, V> byKeyView = new AbstractMap<>() {
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            HashTrie<K, Slot<V>> byKey = state.byKey();
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    Iterator<Entry<K, Slot<V>>> slots = byKey.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return slots.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            Entry<K, Slot<V>> e = slots.next();
+                            return new SimpleImmutableEntry<>(e.getKey(), e.getValue().value());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return byKey.size();
+                }
+            };
+        }
+
+        @Override
+        public V get(Object key) {
+            Slot<V> slot = state.byKey().get(key);
+            return slot == null ? null : slot.value();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return state.byKey().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return state.byKey().size();
+        }
+    };
+
+    public EntityCache(String name, Function<? super V, ? extends K> keyOf, Loader<V> loader) {
+        this(name, keyOf, loader, true);
+    }
+
+    /**
+     * With {@code versioned = false} the table stays out of {@code cache_versions}: loads aren't
+     * stamped, writes aren't announced and nothing but the loader touches the database (e.g. the
+     * benchmark's in-memory table).
+     */
+    EntityCache(String name, Function<? super V, ? extends K> keyOf, Loader<V> loader, boolean versioned) {
+        this.name = name;
+        this.keyOf = keyOf;
+        this.loader = loader;
+        this.versioned = versioned;
+
+        // Each row sits in the key map and, per index, in that index plus its filing map
+        this.stats = new CacheStats(name, this::size,
+                () -> CacheStats.estimateBytes(state.rows(), 1 + 2 * indexes.size()));
+
+        if (versioned) CacheVersions.watch(name, this::reloadForRemoteChange);
+    }
+
+    // =====================================
+    // INDEX DECLARATION
+    // =====================================
+    /** One row per index key; a later row with the same index key replaces the earlier one. */
+    public <IK> Unique<IK, V> uniqueIndex(Function<? super V, ? extends IK> indexKeyOf) {
+        Unique<IK, V> index = new Unique<>(this, indexKeyOf);
+        addIndex(index);
+        return index;
+    }
+
+    /** {@link #uniqueIndex} for an int key (e.g. a product id), looked up without boxing; keys must not be negative. */
+    public IntUnique<V> intIndex(Function<? super V, Integer> indexKeyOf) {
+        IntUnique<V> index = new IntUnique<>(this, indexKeyOf);
+        addIndex(index);
+        return index;
+    }
+
+    /** Rows grouped by index key, each group an FX list in table order. */
+    public <IK> Group<IK, V> groupIndex(Function<? super V, ? extends IK> indexKeyOf) {
+        Group<IK, V> index = new Group<>(this, indexKeyOf);
+        addIndex(index);
+        return index;
+    }
+
+    /** Rows by a digits-only key (other characters are skipped), searchable by key prefix. */
+    public Prefix<V> prefixIndex(Function<? super V, String> indexKeyOf) {
+        Prefix<V> index = new Prefix<>(this, indexKeyOf);
+        addIndex(index);
+        return index;
+    }
+
+    private void addIndex(Index<?, V, ?> index) {
+        synchronized (writeLock) {
+            State<K, V> s = state;
+
+            Index.Builder<V> builder = index.builder(s.rows().size());
+            for (V row : s.rows()) {
+                K key = keyOf.apply(row);
+                builder.add(key, s.byKey().get(key).seq(), row);
+            }
+
+            index.slot = indexes.size();
+            Object[] built = Arrays.copyOf(s.indexes(), index.slot + 1);
+            built[index.slot] = builder.build();
+
+            indexes.add(index);
+            state = new State<>(s.rows(), s.byKey(), built);
+        }
+    }
+
+    /** Runs on the FX thread after every full reload (local or remote), e.g. to rebuild a derived list. */
+    public void onRefresh(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * Keeps this table in the on-disk {@link CacheSnapshot}; if the last snapshot has it, the table
+     * starts from there instead of querying. Declare after the indexes and refresh listeners.
+     */
+    public void snapshotWith(CacheSnapshot.Codec<V> codec) {
+        CacheSnapshot.register(this, codec);
+    }
+
+    // =====================================
+    // READS (lock-free)
+    // =====================================
+    public String getName() {
+        return name;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * The {@code cache_versions} version the rows include: every change up to it is in them (later
+     * ones may be too). -1 if unknown. Read it before the rows it should vouch for.
+     */
+    long version() {
+        return version;
+    }
+
+    /** Live, read-only FX list of every row for binding; loads on first use. */
+    public ObservableList<V> view() {
+        readTable();
+        if (!fxRowsWanted) {
+            fxRowsWanted = true;
+            FxSync.runAndWait(this::syncFx);
+        }
+        return fxRowsView;
+    }
+
+    /** Immutable list of every row as of now, safe to iterate on any thread; loads on first use. */
+    public List<V> snapshot() {
+        readTable();
+        return state.rows();
+    }
+
+    /** Live, read-only key -> row map; loads on first use. */
+    public Map<K, V> asMap() {
+        readTable();
+        return byKeyView;
+    }
+
+    public V get(K key) {
+        ensureLoaded();
+        V value = peek(key);
+        stats.lookup(value != null);
+        return value;
+    }
+
+    /** Cached row for {@code key} without triggering a load. */
+    public V peek(K key) {
+        Slot<V> slot = state.byKey().get(key);
+        return slot == null ? null : slot.value();
+    }
+
+    public int size() {
+        return state.rows().size();
+    }
+
+    /**
+     * Cached row for {@code key}, else one {@code fetch} shared by every caller missing the same key
+     * at once. A found row is cached; a key the database doesn't have is answered with {@code null}
+     * without asking again for 30 seconds. A failed fetch is not remembered: every caller waiting
+     * on it gets its exception.
+     */
+    public V getOrFetch(K key, Fetcher<? super K, ? extends V> fetch) throws SQLException {
+        V cached = peek(key);
+        if (cached != null) {
+            stats.hit();
+            return cached;
+        }
+
+        // A remembered absence saves a query too, so it counts as a hit
+        Long until = missingUntil.get(key);
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                stats.hit();
+                return null;
+            }
+            missingUntil.remove(key, until);
+        }
+
+        stats.miss();
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = fetching.putIfAbsent(key, mine);
+        if (running != null) return joinFetch(running);
+
+        try {
+            V value = fetch.fetch(key);
+            if (value != null) upsert(value);
+            else missingUntil.put(key, System.nanoTime() + MISS_TTL_NANOS);
+
+            mine.complete(value);
+            return value;
+        } catch (SQLException | RuntimeException err) {
+            mine.completeExceptionally(err);
+            throw err;
+        } finally {
+            fetching.remove(key, mine);
+        }
+    }
+
+    // Another caller's fetch, rethrowing its own exception rather than a CompletionException
+    private static <V> V joinFetch(CompletableFuture<V> running) throws SQLException {
+        try {
+            return running.join();
+        } catch (CompletionException wrapped) {
+            Throwable err = wrapped.getCause();
+            if (err instanceof SQLException sql) throw sql;
+            if (err instanceof RuntimeException runtime) throw runtime;
+            if (err instanceof Error error) throw error;
+            throw wrapped;
+        }
+    }
+
+    // Whole-table reads count a hit when the table is already there
+    private void readTable() {
+        stats.lookup(loaded);
+        ensureLoaded();
+    }
+
+    // Single flight: the first reader loads, the rest wait for its rows instead of querying too
+    private void ensureLoaded() {
+        if (loaded) return;
+        long wait = retryAt;
+        if (wait != 0 && wait - System.nanoTime() > 0) return;
+
+        CompletableFuture<Void> load;
+        boolean leader = false;
+        synchronized (writeLock) {
+            if (loaded) return;
+            if (firstLoad == null) {
+                firstLoad = new CompletableFuture<>();
+                leader = true;
+            }
+            load = firstLoad;
+        }
+
+        if (leader) {
+            try {
+                long started = System.nanoTime();
+                long stamp = currentVersion();
+                Collection<? extends V> fresh = loader.loadAll();
+                stats.loaded(CacheStats.Cause.FIRST_USE, System.nanoTime() - started);
+
+                synchronized (writeLock) {
+                    replaceAll(fresh);
+                    version = stamp;
+                    loaded = true;
+                    retryAt = 0;
+                    firstLoad = null;
+                }
+                load.complete(null);
+            } catch (SQLException err) {
+                // Stays unloaded, so a later read tries again; until then readers see no rows
+                System.err.println("Error loading " + name + " cache: " + err.getLocalizedMessage());
+                synchronized (writeLock) {
+                    retryAt = System.nanoTime() + RETRY_AFTER_FAILURE_NANOS;
+                    firstLoad = null;
+                }
+                load.complete(null);
+                return;
+            } catch (RuntimeException err) {
+                synchronized (writeLock) {
+                    firstLoad = null;
+                }
+                load.completeExceptionally(err);
+                throw err;
+            }
+            FxSync.runAndWait(this::afterReload);
+            return;
+        }
+
+        // Released once the rows are published (not after the FX sync, so the FX thread can wait
+        // here too); then make sure the FX lists show them before returning, as the leader does
+        load.join();
+        FxSync.runAndWait(this::syncFx);
+    }
+
+    // =====================================
+    // WRITES
+    // =====================================
+    /** Reloads every row and publishes them as one new state. */
+    public void refresh() {
+        long started = System.nanoTime();
+        long stamp = currentVersion();
+        Collection<? extends V> fresh;
+        try {
+            fresh = loader.loadAll();
+        } catch (SQLException err) {
+            // The rows stay, but may miss the write this refresh was for: nothing vouches for them
+            // any more, and the poller loads the table again
+            System.err.println("Error refreshing " + name + " cache: " + err.getLocalizedMessage());
+            synchronized (writeLock) {
+                version = -1;
+            }
+            CacheVersions.reloadOnNextPoll(name);
+            return;
+        }
+        stats.loaded(CacheStats.Cause.EXPLICIT, System.nanoTime() - started);
+
+        synchronized (writeLock) {
+            replaceAll(fresh);
+            version = stamp;
+            loaded = true;
+        }
+        FxSync.runAndWait(this::afterReload);
+    }
+
+    /** Another terminal changed this table (called on the poller thread). Never-loaded tables are left for first use. */
+    void reloadForRemoteChange() {
+        if (!loaded) return;
+
+        long seen;
+        synchronized (writeLock) {
+            seen = modCount;
+        }
+
+        long started = System.nanoTime();
+        long stamp = currentVersion();
+        Collection<? extends V> fresh;
+        try {
+            fresh = loader.loadAll();
+        } catch (SQLException err) {
+            System.err.println("Error reloading " + name + " cache: " + err.getLocalizedMessage());
+            CacheVersions.reloadOnNextPoll(name);
+            return;
+        }
+        stats.loaded(CacheStats.Cause.REMOTE_CHANGE, System.nanoTime() - started);
+
+        synchronized (writeLock) {
+            // A local write landed after the query; its rows would be lost, so ask again
+            if (modCount != seen) {
+                CacheVersions.reloadOnNextPoll(name);
+                return;
+            }
+            replaceAll(fresh);
+            version = stamp;
+        }
+        FxSync.runAndWait(this::afterReload);
+    }
+
+    /**
+     * Fills a never-loaded table from snapshot rows, without a query. Runs from the cache class's
+     * static initializer, before any view can hold the FX lists, so they are filled right here.
+     * {@code savedVersion} is the {@code cache_versions} version the snapshot was taken at.
+     */
+    void preload(Collection<? extends V> saved, long savedVersion) {
+        synchronized (writeLock) {
+            if (loaded) return;
+            replaceAll(saved);
+            version = savedVersion;
+            loaded = true;
+        }
+        stats.refreshed(CacheStats.Cause.SNAPSHOT);
+        afterReload();
+    }
+
+    /** The rows for {@link CacheSnapshot}; null if the table was never loaded. */
+    List<V> snapshotRows() {
+        return loaded ? state.rows() : null;
+    }
+
+    /** Inserts or replaces the row with the same key, keeping its list position on replace. */
+    public void upsert(V value) {
+        if (value == null) return;
+
+        synchronized (writeLock) {
+            State<K, V> s = state;
+            K key = keyOf.apply(value);
+
+            Slot<V> old = s.byKey().get(key);
+            long seq = old != null ? old.seq() : nextSeq++;
+
+            SeqList<V> rows = s.rows().with(seq, value);
+            HashTrie<K, Slot<V>> byKey = s.byKey().with(key, new Slot<>(seq, value));
+
+            Object[] built = s.indexes().clone();
+            for (Index<?, V, ?> index : indexes) built[index.slot] = index.putInto(built[index.slot], key, seq, value);
+
+            modCount++;
+            state = new State<>(rows, byKey, built);
+            missingUntil.remove(key);
+        }
+        requestFxSync();
+    }
+
+    public V remove(K key) {
+        V removed;
+
+        synchronized (writeLock) {
+            State<K, V> s = state;
+            Slot<V> old = s.byKey().get(key);
+            if (old == null) return null;
+            removed = old.value();
+
+            SeqList<V> rows = s.rows().without(old.seq());
+            HashTrie<K, Slot<V>> byKey = s.byKey().without(key);
+
+            Object[] built = s.indexes().clone();
+            for (Index<?, V, ?> index : indexes) built[index.slot] = index.removeFrom(built[index.slot], key, old.seq());
+
+            modCount++;
+            state = new State<>(rows, byKey, built);
+        }
+        requestFxSync();
+        return removed;
+    }
+
+    /** Drops every matching row in one new state. */
+    public void removeIf(Predicate<? super V> filter) {
+        synchronized (writeLock) {
+            List<V> rows = state.rows();
+            List<V> kept = new ArrayList<>(rows.size());
+            for (V row : rows) {
+                if (!filter.test(row)) kept.add(row);
+            }
+            if (kept.size() == rows.size()) return;
+            replaceAll(kept);
+        }
+        requestFxSync();
+    }
+
+    /** Reorders the rows, and with them the rows of every group. */
+    public void sort(Comparator<V> order) {
+        synchronized (writeLock) {
+            List<V> rows = new ArrayList<>(state.rows());
+            rows.sort(order);
+            modCount++;
+            state = build(rows);
+        }
+        requestFxSync();
+    }
+
+    /** Empties the table and forgets it was loaded, so the next read goes to the database. */
+    public void clear() {
+        synchronized (writeLock) {
+            replaceAll(List.of());
+            version = -1;
+            loaded = false;
+        }
+        requestFxSync();
+    }
+
+    /** Publishes {@code fresh} as the whole table. Caller holds writeLock. */
+    private void replaceAll(Collection<? extends V> fresh) {
+        modCount++;
+        state = build(fresh);
+        missingUntil.clear();
+    }
+
+    /**
+     * A whole new state, seqs numbered from 0 in {@code fresh} order: the key map is built in one
+     * go, then one pass fills the rows and every index. Keys come from a full table read, so a
+     * repeated key keeps its first row. Caller holds writeLock.
+     */
+    private State<K, V> build(Collection<? extends V> fresh) {
+        Object[] keys = new Object[fresh.size()];
+        Object[] slots = new Object[fresh.size()];
+        int n = 0;
+        for (V value : fresh) {
+            if (value == null) continue;
+            keys[n] = keyOf.apply(value);
+            slots[n] = new Slot<>(n, value);
+            n++;
+        }
+
+        BitSet repeated = new BitSet();
+        HashTrie<K, Slot<V>> byKey = HashTrie.of(keys, slots, n, true, repeated);
+
+        SeqList.Builder<V> rows = new SeqList.Builder<>(n);
+        List<Index.Builder<V>> builders = new ArrayList<>(indexes.size());
+        for (Index<?, V, ?> index : indexes) builders.add(index.builder(n));
+
+        for (int seq = 0; seq < n; seq++) {
+            if (repeated.get(seq)) continue;
+
+            @SuppressWarnings("unchecked")
+            V value = ((Slot<V>) slots[seq]).value();
+            rows.add(seq, value);
+            for (Index.Builder<V> builder : builders) builder.add(keys[seq], seq, value);
+        }
+        nextSeq = n;
+
+        Object[] built = new Object[builders.size()];
+        for (int i = 0; i < built.length; i++) built[i] = builders.get(i).build();
+
+        return new State<>(rows.build(), byKey, built);
+    }
+
+    // =====================================
+    // FX MIRRORS
+    // =====================================
+    // After a full load: bring the FX lists up to date, then run the refresh listeners
+    private void afterReload() {
+        syncFx();
+        for (Runnable listener : refreshListeners) listener.run();
+    }
+
+    // After a single write: one queued sync covers any number of writes before it runs
+    private void requestFxSync() {
+        if (!fxSyncQueued.compareAndSet(false, true)) return;
+
+        FxSync.run(() -> {
+            fxSyncQueued.set(false);
+            syncFx();
+        });
+    }
+
+    // Every FX list not already showing the current state gets one setAll
+    private void syncFx() {
+        State<K, V> s = state;
+
+        if (fxRowsWanted && fxRowsShown != s.rows()) {
+            fxRowsShown = s.rows();
+            fxRows.setAll(s.rows());
+        }
+        for (Index<?, V, ?> index : indexes) index.syncFx(s.indexes()[index.slot]);
+    }
+
+    // =====================================
+    // WRITES SEEN BY OTHER TERMINALS
+    // =====================================
+    /** {@link #upsert} after a successful insert/update, and tells the other terminals. */
+    public void saved(V value) {
+        upsert(value);
+        changed();
+    }
+
+    /** {@link #remove} after a successful delete, and tells the other terminals. */
+    public V deleted(K key) {
+        V removed = remove(key);
+        changed();
+        return removed;
+    }
+
+    /** {@link #removeIf} after a successful bulk delete, and tells the other terminals. */
+    public void deletedIf(Predicate<? super V> filter) {
+        removeIf(filter);
+        changed();
+    }
+
+    /** Tells the other terminals this table changed (e.g. a row edited in place); the cache must already show the change. */
+    public void changed() {
+        if (!versioned) return;
+        long bumped = CacheVersions.bump(name);
+
+        // The rows include this change; the stamp only follows if no other change came in between
+        synchronized (writeLock) {
+            if (bumped > 0 && version == bumped - 1) version = bumped;
+        }
+    }
+
+    // The table's cache_versions version, read before a load so the rows include at least that
+    private long currentVersion() {
+        return versioned ? CacheVersions.current(name) : -1;
+    }
+
+    // =====================================
+    // SECONDARY INDEXES
+    // =====================================
+    // An index's data (D) is immutable like the rest of the state: writes return a changed copy
+    private abstract static class Index<IK, V, D> {
+        final EntityCache<?, V> owner;
+        final Function<? super V, ? extends IK> indexKeyOf;
+
+        // Position of this index's data in State.indexes
+        int slot;
+
+        // Index key each row was filed under, so in-place edits can be unfiled later. Only writers
+        // read it, under writeLock, so it is kept outside the published state and edited in place.
+        Map<Object, IK> filedUnder = new HashMap<>();
+
+        // Bulk load: add each row once (keys never repeat) in seq order, then build
+        interface Builder<V> {
+            void add(Object key, long seq, V value);
+
+            Object build();
+        }
+
+        Index(EntityCache<?, V> owner, Function<? super V, ? extends IK> indexKeyOf) {
+            this.owner = owner;
+            this.indexKeyOf = indexKeyOf;
+        }
+
+        abstract Builder<V> builder(int expected);
+
+        // seq is the row's table position (see Slot); it doesn't change when the row is replaced
+        abstract D put(D data, Object key, long seq, V value);
+
+        abstract D remove(D data, Object key, long seq);
+
+        void syncFx(Object data) {
+        }
+
+        // This index's data in the current state
+        final D current() {
+            return cast(owner.state.indexes()[slot]);
+        }
+
+        final Object putInto(Object data, Object key, long seq, V value) {
+            return put(cast(data), key, seq, value);
+        }
+
+        final Object removeFrom(Object data, Object key, long seq) {
+            return remove(cast(data), key, seq);
+        }
+
+        @SuppressWarnings("unchecked")
+        final D cast(Object data) {
+            return (D) data;
+        }
+    }
+
+    public static final class Unique<IK, V> extends Index<IK, V, HashTrie<IK, V>> {
+
+        private Unique(EntityCache<?, V> owner, Function<? super V, ? extends IK> indexKeyOf) {
+            super(owner, indexKeyOf);
+        }
+
+        public V get(IK indexKey) {
+            owner.ensureLoaded();
+            V value = current().get(indexKey);
+            owner.stats.lookup(value != null);
+            return value;
+        }
+
+        @Override
+        Builder<V> builder(int expected) {
+            Object[] indexKeys = new Object[expected];
+            Object[] values = new Object[expected];
+            Map<Object, IK> filed = new HashMap<>(Math.max(16, expected * 2));
+
+            return new Builder<>() {
+                int n = 0;
+
+                @Override
+                public void add(Object key, long seq, V value) {
+                    IK indexKey = indexKeyOf.apply(value);
+                    if (indexKey == null) return;
+
+                    filed.put(key, indexKey);
+                    indexKeys[n] = indexKey;
+                    values[n++] = value;
+                }
+
+                @Override
+                public Object build() {
+                    filedUnder = filed;
+                    return HashTrie.of(indexKeys, values, n, false, null);
+                }
+            };
+        }
+
+        @Override
+        HashTrie<IK, V> put(HashTrie<IK, V> data, Object key, long seq, V value) {
+            HashTrie<IK, V> byIndexKey = unfile(data, key);
+
+            IK indexKey = indexKeyOf.apply(value);
+            if (indexKey == null) return byIndexKey;
+
+            filedUnder.put(key, indexKey);
+            return byIndexKey.with(indexKey, value);
+        }
+
+        @Override
+        HashTrie<IK, V> remove(HashTrie<IK, V> data, Object key, long seq) {
+            return unfile(data, key);
+        }
+
+        private HashTrie<IK, V> unfile(HashTrie<IK, V> byIndexKey, Object key) {
+            IK old = filedUnder.remove(key);
+            if (old == null) return byIndexKey;
+
+            // Only unfile if a later row with the same index key hasn't taken the slot
+            V current = byIndexKey.get(old);
+            if (current != null && key.equals(owner.keyOf.apply(current))) return byIndexKey.without(old);
+            return byIndexKey;
+        }
+    }
+
+    public static final class IntUnique<V> extends Index<Integer, V, IntTrie<V>> {
+
+        private IntUnique(EntityCache<?, V> owner, Function<? super V, Integer> indexKeyOf) {
+            super(owner, indexKeyOf);
+        }
+
+        public V get(int indexKey) {
+            owner.ensureLoaded();
+            V value = current().get(indexKey);
+            owner.stats.lookup(value != null);
+            return value;
+        }
+
+        /** The index as published, without loading the table; it never changes once read. */
+        IntTrie<V> table() {
+            return current();
+        }
+
+        @Override
+        Builder<V> builder(int expected) {
+            IntTrie.Builder<V> trie = new IntTrie.Builder<>();
+            Map<Object, Integer> filed = new HashMap<>(Math.max(16, expected * 2));
+
+            return new Builder<>() {
+                @Override
+                public void add(Object key, long seq, V value) {
+                    Integer indexKey = indexKeyOf.apply(value);
+                    if (indexKey == null) return;
+
+                    filed.put(key, indexKey);
+                    trie.put(indexKey, value);
+                }
+
+                @Override
+                public Object build() {
+                    filedUnder = filed;
+                    return trie.build();
+                }
+            };
+        }
+
+        @Override
+        IntTrie<V> put(IntTrie<V> data, Object key, long seq, V value) {
+            IntTrie<V> byIndexKey = unfile(data, key);
+
+            Integer indexKey = indexKeyOf.apply(value);
+            if (indexKey == null) return byIndexKey;
+
+            filedUnder.put(key, indexKey);
+            return byIndexKey.with(indexKey, value);
+        }
+
+        @Override
+        IntTrie<V> remove(IntTrie<V> data, Object key, long seq) {
+            return unfile(data, key);
+        }
+
+        // Same rule as Unique: only unfile if a later row with the same index key hasn't taken it
+        private IntTrie<V> unfile(IntTrie<V> byIndexKey, Object key) {
+            Integer old = filedUnder.remove(key);
+            if (old == null) return byIndexKey;
+
+            V current = byIndexKey.get(old);
+            if (current != null && key.equals(owner.keyOf.apply(current))) return byIndexKey.without(old);
+            return byIndexKey;
+        }
+    }
+
+    public static final class Group<IK, V> extends Index<IK, V, HashTrie<IK, SeqList<V>>> {
+
+        // FX mirror of one group, created when a view first asks for it
+        private static final class FxGroup<V> {
+            final ObservableList<V> list = FXCollections.observableArrayList();
+            final ObservableList<V> view = FXCollections.unmodifiableObservableList(list);
+            List<V> shown = List.of();
+        }
+
+        private final Map<IK, FxGroup<V>> fxGroups = new ConcurrentHashMap<>();
+
+        private Group(EntityCache<?, V> owner, Function<? super V, ? extends IK> indexKeyOf) {
+            super(owner, indexKeyOf);
+        }
+
+        /** Live, read-only FX list of the rows filed under {@code indexKey} (empty if none), in table order. */
+        public ObservableList<V> get(IK indexKey) {
+            owner.readTable();
+            return peek(indexKey);
+        }
+
+        /** Like {@link #get}, without triggering a load. */
+        public ObservableList<V> peek(IK indexKey) {
+            if (indexKey == null) return FXCollections.emptyObservableList();
+
+            // Nobody holds a new list yet, so filling it here (off the FX thread too) is safe
+            FxGroup<V> group = fxGroups.computeIfAbsent(indexKey, k -> {
+                FxGroup<V> created = new FxGroup<>();
+                created.shown = rowsOf(current(), k);
+                created.list.setAll(created.shown);
+                return created;
+            });
+
+            // A write published while the list was being filled: its sync may have missed it
+            if (group.shown != rowsOf(current(), indexKey)) owner.requestFxSync();
+            return group.view;
+        }
+
+        /** Immutable rows filed under {@code indexKey} as of now, in table order, safe to iterate on any thread. */
+        public List<V> snapshot(IK indexKey) {
+            owner.readTable();
+            return rowsOf(current(), indexKey);
+        }
+
+        private SeqList<V> rowsOf(HashTrie<IK, SeqList<V>> groups, Object indexKey) {
+            SeqList<V> rows = groups.get(indexKey);
+            return rows == null ? SeqList.empty() : rows;
+        }
+
+        // Each group is a SeqList over the rows' table seqs, so moving a row between groups is
+        // O(log n) and it lands at its table position, not at the end
+        @Override
+        Builder<V> builder(int expected) {
+            Map<IK, SeqList.Builder<V>> groups = new HashMap<>();
+            Map<Object, IK> filed = new HashMap<>(Math.max(16, expected * 2));
+
+            return new Builder<>() {
+                @Override
+                public void add(Object key, long seq, V value) {
+                    IK indexKey = indexKeyOf.apply(value);
+                    if (indexKey == null) return;
+
+                    filed.put(key, indexKey);
+                    groups.computeIfAbsent(indexKey, k -> new SeqList.Builder<>(0)).add(seq, value);
+                }
+
+                @Override
+                public Object build() {
+                    filedUnder = filed;
+
+                    Object[] indexKeys = new Object[groups.size()];
+                    Object[] rows = new Object[groups.size()];
+                    int n = 0;
+                    for (Map.Entry<IK, SeqList.Builder<V>> group : groups.entrySet()) {
+                        indexKeys[n] = group.getKey();
+                        rows[n++] = group.getValue().build();
+                    }
+                    return HashTrie.of(indexKeys, rows, n, true, null);
+                }
+            };
+        }
+
+        @Override
+        HashTrie<IK, SeqList<V>> put(HashTrie<IK, SeqList<V>> data, Object key, long seq, V value) {
+            HashTrie<IK, SeqList<V>> groups = remove(data, key, seq);
+
+            IK indexKey = indexKeyOf.apply(value);
+            if (indexKey == null) return groups;
+
+            // The row keeps its seq, so it sits at its table position in whichever group it is in now
+            filedUnder.put(key, indexKey);
+            return groups.with(indexKey, rowsOf(groups, indexKey).with(seq, value));
+        }
+
+        @Override
+        HashTrie<IK, SeqList<V>> remove(HashTrie<IK, SeqList<V>> data, Object key, long seq) {
+            IK old = filedUnder.remove(key);
+            if (old == null) return data;
+
+            SeqList<V> rows = rowsOf(data, old).without(seq);
+            return rows.isEmpty() ? data.without(old) : data.with(old, rows);
+        }
+
+        @Override
+        void syncFx(Object data) {
+            HashTrie<IK, SeqList<V>> groups = cast(data);
+            fxGroups.forEach((indexKey, group) -> {
+                List<V> rows = rowsOf(groups, indexKey);
+                if (group.shown == rows) return;
+
+                group.shown = rows;
+                group.list.setAll(rows);
+            });
+        }
+    }
+
+    public static final class Prefix<V> extends Index<String, V, Prefix.Node<V>> {
+
+        // One trie level per digit. Published nodes are never changed: a write copies the nodes on
+        // its key's path (path copying) and shares the rest. Only a builder fills nodes in place,
+        // before they are published.
+        static final class Node<V> {
+            final Node<V>[] next;
+            List<V> here;
+
+            Node(Node<V>[] next, List<V> here) {
+                this.next = next;
+                this.here = here;
+            }
+
+            static <V> Node<V> empty() {
+                @SuppressWarnings("unchecked")
+                Node<V>[] next = (Node<V>[]) new Node<?>[10];
+                return new Node<>(next, List.of());
+            }
+        }
+
+        private Prefix(EntityCache<?, V> owner, Function<? super V, String> indexKeyOf) {
+            super(owner, indexKeyOf);
+        }
+
+        /**
+         * Up to {@code limit} rows whose key starts with the digits of {@code prefix}, in key
+         * order. Costs the prefix length plus the rows returned, whatever the table size.
+         */
+        public List<V> startingWith(String prefix, int limit) {
+            owner.ensureLoaded();
+
+            Node<V> node = current();
+            for (int i = 0; prefix != null && i < prefix.length() && node != null; i++) {
+                int d = digit(prefix.charAt(i));
+                if (d >= 0) node = node.next[d];
+            }
+
+            List<V> found = new ArrayList<>(Math.min(Math.max(limit, 0), 16));
+            if (node != null) collect(node, found, limit);
+            owner.stats.lookup(!found.isEmpty());
+            return Collections.unmodifiableList(found);
+        }
+
+        private void collect(Node<V> node, List<V> into, int limit) {
+            for (V row : node.here) {
+                if (into.size() >= limit) return;
+                into.add(row);
+            }
+            for (Node<V> child : node.next) {
+                if (into.size() >= limit) return;
+                if (child != null) collect(child, into, limit);
+            }
+        }
+
+        @Override
+        Builder<V> builder(int expected) {
+            Node<V> root = Node.empty();
+            Map<Object, String> filed = new HashMap<>(Math.max(16, expected * 2));
+
+            return new Builder<>() {
+                @Override
+                public void add(Object key, long seq, V value) {
+                    String indexKey = digitsOf(indexKeyOf.apply(value));
+                    if (indexKey == null) return;
+
+                    filed.put(key, indexKey);
+                    Node<V> node = root;
+                    for (int i = 0; i < indexKey.length(); i++) {
+                        int d = indexKey.charAt(i) - '0';
+                        if (node.next[d] == null) node.next[d] = Node.empty();
+                        node = node.next[d];
+                    }
+                    if (node.here.isEmpty()) node.here = new ArrayList<>(1);
+                    node.here.add(value);
+                }
+
+                @Override
+                public Object build() {
+                    filedUnder = filed;
+                    return root;
+                }
+            };
+        }
+
+        @Override
+        Node<V> put(Node<V> data, Object key, long seq, V value) {
+            Node<V> root = remove(data, key, seq);
+
+            String indexKey = digitsOf(indexKeyOf.apply(value));
+            if (indexKey == null) return root;
+
+            filedUnder.put(key, indexKey);
+            return insert(root, indexKey, 0, value);
+        }
+
+        @Override
+        Node<V> remove(Node<V> data, Object key, long seq) {
+            String old = filedUnder.remove(key);
+            if (old == null) return data;
+
+            Node<V> root = without(data, old, 0, key);
+            return root == null ? Node.empty() : root;
+        }
+
+        private Node<V> insert(Node<V> node, String indexKey, int depth, V value) {
+            if (node == null) node = Node.empty();
+
+            if (depth == indexKey.length()) {
+                List<V> here = new ArrayList<>(node.here.size() + 1);
+                here.addAll(node.here);
+                here.add(value);
+                return new Node<>(node.next, here);
+            }
+
+            int d = indexKey.charAt(depth) - '0';
+            Node<V>[] next = node.next.clone();
+            next[d] = insert(next[d], indexKey, depth + 1, value);
+            return new Node<>(next, node.here);
+        }
+
+        // The path without the row stored under key; null where a node ends up empty
+        private Node<V> without(Node<V> node, String indexKey, int depth, Object key) {
+            if (node == null) return null;
+
+            Node<V>[] next = node.next;
+            List<V> here = node.here;
+
+            if (depth == indexKey.length()) {
+                here = new ArrayList<>(here);
+                here.removeIf(row -> key.equals(owner.keyOf.apply(row)));
+                if (here.isEmpty()) here = List.of();
+            } else {
+                int d = indexKey.charAt(depth) - '0';
+                next = next.clone();
+                next[d] = without(next[d], indexKey, depth + 1, key);
+            }
+
+            for (Node<V> child : next) {
+                if (child != null) return new Node<>(next, here);
+            }
+            return here.isEmpty() ? null : new Node<>(next, here);
+        }
+
+        // Digits of the key; null (not indexed) when it has none
+        private static String digitsOf(String raw) {
+            if (raw == null) return null;
+
+            StringBuilder digits = new StringBuilder(raw.length());
+            for (int i = 0; i < raw.length(); i++) {
+                if (digit(raw.charAt(i)) >= 0) digits.append(raw.charAt(i));
+            }
+            return digits.length() == 0 ? null : digits.toString();
+        }
+
+        private static int digit(char c) {
+            return (c >= '0' && c <= '9') ? c - '0' : -1;
+        }
+    }
+}
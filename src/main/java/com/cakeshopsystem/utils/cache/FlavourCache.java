@@ -2,52 +2,54 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Flavour;
 import com.cakeshopsystem.utils.dao.FlavourDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class FlavourCache {
 
-    private static final ObservableList<Flavour> flavoursList = FXCollections.observableArrayList();
-    private static final Map<Integer, Flavour> flavoursMap = new HashMap<>();
-    private static final Map<String, Integer> flavourNameToIdMap = new HashMap<>();
+    private static final EntityCache<Integer, Flavour> CACHE =
+            new EntityCache<>("flavours", Flavour::getFlavourId, FlavourDAO::loadAllFlavours);
+    private static final EntityCache.Unique<String, Flavour> BY_NAME =
+            CACHE.uniqueIndex(f -> normalize(f.getFlavourName()));
+
+    static {
+        CACHE.snapshotWith(new CacheSnapshot.Codec<>(
+                1,
+                (out, f) -> {
+                    out.writeInt(f.getFlavourId());
+                    CacheSnapshot.writeString(out, f.getFlavourName());
+                    out.writeDouble(f.getPrice());
+                },
+                in -> new Flavour(in.getInt(), CacheSnapshot.readString(in), in.getDouble())
+        ));
+    }
 
     private FlavourCache() {}
 
     // ===================== Cache Refresh =====================
 
     public static void refreshFlavour() {
-        flavoursList.clear();
-        flavoursMap.clear();
-        flavourNameToIdMap.clear();
-
-        for (Flavour flavour : FlavourDAO.getAllFlavours()) {
-            cacheFlavour(flavour);
-        }
+        CACHE.refresh();
     }
 
     // ===================== Getters =====================
 
     public static ObservableList<Flavour> getFlavoursList() {
-        if (flavoursList.isEmpty()) refreshFlavour();
-        return flavoursList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Flavour> getFlavoursMap() {
-        if (flavoursMap.isEmpty()) refreshFlavour();
-        return flavoursMap;
+        return CACHE.asMap();
     }
 
     public static Flavour getFlavourById(int flavourId) {
-        if (flavoursMap.isEmpty()) refreshFlavour();
-        return flavoursMap.get(flavourId);
+        return CACHE.get(flavourId);
     }
 
     public static int getFlavourIdByName(String flavourName) {
-        if (flavourNameToIdMap.isEmpty()) refreshFlavour();
-        return flavourNameToIdMap.getOrDefault(normalize(flavourName), -1);
+        Flavour flavour = BY_NAME.get(normalize(flavourName));
+        return flavour == null ? -1 : flavour.getFlavourId();
     }
 
     public static String getFlavourNameById(int flavourId) {
@@ -61,7 +63,7 @@ public class FlavourCache {
         if (flavour == null) return false;
 
         boolean ok = FlavourDAO.insertFlavour(flavour);
-        if (ok) cacheFlavour(flavour);
+        if (ok) CACHE.saved(flavour);
 
         return ok;
     }
@@ -70,63 +72,20 @@ public class FlavourCache {
         if (flavour == null) return false;
 
         boolean ok = FlavourDAO.updateFlavour(flavour);
-        if (ok) {
-            int idx = findIndexById(flavour.getFlavourId());
-            if (idx >= 0) flavoursList.set(idx, flavour);
-            else flavoursList.add(flavour);
-
-            flavoursMap.put(flavour.getFlavourId(), flavour);
-            flavourNameToIdMap.put(normalize(flavour.getFlavourName()), flavour.getFlavourId());
-        }
+        if (ok) CACHE.saved(flavour);
 
         return ok;
     }
 
     public static boolean deleteFlavour(int flavourId) {
         boolean ok = FlavourDAO.deleteFlavour(flavourId);
-        if (ok) {
-            Flavour removed = flavoursMap.remove(flavourId);
-            if (removed != null) {
-                flavoursList.removeIf(f -> f.getFlavourId() == flavourId);
-                flavourNameToIdMap.remove(normalize(removed.getFlavourName()));
-            } else {
-                flavoursList.removeIf(f -> f.getFlavourId() == flavourId);
-                rebuildNameMapFromList();
-            }
-        }
+        if (ok) CACHE.deleted(flavourId);
         return ok;
     }
 
     // ===================== Helpers =====================
 
-    private static void cacheFlavour(Flavour flavour) {
-        if (flavour == null) return;
-
-        int id = flavour.getFlavourId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) flavoursList.set(idx, flavour);
-        else flavoursList.add(flavour);
-
-        flavoursMap.put(id, flavour);
-        flavourNameToIdMap.put(normalize(flavour.getFlavourName()), id);
-    }
-
-    private static int findIndexById(int flavourId) {
-        for (int i = 0; i < flavoursList.size(); i++) {
-            if (flavoursList.get(i).getFlavourId() == flavourId) return i;
-        }
-        return -1;
-    }
-
     private static String normalize(String s) {
         return s == null ? "" : s.trim().toLowerCase();
     }
-
-    private static void rebuildNameMapFromList() {
-        flavourNameToIdMap.clear();
-        for (Flavour flavour : flavoursList) {
-            flavourNameToIdMap.put(normalize(flavour.getFlavourName()), flavour.getFlavourId());
-        }
-    }
 }
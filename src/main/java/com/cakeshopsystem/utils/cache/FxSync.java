@@ -0,0 +1,60 @@
+package com.cakeshopsystem.utils.cache;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs cache-to-FX list updates on the FX thread. Outside a running FX toolkit (the benchmark, a
+ * plain main) there is no FX thread, so the update runs inline.
+ */
+final class FxSync {
+
+    private FxSync() {}
+
+    /** True on the FX thread, which must never wait for a load that ends in {@link #runAndWait}. */
+    static boolean onFxThread() {
+        return Platform.isFxApplicationThread();
+    }
+
+    /** Runs {@code update} on the FX thread: inline if already there, queued otherwise. */
+    static void run(Runnable update) {
+        if (Platform.isFxApplicationThread()) {
+            update.run();
+            return;
+        }
+        try {
+            Platform.runLater(update);
+        } catch (IllegalStateException noToolkit) {
+            update.run();
+        }
+    }
+
+    /** Like {@link #run}, but waits until the update has run. Never call while holding a cache lock. */
+    static void runAndWait(Runnable update) {
+        if (Platform.isFxApplicationThread()) {
+            update.run();
+            return;
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            Platform.runLater(() -> {
+                try {
+                    update.run();
+                } finally {
+                    done.countDown();
+                }
+            });
+        } catch (IllegalStateException noToolkit) {
+            update.run();
+            return;
+        }
+
+        try {
+            done.await();
+        } catch (InterruptedException err) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
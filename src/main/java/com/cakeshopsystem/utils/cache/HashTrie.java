@@ -0,0 +1,470 @@
+package com.cakeshopsystem.utils.cache;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable hash map for {@link EntityCache} states (a hash array mapped trie: 32 children per
+ * level, picked by 5 bits of the key's hash). {@link #with}/{@link #without} return a new map
+ * that copies only the few nodes on the key's path and shares the rest, so a single write costs
+ * the same at 100 rows as at 100k, and whoever still reads the old map keeps seeing it whole.
+ * A full load uses {@link #of} instead, which builds every node once.
+ * <p>
+ * Reads like any other read-only {@link Map}. Keys and values must not be null.
+ */
+final class HashTrie<K, V> extends AbstractMap<K, V> {
+
+    private static final HashTrie<?, ?> EMPTY = new HashTrie<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private HashTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> HashTrie<K, V> empty() {
+        return (HashTrie<K, V>) EMPTY;
+    }
+
+    /**
+     * The map of {@code keys[i] -> values[i]} for {@code i < n}, built level by level: each level
+     * sorts its entries by their 5 hash bits in one pass and creates its nodes at their final
+     * size. For a repeated key the first entry wins if {@code keepFirst}, else the last; the
+     * positions of the entries that lost are set in {@code dropped} (if not null).
+     */
+    static <K, V> HashTrie<K, V> of(Object[] keys, Object[] values, int n, boolean keepFirst, BitSet dropped) {
+        if (n == 0) return empty();
+
+        int[] hashes = new int[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = hash(keys[i]);
+            order[i] = i;
+        }
+
+        Bulk bulk = new Bulk(keys, values, hashes, order, keepFirst, dropped);
+        Node root = bulk.node(0, n, 0);
+        return new HashTrie<>(root, bulk.kept);
+    }
+
+    // =====================================
+    // READS
+    // =====================================
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null || key == null) return null;
+        return (V) root.find(0, hash(key), key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Entries<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // =====================================
+    // WRITES (return a new map)
+    // =====================================
+    /** This map with {@code key} mapped to {@code value}. */
+    HashTrie<K, V> with(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node start = root == null ? Bitmap.EMPTY : root;
+        Node changed = start.put(0, hash(key), key, value, added);
+        if (changed == root) return this;
+        return new HashTrie<>(changed, added[0] ? size + 1 : size);
+    }
+
+    /** This map without {@code key}; itself if the key isn't there. */
+    HashTrie<K, V> without(Object key) {
+        if (root == null || key == null) return this;
+
+        Node changed = root.remove(0, hash(key), key);
+        if (changed == root) return this;
+        return changed == null ? empty() : new HashTrie<>(changed, size - 1);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // =====================================
+    // NODES
+    // =====================================
+    // Entries are pairs in array: [key, value], or [null, child node] for a deeper level
+    private abstract static class Node {
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        // null when the node ends up empty
+        abstract Node remove(int shift, int hash, Object key);
+    }
+
+    private static final class Bitmap extends Node {
+        static final Bitmap EMPTY = new Bitmap(0, new Object[0]);
+
+        // Bit i set = an entry for hash chunk i, stored at the bit's rank among the set bits
+        final int bitmap;
+
+        Bitmap(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+
+            int i = 2 * rank(bit);
+            Object k = array[i];
+            if (k == null) return ((Node) array[i + 1]).find(shift + 5, hash, key);
+            return key.equals(k) ? array[i + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bit(hash, shift);
+            int i = 2 * rank(bit);
+
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] grown = new Object[array.length + 2];
+                System.arraycopy(array, 0, grown, 0, i);
+                grown[i] = key;
+                grown[i + 1] = value;
+                System.arraycopy(array, i, grown, i + 2, array.length - i);
+                return new Bitmap(bitmap | bit, grown);
+            }
+
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(shift + 5, hash, key, value, added);
+                return child == v ? this : set(i, null, child);
+            }
+            if (key.equals(k)) return v == value ? this : set(i, k, value);
+
+            added[0] = true;
+            return set(i, null, pair(shift + 5, k, v, hash, key, value));
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+
+            int i = 2 * rank(bit);
+            Object k = array[i];
+            if (k == null) {
+                Node child = (Node) array[i + 1];
+                Node changed = child.remove(shift + 5, hash, key);
+                if (changed == child) return this;
+                if (changed != null) return set(i, null, changed);
+            } else if (!key.equals(k)) {
+                return this;
+            }
+
+            if (bitmap == bit) return null;
+            Object[] shrunk = new Object[array.length - 2];
+            System.arraycopy(array, 0, shrunk, 0, i);
+            System.arraycopy(array, i + 2, shrunk, i, array.length - i - 2);
+            return new Bitmap(bitmap ^ bit, shrunk);
+        }
+
+        private Node set(int i, Object key, Object value) {
+            Object[] copy = array.clone();
+            copy[i] = key;
+            copy[i + 1] = value;
+            return new Bitmap(bitmap, copy);
+        }
+
+        private int rank(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & 31);
+        }
+
+        // A node holding two entries whose hashes matched down to this level
+        private static Node pair(int shift, Object k1, Object v1, int hash2, Object k2, Object v2) {
+            int hash1 = hash(k1);
+            if (hash1 == hash2) return new Collision(hash1, new Object[]{k1, v1, k2, v2});
+
+            boolean[] added = new boolean[1];
+            return EMPTY.put(shift, hash1, k1, v1, added).put(shift, hash2, k2, v2, added);
+        }
+    }
+
+    // Distinct keys with the same full hash; practically never more than two
+    private static final class Collision extends Node {
+        final int hash;
+
+        Collision(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int i = indexOf(key);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // Another hash reached this slot: push the collisions one level down
+                Bitmap parent = new Bitmap(Bitmap.bit(this.hash, shift), new Object[]{null, this});
+                return parent.put(shift, hash, key, value, added);
+            }
+
+            int i = indexOf(key);
+            Object[] copy;
+            if (i >= 0) {
+                if (array[i + 1] == value) return this;
+                copy = array.clone();
+                copy[i + 1] = value;
+            } else {
+                added[0] = true;
+                copy = new Object[array.length + 2];
+                System.arraycopy(array, 0, copy, 0, array.length);
+                copy[array.length] = key;
+                copy[array.length + 1] = value;
+            }
+            return new Collision(hash, copy);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int i = indexOf(key);
+            if (i < 0) return this;
+            if (array.length == 2) return null;
+
+            Object[] shrunk = new Object[array.length - 2];
+            System.arraycopy(array, 0, shrunk, 0, i);
+            System.arraycopy(array, i + 2, shrunk, i, array.length - i - 2);
+            return new Collision(hash, shrunk);
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) return i;
+            }
+            return -1;
+        }
+    }
+
+    // =====================================
+    // BULK BUILD
+    // =====================================
+    // order holds entry positions; each level sorts its range of it by hash chunk, keeping input
+    // order within a chunk, so among repeated keys the first in order is the first entry given
+    private static final class Bulk {
+        static final int SMALL_RANGE = 16;
+
+        final Object[] keys;
+        final Object[] values;
+        final int[] hashes;
+        final int[] order;
+        final int[] scratch;
+        final boolean keepFirst;
+        final BitSet dropped;
+        int kept = 0;
+
+        Bulk(Object[] keys, Object[] values, int[] hashes, int[] order, boolean keepFirst, BitSet dropped) {
+            this.keys = keys;
+            this.values = values;
+            this.hashes = hashes;
+            this.order = order;
+            this.scratch = new int[order.length];
+            this.keepFirst = keepFirst;
+            this.dropped = dropped;
+        }
+
+        // Node for the entries order[from, to), which share every hash chunk above shift
+        Node node(int from, int to, int shift) {
+            if (to - from > 1 && sameHash(from, to)) return collision(from, to);
+
+            sortByChunk(from, to, shift);
+
+            int bitmap = 0;
+            for (int i = from; i < to; i++) bitmap |= 1 << chunk(order[i], shift);
+
+            // One run of entries per set bit: a single entry is stored here, more go a level down
+            Object[] array = new Object[2 * Integer.bitCount(bitmap)];
+            int slot = 0;
+            for (int start = from; start < to; slot += 2) {
+                int c = chunk(order[start], shift);
+                int end = start + 1;
+                while (end < to && chunk(order[end], shift) == c) end++;
+
+                if (end - start == 1) {
+                    array[slot] = keys[order[start]];
+                    array[slot + 1] = values[order[start]];
+                    kept++;
+                } else {
+                    array[slot + 1] = node(start, end, shift + 5);
+                }
+                start = end;
+            }
+            return new Bitmap(bitmap, array);
+        }
+
+        // Stable sort of order[from, to) by hash chunk: counting sort, or insertion sort for the
+        // few entries most nodes below the top levels hold
+        private void sortByChunk(int from, int to, int shift) {
+            if (to - from <= SMALL_RANGE) {
+                for (int i = from + 1; i < to; i++) {
+                    int e = order[i];
+                    int c = chunk(e, shift);
+                    int j = i - 1;
+                    for (; j >= from && chunk(order[j], shift) > c; j--) order[j + 1] = order[j];
+                    order[j + 1] = e;
+                }
+                return;
+            }
+
+            int[] starts = new int[33];
+            for (int i = from; i < to; i++) starts[chunk(order[i], shift) + 1]++;
+            for (int c = 0; c < 32; c++) starts[c + 1] += starts[c];
+
+            for (int i = from; i < to; i++) scratch[from + starts[chunk(order[i], shift)]++] = order[i];
+            System.arraycopy(scratch, from, order, from, to - from);
+        }
+
+        // Entries with one full hash: distinct keys share a node, repeated ones keep one entry
+        private Node collision(int from, int to) {
+            Object[] pairs = new Object[2 * (to - from)];
+            int[] entryOf = new int[to - from];
+            int count = 0;
+
+            for (int i = from; i < to; i++) {
+                int e = order[i];
+                int at = -1;
+                for (int j = 0; j < count; j++) {
+                    if (keys[e].equals(pairs[2 * j])) at = j;
+                }
+
+                if (at < 0) {
+                    pairs[2 * count] = keys[e];
+                    pairs[2 * count + 1] = values[e];
+                    entryOf[count++] = e;
+                } else if (keepFirst) {
+                    drop(e);
+                } else {
+                    drop(entryOf[at]);
+                    pairs[2 * at + 1] = values[e];
+                    entryOf[at] = e;
+                }
+            }
+
+            kept += count;
+            return new Collision(hashes[order[from]], Arrays.copyOf(pairs, 2 * count));
+        }
+
+        private void drop(int e) {
+            if (dropped != null) dropped.set(e);
+        }
+
+        private boolean sameHash(int from, int to) {
+            int h = hashes[order[from]];
+            for (int i = from + 1; i < to; i++) {
+                if (hashes[order[i]] != h) return false;
+            }
+            return true;
+        }
+
+        private int chunk(int e, int shift) {
+            return (hashes[e] >>> shift) & 31;
+        }
+    }
+
+    // Depth-first over the nodes' pair arrays
+    private static final class Entries<K, V> implements Iterator<Entry<K, V>> {
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Entry<K, V> next;
+
+        Entries(Node root) {
+            if (root != null) {
+                arrays.push(root.array);
+                positions.push(0);
+            }
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (!arrays.isEmpty()) {
+                Object[] array = arrays.peek();
+                int i = positions.pop();
+                if (i >= array.length) {
+                    arrays.pop();
+                    continue;
+                }
+                positions.push(i + 2);
+
+                if (array[i] != null) {
+                    next = new SimpleImmutableEntry<>((K) array[i], (V) array[i + 1]);
+                    return;
+                }
+                arrays.push(((Node) array[i + 1]).array);
+                positions.push(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) throw new NoSuchElementException();
+            Entry<K, V> current = next;
+            advance();
+            return current;
+        }
+    }
+}
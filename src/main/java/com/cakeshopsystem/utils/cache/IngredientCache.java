@@ -2,54 +2,43 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Ingredient;
 import com.cakeshopsystem.utils.dao.IngredientDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class IngredientCache {
 
-    private static final ObservableList<Ingredient> ingredientsList = FXCollections.observableArrayList();
-    private static final Map<Integer, Ingredient> ingredientsMap = new HashMap<>();
-    private static final Map<String, Integer> ingredientNameToIdMap = new HashMap<>();
+    private static final EntityCache<Integer, Ingredient> CACHE =
+            new EntityCache<>("ingredients", Ingredient::getIngredientId, IngredientDAO::loadAllIngredients);
+    private static final EntityCache.Unique<String, Ingredient> BY_NAME =
+            CACHE.uniqueIndex(i -> normalize(i.getIngredientName()));
 
     private IngredientCache() {}
 
     // ===================== get =====================
 
     public static ObservableList<Ingredient> getIngredientsList() {
-        if (ingredientsList.isEmpty()) refreshIngredients();
-        return ingredientsList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Ingredient> getIngredientsMap() {
-        if (ingredientsMap.isEmpty()) refreshIngredients();
-        return ingredientsMap;
+        return CACHE.asMap();
     }
 
     public static Ingredient getIngredientById(int ingredientId) {
-        if (ingredientsMap.isEmpty()) refreshIngredients();
-        return ingredientsMap.get(ingredientId);
+        return CACHE.get(ingredientId);
     }
 
     public static int getIngredientIdByName(String ingredientName) {
         if (ingredientName == null || ingredientName.isBlank()) return -1;
-        if (ingredientNameToIdMap.isEmpty()) refreshIngredients();
-        return ingredientNameToIdMap.getOrDefault(normalize(ingredientName), -1);
+        Ingredient ingredient = BY_NAME.get(normalize(ingredientName));
+        return ingredient == null ? -1 : ingredient.getIngredientId();
     }
 
     // ===================== refresh =====================
 
     public static void refreshIngredients() {
-        ingredientsList.clear();
-        ingredientsMap.clear();
-        ingredientNameToIdMap.clear();
-
-        ObservableList<Ingredient> fresh = IngredientDAO.getAllIngredients();
-        for (Ingredient ingredient : fresh) {
-            cacheIngredient(ingredient);
-        }
+        CACHE.refresh();
     }
 
     // ===================== crud wrappers =====================
@@ -58,7 +47,7 @@ public class IngredientCache {
         if (ingredient == null) return false;
 
         boolean ok = IngredientDAO.insertIngredient(ingredient);
-        if (ok) cacheIngredient(ingredient);
+        if (ok) CACHE.saved(ingredient);
 
         return ok;
     }
@@ -67,57 +56,20 @@ public class IngredientCache {
         if (ingredient == null) return false;
 
         boolean ok = IngredientDAO.updateIngredient(ingredient);
-        if (ok) cacheIngredient(ingredient);
+        if (ok) CACHE.saved(ingredient);
 
         return ok;
     }
 
     public static boolean deleteIngredient(int ingredientId) {
         boolean ok = IngredientDAO.deleteIngredient(ingredientId);
-        if (ok) {
-            Ingredient removed = ingredientsMap.remove(ingredientId);
-
-            ingredientsList.removeIf(i -> i.getIngredientId() == ingredientId);
-
-            if (removed != null) {
-                ingredientNameToIdMap.remove(normalize(removed.getIngredientName()));
-            } else {
-                rebuildNameMapFromList();
-            }
-        }
+        if (ok) CACHE.deleted(ingredientId);
         return ok;
     }
 
     // ===================== helpers =====================
 
-    private static void cacheIngredient(Ingredient ingredient) {
-        if (ingredient == null) return;
-
-        int id = ingredient.getIngredientId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) ingredientsList.set(idx, ingredient);
-        else ingredientsList.add(ingredient);
-
-        ingredientsMap.put(id, ingredient);
-        ingredientNameToIdMap.put(normalize(ingredient.getIngredientName()), id);
-    }
-
-    private static int findIndexById(int ingredientId) {
-        for (int i = 0; i < ingredientsList.size(); i++) {
-            if (ingredientsList.get(i).getIngredientId() == ingredientId) return i;
-        }
-        return -1;
-    }
-
     private static String normalize(String s) {
         return (s == null) ? "" : s.trim().toLowerCase();
     }
-
-    private static void rebuildNameMapFromList() {
-        ingredientNameToIdMap.clear();
-        for (Ingredient ing : ingredientsList) {
-            ingredientNameToIdMap.put(normalize(ing.getIngredientName()), ing.getIngredientId());
-        }
-    }
 }
@@ -0,0 +1,168 @@
+package com.cakeshopsystem.utils.cache;
+
+/**
+ * Immutable map from a non-negative int to a value, for {@link EntityCache.IntUnique}. A radix
+ * trie on the key's bits, 32 children per level: a lookup is one array read per level (three
+ * levels cover ids below 32768) and never boxes the key. {@link #with}/{@link #without} copy only
+ * the nodes on the key's path, like {@link HashTrie}; a full load uses a {@link Builder}.
+ * <p>
+ * Made for auto-increment ids, which fill their leaves densely.
+ */
+final class IntTrie<V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final IntTrie<?> EMPTY = new IntTrie<>(null, 0, 0);
+
+    // Inner nodes hold child arrays, leaves (shift 0) hold values; null = nothing below
+    private final Object[] root;
+    // Bits of the key below the root's level; keys up to 2^(shift + BITS) - 1 fit
+    private final int shift;
+    private final int size;
+
+    private IntTrie(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> IntTrie<V> empty() {
+        return (IntTrie<V>) EMPTY;
+    }
+
+    // =====================================
+    // READS
+    // =====================================
+    /** The value for {@code key}; null if there is none (or the key is negative). */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        if (key < 0 || root == null || !fits(key, shift)) return null;
+
+        Object[] node = root;
+        for (int s = shift; s > 0; s -= BITS) {
+            node = (Object[]) node[(key >>> s) & MASK];
+            if (node == null) return null;
+        }
+        return (V) node[key & MASK];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // =====================================
+    // WRITES (return a new trie)
+    // =====================================
+    /** This trie with {@code key} mapped to {@code value}. */
+    IntTrie<V> with(int key, V value) {
+        checkKey(key);
+        if (value == null) throw new IllegalArgumentException("null value");
+
+        Object[] top = root;
+        int s = shift;
+        if (top == null) {
+            s = shiftFor(key);
+        } else {
+            // Deeper root: the old one becomes child 0, since every key it holds is smaller
+            while (!fits(key, s)) {
+                Object[] grown = new Object[WIDTH];
+                grown[0] = top;
+                top = grown;
+                s += BITS;
+            }
+        }
+
+        boolean[] added = new boolean[1];
+        Object[] changed = put(top, s, key, value, added);
+        if (changed == top && top == root) return this;
+        return new IntTrie<>(changed, s, added[0] ? size + 1 : size);
+    }
+
+    /** This trie without {@code key}; itself if the key isn't there. */
+    IntTrie<V> without(int key) {
+        if (get(key) == null) return this;
+        if (size == 1) return empty();
+        return new IntTrie<>(remove(root, shift, key), shift, size - 1);
+    }
+
+    private static Object[] put(Object[] node, int shift, int key, Object value, boolean[] added) {
+        int i = (key >>> shift) & MASK;
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+
+        if (shift == 0) {
+            if (copy[i] == value) return node;
+            added[0] = copy[i] == null;
+            copy[i] = value;
+            return copy;
+        }
+
+        Object[] child = (Object[]) copy[i];
+        Object[] changed = put(child, shift - BITS, key, value, added);
+        if (changed == child) return node;
+        copy[i] = changed;
+        return copy;
+    }
+
+    // null when the node ends up empty, so emptied paths are dropped
+    private static Object[] remove(Object[] node, int shift, int key) {
+        int i = (key >>> shift) & MASK;
+        Object[] copy = node.clone();
+        copy[i] = shift == 0 ? null : remove((Object[]) node[i], shift - BITS, key);
+
+        for (Object slot : copy) {
+            if (slot != null) return copy;
+        }
+        return null;
+    }
+
+    private static boolean fits(int key, int shift) {
+        return shift + BITS >= Integer.SIZE - 1 || (key >>> (shift + BITS)) == 0;
+    }
+
+    private static int shiftFor(int key) {
+        int s = 0;
+        while (!fits(key, s)) s += BITS;
+        return s;
+    }
+
+    private static void checkKey(int key) {
+        if (key < 0) throw new IllegalArgumentException("negative key " + key);
+    }
+
+    /** Fills fresh nodes in place (nothing is shared yet); a repeated key keeps its last value. */
+    static final class Builder<V> {
+        private Object[] root;
+        private int shift;
+        private int size;
+
+        void put(int key, V value) {
+            checkKey(key);
+            if (root == null) {
+                shift = shiftFor(key);
+                root = new Object[WIDTH];
+            }
+            while (!fits(key, shift)) {
+                Object[] grown = new Object[WIDTH];
+                grown[0] = root;
+                root = grown;
+                shift += BITS;
+            }
+
+            Object[] node = root;
+            for (int s = shift; s > 0; s -= BITS) {
+                int i = (key >>> s) & MASK;
+                if (node[i] == null) node[i] = new Object[WIDTH];
+                node = (Object[]) node[i];
+            }
+            if (node[key & MASK] == null) size++;
+            node[key & MASK] = value;
+        }
+
+        IntTrie<V> build() {
+            return root == null ? empty() : new IntTrie<>(root, shift, size);
+        }
+    }
+}
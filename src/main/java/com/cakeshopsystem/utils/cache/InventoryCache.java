@@ -1,82 +1,436 @@
 package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Inventory;
+import com.cakeshopsystem.models.InventoryDelta;
+import com.cakeshopsystem.utils.cache.CacheStats.Cause;
 import com.cakeshopsystem.utils.dao.InventoryDAO;
+import com.cakeshopsystem.utils.events.AppEvents;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Stock per product and today's discount candidates.
+ * <p>
+ * A sale doesn't reload the table: {@link #applySale} applies the exact batch changes the order
+ * made (from {@link com.cakeshopsystem.models.ReceiptData#getInventoryDeltas()}) and tells the
+ * other terminals, which reload through {@link CacheVersions}. A full {@link #refresh()} is left
+ * for admin stock changes ({@link #invalidate()}) or a delta the cache can't place.
+ * <p>
+ * Whether a batch is expired or a discount candidate depends on the day. Batches are also indexed
+ * by expiry date, so at midnight (see {@link #startRollover()}) only the batches expiring yesterday
+ * or today are reclassified, without a query. A read that finds the state from an earlier day rolls
+ * it over first, so a late timer never shows yesterday's classification.
+ */
 public class InventoryCache {
 
-    private static final ObservableList<Inventory> all = FXCollections.observableArrayList();
+    private static final String ENTITY = "inventory";
 
-    private static final Map<Integer, Integer> totalQtyByProduct = new HashMap<>();
-    private static final Map<Integer, Integer> regularQtyByProduct = new HashMap<>();
+    private static final Comparator<Inventory> CANDIDATE_ORDER = Comparator
+            .comparing(Inventory::getExpDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(Inventory::getInventoryId);
 
+    // One published state; replaced whole, never edited, so reads need no lock.
+    // idsByExpiry only holds batches not yet expired on day: the only ones a new day can change.
+    record Snapshot(LocalDate day,
+                            Map<Integer, Inventory> byId,
+                            NavigableMap<LocalDate, List<Integer>> idsByExpiry,
+                            Map<Integer, Integer> totalQtyByProduct,
+                            Map<Integer, Integer> regularQtyByProduct,
+                            List<Inventory> discountCandidates) {}
+
+    // null until the first load
+    private static volatile Snapshot current;
+
+    // After a failed first load, reads don't query again before this System.nanoTime() (0 = no wait)
+    private static final long RETRY_AFTER_FAILURE_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static volatile long retryAt = 0;
+
+    // The first load in flight, so the login warm-up and the first view share one query
+    private static final AtomicReference<CompletableFuture<Snapshot>> firstLoad = new AtomicReference<>();
+
+    // Writers publish under this lock; modCount tells a load that a sale landed during its query
+    private static final Object writeLock = new Object();
+    private static long modCount = 0;
+
+    // FX mirror of current.discountCandidates, set on the FX thread
     private static final ObservableList<Inventory> discountCandidates = FXCollections.observableArrayList();
 
-    private static boolean loaded = false;
+    private static ScheduledExecutorService rolloverTimer;
+
+    // Batches sit in byId and idsByExpiry; their quantities in the two totals maps
+    private static final CacheStats stats = new CacheStats(ENTITY,
+            () -> current == null ? 0 : current.byId().size(),
+            () -> current == null ? 0 : CacheStats.estimateBytes(new ArrayList<>(current.byId().values()), 4));
+
+    static {
+        CacheVersions.watch(ENTITY, InventoryCache::reloadForRemoteChange);
+    }
 
     private InventoryCache() {}
 
-    private static void ensureLoaded() {
-        if (!loaded) refresh();
+    /** The published state, or null before the first load; for {@link CatalogStore}. */
+    static Snapshot published() {
+        return current;
+    }
+
+    /** The state for today, loading or rolling it over if needed; for {@link CatalogStore}. */
+    static Snapshot state() {
+        return ensureLoaded();
+    }
+
+    private static Snapshot ensureLoaded() {
+        Snapshot s = current;
+        stats.lookup(s != null);
+        if (s == null) {
+            long wait = retryAt;
+            if (wait != 0 && wait - System.nanoTime() > 0) return build(List.of(), LocalDate.now());
+            return firstLoad();
+        }
+        return s.day().equals(LocalDate.now()) ? s : rollover();
     }
 
+    private static Snapshot firstLoad() {
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = firstLoad.compareAndExchange(null, mine);
+        if (running != null) {
+            // That load ends by syncing the FX list, so the FX thread queries on its own instead
+            return FxSync.onFxThread() ? load(Cause.FIRST_USE) : running.join();
+        }
+
+        try {
+            Snapshot s = load(Cause.FIRST_USE);
+            mine.complete(s);
+            return s;
+        } catch (RuntimeException err) {
+            mine.completeExceptionally(err);
+            throw err;
+        } finally {
+            firstLoad.compareAndSet(mine, null);
+        }
+    }
+
+    // =====================================
+    // FULL LOADS
+    // =====================================
     public static void refresh() {
-        all.clear();
-        totalQtyByProduct.clear();
-        regularQtyByProduct.clear();
-        discountCandidates.clear();
+        load(Cause.EXPLICIT);
+    }
 
-        LocalDate today = LocalDate.now();
+    /** Reload after writing inventory through InventoryDAO directly; other terminals reload too. */
+    public static void invalidate() {
+        load(Cause.EXPLICIT);
+        CacheVersions.bump(ENTITY);
+    }
 
-        for (Inventory inv : InventoryDAO.getAllInventory()) {
-            all.add(inv);
+    // Another terminal sold or restocked; a never-loaded cache is left for first use
+    private static void reloadForRemoteChange() {
+        if (current != null) load(Cause.REMOTE_CHANGE);
+    }
 
-            int qty = inv.getQuantity();
-            if (qty <= 0) continue;
+    /** Builds the totals on the calling thread, publishes them in one step, then syncs the FX list. */
+    private static Snapshot load(Cause cause) {
+        Snapshot fresh;
+        while (true) {
+            long seen;
+            synchronized (writeLock) {
+                seen = modCount;
+            }
 
-            LocalDate exp = inv.getExpDate();
-            boolean notExpired = (exp == null) || !exp.isBefore(today);
+            long started = System.nanoTime();
+            try {
+                fresh = build(InventoryDAO.loadAllInventory(), LocalDate.now());
+            } catch (SQLException err) {
+                return failedLoad(err);
+            }
+            stats.loaded(cause, System.nanoTime() - started);
+
+            synchronized (writeLock) {
+                // A sale was applied after the query started; its rows may be missing, so read again
+                if (modCount != seen) continue;
+                modCount++;
+                current = fresh;
+                retryAt = 0;
+                break;
+            }
+        }
+
+        // Two loads may finish out of order; the list always shows the latest published one
+        FxSync.runAndWait(() -> discountCandidates.setAll(current.discountCandidates()));
+        return fresh;
+    }
 
-            boolean isDiscountCandidate =
-                    exp != null
-                            && exp.equals(today)
-                            && inv.getCreatedAt() != null
-                            && inv.getCreatedAt().toLocalDate().isBefore(today);
+    // What was published stays (the poller loads again); with nothing published yet, reads see no
+    // stock until one a couple of seconds later tries again
+    private static Snapshot failedLoad(SQLException err) {
+        System.err.println("Error loading inventory cache: " + err.getLocalizedMessage());
 
-            if (isDiscountCandidate) {
-                discountCandidates.add(inv);
+        Snapshot s = current;
+        if (s != null) {
+            CacheVersions.reloadOnNextPoll(ENTITY);
+            return s;
+        }
+        retryAt = System.nanoTime() + RETRY_AFTER_FAILURE_NANOS;
+        return build(List.of(), LocalDate.now());
+    }
+
+    static Snapshot build(Collection<Inventory> rows, LocalDate today) {
+        Map<Integer, Inventory> byId = new HashMap<>();
+        NavigableMap<LocalDate, List<Integer>> idsByExpiry = new TreeMap<>();
+        Map<Integer, Integer> totalQtyByProduct = new HashMap<>();
+        Map<Integer, Integer> regularQtyByProduct = new HashMap<>();
+        List<Inventory> candidates = new ArrayList<>();
+
+        for (Inventory inv : rows) {
+            byId.put(inv.getInventoryId(), inv);
+            if (inv.getExpDate() != null && !inv.getExpDate().isBefore(today)) {
+                idsByExpiry.computeIfAbsent(inv.getExpDate(), d -> new ArrayList<>()).add(inv.getInventoryId());
             }
+            count(inv, today, 1, totalQtyByProduct, regularQtyByProduct);
+            if (isDiscountCandidate(inv, today)) candidates.add(inv);
+        }
 
-            if (notExpired) {
-                int pid = inv.getProductId();
-                totalQtyByProduct.merge(pid, qty, Integer::sum);
+        candidates.sort(CANDIDATE_ORDER);
+        idsByExpiry.replaceAll((d, ids) -> List.copyOf(ids));
 
-                if (!isDiscountCandidate) {
-                    regularQtyByProduct.merge(pid, qty, Integer::sum);
-                }
+        return new Snapshot(
+                today,
+                Collections.unmodifiableMap(byId),
+                Collections.unmodifiableNavigableMap(idsByExpiry),
+                Collections.unmodifiableMap(totalQtyByProduct),
+                Collections.unmodifiableMap(regularQtyByProduct),
+                Collections.unmodifiableList(candidates));
+    }
+
+    // =====================================
+    // SALES
+    // =====================================
+    /**
+     * Applies the batch changes of a committed order and tells the other terminals. Falls back to a
+     * full load if the cache isn't loaded yet or doesn't match a delta.
+     */
+    public static void applySale(List<InventoryDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) return;
+
+        Snapshot applied;
+        synchronized (writeLock) {
+            Snapshot s = current;
+            LocalDate today = LocalDate.now();
+            if (s != null && s.day().isBefore(today)) {
+                s = roll(s, today);
+                stats.refreshed(Cause.DAY_ROLLOVER);
+            }
+
+            applied = (s == null || !s.day().equals(today)) ? null : apply(s, deltas);
+            if (applied != null) {
+                modCount++;
+                current = applied;
             }
         }
 
-        discountCandidates.sort(Comparator
-                .comparing(Inventory::getExpDate, Comparator.nullsLast(Comparator.naturalOrder()))
-                .thenComparingInt(Inventory::getInventoryId));
+        if (applied == null) load(current == null ? Cause.FIRST_USE : Cause.DRIFT);
+        else FxSync.run(() -> discountCandidates.setAll(current.discountCandidates()));
 
-        loaded = true;
+        CacheVersions.bump(ENTITY);
     }
 
+    /** The state after {@code deltas}, or null if one doesn't fit (unknown batch, stock below zero). */
+    static Snapshot apply(Snapshot s, List<InventoryDelta> deltas) {
+        Map<Integer, Inventory> byId = new HashMap<>(s.byId());
+        Map<Integer, Integer> totalQtyByProduct = new HashMap<>(s.totalQtyByProduct());
+        Map<Integer, Integer> regularQtyByProduct = new HashMap<>(s.regularQtyByProduct());
+        List<Inventory> candidates = new ArrayList<>(s.discountCandidates());
+
+        for (InventoryDelta delta : deltas) {
+            Inventory old = byId.get(delta.inventoryId());
+            if (old == null) return null;
+
+            int qty = old.getQuantity() + delta.qtyChange();
+            if (qty < 0) return null;
+
+            // Rows in a published state are never edited; the batch gets a new row
+            Inventory updated = new Inventory(old.getInventoryId(), old.getProductId(), qty,
+                    old.getExpDate(), old.getCreatedAt(), old.getUpdatedAt());
+            byId.put(updated.getInventoryId(), updated);
+
+            count(old, s.day(), -1, totalQtyByProduct, regularQtyByProduct);
+            count(updated, s.day(), 1, totalQtyByProduct, regularQtyByProduct);
+
+            // Same batch, same sort keys: it keeps its place in the candidate list
+            int at = candidates.indexOf(old);
+            if (at >= 0) {
+                if (isDiscountCandidate(updated, s.day())) candidates.set(at, updated);
+                else candidates.remove(at);
+            } else if (isDiscountCandidate(updated, s.day())) {
+                candidates.add(updated);
+                candidates.sort(CANDIDATE_ORDER);
+            }
+        }
+
+        return new Snapshot(
+                s.day(),
+                Collections.unmodifiableMap(byId),
+                s.idsByExpiry(),
+                Collections.unmodifiableMap(totalQtyByProduct),
+                Collections.unmodifiableMap(regularQtyByProduct),
+                Collections.unmodifiableList(candidates));
+    }
+
+    // =====================================
+    // DAY ROLLOVER
+    // =====================================
+    /** Reclassifies stock at every midnight from now on (no-op if already running). */
+    public static synchronized void startRollover() {
+        if (rolloverTimer != null) return;
+
+        rolloverTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "inventory-rollover");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduleNextRollover();
+    }
+
+    public static synchronized void stopRollover() {
+        if (rolloverTimer == null) return;
+        rolloverTimer.shutdownNow();
+        rolloverTimer = null;
+    }
+
+    // Worked out again each time, so DST days and clock changes land on the real midnight
+    private static synchronized void scheduleNextRollover() {
+        if (rolloverTimer == null) return;
+
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        rolloverTimer.schedule(InventoryCache::onMidnight, Duration.between(now, midnight).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void onMidnight() {
+        try {
+            if (current != null) rollover();
+        } catch (RuntimeException err) {
+            System.err.println("Error rolling inventory over to a new day: " + err.getLocalizedMessage());
+        } finally {
+            scheduleNextRollover();
+        }
+    }
+
+    /** Brings the state to today; a clock turned back falls back to a full load. */
+    private static Snapshot rollover() {
+        Snapshot rolled;
+        synchronized (writeLock) {
+            Snapshot s = current;
+            LocalDate today = LocalDate.now();
+            if (!s.day().isBefore(today)) {
+                if (s.day().equals(today)) return s;
+                rolled = null;
+            } else {
+                rolled = roll(s, today);
+                modCount++;
+                current = rolled;
+            }
+        }
+
+        if (rolled == null) return load(Cause.DAY_ROLLOVER);
+        stats.refreshed(Cause.DAY_ROLLOVER);
+
+        FxSync.run(() -> {
+            discountCandidates.setAll(current.discountCandidates());
+            AppEvents.fireDayRolledOver();
+        });
+        return rolled;
+    }
+
+    /**
+     * The state on {@code today}: only batches expiring between the old day and today change (they
+     * expire, or become discount candidates), so only their share of the totals is redone.
+     */
+    static Snapshot roll(Snapshot s, LocalDate today) {
+        Map<Integer, Integer> totalQtyByProduct = new HashMap<>(s.totalQtyByProduct());
+        Map<Integer, Integer> regularQtyByProduct = new HashMap<>(s.regularQtyByProduct());
+
+        for (List<Integer> ids : s.idsByExpiry().subMap(s.day(), true, today, true).values()) {
+            for (int id : ids) {
+                Inventory inv = s.byId().get(id);
+                count(inv, s.day(), -1, totalQtyByProduct, regularQtyByProduct);
+                count(inv, today, 1, totalQtyByProduct, regularQtyByProduct);
+            }
+        }
+
+        // Candidates always expire on the current day
+        List<Inventory> candidates = new ArrayList<>();
+        for (int id : s.idsByExpiry().getOrDefault(today, List.of())) {
+            Inventory inv = s.byId().get(id);
+            if (isDiscountCandidate(inv, today)) candidates.add(inv);
+        }
+        candidates.sort(CANDIDATE_ORDER);
+
+        return new Snapshot(
+                today,
+                s.byId(),
+                Collections.unmodifiableNavigableMap(new TreeMap<>(s.idsByExpiry().tailMap(today, true))),
+                Collections.unmodifiableMap(totalQtyByProduct),
+                Collections.unmodifiableMap(regularQtyByProduct),
+                Collections.unmodifiableList(candidates));
+    }
+
+    // =====================================
+    // RULES
+    // =====================================
+    // Adds (sign 1) or takes back (sign -1) one batch's share of the per-product totals
+    private static void count(Inventory inv, LocalDate today, int sign,
+                              Map<Integer, Integer> totalQtyByProduct,
+                              Map<Integer, Integer> regularQtyByProduct) {
+        int qty = inv.getQuantity();
+        if (qty <= 0) return;
+
+        LocalDate exp = inv.getExpDate();
+        boolean notExpired = (exp == null) || !exp.isBefore(today);
+        if (!notExpired) return;
+
+        int pid = inv.getProductId();
+        totalQtyByProduct.merge(pid, sign * qty, InventoryCache::sumOrDrop);
+
+        if (!isDiscountCandidate(inv, today)) {
+            regularQtyByProduct.merge(pid, sign * qty, InventoryCache::sumOrDrop);
+        }
+    }
+
+    // Stock expiring today that was made before today is sold at a discount
+    private static boolean isDiscountCandidate(Inventory inv, LocalDate today) {
+        LocalDate exp = inv.getExpDate();
+        return inv.getQuantity() > 0
+                && exp != null
+                && exp.equals(today)
+                && inv.getCreatedAt() != null
+                && inv.getCreatedAt().toLocalDate().isBefore(today);
+    }
+
+    private static Integer sumOrDrop(Integer a, Integer b) {
+        int sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+
+    // =====================================
+    // READS (lock-free)
+    // =====================================
     public static int getTotalQtyByProductId(int productId) {
-        ensureLoaded();
-        return totalQtyByProduct.getOrDefault(productId, 0);
+        return CatalogStore.totalQty(productId);
     }
 
     public static int getRegularQtyByProductId(int productId) {
-        ensureLoaded();
-        return regularQtyByProduct.getOrDefault(productId, 0);
+        return CatalogStore.regularQty(productId);
     }
 
     public static ObservableList<Inventory> getDiscountCandidates() {
@@ -2,63 +2,66 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Member;
 import com.cakeshopsystem.utils.dao.MemberDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Members, found by id, qualifying order or phone. Phones are indexed by {@link #phoneKey}
+ * (digits only, local 09... written as 959...), both for exact lookups and in a digit trie for
+ * as-you-type suggestions; writes through {@link #addMember}/{@link #updateMember} update both.
+ */
 public class MemberCache {
 
-    private static final ObservableList<Member> membersList = FXCollections.observableArrayList();
-    private static final Map<Integer, Member> membersMap = new HashMap<>();
-    private static final Map<String, Integer> phoneToIdMap = new HashMap<>();
-    private static final Map<Integer, Integer> qualifiedOrderToMemberIdMap = new HashMap<>();
+    private static final EntityCache<Integer, Member> CACHE =
+            new EntityCache<>("members", Member::getMemberId, MemberDAO::loadAllMembers);
+    private static final EntityCache.Unique<String, Member> BY_PHONE =
+            CACHE.uniqueIndex(m -> phoneKey(m.getPhone()));
+    private static final EntityCache.Prefix<Member> BY_PHONE_PREFIX =
+            CACHE.prefixIndex(m -> phoneKey(m.getPhone()));
+    private static final EntityCache.Unique<Integer, Member> BY_QUALIFIED_ORDER =
+            CACHE.uniqueIndex(Member::getQualifiedOrderId);
 
     private MemberCache() {}
 
     // ===================== Getters =====================
 
     public static ObservableList<Member> getMembersList() {
-        if (membersList.isEmpty()) refreshMembers();
-        return membersList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Member> getMembersMap() {
-        if (membersMap.isEmpty()) refreshMembers();
-        return membersMap;
+        return CACHE.asMap();
     }
 
     public static Member getMemberById(int memberId) {
-        if (membersMap.isEmpty()) refreshMembers();
-        return membersMap.get(memberId);
+        return CACHE.get(memberId);
     }
 
     public static Member getMemberByPhone(String phone) {
-        if (phone == null || phone.isBlank()) return null;
+        String key = phoneKey(phone);
+        return key == null ? null : BY_PHONE.get(key);
+    }
+
+    public static boolean isPhoneRegistered(String phone) {
+        return getMemberByPhone(phone) != null;
+    }
 
-        if (phoneToIdMap.isEmpty()) refreshMembers();
-        Integer id = phoneToIdMap.get(normalizePhone(phone));
-        return id == null ? null : getMemberById(id);
+    /** Up to {@code limit} members whose phone starts with what was typed so far, in phone order. */
+    public static List<Member> searchByPhonePrefix(String typed, int limit) {
+        String key = phoneKey(typed);
+        return key == null ? List.of() : BY_PHONE_PREFIX.startingWith(key, limit);
     }
 
     public static Member getMemberByQualifiedOrderId(int qualifiedOrderId) {
-        if (qualifiedOrderToMemberIdMap.isEmpty()) refreshMembers();
-        Integer memberId = qualifiedOrderToMemberIdMap.get(qualifiedOrderId);
-        return memberId == null ? null : getMemberById(memberId);
+        return BY_QUALIFIED_ORDER.get(qualifiedOrderId);
     }
 
     // ===================== Refresh =====================
 
     public static void refreshMembers() {
-        membersList.clear();
-        membersMap.clear();
-        phoneToIdMap.clear();
-        qualifiedOrderToMemberIdMap.clear();
-
-        for (Member m : MemberDAO.getAllMembers()) {
-            cacheMember(m);
-        }
+        CACHE.refresh();
     }
 
     // ===================== CRUD Wrappers =====================
@@ -67,7 +70,7 @@ public class MemberCache {
         if (member == null) return false;
 
         boolean ok = MemberDAO.insertMember(member);
-        if (ok) cacheMember(member);
+        if (ok) CACHE.saved(member);
 
         return ok;
     }
@@ -76,69 +79,34 @@ public class MemberCache {
         if (member == null) return false;
 
         boolean ok = MemberDAO.updateMember(member);
-        if (ok) {
-            int idx = findIndexById(member.getMemberId());
-            if (idx >= 0) membersList.set(idx, member);
-            else membersList.add(member);
-
-            membersMap.put(member.getMemberId(), member);
-            phoneToIdMap.put(normalizePhone(member.getPhone()), member.getMemberId());
-            qualifiedOrderToMemberIdMap.put(member.getQualifiedOrderId(), member.getMemberId());
-        }
+        if (ok) CACHE.saved(member);
 
         return ok;
     }
 
     public static boolean deleteMember(int memberId) {
         boolean ok = MemberDAO.deleteMember(memberId);
-        if (ok) {
-            Member removed = membersMap.remove(memberId);
-            membersList.removeIf(m -> m.getMemberId() == memberId);
-
-            if (removed != null) {
-                phoneToIdMap.remove(normalizePhone(removed.getPhone()));
-                qualifiedOrderToMemberIdMap.remove(removed.getQualifiedOrderId());
-            } else {
-                rebuildSecondaryMaps();
-            }
-        }
+        if (ok) CACHE.deleted(memberId);
         return ok;
     }
 
     // ===================== Helpers =====================
 
-    private static void cacheMember(Member member) {
-        if (member == null) return;
-
-        int id = member.getMemberId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) membersList.set(idx, member);
-        else membersList.add(member);
-
-        membersMap.put(id, member);
-        phoneToIdMap.put(normalizePhone(member.getPhone()), id);
-        qualifiedOrderToMemberIdMap.put(member.getQualifiedOrderId(), id);
-    }
-
-    private static int findIndexById(int memberId) {
-        for (int i = 0; i < membersList.size(); i++) {
-            if (membersList.get(i).getMemberId() == memberId) return i;
+    /**
+     * Digits of a phone, with a local leading 0 written as the country code: "09 123", "+959123"
+     * and "959123" all give "959123". Null when there are no digits.
+     */
+    private static String phoneKey(String phone) {
+        if (phone == null) return null;
+
+        StringBuilder digits = new StringBuilder(phone.length() + 1);
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') digits.append(c);
         }
-        return -1;
-    }
+        if (digits.length() == 0) return null;
 
-    private static String normalizePhone(String phone) {
-        return phone == null ? "" : phone.trim();
-    }
-
-    private static void rebuildSecondaryMaps() {
-        phoneToIdMap.clear();
-        qualifiedOrderToMemberIdMap.clear();
-
-        for (Member m : membersList) {
-            phoneToIdMap.put(normalizePhone(m.getPhone()), m.getMemberId());
-            qualifiedOrderToMemberIdMap.put(m.getQualifiedOrderId(), m.getMemberId());
-        }
+        if (digits.charAt(0) == '0') digits.replace(0, 1, "95");
+        return digits.toString();
     }
 }
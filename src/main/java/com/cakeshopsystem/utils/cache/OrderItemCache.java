@@ -2,33 +2,29 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.OrderItem;
 import com.cakeshopsystem.utils.dao.OrderItemDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class OrderItemCache {
 
-    // ===================== Getters =====================
-    private static final ObservableList<OrderItem> orderItemList = FXCollections.observableArrayList();
-    private static final Map<Integer, OrderItem> orderItemMap = new HashMap<>();
+    private static final EntityCache<Integer, OrderItem> CACHE =
+            new EntityCache<>("order_items", OrderItem::getOrderItemId, OrderItemDAO::loadAllOrderItem);
 
     private OrderItemCache() {}
 
+    // ===================== Getters =====================
+
     public static ObservableList<OrderItem> getOrderItemList() {
-        if (orderItemList.isEmpty()) refreshOrderItem();
-        return orderItemList;
+        return CACHE.view();
     }
 
     public static Map<Integer, OrderItem> getOrderItemMap() {
-        if (orderItemMap.isEmpty()) refreshOrderItem();
-        return orderItemMap;
+        return CACHE.asMap();
     }
 
     public static OrderItem getOrderItemById(int orderItemId) {
-        if (orderItemMap.isEmpty()) refreshOrderItem();
-        return orderItemMap.get(orderItemId);
+        return CACHE.get(orderItemId);
     }
 
     public static ObservableList<OrderItem> getOrderItemByOrderId(int orderId) {
@@ -39,12 +35,7 @@ public class OrderItemCache {
     // ===================== Refresh =====================
 
     public static void refreshOrderItem() {
-        orderItemList.clear();
-        orderItemMap.clear();
-
-        for (OrderItem item : OrderItemDAO.getAllOrderItem()) {
-            cacheOrderItem(item);
-        }
+        CACHE.refresh();
     }
 
     // ===================== CRUD Wrappers =====================
@@ -53,7 +44,7 @@ public class OrderItemCache {
         if (item == null) return false;
 
         boolean ok = OrderItemDAO.insertOrderItem(item);
-        if (ok) cacheOrderItem(item);
+        if (ok) CACHE.saved(item);
 
         return ok;
     }
@@ -62,36 +53,14 @@ public class OrderItemCache {
         if (item == null) return false;
 
         boolean ok = OrderItemDAO.updateOrderItem(item);
-        if (ok) cacheOrderItem(item);
+        if (ok) CACHE.saved(item);
 
         return ok;
     }
 
     public static boolean deleteOrderItem(int orderItemId) {
         boolean ok = OrderItemDAO.deleteOrderItem(orderItemId);
-        if (ok) {
-            orderItemMap.remove(orderItemId);
-            orderItemList.removeIf(i -> i.getOrderItemId() == orderItemId);
-        }
+        if (ok) CACHE.deleted(orderItemId);
         return ok;
     }
-
-    private static void cacheOrderItem(OrderItem item) {
-        if (item == null) return;
-
-        int id = item.getOrderItemId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) orderItemList.set(idx, item);
-        else orderItemList.add(item);
-
-        orderItemMap.put(id, item);
-    }
-
-    private static int findIndexById(int id) {
-        for (int i = 0; i < orderItemList.size(); i++) {
-            if (orderItemList.get(i).getOrderItemId() == id) return i;
-        }
-        return -1;
-    }
 }
@@ -5,15 +5,32 @@ import com.cakeshopsystem.utils.dao.PaymentDAO;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PaymentCache {
 
-    private static final ObservableList<Payment> paymentsList = FXCollections.observableArrayList();
+    private static final EntityCache<Integer, Payment> CACHE =
+            new EntityCache<>("payments", Payment::getPaymentId, PaymentDAO::loadAllPayments);
+    private static final EntityCache.Unique<String, Payment> BY_NAME =
+            CACHE.uniqueIndex(p -> normalize(p.getPaymentName()));
+
+    // Kept in table order; isActive is toggled in place, so this is rebuilt rather than indexed
     private static final ObservableList<Payment> activePaymentsList = FXCollections.observableArrayList();
-    private static final Map<Integer, Payment> paymentsMap = new HashMap<>();
-    private static final Map<String, Integer> paymentNameToIdMap = new HashMap<>();
+
+    static {
+        CACHE.onRefresh(PaymentCache::rebuildActiveList);
+
+        CACHE.snapshotWith(new CacheSnapshot.Codec<>(
+                1,
+                (out, p) -> {
+                    out.writeInt(p.getPaymentId());
+                    CacheSnapshot.writeString(out, p.getPaymentName());
+                    out.writeBoolean(p.isActive());
+                },
+                in -> new Payment(in.getInt(), CacheSnapshot.readString(in), CacheSnapshot.readBoolean(in))
+        ));
+    }
 
     private PaymentCache() {
     }
@@ -21,43 +38,33 @@ public class PaymentCache {
     // ===================== Getters =====================
 
     public static ObservableList<Payment> getPaymentsList() {
-        if (paymentsList.isEmpty()) refreshPayments();
-        return paymentsList;
+        return CACHE.view();
     }
 
     // Use this for POS dropdown (only available methods)
     public static ObservableList<Payment> getActivePaymentsList() {
-        if (paymentsList.isEmpty()) refreshPayments();
+        if (!CACHE.isLoaded()) refreshPayments();
         return activePaymentsList;
     }
 
     public static Map<Integer, Payment> getPaymentsMap() {
-        if (paymentsMap.isEmpty()) refreshPayments();
-        return paymentsMap;
+        return CACHE.asMap();
     }
 
     public static Payment getPaymentById(int paymentId) {
-        if (paymentsMap.isEmpty()) refreshPayments();
-        return paymentsMap.get(paymentId);
+        return CACHE.get(paymentId);
     }
 
     public static int getPaymentIdByName(String paymentName) {
         if (paymentName == null || paymentName.isBlank()) return -1;
-        if (paymentNameToIdMap.isEmpty()) refreshPayments();
-        return paymentNameToIdMap.getOrDefault(normalize(paymentName), -1);
+        Payment payment = BY_NAME.get(normalize(paymentName));
+        return payment == null ? -1 : payment.getPaymentId();
     }
 
     // ===================== Refresh =====================
 
     public static void refreshPayments() {
-        paymentsList.clear();
-        activePaymentsList.clear();
-        paymentsMap.clear();
-        paymentNameToIdMap.clear();
-
-        for (Payment p : PaymentDAO.getAllPayments()) {
-            cachePayment(p);
-        }
+        CACHE.refresh();
     }
 
     // ===================== CRUD Wrappers =====================
@@ -66,7 +73,10 @@ public class PaymentCache {
         if (payment == null) return false;
 
         boolean ok = PaymentDAO.insertPayment(payment);
-        if (ok) cachePayment(payment);
+        if (ok) {
+            CACHE.saved(payment);
+            rebuildActiveList();
+        }
         return ok;
     }
 
@@ -75,13 +85,7 @@ public class PaymentCache {
 
         boolean ok = PaymentDAO.updatePayment(payment);
         if (ok) {
-            int idx = findIndexById(payment.getPaymentId());
-            if (idx >= 0) paymentsList.set(idx, payment);
-            else paymentsList.add(payment);
-
-            paymentsMap.put(payment.getPaymentId(), payment);
-            paymentNameToIdMap.put(normalize(payment.getPaymentName()), payment.getPaymentId());
-
+            CACHE.saved(payment);
             rebuildActiveList();
         }
         return ok;
@@ -90,16 +94,7 @@ public class PaymentCache {
     public static boolean deletePayment(int paymentId) {
         boolean ok = PaymentDAO.deletePayment(paymentId);
         if (ok) {
-            Payment removed = paymentsMap.remove(paymentId);
-
-            paymentsList.removeIf(p -> p.getPaymentId() == paymentId);
-
-            if (removed != null) {
-                paymentNameToIdMap.remove(normalize(removed.getPaymentName()));
-            } else {
-                rebuildNameMapFromList();
-            }
-
+            CACHE.deleted(paymentId);
             rebuildActiveList();
         }
         return ok;
@@ -108,8 +103,9 @@ public class PaymentCache {
     public static boolean setPaymentActive(int paymentId, boolean active) {
         boolean ok = PaymentDAO.setPaymentActive(paymentId, active);
         if (ok) {
-            Payment p = paymentsMap.get(paymentId);
+            Payment p = CACHE.peek(paymentId);
             if (p != null) p.setActive(active);
+            CACHE.changed();
             rebuildActiveList();
         }
         return ok;
@@ -117,43 +113,12 @@ public class PaymentCache {
 
     // ===================== Helpers =====================
 
-    private static void cachePayment(Payment payment) {
-        if (payment == null) return;
-
-        int id = payment.getPaymentId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) paymentsList.set(idx, payment);
-        else paymentsList.add(payment);
-
-        paymentsMap.put(id, payment);
-        paymentNameToIdMap.put(normalize(payment.getPaymentName()), id);
-
-        rebuildActiveList();
-    }
-
-    private static int findIndexById(int paymentId) {
-        for (int i = 0; i < paymentsList.size(); i++) {
-            if (paymentsList.get(i).getPaymentId() == paymentId) return i;
-        }
-        return -1;
-    }
-
     private static String normalize(String s) {
         return s == null ? "" : s.trim().toLowerCase();
     }
 
-    private static void rebuildNameMapFromList() {
-        paymentNameToIdMap.clear();
-        for (Payment p : paymentsList) {
-            paymentNameToIdMap.put(normalize(p.getPaymentName()), p.getPaymentId());
-        }
-    }
-
     private static void rebuildActiveList() {
-        activePaymentsList.clear();
-        for (Payment p : paymentsList) {
-            if (p.isActive()) activePaymentsList.add(p);
-        }
+        List<Payment> active = CACHE.snapshot().stream().filter(Payment::isActive).toList();
+        FxSync.run(() -> activePaymentsList.setAll(active));
     }
 }
@@ -2,22 +2,46 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Product;
 import com.cakeshopsystem.utils.dao.ProductDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class ProductCache {
 
-    private static final ObservableList<Product> productsList = FXCollections.observableArrayList();
-    private static final Map<Integer, Product> productsMap = new HashMap<>();
+    private static final EntityCache<Integer, Product> CACHE =
+            new EntityCache<>("products", Product::getProductId, ProductDAO::loadAllProducts);
 
     // NOTE: If product_name is not unique, this will keep the latest one cached for that name.
-    private static final Map<String, Integer> productNameToIdMap = new HashMap<>();
+    private static final EntityCache.Unique<String, Product> BY_NAME =
+            CACHE.uniqueIndex(p -> normalize(p.getProductName()));
 
     // Helpful index for category -> products
-    private static final Map<Integer, ObservableList<Product>> categoryIdToProductsMap = new HashMap<>();
+    private static final EntityCache.Group<Integer, Product> BY_CATEGORY =
+            CACHE.groupIndex(Product::getCategoryId);
+
+    // Product cards and the cart look products up by id without boxing it
+    private static final EntityCache.IntUnique<Product> BY_ID =
+            CACHE.intIndex(Product::getProductId);
+
+    static {
+        CACHE.snapshotWith(new CacheSnapshot.Codec<>(
+                1,
+                (out, p) -> {
+                    out.writeInt(p.getProductId());
+                    CacheSnapshot.writeString(out, p.getProductName());
+                    out.writeInt(p.getCategoryId());
+                    out.writeDouble(p.getPrice());
+                    out.writeBoolean(p.isActive());
+                    out.writeBoolean(p.isTrackInventory());
+                    CacheSnapshot.writeNullableInt(out, p.getShelfLifeDays());
+                    CacheSnapshot.writeString(out, p.getImgPath());
+                },
+                in -> new Product(
+                        in.getInt(), CacheSnapshot.readString(in), in.getInt(), in.getDouble(),
+                        CacheSnapshot.readBoolean(in), CacheSnapshot.readBoolean(in),
+                        CacheSnapshot.readNullableInt(in), CacheSnapshot.readString(in))
+        ));
+    }
 
     private ProductCache() {
     }
@@ -25,43 +49,45 @@ public class ProductCache {
     // ===================== getters =====================
 
     public static ObservableList<Product> getProductsList() {
-        if (productsList.isEmpty()) refreshProducts();
-        return productsList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Product> getProductsMap() {
-        if (productsMap.isEmpty()) refreshProducts();
-        return productsMap;
+        return CACHE.asMap();
     }
 
     public static Product getProductById(int productId) {
-        if (productsMap.isEmpty()) refreshProducts();
-        return productsMap.get(productId);
+        return BY_ID.get(productId);
     }
 
     public static int getProductIdByName(String productName) {
         if (productName == null || productName.isBlank()) return -1;
-        if (productNameToIdMap.isEmpty()) refreshProducts();
-        return productNameToIdMap.getOrDefault(normalize(productName), -1);
+        Product product = BY_NAME.get(normalize(productName));
+        return product == null ? -1 : product.getProductId();
     }
 
     public static ObservableList<Product> getProductsByCategoryId(int categoryId) {
-        if (categoryIdToProductsMap.isEmpty()) refreshProducts();
-        return categoryIdToProductsMap.getOrDefault(categoryId, FXCollections.observableArrayList());
+        return BY_CATEGORY.get(categoryId);
+    }
+
+    static EntityCache<Integer, Product> cache() {
+        return CACHE;
+    }
+
+    static EntityCache.IntUnique<Product> byId() {
+        return BY_ID;
     }
 
     // ===================== refresh =====================
 
     public static void refreshProducts() {
-        productsList.clear();
-        productsMap.clear();
-        productNameToIdMap.clear();
-        categoryIdToProductsMap.clear();
-
-        ObservableList<Product> fresh = ProductDAO.getAllProducts();
-        for (Product product : fresh) {
-            cacheProduct(product);
-        }
+        CACHE.refresh();
+    }
+
+    /** Reload after writing products through the DAO directly; other terminals reload too. */
+    public static void invalidate() {
+        CACHE.refresh();
+        CACHE.changed();
     }
 
     // ===================== crud wrappers =====================
@@ -72,7 +98,7 @@ public class ProductCache {
         boolean ok = ProductDAO.insertProduct(product);
         if (ok) {
             // DAO sets generated id into product object
-            cacheProduct(product);
+            CACHE.saved(product);
         }
         return ok;
     }
@@ -81,91 +107,19 @@ public class ProductCache {
         if (product == null) return false;
 
         boolean ok = ProductDAO.updateProduct(product);
-        if (ok) {
-            // If category changed, remove from old category list first
-            Product old = productsMap.get(product.getProductId());
-            if (old != null && old.getCategoryId() != product.getCategoryId()) {
-                ObservableList<Product> oldList = categoryIdToProductsMap.get(old.getCategoryId());
-                if (oldList != null) oldList.removeIf(p -> p.getProductId() == product.getProductId());
-            }
-
-            cacheProduct(product);
-        }
+        if (ok) CACHE.saved(product);
         return ok;
     }
 
     public static boolean deleteProduct(int productId) {
         boolean ok = ProductDAO.deleteProduct(productId);
-        if (ok) {
-            Product removed = productsMap.remove(productId);
-
-            // remove from list
-            productsList.removeIf(p -> p.getProductId() == productId);
-
-            // remove from name map
-            if (removed != null) {
-                productNameToIdMap.remove(normalize(removed.getProductName()));
-
-                // remove from category map
-                ObservableList<Product> catList = categoryIdToProductsMap.get(removed.getCategoryId());
-                if (catList != null) {
-                    catList.removeIf(p -> p.getProductId() == productId);
-                    if (catList.isEmpty()) categoryIdToProductsMap.remove(removed.getCategoryId());
-                }
-            } else {
-                // fallback: rebuild maps from list
-                rebuildNameMapFromList();
-                rebuildCategoryMapFromList();
-            }
-        }
+        if (ok) CACHE.deleted(productId);
         return ok;
     }
 
     // ===================== helpers =====================
 
-    private static void cacheProduct(Product product) {
-        if (product == null) return;
-
-        int id = product.getProductId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) productsList.set(idx, product);
-        else productsList.add(product);
-
-        productsMap.put(id, product);
-        productNameToIdMap.put(normalize(product.getProductName()), id);
-
-        // category index
-        categoryIdToProductsMap.putIfAbsent(product.getCategoryId(), FXCollections.observableArrayList());
-
-        ObservableList<Product> list = categoryIdToProductsMap.get(product.getCategoryId());
-        list.removeIf(p -> p.getProductId() == id);
-        list.add(product);
-    }
-
-    private static int findIndexById(int productId) {
-        for (int i = 0; i < productsList.size(); i++) {
-            if (productsList.get(i).getProductId() == productId) return i;
-        }
-        return -1;
-    }
-
     private static String normalize(String s) {
         return (s == null) ? "" : s.trim().toLowerCase();
     }
-
-    private static void rebuildNameMapFromList() {
-        productNameToIdMap.clear();
-        for (Product p : productsList) {
-            productNameToIdMap.put(normalize(p.getProductName()), p.getProductId());
-        }
-    }
-
-    private static void rebuildCategoryMapFromList() {
-        categoryIdToProductsMap.clear();
-        for (Product p : productsList) {
-            categoryIdToProductsMap.putIfAbsent(p.getCategoryId(), FXCollections.observableArrayList());
-            categoryIdToProductsMap.get(p.getCategoryId()).add(p);
-        }
-    }
 }
@@ -0,0 +1,225 @@
+package com.cakeshopsystem.utils.cache;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable list for {@link EntityCache} states, ordered by a sequence number each row gets when
+ * it is first added (its table position). Kept as a weight-balanced tree with subtree sizes:
+ * {@link #with}/{@link #without} copy only the O(log n) nodes on the row's path, and
+ * {@link #get(int)} walks one path too. Iterating is linear.
+ */
+final class SeqList<V> extends AbstractList<V> {
+
+    // Rebalance when one side outweighs the other more than DELTA times; RATIO picks single or
+    // double rotation (the usual weight-balanced tree parameters)
+    private static final int DELTA = 3;
+    private static final int RATIO = 2;
+
+    private static final SeqList<?> EMPTY = new SeqList<>(null);
+
+    private static final class Node<V> {
+        final long seq;
+        final V value;
+        final Node<V> left;
+        final Node<V> right;
+        final int size;
+
+        Node(long seq, V value, Node<V> left, Node<V> right) {
+            this.seq = seq;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+    }
+
+    private final Node<V> root;
+
+    private SeqList(Node<V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> SeqList<V> empty() {
+        return (SeqList<V>) EMPTY;
+    }
+
+    // =====================================
+    // READS
+    // =====================================
+    @Override
+    public V get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(index);
+
+        Node<V> node = root;
+        while (true) {
+            int left = sizeOf(node.left);
+            if (index < left) {
+                node = node.left;
+            } else if (index == left) {
+                return node.value;
+            } else {
+                index -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            private final Deque<Node<V>> path = new ArrayDeque<>();
+
+            {
+                descend(root);
+            }
+
+            private void descend(Node<V> node) {
+                for (; node != null; node = node.left) path.push(node);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (path.isEmpty()) throw new NoSuchElementException();
+                Node<V> node = path.pop();
+                descend(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    // =====================================
+    // WRITES (return a new list)
+    // =====================================
+    /** This list with {@code value} at {@code seq}: inserted in order, or replacing the row already there. */
+    SeqList<V> with(long seq, V value) {
+        return new SeqList<>(insert(root, seq, value));
+    }
+
+    /** This list without the row at {@code seq}; itself if there is none. */
+    SeqList<V> without(long seq) {
+        Node<V> changed = delete(root, seq);
+        if (changed == root) return this;
+        return changed == null ? empty() : new SeqList<>(changed);
+    }
+
+    /** Collects rows in increasing {@code seq} order, then builds a perfectly balanced list in one pass. */
+    static final class Builder<V> {
+        private long[] seqs;
+        private Object[] values;
+        private int size = 0;
+
+        Builder(int expected) {
+            seqs = new long[Math.max(expected, 8)];
+            values = new Object[seqs.length];
+        }
+
+        void add(long seq, V value) {
+            if (size > 0 && seqs[size - 1] >= seq) {
+                throw new IllegalArgumentException("Sequence numbers must increase: " + seq);
+            }
+            if (size == seqs.length) {
+                seqs = Arrays.copyOf(seqs, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            seqs[size] = seq;
+            values[size] = value;
+            size++;
+        }
+
+        SeqList<V> build() {
+            return size == 0 ? empty() : new SeqList<>(balanced(0, size));
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<V> balanced(int from, int to) {
+            if (from >= to) return null;
+            int mid = (from + to) >>> 1;
+            return new Node<>(seqs[mid], (V) values[mid], balanced(from, mid), balanced(mid + 1, to));
+        }
+    }
+
+    // =====================================
+    // TREE
+    // =====================================
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <V> Node<V> insert(Node<V> node, long seq, V value) {
+        if (node == null) return new Node<>(seq, value, null, null);
+        if (seq < node.seq) return balance(node.seq, node.value, insert(node.left, seq, value), node.right);
+        if (seq > node.seq) return balance(node.seq, node.value, node.left, insert(node.right, seq, value));
+        return new Node<>(seq, value, node.left, node.right);
+    }
+
+    private static <V> Node<V> delete(Node<V> node, long seq) {
+        if (node == null) return null;
+        if (seq < node.seq) {
+            Node<V> left = delete(node.left, seq);
+            return left == node.left ? node : balance(node.seq, node.value, left, node.right);
+        }
+        if (seq > node.seq) {
+            Node<V> right = delete(node.right, seq);
+            return right == node.right ? node : balance(node.seq, node.value, node.left, right);
+        }
+        return glue(node.left, node.right);
+    }
+
+    // Joins two balanced subtrees whose seqs don't overlap, taking the new root from the heavier one
+    private static <V> Node<V> glue(Node<V> left, Node<V> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.size > right.size) {
+            Node<V> max = left;
+            while (max.right != null) max = max.right;
+            return balance(max.seq, max.value, delete(left, max.seq), right);
+        }
+        Node<V> min = right;
+        while (min.left != null) min = min.left;
+        return balance(min.seq, min.value, left, delete(right, min.seq));
+    }
+
+    private static <V> Node<V> balance(long seq, V value, Node<V> left, Node<V> right) {
+        int l = sizeOf(left);
+        int r = sizeOf(right);
+        if (l + r <= 1) return new Node<>(seq, value, left, right);
+
+        if (r > DELTA * l) {
+            // Right-heavy: rotate left, twice if the right child leans left
+            if (sizeOf(right.left) < RATIO * sizeOf(right.right)) {
+                return new Node<>(right.seq, right.value, new Node<>(seq, value, left, right.left), right.right);
+            }
+            Node<V> rl = right.left;
+            return new Node<>(rl.seq, rl.value,
+                    new Node<>(seq, value, left, rl.left),
+                    new Node<>(right.seq, right.value, rl.right, right.right));
+        }
+        if (l > DELTA * r) {
+            if (sizeOf(left.right) < RATIO * sizeOf(left.left)) {
+                return new Node<>(left.seq, left.value, left.left, new Node<>(seq, value, left.right, right));
+            }
+            Node<V> lr = left.right;
+            return new Node<>(lr.seq, lr.value,
+                    new Node<>(left.seq, left.value, left.left, lr.left),
+                    new Node<>(seq, value, lr.right, right));
+        }
+        return new Node<>(seq, value, left, right);
+    }
+}
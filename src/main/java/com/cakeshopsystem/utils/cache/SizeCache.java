@@ -2,52 +2,54 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Size;
 import com.cakeshopsystem.utils.dao.SizeDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class SizeCache {
 
-    private static final ObservableList<Size> sizesList = FXCollections.observableArrayList();
-    private static final Map<Integer, Size> sizesMap = new HashMap<>();
-    private static final Map<Integer, Integer> inchesToIdMap = new HashMap<>();
+    private static final EntityCache<Integer, Size> CACHE =
+            new EntityCache<>("sizes", Size::getSizeId, SizeDAO::loadAllSizes);
+    private static final EntityCache.Unique<Integer, Size> BY_INCHES =
+            CACHE.uniqueIndex(Size::getSizeInches);
+
+    static {
+        CACHE.snapshotWith(new CacheSnapshot.Codec<>(
+                1,
+                (out, s) -> {
+                    out.writeInt(s.getSizeId());
+                    out.writeInt(s.getSizeInches());
+                    out.writeDouble(s.getPrice());
+                },
+                in -> new Size(in.getInt(), in.getInt(), in.getDouble())
+        ));
+    }
 
     private SizeCache() {}
 
     // ===================== Refresh =====================
 
     public static void refreshSize() {
-        sizesList.clear();
-        sizesMap.clear();
-        inchesToIdMap.clear();
-
-        for (Size size : SizeDAO.getAllSizes()) {
-            cacheSize(size);
-        }
+        CACHE.refresh();
     }
 
     // ===================== Getters =====================
 
     public static ObservableList<Size> getSizesList() {
-        if (sizesList.isEmpty()) refreshSize();
-        return sizesList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Size> getSizesMap() {
-        if (sizesMap.isEmpty()) refreshSize();
-        return sizesMap;
+        return CACHE.asMap();
     }
 
     public static Size getSizeById(int sizeId) {
-        if (sizesMap.isEmpty()) refreshSize();
-        return sizesMap.get(sizeId);
+        return CACHE.get(sizeId);
     }
 
     public static int getSizeIdByInches(int sizeInches) {
-        if (inchesToIdMap.isEmpty()) refreshSize();
-        return inchesToIdMap.getOrDefault(sizeInches, -1);
+        Size size = BY_INCHES.get(sizeInches);
+        return size == null ? -1 : size.getSizeId();
     }
 
     public static Integer getSizeInchesById(int sizeId) {
@@ -61,7 +63,7 @@ public class SizeCache {
         if (size == null) return false;
 
         boolean ok = SizeDAO.insertSize(size);
-        if (ok) cacheSize(size);
+        if (ok) CACHE.saved(size);
 
         return ok;
     }
@@ -69,58 +71,15 @@ public class SizeCache {
     public static boolean updateSize(Size size) {
         if (size == null) return false;
 
-        Size old = sizesMap.get(size.getSizeId());
-
         boolean ok = SizeDAO.updateSize(size);
-        if (ok) {
-            if (old != null) inchesToIdMap.remove(old.getSizeInches());
-            cacheSize(size);
-        }
+        if (ok) CACHE.saved(size);
 
         return ok;
     }
 
     public static boolean deleteSize(int sizeId) {
         boolean ok = SizeDAO.deleteSize(sizeId);
-        if (ok) {
-            Size removed = sizesMap.remove(sizeId);
-            sizesList.removeIf(s -> s.getSizeId() == sizeId);
-
-            if (removed != null) {
-                inchesToIdMap.remove(removed.getSizeInches());
-            } else {
-                rebuildInchesMapFromList();
-            }
-        }
+        if (ok) CACHE.deleted(sizeId);
         return ok;
     }
-
-    // ===================== Helpers =====================
-
-    private static void cacheSize(Size size) {
-        if (size == null) return;
-
-        int id = size.getSizeId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) sizesList.set(idx, size);
-        else sizesList.add(size);
-
-        sizesMap.put(id, size);
-        inchesToIdMap.put(size.getSizeInches(), id);
-    }
-
-    private static int findIndexById(int sizeId) {
-        for (int i = 0; i < sizesList.size(); i++) {
-            if (sizesList.get(i).getSizeId() == sizeId) return i;
-        }
-        return -1;
-    }
-
-    private static void rebuildInchesMapFromList() {
-        inchesToIdMap.clear();
-        for (Size size : sizesList) {
-            inchesToIdMap.put(size.getSizeInches(), size.getSizeId());
-        }
-    }
 }
@@ -2,52 +2,54 @@ package com.cakeshopsystem.utils.cache;
 
 import com.cakeshopsystem.models.Topping;
 import com.cakeshopsystem.utils.dao.ToppingDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class ToppingCache {
 
-    private static final ObservableList<Topping> toppingsList = FXCollections.observableArrayList();
-    private static final Map<Integer, Topping> toppingsMap = new HashMap<>();
-    private static final Map<String, Integer> toppingNameToIdMap = new HashMap<>();
+    private static final EntityCache<Integer, Topping> CACHE =
+            new EntityCache<>("toppings", Topping::getToppingId, ToppingDAO::loadAllToppings);
+    private static final EntityCache.Unique<String, Topping> BY_NAME =
+            CACHE.uniqueIndex(f -> normalize(f.getToppingName()));
+
+    static {
+        CACHE.snapshotWith(new CacheSnapshot.Codec<>(
+                1,
+                (out, t) -> {
+                    out.writeInt(t.getToppingId());
+                    CacheSnapshot.writeString(out, t.getToppingName());
+                    out.writeDouble(t.getPrice());
+                },
+                in -> new Topping(in.getInt(), CacheSnapshot.readString(in), in.getDouble())
+        ));
+    }
 
     private ToppingCache() {}
 
     // ===================== Cache Refresh =====================
 
     public static void refreshTopping() {
-        toppingsList.clear();
-        toppingsMap.clear();
-        toppingNameToIdMap.clear();
-
-        for (Topping topping : ToppingDAO.getAllToppings()) {
-            cacheTopping(topping);
-        }
+        CACHE.refresh();
     }
 
     // ===================== Getters =====================
 
     public static ObservableList<Topping> getToppingsList() {
-        if (toppingsList.isEmpty()) refreshTopping();
-        return toppingsList;
+        return CACHE.view();
     }
 
     public static Map<Integer, Topping> getToppingsMap() {
-        if (toppingsMap.isEmpty()) refreshTopping();
-        return toppingsMap;
+        return CACHE.asMap();
     }
 
     public static Topping getToppingById(int toppingId) {
-        if (toppingsMap.isEmpty()) refreshTopping();
-        return toppingsMap.get(toppingId);
+        return CACHE.get(toppingId);
     }
 
     public static int getToppingIdByName(String toppingName) {
-        if (toppingNameToIdMap.isEmpty()) refreshTopping();
-        return toppingNameToIdMap.getOrDefault(normalize(toppingName), -1);
+        Topping topping = BY_NAME.get(normalize(toppingName));
+        return topping == null ? -1 : topping.getToppingId();
     }
 
     public static String getToppingNameById(int toppingId) {
@@ -61,7 +63,7 @@ public class ToppingCache {
         if (topping == null) return false;
 
         boolean ok = ToppingDAO.insertTopping(topping);
-        if (ok) cacheTopping(topping);
+        if (ok) CACHE.saved(topping);
 
         return ok;
     }
@@ -70,63 +72,20 @@ public class ToppingCache {
         if (topping == null) return false;
 
         boolean ok = ToppingDAO.updateTopping(topping);
-        if (ok) {
-            int idx = findIndexById(topping.getToppingId());
-            if (idx >= 0) toppingsList.set(idx, topping);
-            else toppingsList.add(topping);
-
-            toppingsMap.put(topping.getToppingId(), topping);
-            toppingNameToIdMap.put(normalize(topping.getToppingName()), topping.getToppingId());
-        }
+        if (ok) CACHE.saved(topping);
 
         return ok;
     }
 
     public static boolean deleteTopping(int toppingId) {
         boolean ok = ToppingDAO.deleteTopping(toppingId);
-        if (ok) {
-            Topping removed = toppingsMap.remove(toppingId);
-            toppingsList.removeIf(t -> t.getToppingId() == toppingId);
-
-            if (removed != null) {
-                toppingNameToIdMap.remove(normalize(removed.getToppingName()));
-            } else {
-                rebuildNameMapFromList();
-            }
-        }
+        if (ok) CACHE.deleted(toppingId);
         return ok;
     }
 
     // ===================== Helpers =====================
 
-    private static void cacheTopping(Topping topping) {
-        if (topping == null) return;
-
-        int id = topping.getToppingId();
-
-        int idx = findIndexById(id);
-        if (idx >= 0) toppingsList.set(idx, topping);
-        else toppingsList.add(topping);
-
-        toppingsMap.put(id, topping);
-        toppingNameToIdMap.put(normalize(topping.getToppingName()), id);
-    }
-
-    private static int findIndexById(int toppingId) {
-        for (int i = 0; i < toppingsList.size(); i++) {
-            if (toppingsList.get(i).getToppingId() == toppingId) return i;
-        }
-        return -1;
-    }
-
     private static String normalize(String s) {
         return s == null ? "" : s.trim().toLowerCase();
     }
-
-    private static void rebuildNameMapFromList() {
-        toppingNameToIdMap.clear();
-        for (Topping topping : toppingsList) {
-            toppingNameToIdMap.put(normalize(topping.getToppingName()), topping.getToppingId());
-        }
-    }
 }
@@ -3,29 +3,27 @@ package com.cakeshopsystem.utils.cache;
 import com.cakeshopsystem.models.User;
 import com.cakeshopsystem.utils.AuthResult;
 import com.cakeshopsystem.utils.dao.UserDAO;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.Comparator;
+import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Users and users-by-role. Freshness comes from the writes themselves (the wrappers below, or
+ * {@link #invalidate()} / {@link #userSaved(User)} after writing through UserDAO) and from
+ * {@link CacheVersions} for other terminals, so reads never go back to the database to check.
+ */
 public class UserCache {
 
     // =====================================
     // CACHE CONTAINERS
     // =====================================
-    private static final ObservableList<User> userList = FXCollections.observableArrayList();
-    private static final Map<Integer, User> userMap = new HashMap<>();
-    private static final Map<Integer, ObservableList<User>> usersByRole = new HashMap<>();
-
-    // =====================================
-    // STATE & CONFIG
-    // =====================================
-    private static final Object refreshLock = new Object();
-    private static volatile boolean isRefreshing = false;
-    private static int totalUsers = 0;
-    private static Map<Integer, Integer> totalUsersByRole = new HashMap<>();
+    private static final EntityCache<Integer, User> CACHE =
+            new EntityCache<>("users", User::getUserId, UserDAO::loadAllUsers);
+    private static final EntityCache.Group<Integer, User> BY_ROLE =
+            CACHE.groupIndex(User::getRole);
 
     private UserCache() {}
 
@@ -33,31 +31,26 @@ public class UserCache {
     // PUBLIC ACCESSORS
     // =====================================
     public static ObservableList<User> getUsersList() {
-        int total = UserDAO.getTotalUserCount();
-        if (userList.size() < total) refreshUsers();
-        return userList;
+        return CACHE.view();
     }
 
-
+    // Misses share one query and unknown ids aren't queried again for a while; a failed query
+    // isn't remembered, so the next call asks again
     public static User getUserById(int userId) {
-        User cached = userMap.get(userId);
-        if (cached != null) return cached;
-
-        User user = UserDAO.getUserById(userId);
-        if (user != null) addToCache(user);
-        return user;
+        try {
+            return CACHE.getOrFetch(userId, UserDAO::loadUserById);
+        } catch (SQLException err) {
+            System.err.println("Error fetching user: " + err.getLocalizedMessage());
+            return null;
+        }
     }
 
     public static int getTotalUserCount() {
-        if (totalUsers == 0) refreshUsers();
-        return totalUsers;
+        return CACHE.snapshot().size();
     }
 
     public static int getTotalUserCountByRole(int roleId) {
-        if (totalUsersByRole == null || totalUsersByRole.isEmpty()) {
-            totalUsersByRole = UserDAO.getUserCountByRole();
-        }
-        return totalUsersByRole.getOrDefault(roleId, 0);
+        return BY_ROLE.snapshot(roleId).size();
     }
 
     public static Map<Integer, ObservableList<User>> getUsersByRoles(int... roleIds) {
@@ -71,52 +64,31 @@ public class UserCache {
     }
 
     public static ObservableList<User> getUsersByRole(int roleId) {
-        ObservableList<User> cached = usersByRole.computeIfAbsent(roleId, k -> FXCollections.observableArrayList());
-
-        if (cached.size() < getTotalUserCountByRole(roleId)) {
-            ObservableList<User> fresh = UserDAO.getUsersByRole(roleId);
-            for (User user : fresh) addToCache(user);
-            cached = usersByRole.get(roleId);
-        }
+        return BY_ROLE.get(roleId);
+    }
 
-        return cached;
+    // Immutable copy of the group, safe to walk off the FX thread
+    public static List<User> getUsersByRoleSnapshot(int roleId) {
+        return BY_ROLE.snapshot(roleId);
     }
 
     // =====================================
     // REFRESH LOGIC
     // =====================================
     public static void refreshUsers() {
-        synchronized (refreshLock) {
-            if (isRefreshing) return;
-            isRefreshing = true;
-        }
+        CACHE.refresh();
+    }
 
-        try {
-            // Calling the updated DAO method (No pagination parameters)
-            ObservableList<User> users = UserDAO.getAllUsers();
-            totalUsers = UserDAO.getTotalUserCount();
-            totalUsersByRole = UserDAO.getUserCountByRole();
-
-            synchronized (refreshLock) {
-                userList.clear();
-                userMap.clear();
-                usersByRole.clear();
-
-                for (User user : users) {
-                    userList.add(user);
-                    userMap.put(user.getUserId(), user);
-                    usersByRole
-                            .computeIfAbsent(user.getRole(), k -> FXCollections.observableArrayList())
-                            .add(user);
-                }
-
-                FXCollections.sort(userList, Comparator.comparingInt(User::getUserId));
-            }
-        } finally {
-            synchronized (refreshLock) {
-                isRefreshing = false;
-            }
-        }
+    /** Reload after writing users through UserDAO directly; other terminals reload too. */
+    public static void invalidate() {
+        refreshUsers();
+        CACHE.changed();
+    }
+
+    /** Caches a user already updated through UserDAO (e.g. off the FX thread); other terminals reload. */
+    public static void userSaved(User user) {
+        if (user == null) return;
+        CACHE.saved(user);
     }
 
     // =====================================
@@ -125,12 +97,7 @@ public class UserCache {
     public static boolean addUser(User user) {
         AuthResult res = UserDAO.insertUser(user);
         if (res != null && res.success()) {
-            synchronized (refreshLock) {
-                addToCache(user);
-                totalUsers = Math.max(0, totalUsers + 1);
-                totalUsersByRole = UserDAO.getUserCountByRole();
-                FXCollections.sort(userList, Comparator.comparingInt(User::getUserId));
-            }
+            CACHE.saved(user);
             return true;
         }
         return false;
@@ -139,30 +106,14 @@ public class UserCache {
     public static boolean updateUser(User user) {
         if (!UserDAO.updateUser(user)) return false;
 
-        synchronized (refreshLock) {
-            addToCache(user);
-            totalUsersByRole = UserDAO.getUserCountByRole();
-            FXCollections.sort(userList, Comparator.comparingInt(User::getUserId));
-        }
+        CACHE.saved(user);
         return true;
     }
 
     public static boolean deleteUser(int userId) {
         if (!UserDAO.deleteUser(userId)) return false;
 
-        synchronized (refreshLock) {
-            User removed = userMap.remove(userId);
-            userList.removeIf(u -> u.getUserId() == userId);
-
-            if (removed != null) {
-                ObservableList<User> roleList = usersByRole.get(removed.getRole());
-                if (roleList != null) roleList.removeIf(u -> u.getUserId() == userId);
-            }
-
-            totalUsers = Math.max(0, totalUsers - 1);
-            totalUsersByRole = UserDAO.getUserCountByRole();
-        }
-
+        CACHE.deleted(userId);
         return true;
     }
 
@@ -170,46 +121,6 @@ public class UserCache {
     // CACHE MANAGEMENT
     // =====================================
     public static void clearCache() {
-        synchronized (refreshLock) {
-            userList.clear();
-            userMap.clear();
-            usersByRole.clear();
-            totalUsers = 0;
-            totalUsersByRole.clear();
-            isRefreshing = false;
-        }
-    }
-
-    // =====================================
-    // INTERNAL HELPERS
-    // =====================================
-    private static void addToCache(User user) {
-        if (user == null) return;
-
-        int id = user.getUserId();
-
-        // Update list
-        int idx = findIndexById(id);
-        if (idx >= 0) {
-            userList.set(idx, user);
-        } else {
-            userList.add(user);
-        }
-
-        // Update map
-        userMap.put(id, user);
-
-        // Update role buckets
-        usersByRole.values().forEach(list -> list.removeIf(u -> u.getUserId() == id));
-        usersByRole
-                .computeIfAbsent(user.getRole(), k -> FXCollections.observableArrayList())
-                .add(user);
-    }
-
-    private static int findIndexById(int userId) {
-        for (int i = 0; i < userList.size(); i++) {
-            if (userList.get(i).getUserId() == userId) return i;
-        }
-        return -1;
+        CACHE.clear();
     }
-}
\ No newline at end of file
+}
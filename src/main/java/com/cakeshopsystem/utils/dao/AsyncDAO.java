@@ -0,0 +1,97 @@
+package com.cakeshopsystem.utils.dao;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs DAO calls off the FX thread.
+ * <p>
+ * Each call gets its own virtual thread, so independent queries started together run
+ * concurrently (bounded by the connection pool, where waiting is cheap). Results come back as
+ * {@link CompletableFuture}s; use {@link #onFx} to handle them on the FX thread:
+ * <pre>{@code
+ * AsyncDAO.onFx(
+ *         AsyncDAO.supply(() -> PaymentDAO.getActivePayments()),
+ *         cbPaymentOptions::setItems,
+ *         err -> SnackBar.show(...)
+ * );
+ * }</pre>
+ */
+public final class AsyncDAO {
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-", 0).factory());
+
+    /** Hands work to the FX application thread. */
+    public static final Executor FX = Platform::runLater;
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private AsyncDAO() {}
+
+    // =====================================
+    // BACKGROUND CALLS
+    // =====================================
+    public static <T> CompletableFuture<T> supply(Call<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        EXECUTOR.execute(() -> {
+            try {
+                future.complete(call.call());
+            } catch (Throwable err) {
+                future.completeExceptionally(err);
+            }
+        });
+
+        return future;
+    }
+
+    public static CompletableFuture<Void> run(Action action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // =====================================
+    // FX THREAD HELPERS
+    // =====================================
+    /** Calls exactly one of the callbacks on the FX thread once {@code future} completes. */
+    public static <T> CompletableFuture<Void> onFx(CompletableFuture<T> future,
+                                                   Consumer<? super T> onSuccess,
+                                                   Consumer<Throwable> onError) {
+        return future.handleAsync((result, err) -> {
+            if (err == null) onSuccess.accept(result);
+            else onError.accept(unwrap(err));
+            return null;
+        }, FX);
+    }
+
+    /** Like {@link #onFx(CompletableFuture, Consumer, Consumer)}, logging failures. */
+    public static <T> CompletableFuture<Void> onFx(CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        return onFx(future, onSuccess, err ->
+                System.err.println("Error in background DAO call: " + err.getLocalizedMessage()));
+    }
+
+    public static Throwable unwrap(Throwable err) {
+        while ((err instanceof CompletionException || err instanceof ExecutionException) && err.getCause() != null) {
+            err = err.getCause();
+        }
+        return err;
+    }
+}
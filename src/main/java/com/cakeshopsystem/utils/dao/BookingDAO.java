@@ -152,6 +152,16 @@ public class BookingDAO {
     // Basic reads
     // -----------------------------
     public static ObservableList<Booking> getAllBookings() {
+        try {
+            return loadAllBookings();
+        } catch (SQLException err) {
+            System.err.println("Error fetching bookings: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllBookings()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Booking> loadAllBookings() throws SQLException {
         ObservableList<Booking> bookings = FXCollections.observableArrayList();
         String sql = "SELECT * FROM bookings ORDER BY booking_date DESC";
 
@@ -160,12 +170,42 @@ public class BookingDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) bookings.add(mapBooking(rs));
-        } catch (SQLException err) {
-            System.err.println("Error fetching bookings: " + err.getLocalizedMessage());
         }
         return bookings;
     }
 
+    // Keyset page on booking_id, newest first; filters are optional (null = any)
+    public static Page<Booking> getBookingPage(Integer afterBookingId, int limit,
+                                               BookingStatus statusOrNull, LocalDate bookingDateOrNull) {
+        int pageSize = Page.clampLimit(limit);
+        ObservableList<Booking> bookings = FXCollections.observableArrayList();
+
+        String sql =
+                "SELECT * FROM bookings WHERE 1 = 1 " +
+                        (afterBookingId != null ? "AND booking_id < ? " : "") +
+                        (statusOrNull != null ? "AND booking_status = ? " : "") +
+                        (bookingDateOrNull != null ? "AND booking_date = ? " : "") +
+                        "ORDER BY booking_id DESC LIMIT ?";
+
+        try (Connection con = DB.connect();
+             PreparedStatement stmt = con.prepareStatement(sql)) {
+
+            int i = 1;
+            if (afterBookingId != null) stmt.setInt(i++, afterBookingId);
+            if (statusOrNull != null) stmt.setString(i++, toDbStatus(statusOrNull));
+            if (bookingDateOrNull != null) stmt.setDate(i++, Date.valueOf(bookingDateOrNull));
+            stmt.setInt(i, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) bookings.add(mapBooking(rs));
+            }
+        } catch (SQLException err) {
+            System.err.println("Error fetching booking page: " + err.getLocalizedMessage());
+            return Page.empty();
+        }
+        return Page.of(bookings, pageSize, Booking::getBookingId);
+    }
+
     public static Booking getBookingById(int bookingId) {
         String sql = "SELECT * FROM bookings WHERE booking_id = ?";
 
@@ -0,0 +1,124 @@
+package com.cakeshopsystem.utils.dao;
+
+import com.cakeshopsystem.utils.databaseconnection.DB;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Per-entity change versions in {@code cache_versions} (see V003). */
+public class CacheVersionDAO {
+
+    private CacheVersionDAO() {}
+
+    // =====================================
+    // READ
+    // =====================================
+    /** entity -> version for every row; throws so the poller can tell "no changes" from "no answer". */
+    public static Map<String, Long> getAllVersions() throws SQLException {
+        Map<String, Long> versions = new HashMap<>();
+        String sql = "SELECT entity, version FROM cache_versions";
+
+        try (Connection con = DB.connect();
+             PreparedStatement stmt = con.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                versions.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+
+        return versions;
+    }
+
+    /** Current version of {@code entity}: 0 if it was never bumped, -1 if the read failed. */
+    public static long getVersion(String entity) {
+        String sql = "SELECT version FROM cache_versions WHERE entity = ?";
+
+        try (Connection con = DB.connect();
+             PreparedStatement stmt = con.prepareStatement(sql)) {
+
+            stmt.setString(1, entity);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+
+        } catch (SQLException err) {
+            System.err.println("Error reading cache version for " + entity + ": " + err.getLocalizedMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Versions of {@code entities} read on the caller's connection (e.g. inside its transaction);
+     * an entity that was never bumped is 0.
+     */
+    public static Map<String, Long> getVersions(Connection con, String... entities) throws SQLException {
+        Map<String, Long> versions = new HashMap<>();
+        for (String entity : entities) versions.put(entity, 0L);
+        if (entities.length == 0) return versions;
+
+        String sql = "SELECT entity, version FROM cache_versions WHERE entity IN ("
+                + "?,".repeat(entities.length - 1) + "?)";
+
+        try (PreparedStatement stmt = con.prepareStatement(sql)) {
+            for (int i = 0; i < entities.length; i++) stmt.setString(i + 1, entities[i]);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    versions.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        }
+
+        return versions;
+    }
+
+    // =====================================
+    // WRITE
+    // =====================================
+    /**
+     * Increments the version of {@code entity} (creating the row at 1) and returns the new value.
+     * The read happens under the row lock taken by the update, so it is this call's version.
+     * Returns -1 if the bump failed.
+     */
+    public static long bump(String entity) {
+        String upsert = """
+                INSERT INTO cache_versions (entity, version) VALUES (?, 1)
+                ON DUPLICATE KEY UPDATE version = version + 1
+                """;
+        String select = "SELECT version FROM cache_versions WHERE entity = ?";
+
+        try (Connection con = DB.connect()) {
+            con.setAutoCommit(false);
+
+            try (PreparedStatement up = con.prepareStatement(upsert);
+                 PreparedStatement sel = con.prepareStatement(select)) {
+
+                up.setString(1, entity);
+                up.executeUpdate();
+
+                sel.setString(1, entity);
+                long version = -1;
+                try (ResultSet rs = sel.executeQuery()) {
+                    if (rs.next()) version = rs.getLong(1);
+                }
+
+                con.commit();
+                return version;
+            } catch (SQLException err) {
+                con.rollback();
+                throw err;
+            } finally {
+                con.setAutoCommit(true);
+            }
+
+        } catch (SQLException err) {
+            System.err.println("Error bumping cache version for " + entity + ": " + err.getLocalizedMessage());
+            return -1;
+        }
+    }
+}
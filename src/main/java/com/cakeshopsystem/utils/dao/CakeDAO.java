@@ -132,6 +132,16 @@ public class CakeDAO {
     // =====================================
 
     public static ObservableList<Cake> getAllCakes() {
+        try {
+            return loadAllCakes();
+        } catch (SQLException err) {
+            System.err.println("Error fetching cakes: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllCakes()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Cake> loadAllCakes() throws SQLException {
         ObservableList<Cake> cakes = FXCollections.observableArrayList();
         String query = "SELECT * FROM cakes";
 
@@ -142,9 +152,6 @@ public class CakeDAO {
             while (rs.next()) {
                 cakes.add(mapCake(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching cakes: " + err.getLocalizedMessage());
         }
 
         return cakes;
@@ -12,6 +12,16 @@ public class CakeRecipeDAO {
     // ===================== READ =====================
 
     public static ObservableList<CakeRecipe> getAllCakeRecipe() {
+        try {
+            return loadAllCakeRecipe();
+        } catch (SQLException err) {
+            System.err.println("Error fetching cake_recipes: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllCakeRecipe()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<CakeRecipe> loadAllCakeRecipe() throws SQLException {
         ObservableList<CakeRecipe> list = FXCollections.observableArrayList();
         String sql = "SELECT * FROM cake_recipes";
 
@@ -22,8 +32,6 @@ public class CakeRecipeDAO {
             while (rs.next()) {
                 list.add(mapCakeRecipe(rs));
             }
-        } catch (SQLException err) {
-            System.err.println("Error fetching cake_recipes: " + err.getLocalizedMessage());
         }
 
         return list;
@@ -14,6 +14,16 @@ public class CakeRecipeInstructionDAO {
     // =====================================
 
     public static ObservableList<CakeRecipeInstruction> getAllCakeRecipeInstructions() {
+        try {
+            return loadAllCakeRecipeInstructions();
+        } catch (SQLException err) {
+            System.err.println("Error fetching cake recipe instructions: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllCakeRecipeInstructions()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<CakeRecipeInstruction> loadAllCakeRecipeInstructions() throws SQLException {
         ObservableList<CakeRecipeInstruction> list = FXCollections.observableArrayList();
         String query = "SELECT * FROM cake_recipe_instructions";
 
@@ -24,9 +34,6 @@ public class CakeRecipeInstructionDAO {
             while (rs.next()) {
                 list.add(mapCakeRecipeInstruction(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching cake recipe instructions: " + err.getLocalizedMessage());
         }
 
         return list;
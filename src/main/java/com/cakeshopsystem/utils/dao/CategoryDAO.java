@@ -13,6 +13,16 @@ public class CategoryDAO {
     // -------- READ ------------
     // ==========================
     public static ObservableList<Category> getAllCategories() {
+        try {
+            return loadAllCategories();
+        } catch (SQLException err) {
+            System.err.println("Error fetching categories: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllCategories()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Category> loadAllCategories() throws SQLException {
         ObservableList<Category> categories = FXCollections.observableArrayList();
         String sql = "SELECT * FROM categories ORDER BY category_id";
 
@@ -23,9 +33,6 @@ public class CategoryDAO {
             while (rs.next()) {
                 categories.add(mapCategory(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching categories: " + err.getLocalizedMessage());
         }
 
         return categories;
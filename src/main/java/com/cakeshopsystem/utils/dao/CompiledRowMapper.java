@@ -0,0 +1,92 @@
+package com.cakeshopsystem.utils.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row mapper that reads columns by index instead of by label.
+ * <p>
+ * The {@link Compiler} looks up the column indices it needs once, from the first result's
+ * {@link ResultSetMetaData}, and returns a {@link RowMapper} that closes over them. That mapper
+ * is cached per SQL string, so later executions of the same query go straight to
+ * {@code rs.getInt(3)}-style reads with no label lookups or reflection per row.
+ * <pre>{@code
+ * RowMapper<Product> mapper = PRODUCT_MAPPER.forSql(sql);
+ * while (rs.next()) list.add(mapper.map(rs));
+ * }</pre>
+ */
+public final class CompiledRowMapper<T> {
+
+    // SQL text is built from constants plus optional filters, so this stays small; the cap only
+    // guards against a caller inlining literal values into the SQL
+    private static final int MAX_CACHED_SQL = 256;
+
+    @FunctionalInterface
+    public interface Compiler<T> {
+        RowMapper<T> compile(Columns columns) throws SQLException;
+    }
+
+    private final Compiler<T> compiler;
+    private final Map<String, RowMapper<T>> bySql = new ConcurrentHashMap<>();
+
+    private CompiledRowMapper(Compiler<T> compiler) {
+        this.compiler = compiler;
+    }
+
+    public static <T> CompiledRowMapper<T> of(Compiler<T> compiler) {
+        return new CompiledRowMapper<>(compiler);
+    }
+
+    /**
+     * Mapper for rows of {@code sql}. Compiled against the first row it sees if this SQL hasn't
+     * been seen yet; reuse the returned instance for every row of the result.
+     */
+    public RowMapper<T> forSql(String sql) {
+        RowMapper<T> cached = bySql.get(sql);
+        if (cached != null) return cached;
+
+        return new RowMapper<>() {
+            private RowMapper<T> compiled;
+
+            @Override
+            public T map(ResultSet rs) throws SQLException {
+                if (compiled == null) compiled = compile(sql, rs);
+                return compiled.map(rs);
+            }
+        };
+    }
+
+    private RowMapper<T> compile(String sql, ResultSet rs) throws SQLException {
+        RowMapper<T> cached = bySql.get(sql);
+        if (cached != null) return cached;
+
+        RowMapper<T> mapper = compiler.compile(new Columns(rs.getMetaData()));
+        if (bySql.size() < MAX_CACHED_SQL) bySql.putIfAbsent(sql, mapper);
+        return mapper;
+    }
+
+    // =====================================
+    // COLUMN LAYOUT
+    // =====================================
+    /** Label -> 1-based index for one result layout (case-insensitive, first match wins). */
+    public static final class Columns {
+        private final Map<String, Integer> indexByLabel = new HashMap<>();
+
+        Columns(ResultSetMetaData meta) throws SQLException {
+            for (int i = meta.getColumnCount(); i >= 1; i--) {
+                indexByLabel.put(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        public int index(String label) throws SQLException {
+            Integer index = indexByLabel.get(label.toLowerCase(Locale.ROOT));
+            if (index == null) throw new SQLException("Column '" + label + "' not in result.");
+            return index;
+        }
+    }
+}
@@ -12,6 +12,16 @@ public class CustomCakeBookingDAO {
     // ===================== READ =====================
 
     public static ObservableList<CustomCakeBooking> getAllCustomCakeBooking() {
+        try {
+            return loadAllCustomCakeBooking();
+        } catch (SQLException err) {
+            System.err.println("Error fetching custom cake bookings: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllCustomCakeBooking()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<CustomCakeBooking> loadAllCustomCakeBooking() throws SQLException {
         ObservableList<CustomCakeBooking> list = FXCollections.observableArrayList();
         String sql = "SELECT * FROM custom_cake_bookings";
 
@@ -22,8 +32,6 @@ public class CustomCakeBookingDAO {
             while (rs.next()) {
                 list.add(mapCustomCakeBooking(rs));
             }
-        } catch (SQLException err) {
-            System.err.println("Error fetching custom cake bookings: " + err.getLocalizedMessage());
         }
 
         return list;
@@ -23,7 +23,7 @@ public class DashboardDAO {
     // ---------- Filters for cbProductFilter ----------
     public static List<IdName> fetchCategories() throws SQLException {
         String sql = "SELECT category_id, category_name FROM categories ORDER BY category_name";
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
@@ -35,7 +35,7 @@ public class DashboardDAO {
 
     public static List<IdName> fetchActiveProducts() throws SQLException {
         String sql = "SELECT product_id, product_name FROM products WHERE is_active = 1 ORDER BY product_name";
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
@@ -65,7 +65,7 @@ public class DashboardDAO {
                         "ORDER BY qty DESC " +
                         "LIMIT ?";
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             int i = 1;
@@ -97,7 +97,7 @@ public class DashboardDAO {
                         "WHERE o.order_date >= ? AND o.order_date < ? " +
                         (categoryIdOrNull != null ? "AND p.category_id = ? " : "");
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             int i = 1;
@@ -133,7 +133,7 @@ public class DashboardDAO {
                         "GROUP BY bucket " +
                         "ORDER BY bucket";
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             int i = 1;
@@ -170,7 +170,7 @@ public class DashboardDAO {
                         "GROUP BY bucket " +
                         "ORDER BY bucket";
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setTimestamp(1, Timestamp.valueOf(startInclusive));
@@ -205,7 +205,7 @@ public class DashboardDAO {
                         "GROUP BY bucket " +
                         "ORDER BY bucket";
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setTimestamp(1, Timestamp.valueOf(startInclusive));
@@ -237,7 +237,7 @@ public class DashboardDAO {
                         "GROUP BY oi.order_option " +
                         "ORDER BY qty DESC";
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setTimestamp(1, Timestamp.valueOf(startInclusive));
@@ -283,7 +283,7 @@ public class DashboardDAO {
                         "ORDER BY qty DESC " +
                         "LIMIT ?";
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setTimestamp(1, Timestamp.valueOf(startInclusive));
@@ -303,7 +303,7 @@ public class DashboardDAO {
 
     public static LocalDate fetchLatestOrderDate() throws SQLException {
         String sql = "SELECT MAX(order_date) AS max_date FROM orders";
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
@@ -342,7 +342,7 @@ public class DashboardDAO {
 
     private static long fetchNewMembersCount(java.time.LocalDateTime start, java.time.LocalDateTime end) throws java.sql.SQLException {
         String sql = "SELECT COUNT(*) FROM members WHERE created_at >= ? AND created_at < ?";
-        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connect();
+        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connectReadOnly();
              java.sql.PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setTimestamp(1, java.sql.Timestamp.valueOf(start));
@@ -358,7 +358,7 @@ public class DashboardDAO {
 
         if (categoryIdOrNull == null) {
             String sql = "SELECT COUNT(*) FROM orders WHERE order_date >= ? AND order_date < ?";
-            try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connect();
+            try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connectReadOnly();
                  java.sql.PreparedStatement ps = con.prepareStatement(sql)) {
 
                 ps.setTimestamp(1, java.sql.Timestamp.valueOf(start));
@@ -379,7 +379,7 @@ public class DashboardDAO {
                         "WHERE o.order_date >= ? AND o.order_date < ? " +
                         "AND p.category_id = ?";
 
-        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connect();
+        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connectReadOnly();
              java.sql.PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setTimestamp(1, java.sql.Timestamp.valueOf(start));
@@ -403,7 +403,7 @@ public class DashboardDAO {
                         "WHERE o.order_date >= ? AND o.order_date < ? " +
                         (categoryIdOrNull != null ? "AND p.category_id = ? " : "");
 
-        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connect();
+        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connectReadOnly();
              java.sql.PreparedStatement ps = con.prepareStatement(sql)) {
 
             int i = 1;
@@ -432,7 +432,7 @@ public class DashboardDAO {
                             "WHERE booking_status = 'Cancelled' " +
                             "AND booking_date >= ? AND booking_date < ?";
 
-            try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connect();
+            try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connectReadOnly();
                  java.sql.PreparedStatement ps = con.prepareStatement(sql)) {
 
                 ps.setDate(1, java.sql.Date.valueOf(startDateInclusive));
@@ -458,7 +458,7 @@ public class DashboardDAO {
                         "AND b.booking_date >= ? AND b.booking_date < ? " +
                         "AND p.category_id = ?";
 
-        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connect();
+        try (java.sql.Connection con = com.cakeshopsystem.utils.databaseconnection.DB.connectReadOnly();
              java.sql.PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setDate(1, java.sql.Date.valueOf(startDateInclusive));
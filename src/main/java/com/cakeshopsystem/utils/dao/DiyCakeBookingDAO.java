@@ -18,6 +18,16 @@ public class DiyCakeBookingDAO {
     // READ
     // ---------------------
     public static ObservableList<DiyCakeBooking> getAllDiyCakeBookings() {
+        try {
+            return loadAllDiyCakeBookings();
+        } catch (SQLException err) {
+            System.err.println("Error fetching diy cake bookings: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllDiyCakeBookings()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<DiyCakeBooking> loadAllDiyCakeBookings() throws SQLException {
         ObservableList<DiyCakeBooking> list = FXCollections.observableArrayList();
         String sql = "SELECT * FROM diy_cake_bookings ORDER BY session_date DESC, session_start DESC";
 
@@ -26,12 +36,43 @@ public class DiyCakeBookingDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) list.add(map(rs));
+        }
+
+        return list;
+    }
+
+    // Keyset page on diy_cake_booking_id, newest first; filters are optional (null = any)
+    public static Page<DiyCakeBooking> getDiyCakeBookingPage(Integer afterId, int limit,
+                                                             LocalDate sessionDateOrNull, Integer memberIdOrNull) {
+        int pageSize = Page.clampLimit(limit);
+        ObservableList<DiyCakeBooking> list = FXCollections.observableArrayList();
+
+        String sql =
+                "SELECT * FROM diy_cake_bookings WHERE 1 = 1 " +
+                        (afterId != null ? "AND diy_cake_booking_id < ? " : "") +
+                        (sessionDateOrNull != null ? "AND session_date = ? " : "") +
+                        (memberIdOrNull != null ? "AND member_id = ? " : "") +
+                        "ORDER BY diy_cake_booking_id DESC LIMIT ?";
+
+        try (Connection con = DB.connect();
+             PreparedStatement stmt = con.prepareStatement(sql)) {
+
+            int i = 1;
+            if (afterId != null) stmt.setInt(i++, afterId);
+            if (sessionDateOrNull != null) stmt.setDate(i++, Date.valueOf(sessionDateOrNull));
+            if (memberIdOrNull != null) stmt.setInt(i++, memberIdOrNull);
+            stmt.setInt(i, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
 
         } catch (SQLException err) {
-            System.err.println("Error fetching diy cake bookings: " + err.getLocalizedMessage());
+            System.err.println("Error fetching diy cake booking page: " + err.getLocalizedMessage());
+            return Page.empty();
         }
 
-        return list;
+        return Page.of(list, pageSize, DiyCakeBooking::getDiyCakeBookingId);
     }
 
     public static DiyCakeBooking getDiyCakeBookingById(int id) {
@@ -131,6 +131,16 @@ public class DrinkDAO {
     // =====================================
 
     public static ObservableList<Drink> getAllDrinks() {
+        try {
+            return loadAllDrinks();
+        } catch (SQLException err) {
+            System.err.println("Error fetching drinks: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllDrinks()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Drink> loadAllDrinks() throws SQLException {
         ObservableList<Drink> drinks = FXCollections.observableArrayList();
         String query = "SELECT * FROM drinks";
 
@@ -141,9 +151,6 @@ public class DrinkDAO {
             while (rs.next()) {
                 drinks.add(mapDrink(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching drinks: " + err.getLocalizedMessage());
         }
 
         return drinks;
@@ -14,6 +14,16 @@ public class FlavourDAO {
     // =====================================
 
     public static ObservableList<Flavour> getAllFlavours() {
+        try {
+            return loadAllFlavours();
+        } catch (SQLException err) {
+            System.err.println("Error fetching flavours: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllFlavours()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Flavour> loadAllFlavours() throws SQLException {
         ObservableList<Flavour> flavours = FXCollections.observableArrayList();
         String query = "SELECT * FROM flavours";
 
@@ -24,9 +34,6 @@ public class FlavourDAO {
             while (rs.next()) {
                 flavours.add(mapFlavour(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching flavours: " + err.getLocalizedMessage());
         }
 
         return flavours;
@@ -14,6 +14,16 @@ public class IngredientDAO {
     // -------- READ ------------
     // ==========================
     public static ObservableList<Ingredient> getAllIngredients() {
+        try {
+            return loadAllIngredients();
+        } catch (SQLException err) {
+            System.err.println("Error fetching ingredients: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllIngredients()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Ingredient> loadAllIngredients() throws SQLException {
         ObservableList<Ingredient> ingredients = FXCollections.observableArrayList();
         String sql = "SELECT * FROM ingredients ORDER BY ingredient_id";
 
@@ -24,9 +34,6 @@ public class IngredientDAO {
             while (rs.next()) {
                 ingredients.add(mapIngredient(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching ingredients: " + err.getLocalizedMessage());
         }
 
         return ingredients;
@@ -11,6 +11,10 @@ import java.time.LocalDateTime;
 
 public class InventoryDAO {
 
+    // Only what INVENTORY_MAPPER reads
+    private static final String INVENTORY_COLUMNS =
+            "inventory_id, product_id, quantity, exp_date, created_at, updated_at";
+
     // =====================================
     // ========= CREATE OPERATIONS =========
     // =====================================
@@ -117,25 +121,67 @@ public class InventoryDAO {
     // =====================================
 
     public static ObservableList<Inventory> getAllInventory() {
+        try {
+            return loadAllInventory();
+        } catch (SQLException err) {
+            System.err.println("Error fetching inventory: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllInventory()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Inventory> loadAllInventory() throws SQLException {
         ObservableList<Inventory> list = FXCollections.observableArrayList();
-        String query = "SELECT * FROM inventory ORDER BY inventory_id DESC";
+        String query = "SELECT " + INVENTORY_COLUMNS + " FROM inventory ORDER BY inventory_id DESC";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()
         ) {
+            RowMapper<Inventory> mapper = INVENTORY_MAPPER.forSql(query);
             while (rs.next()) {
-                list.add(mapInventory(rs));
+                list.add(mapper.map(rs));
             }
-        } catch (SQLException err) {
-            System.err.println("Error fetching inventory: " + err.getLocalizedMessage());
         }
 
         return list;
     }
 
+    // Keyset page, newest first; productIdOrNull = all products
+    public static Page<Inventory> getInventoryPage(Integer afterInventoryId, int limit, Integer productIdOrNull) {
+        int pageSize = Page.clampLimit(limit);
+        ObservableList<Inventory> list = FXCollections.observableArrayList();
+
+        String query =
+                "SELECT " + INVENTORY_COLUMNS + " FROM inventory WHERE 1 = 1 " +
+                        (afterInventoryId != null ? "AND inventory_id < ? " : "") +
+                        (productIdOrNull != null ? "AND product_id = ? " : "") +
+                        "ORDER BY inventory_id DESC LIMIT ?";
+
+        try (Connection con = DB.connect();
+             PreparedStatement stmt = con.prepareStatement(query)) {
+
+            int i = 1;
+            if (afterInventoryId != null) stmt.setInt(i++, afterInventoryId);
+            if (productIdOrNull != null) stmt.setInt(i++, productIdOrNull);
+            stmt.setInt(i, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Inventory> mapper = INVENTORY_MAPPER.forSql(query);
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException err) {
+            System.err.println("Error fetching inventory page: " + err.getLocalizedMessage());
+            return Page.empty();
+        }
+
+        return Page.of(list, pageSize, Inventory::getInventoryId);
+    }
+
     public static Inventory getInventoryById(int inventoryId) {
-        String query = "SELECT * FROM inventory WHERE inventory_id = ?";
+        String query = "SELECT " + INVENTORY_COLUMNS + " FROM inventory WHERE inventory_id = ?";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(query)) {
@@ -143,7 +189,7 @@ public class InventoryDAO {
             stmt.setInt(1, inventoryId);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) return mapInventory(rs);
+                if (rs.next()) return INVENTORY_MAPPER.forSql(query).map(rs);
             }
         } catch (SQLException err) {
             System.err.println("Error fetching inventory by id: " + err.getLocalizedMessage());
@@ -155,10 +201,10 @@ public class InventoryDAO {
     public static ObservableList<Inventory> getInventoryByProductId(int productId) {
         ObservableList<Inventory> list = FXCollections.observableArrayList();
         String query = """
-                    SELECT * FROM inventory
+                    SELECT %s FROM inventory
                     WHERE product_id = ?
                     ORDER BY exp_date IS NULL, exp_date ASC, inventory_id ASC
-                """;
+                """.formatted(INVENTORY_COLUMNS);
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(query)) {
@@ -166,8 +212,9 @@ public class InventoryDAO {
             stmt.setInt(1, productId);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Inventory> mapper = INVENTORY_MAPPER.forSql(query);
                 while (rs.next()) {
-                    list.add(mapInventory(rs));
+                    list.add(mapper.map(rs));
                 }
             }
 
@@ -180,10 +227,10 @@ public class InventoryDAO {
 
     public static Inventory getInventoryByProductIdAndExpDate(int productId, LocalDate expDate) {
         String query = """
-                    SELECT * FROM inventory
+                    SELECT %s FROM inventory
                     WHERE product_id = ? AND exp_date <=> ?
                     LIMIT 1
-                """;
+                """.formatted(INVENTORY_COLUMNS);
         // NOTE: <=> is MySQL NULL-safe equality (works even if exp_date is NULL)
 
         try (Connection con = DB.connect();
@@ -195,7 +242,7 @@ public class InventoryDAO {
             else stmt.setNull(2, Types.DATE);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) return mapInventory(rs);
+                if (rs.next()) return INVENTORY_MAPPER.forSql(query).map(rs);
             }
 
         } catch (SQLException err) {
@@ -258,12 +305,12 @@ public class InventoryDAO {
         ObservableList<Inventory> list = FXCollections.observableArrayList();
 
         String sql = """
-                    SELECT * FROM inventory
+                    SELECT %s FROM inventory
                     WHERE quantity > 0
                       AND exp_date IN (?)
                       AND DATE(created_at) < CURDATE()
                     ORDER BY exp_date ASC, inventory_id ASC
-                """;
+                """.formatted(INVENTORY_COLUMNS);
 
         LocalDate today = LocalDate.now();
 
@@ -273,8 +320,9 @@ public class InventoryDAO {
             stmt.setDate(1, Date.valueOf(today));
 
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Inventory> mapper = INVENTORY_MAPPER.forSql(sql);
                 while (rs.next()) {
-                    list.add(mapInventory(rs));
+                    list.add(mapper.map(rs));
                 }
             }
 
@@ -369,17 +417,23 @@ public class InventoryDAO {
     // ========== Helper Methods ===========
     // =====================================
 
-    private static Inventory mapInventory(ResultSet rs) throws SQLException {
-        int inventoryId = rs.getInt("inventory_id");
-        int productId = rs.getInt("product_id");
-        int quantity = rs.getInt("quantity");
-
-        LocalDate expDate = toLocalDate(rs.getDate("exp_date"));
-        LocalDateTime createdAt = toLocalDateTime(rs.getTimestamp("created_at"));
-        LocalDateTime updatedAt = toLocalDateTime(rs.getTimestamp("updated_at"));
-
-        return new Inventory(inventoryId, productId, quantity, expDate, createdAt, updatedAt);
-    }
+    private static final CompiledRowMapper<Inventory> INVENTORY_MAPPER = CompiledRowMapper.of(cols -> {
+        int inventoryId = cols.index("inventory_id");
+        int productId = cols.index("product_id");
+        int quantity = cols.index("quantity");
+        int expDate = cols.index("exp_date");
+        int createdAt = cols.index("created_at");
+        int updatedAt = cols.index("updated_at");
+
+        return rs -> new Inventory(
+                rs.getInt(inventoryId),
+                rs.getInt(productId),
+                rs.getInt(quantity),
+                toLocalDate(rs.getDate(expDate)),
+                toLocalDateTime(rs.getTimestamp(createdAt)),
+                toLocalDateTime(rs.getTimestamp(updatedAt))
+        );
+    });
 
     private static LocalDate toLocalDate(Date date) {
         return date == null ? null : date.toLocalDate();
@@ -8,10 +8,21 @@ import javafx.collections.ObservableList;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 public class InventoryMovementDAO {
 
     public static ObservableList<InventoryMovement> getAllInventoryMovement() {
+        try {
+            return loadAllInventoryMovement();
+        } catch (SQLException err) {
+            System.err.println("Error fetching inventory movements: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllInventoryMovement()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<InventoryMovement> loadAllInventoryMovement() throws SQLException {
         ObservableList<InventoryMovement> list = FXCollections.observableArrayList();
         String sql = "SELECT * FROM inventory_movements ORDER BY inventory_movement_id DESC";
 
@@ -22,12 +33,60 @@ public class InventoryMovementDAO {
             while (rs.next()) {
                 list.add(mapInventoryMovement(rs));
             }
+        }
+
+        return list;
+    }
+
+    // Keyset page, newest first; filters are optional (null = any)
+    public static Page<InventoryMovement> getInventoryMovementPage(Integer afterMovementId, int limit,
+                                                                   Integer inventoryIdOrNull,
+                                                                   InventoryMovementType typeOrNull) {
+        int pageSize = Page.clampLimit(limit);
+        ObservableList<InventoryMovement> list = FXCollections.observableArrayList();
+
+        String sql =
+                "SELECT * FROM inventory_movements WHERE 1 = 1 " +
+                        (afterMovementId != null ? "AND inventory_movement_id < ? " : "") +
+                        (inventoryIdOrNull != null ? "AND inventory_id = ? " : "") +
+                        (typeOrNull != null ? "AND movement_type = ? " : "") +
+                        "ORDER BY inventory_movement_id DESC LIMIT ?";
+
+        try (Connection con = DB.connect();
+             PreparedStatement stmt = con.prepareStatement(sql)) {
+
+            int i = 1;
+            if (afterMovementId != null) stmt.setInt(i++, afterMovementId);
+            if (inventoryIdOrNull != null) stmt.setInt(i++, inventoryIdOrNull);
+            if (typeOrNull != null) stmt.setString(i++, typeOrNull.name());
+            stmt.setInt(i, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapInventoryMovement(rs));
+                }
+            }
 
         } catch (SQLException err) {
-            System.err.println("Error fetching inventory movements: " + err.getLocalizedMessage());
+            System.err.println("Error fetching inventory movement page: " + err.getLocalizedMessage());
+            return Page.empty();
         }
 
-        return list;
+        return Page.of(list, pageSize, InventoryMovement::getInventoryMovementId);
+    }
+
+    // The stock ledger in id order, for replaying it against current batch quantities
+    public static Stream<InventoryMovement> streamAllInventoryMovements() {
+        try {
+            return StreamingQuery.stream(
+                    "SELECT * FROM inventory_movements ORDER BY inventory_movement_id",
+                    StreamingQuery.NO_PARAMS,
+                    InventoryMovementDAO::mapInventoryMovement
+            );
+        } catch (SQLException err) {
+            System.err.println("Error streaming inventory movements: " + err.getLocalizedMessage());
+            return Stream.empty();
+        }
     }
 
     public static ObservableList<InventoryMovement> getInventoryMovementByInventoryId(int inventoryId) {
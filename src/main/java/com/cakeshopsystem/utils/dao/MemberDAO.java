@@ -11,6 +11,16 @@ import java.time.LocalDateTime;
 public class MemberDAO {
 
     public static ObservableList<Member> getAllMembers() {
+        try {
+            return loadAllMembers();
+        } catch (SQLException err) {
+            System.err.println("Error fetching members: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllMembers()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Member> loadAllMembers() throws SQLException {
         ObservableList<Member> members = FXCollections.observableArrayList();
         String query = "SELECT member_id, member_name, phone, member_since, qualified_order_id FROM members";
 
@@ -21,9 +31,6 @@ public class MemberDAO {
             while (rs.next()) {
                 members.add(mapMember(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching members: " + err.getLocalizedMessage());
         }
 
         return members;
@@ -12,34 +12,98 @@ import java.util.LinkedHashMap;
 import java.time.LocalDate;
 import java.sql.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public class OrderDAO {
 
+    // Only what ORDER_MAPPER reads
+    private static final String ORDER_COLUMNS =
+            "order_id, order_date, subtotal, discount_amount, grand_total, member_id, user_id, payment_id, updated_at";
+
     // =====================================
     // ========== READ OPERATIONS ===========
     // =====================================
 
     public static ObservableList<Order> getAllOrder() {
+        try {
+            return loadAllOrder();
+        } catch (SQLException err) {
+            System.err.println("Error fetching orders: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllOrder()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Order> loadAllOrder() throws SQLException {
         ObservableList<Order> orders = FXCollections.observableArrayList();
-        String query = "SELECT * FROM orders ORDER BY order_id DESC";
+        String query = "SELECT " + ORDER_COLUMNS + " FROM orders ORDER BY order_id DESC";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()
         ) {
+            RowMapper<Order> mapper = ORDER_MAPPER.forSql(query);
             while (rs.next()) {
-                orders.add(mapOrder(rs));
+                orders.add(mapper.map(rs));
             }
-        } catch (SQLException err) {
-            System.err.println("Error fetching orders: " + err.getLocalizedMessage());
         }
 
         return orders;
     }
 
+    // Keyset page, newest first; filters are optional (null = any), date range is inclusive
+    public static Page<Order> getOrderPage(Integer afterOrderId, int limit,
+                                           Integer userIdOrNull, LocalDate fromOrNull, LocalDate toOrNull) {
+        int pageSize = Page.clampLimit(limit);
+        ObservableList<Order> orders = FXCollections.observableArrayList();
+
+        String sql =
+                "SELECT " + ORDER_COLUMNS + " FROM orders WHERE 1 = 1 " +
+                        (afterOrderId != null ? "AND order_id < ? " : "") +
+                        (userIdOrNull != null ? "AND user_id = ? " : "") +
+                        (fromOrNull != null ? "AND order_date >= ? " : "") +
+                        (toOrNull != null ? "AND order_date < ? " : "") +
+                        "ORDER BY order_id DESC LIMIT ?";
+
+        try (Connection con = DB.connect();
+             PreparedStatement stmt = con.prepareStatement(sql)) {
+
+            int i = 1;
+            if (afterOrderId != null) stmt.setInt(i++, afterOrderId);
+            if (userIdOrNull != null) stmt.setInt(i++, userIdOrNull);
+            if (fromOrNull != null) stmt.setTimestamp(i++, Timestamp.valueOf(fromOrNull.atStartOfDay()));
+            if (toOrNull != null) stmt.setTimestamp(i++, Timestamp.valueOf(toOrNull.plusDays(1).atStartOfDay()));
+            stmt.setInt(i, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Order> mapper = ORDER_MAPPER.forSql(sql);
+                while (rs.next()) {
+                    orders.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException err) {
+            System.err.println("Error fetching order page: " + err.getLocalizedMessage());
+            return Page.empty();
+        }
+
+        return Page.of(orders, pageSize, Order::getOrderId);
+    }
+
+    // Every order by id, for exports; an empty stream if the query can't start
+    public static Stream<Order> streamAllOrders() {
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM orders ORDER BY order_id";
+
+        try {
+            return StreamingQuery.stream(sql, StreamingQuery.NO_PARAMS, ORDER_MAPPER.forSql(sql));
+        } catch (SQLException err) {
+            System.err.println("Error streaming orders: " + err.getLocalizedMessage());
+            return Stream.empty();
+        }
+    }
+
     public static Order getOrderById(int orderId) {
-        String query = "SELECT * FROM orders WHERE order_id = ?";
+        String query = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE order_id = ?";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(query)) {
@@ -47,7 +111,7 @@ public class OrderDAO {
             stmt.setInt(1, orderId);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) return mapOrder(rs);
+                if (rs.next()) return ORDER_MAPPER.forSql(query).map(rs);
             }
 
         } catch (SQLException err) {
@@ -169,26 +233,39 @@ public class OrderDAO {
     // ========== Helper Methods ===========
     // =====================================
 
-    private static Order mapOrder(ResultSet rs) throws SQLException {
-        int orderId = rs.getInt("order_id");
+    private static final CompiledRowMapper<Order> ORDER_MAPPER = CompiledRowMapper.of(cols -> {
+        int orderIdCol = cols.index("order_id");
+        int orderDateCol = cols.index("order_date");
+        int subtotalCol = cols.index("subtotal");
+        int discountCol = cols.index("discount_amount");
+        int grandTotalCol = cols.index("grand_total");
+        int memberIdCol = cols.index("member_id");
+        int userIdCol = cols.index("user_id");
+        int paymentIdCol = cols.index("payment_id");
+        int updatedAtCol = cols.index("updated_at");
 
-        Timestamp od = rs.getTimestamp("order_date");
-        LocalDateTime orderDate = (od == null) ? LocalDateTime.now() : od.toLocalDateTime();
+        return rs -> {
+            int orderId = rs.getInt(orderIdCol);
 
-        double subtotal = rs.getDouble("subtotal");
-        double discount = rs.getDouble("discount_amount");
-        double grandTotal = rs.getDouble("grand_total");
+            Timestamp od = rs.getTimestamp(orderDateCol);
+            LocalDateTime orderDate = (od == null) ? LocalDateTime.now() : od.toLocalDateTime();
 
-        Integer memberId = (Integer) rs.getObject("member_id"); // ✅ nullable
+            double subtotal = rs.getDouble(subtotalCol);
+            double discount = rs.getDouble(discountCol);
+            double grandTotal = rs.getDouble(grandTotalCol);
 
-        int userId = rs.getInt("user_id");
-        int paymentId = rs.getInt("payment_id");
+            int member = rs.getInt(memberIdCol);
+            Integer memberId = rs.wasNull() ? null : member; // nullable
 
-        Timestamp ua = rs.getTimestamp("updated_at");
-        LocalDateTime updatedAt = (ua == null) ? LocalDateTime.now() : ua.toLocalDateTime();
+            int userId = rs.getInt(userIdCol);
+            int paymentId = rs.getInt(paymentIdCol);
 
-        return new Order(orderId, orderDate, subtotal, discount, grandTotal, memberId, userId, paymentId, updatedAt);
-    }
+            Timestamp ua = rs.getTimestamp(updatedAtCol);
+            LocalDateTime updatedAt = (ua == null) ? LocalDateTime.now() : ua.toLocalDateTime();
+
+            return new Order(orderId, orderDate, subtotal, discount, grandTotal, memberId, userId, paymentId, updatedAt);
+        };
+    });
 
 
 
@@ -216,7 +293,7 @@ public class OrderDAO {
 
             String sql = (categoryId == null) ? sqlAll : sqlByCategory;
 
-            try (Connection con = DB.connect();
+            try (Connection con = DB.connectReadOnly();
                  PreparedStatement stmt = con.prepareStatement(sql)) {
 
                 stmt.setDate(1, Date.valueOf(start));
@@ -243,7 +320,7 @@ public class OrderDAO {
         public static int getTotalMembers() {
             String sql = "SELECT COUNT(*) FROM members";
 
-            try (Connection con = DB.connect();
+            try (Connection con = DB.connectReadOnly();
                  PreparedStatement stmt = con.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
 
@@ -259,7 +336,7 @@ public class OrderDAO {
         public static int getTotalOrders(LocalDate start, LocalDate end) {
             String sql = "SELECT COUNT(*) FROM orders WHERE DATE(order_date) BETWEEN ? AND ?";
 
-            try (Connection con = DB.connect();
+            try (Connection con = DB.connectReadOnly();
                  PreparedStatement stmt = con.prepareStatement(sql)) {
 
                 stmt.setDate(1, Date.valueOf(start));
@@ -282,7 +359,7 @@ public class OrderDAO {
         public static double getTotalSales(LocalDate start, LocalDate end) {
             String sql = "SELECT COALESCE(SUM(grand_total), 0) FROM orders WHERE DATE(order_date) BETWEEN ? AND ?";
 
-            try (Connection con = DB.connect();
+            try (Connection con = DB.connectReadOnly();
                  PreparedStatement stmt = con.prepareStatement(sql)) {
 
                 stmt.setDate(1, Date.valueOf(start));
@@ -305,7 +382,7 @@ public class OrderDAO {
         public static int getTotalCancelBookings(LocalDate start, LocalDate end) {
             String sql = "SELECT COUNT(*) FROM bookings WHERE booking_status = 'Cancelled' AND booking_date BETWEEN ? AND ?";
 
-            try (Connection con = DB.connect();
+            try (Connection con = DB.connectReadOnly();
                  PreparedStatement stmt = con.prepareStatement(sql)) {
 
                 stmt.setDate(1, Date.valueOf(start));
@@ -367,11 +444,11 @@ public class OrderDAO {
         ObservableList<Order> orders = FXCollections.observableArrayList();
 
         String sql = """
-        SELECT * FROM orders
+        SELECT %s FROM orders
         WHERE user_id = ?
           AND DATE(order_date) BETWEEN ? AND ?
         ORDER BY order_date DESC
-    """;
+    """.formatted(ORDER_COLUMNS);
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(sql)) {
@@ -381,8 +458,9 @@ public class OrderDAO {
             stmt.setDate(3, Date.valueOf(end));
 
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Order> mapper = ORDER_MAPPER.forSql(sql);
                 while (rs.next()) {
-                    orders.add(mapOrder(rs));
+                    orders.add(mapper.map(rs));
                 }
             }
 
@@ -7,6 +7,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.sql.*;
+import java.util.stream.Stream;
 
 public class OrderItemDAO {
 
@@ -15,6 +16,16 @@ public class OrderItemDAO {
     // =====================================
 
     public static ObservableList<OrderItem> getAllOrderItem() {
+        try {
+            return loadAllOrderItem();
+        } catch (SQLException err) {
+            System.err.println("Error fetching order items: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllOrderItem()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<OrderItem> loadAllOrderItem() throws SQLException {
         ObservableList<OrderItem> list = FXCollections.observableArrayList();
         String query = "SELECT * FROM order_items ORDER BY order_item_id DESC";
 
@@ -25,13 +36,25 @@ public class OrderItemDAO {
             while (rs.next()) {
                 list.add(mapOrderItem(rs));
             }
-        } catch (SQLException err) {
-            System.err.println("Error fetching order items: " + err.getLocalizedMessage());
         }
 
         return list;
     }
 
+    // Every order line, for reconciling line totals against their orders
+    public static Stream<OrderItem> streamAllOrderItems() {
+        try {
+            return StreamingQuery.stream(
+                    "SELECT * FROM order_items ORDER BY order_item_id",
+                    StreamingQuery.NO_PARAMS,
+                    OrderItemDAO::mapOrderItem
+            );
+        } catch (SQLException err) {
+            System.err.println("Error streaming order items: " + err.getLocalizedMessage());
+            return Stream.empty();
+        }
+    }
+
     public static ObservableList<OrderItem> getOrderItemByOrderId(int orderId) {
         ObservableList<OrderItem> list = FXCollections.observableArrayList();
         String query = "SELECT * FROM order_items WHERE order_id = ? ORDER BY order_item_id ASC";
@@ -0,0 +1,40 @@
+package com.cakeshopsystem.utils.dao;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * One page of a keyset-paginated DAO read (newest id first).
+ * <p>
+ * Pass {@code nextCursor} back as {@code afterId} to read the following page; it is {@code null}
+ * on the last page. Each page is a single index range scan on the primary key, so its cost
+ * depends on the page size, not on how much history the table holds.
+ */
+public record Page<T>(ObservableList<T> items, Integer nextCursor, boolean hasMore) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1_000;
+
+    public static <T> Page<T> empty() {
+        return new Page<>(FXCollections.observableArrayList(), null, false);
+    }
+
+    // =====================================
+    // DAO HELPERS
+    // =====================================
+    static int clampLimit(int limit) {
+        if (limit <= 0) return DEFAULT_LIMIT;
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /** {@code rows} was read with {@code LIMIT limit + 1}; the extra row only signals another page. */
+    static <T> Page<T> of(ObservableList<T> rows, int limit, ToIntFunction<T> idOf) {
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows.remove(limit, rows.size());
+
+        Integer nextCursor = hasMore ? idOf.applyAsInt(rows.getLast()) : null;
+        return new Page<>(rows, nextCursor, hasMore);
+    }
+}
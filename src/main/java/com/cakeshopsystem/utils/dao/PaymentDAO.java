@@ -14,6 +14,16 @@ public class PaymentDAO {
     // ==========================
 
     public static ObservableList<Payment> getAllPayments() {
+        try {
+            return loadAllPayments();
+        } catch (SQLException err) {
+            System.err.println("Error fetching payments: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllPayments()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Payment> loadAllPayments() throws SQLException {
         ObservableList<Payment> payments = FXCollections.observableArrayList();
         String sql = "select * from payments order by payment_id";
 
@@ -24,9 +34,6 @@ public class PaymentDAO {
             while (rs.next()) {
                 payments.add(mapPayment(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching payments: " + err.getLocalizedMessage());
         }
 
         return payments;
@@ -11,30 +11,42 @@ import java.time.LocalDate;
 
 public class ProductDAO {
 
+    // Only what PRODUCT_MAPPER reads
+    private static final String PRODUCT_COLUMNS =
+            "product_id, product_name, category_id, price, is_active, track_inventory, shelf_life_days, img_path";
+
     // ==========================
     // -------- READ ------------
     // ==========================
     public static ObservableList<Product> getAllProducts() {
+        try {
+            return loadAllProducts();
+        } catch (SQLException err) {
+            System.err.println("Error fetching products: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllProducts()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Product> loadAllProducts() throws SQLException {
         ObservableList<Product> products = FXCollections.observableArrayList();
-        String sql = "SELECT * FROM products ORDER BY product_id";
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM products ORDER BY product_id";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            RowMapper<Product> mapper = PRODUCT_MAPPER.forSql(sql);
             while (rs.next()) {
-                products.add(mapProduct(rs));
+                products.add(mapper.map(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching products: " + err.getLocalizedMessage());
         }
 
         return products;
     }
 
     public static Product getProductById(int productId) {
-        String sql = "SELECT * FROM products WHERE product_id = ?";
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM products WHERE product_id = ?";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(sql)) {
@@ -43,7 +55,7 @@ public class ProductDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapProduct(rs);
+                    return PRODUCT_MAPPER.forSql(sql).map(rs);
                 }
             }
 
@@ -56,7 +68,7 @@ public class ProductDAO {
 
     public static ObservableList<Product> getProductsByCategoryId(int categoryId) {
         ObservableList<Product> products = FXCollections.observableArrayList();
-        String sql = "SELECT * FROM products WHERE category_id = ? ORDER BY product_id";
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM products WHERE category_id = ? ORDER BY product_id";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(sql)) {
@@ -64,8 +76,9 @@ public class ProductDAO {
             stmt.setInt(1, categoryId);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Product> mapper = PRODUCT_MAPPER.forSql(sql);
                 while (rs.next()) {
-                    products.add(mapProduct(rs));
+                    products.add(mapper.map(rs));
                 }
             }
 
@@ -77,7 +90,7 @@ public class ProductDAO {
     }
 
     public static Product getProductByName(String productName) {
-        String sql = "SELECT * FROM products WHERE product_name = ?";
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM products WHERE product_name = ?";
 
         try (Connection con = DB.connect();
              PreparedStatement stmt = con.prepareStatement(sql)) {
@@ -86,7 +99,7 @@ public class ProductDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapProduct(rs);
+                    return PRODUCT_MAPPER.forSql(sql).map(rs);
                 }
             }
 
@@ -201,25 +214,36 @@ public class ProductDAO {
     // ==========================
     // ------ ROW MAPPER --------
     // ==========================
-    private static Product mapProduct(ResultSet rs) throws SQLException {
-        Product p = new Product();
+    private static final CompiledRowMapper<Product> PRODUCT_MAPPER = CompiledRowMapper.of(cols -> {
+        int productId = cols.index("product_id");
+        int productName = cols.index("product_name");
+        int categoryId = cols.index("category_id");
+        int price = cols.index("price");
+        int isActive = cols.index("is_active");
+        int trackInventory = cols.index("track_inventory");
+        int shelfLifeDays = cols.index("shelf_life_days");
+        int imgPath = cols.index("img_path");
 
-        p.setProductId(rs.getInt("product_id"));
-        p.setProductName(rs.getString("product_name"));
-        p.setCategoryId(rs.getInt("category_id"));
-        p.setPrice(rs.getDouble("price"));
+        return rs -> {
+            Product p = new Product();
 
-        p.setActive(rs.getBoolean("is_active"));
-        p.setTrackInventory(rs.getBoolean("track_inventory"));
+            p.setProductId(rs.getInt(productId));
+            p.setProductName(rs.getString(productName));
+            p.setCategoryId(rs.getInt(categoryId));
+            p.setPrice(rs.getDouble(price));
 
-        int shelf = rs.getInt("shelf_life_days");
-        if (rs.wasNull()) p.setShelfLifeDays(null);
-        else p.setShelfLifeDays(shelf);
+            p.setActive(rs.getBoolean(isActive));
+            p.setTrackInventory(rs.getBoolean(trackInventory));
 
-        p.setImgPath(rs.getString("img_path")); // returns null if SQL NULL
+            int shelf = rs.getInt(shelfLifeDays);
+            if (rs.wasNull()) p.setShelfLifeDays(null);
+            else p.setShelfLifeDays(shelf);
 
-        return p;
-    }
+            p.setImgPath(rs.getString(imgPath)); // returns null if SQL NULL
+
+            return p;
+        };
+    });
 
     public static boolean updateProductEditFields(int productId,
                                                   String name,
@@ -596,7 +620,7 @@ public class ProductDAO {
                     LIMIT 5
                 """;
 
-        try (var con = DB.connect();
+        try (var con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setDate(1, java.sql.Date.valueOf(start));
@@ -632,7 +656,7 @@ public class ProductDAO {
                     LIMIT 5
                 """;
 
-        try (var con = DB.connect();
+        try (var con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setDate(1, java.sql.Date.valueOf(start));
@@ -668,7 +692,7 @@ public class ProductDAO {
                     LIMIT 5
                 """;
 
-        try (var con = DB.connect();
+        try (var con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setDate(1, java.sql.Date.valueOf(start));
@@ -709,7 +733,7 @@ public class ProductDAO {
                     LIMIT 3
                 """;
 
-        try (var con = DB.connect();
+        try (var con = DB.connectReadOnly();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setString(1, filter);
@@ -750,7 +774,8 @@ public class ProductDAO {
                     ORDER BY total_sold DESC
                 """;
 
-        try (PreparedStatement ps = DB.connect().prepareStatement(sql)) {
+        try (Connection con = DB.connectReadOnly();
+             PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setDate(1, java.sql.Date.valueOf(start));
             ps.setDate(2, java.sql.Date.valueOf(end.plusDays(1))); // include full day
 
@@ -787,7 +812,8 @@ public class ProductDAO {
                     ORDER BY total_sold DESC
                 """;
 
-        try (PreparedStatement ps = DB.connect().prepareStatement(sql)) {
+        try (Connection con = DB.connectReadOnly();
+             PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setDate(1, java.sql.Date.valueOf(start));
             ps.setDate(2, java.sql.Date.valueOf(end.plusDays(1)));
 
@@ -824,7 +850,8 @@ public class ProductDAO {
                     ORDER BY total_sold DESC
                 """;
 
-        try (PreparedStatement ps = DB.connect().prepareStatement(sql)) {
+        try (Connection con = DB.connectReadOnly();
+             PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setDate(1, java.sql.Date.valueOf(start));
             ps.setDate(2, java.sql.Date.valueOf(end.plusDays(1)));
 
@@ -863,7 +890,7 @@ public class ProductDAO {
                     ORDER BY total_sold DESC
                 """;
 
-        try (Connection con = DB.connect();
+        try (Connection con = DB.connectReadOnly();
              PreparedStatement stmt = con.prepareStatement(sql)) {
 
             stmt.setInt(1, categoryId);
@@ -10,6 +10,16 @@ import java.sql.*;
 public class RoleDAO {
 
     public static ObservableList<Role> getAllRoles() {
+        try {
+            return loadAllRoles();
+        } catch (SQLException err) {
+            System.err.println("Error fetching roles: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllRoles()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Role> loadAllRoles() throws SQLException {
         ObservableList<Role> roles = FXCollections.observableArrayList();
         String query = "SELECT * FROM roles";
         try (Connection con = DB.connect();
@@ -19,8 +29,6 @@ public class RoleDAO {
             while (rs.next()) {
                 roles.add(mapRole(rs));
             }
-        } catch (SQLException err) {
-            System.err.println("Error fetching roles: " + err.getLocalizedMessage());
         }
         return roles;
     }
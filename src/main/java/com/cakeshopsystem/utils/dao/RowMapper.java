@@ -0,0 +1,10 @@
+package com.cakeshopsystem.utils.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps the current row of a result set; DAOs pass their private map* methods as method refs. */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -14,6 +14,16 @@ public class SizeDAO {
     // =====================================
 
     public static ObservableList<Size> getAllSizes() {
+        try {
+            return loadAllSizes();
+        } catch (SQLException err) {
+            System.err.println("Error fetching sizes: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllSizes()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Size> loadAllSizes() throws SQLException {
         ObservableList<Size> sizes = FXCollections.observableArrayList();
         String query = "SELECT * FROM sizes ORDER BY size_inches ASC";
 
@@ -24,9 +34,6 @@ public class SizeDAO {
             while (rs.next()) {
                 sizes.add(mapSize(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching sizes: " + err.getLocalizedMessage());
         }
 
         return sizes;
@@ -21,7 +21,7 @@ public class StaffPerformanceDAO {
             ORDER BY activity_date DESC
         """.formatted(dateFilter);
 
-        try (var conn = DB.connect();
+        try (var conn = DB.connectReadOnly();
              var ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, staffId);
@@ -0,0 +1,155 @@
+package com.cakeshopsystem.utils.dao;
+
+import com.cakeshopsystem.utils.databaseconnection.DB;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Row-at-a-time reads for exports and reconciliation over whole tables.
+ * <p>
+ * Uses a forward-only, read-only statement with MySQL row streaming ({@code fetchSize =
+ * Integer.MIN_VALUE}), so rows are mapped as they come off the socket instead of being buffered
+ * into the heap first. The connection is held for the whole read and can't run other statements
+ * meanwhile; it goes back to the pool when the callback returns or the stream is closed.
+ * <p>
+ * Stopping early is safe: the cursor is closed and the driver discards the unread remainder of
+ * the result (network time, not heap).
+ * <p>
+ * A {@link #stream} holds its connection until closed, so whoever ends up with it closes it; that
+ * includes the {@code streamAll...} methods of the DAOs, which hand these streams on.
+ */
+public final class StreamingQuery {
+
+    // Connector/J: stream rows one by one instead of reading the whole result set
+    private static final int MYSQL_STREAM_ROWS = Integer.MIN_VALUE;
+    // H2 (DB_PROFILE=embedded) rejects a negative fetch size
+    private static final int EMBEDDED_FETCH_ROWS = 1_000;
+
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    public static final Binder NO_PARAMS = ps -> {};
+
+    /** Thrown from a {@link #stream} when reading or mapping a row fails part-way through. */
+    public static final class StreamingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StreamingException(String message, SQLException cause) {
+            super(message, cause);
+        }
+    }
+
+    private StreamingQuery() {}
+
+    // =====================================
+    // CALLBACK MODE
+    // =====================================
+    /**
+     * Hands each row to {@code consumer} until it returns {@code false} or the rows run out.
+     *
+     * @return number of rows handed to the consumer
+     */
+    public static <T> long forEach(String sql, Binder binder, RowMapper<T> mapper,
+                                   Predicate<? super T> consumer) throws SQLException {
+        long rows = 0;
+        try (Cursor cursor = Cursor.open(sql, binder)) {
+            while (cursor.rs.next()) {
+                rows++;
+                if (!consumer.test(mapper.map(cursor.rs))) break;
+            }
+        }
+        return rows;
+    }
+
+    // =====================================
+    // STREAM MODE
+    // =====================================
+    /**
+     * Lazily mapped rows. The caller must close the stream (try-with-resources) to release the
+     * connection, including when it stops early via {@code limit}, {@code findFirst}, etc.
+     */
+    public static <T> Stream<T> stream(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        Cursor cursor = Cursor.open(sql, binder);
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!cursor.rs.next()) {
+                        cursor.close();
+                        return false;
+                    }
+                    action.accept(mapper.map(cursor.rs));
+                    return true;
+                } catch (SQLException err) {
+                    cursor.close();
+                    throw new StreamingException("Error streaming rows: " + err.getLocalizedMessage(), err);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(cursor::close);
+    }
+
+    // =====================================
+    // CURSOR
+    // =====================================
+    private static final class Cursor implements AutoCloseable {
+        private final Connection con;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private boolean closed = false;
+
+        private Cursor(Connection con, PreparedStatement ps, ResultSet rs) {
+            this.con = con;
+            this.ps = ps;
+            this.rs = rs;
+        }
+
+        static Cursor open(String sql, Binder binder) throws SQLException {
+            Connection con = DB.connectReadOnly();
+            PreparedStatement ps = null;
+            try {
+                ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(DB.isEmbedded() ? EMBEDDED_FETCH_ROWS : MYSQL_STREAM_ROWS);
+                binder.bind(ps);
+                return new Cursor(con, ps, ps.executeQuery());
+            } catch (SQLException | RuntimeException err) {
+                closeQuietly(ps);
+                closeQuietly(con);
+                throw err;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+
+            closeQuietly(rs);
+            closeQuietly(ps);
+            closeQuietly(con);
+        }
+
+        private static void closeQuietly(AutoCloseable c) {
+            if (c == null) return;
+            try {
+                c.close();
+            } catch (Exception err) {
+                System.err.println("Error closing streaming cursor: " + err.getLocalizedMessage());
+            }
+        }
+    }
+}
@@ -14,6 +14,16 @@ public class ToppingDAO {
     // =====================================
 
     public static ObservableList<Topping> getAllToppings() {
+        try {
+            return loadAllToppings();
+        } catch (SQLException err) {
+            System.err.println("Error fetching toppings: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllToppings()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<Topping> loadAllToppings() throws SQLException {
         ObservableList<Topping> toppings = FXCollections.observableArrayList();
         String query = "SELECT * FROM toppings";
 
@@ -24,9 +34,6 @@ public class ToppingDAO {
             while (rs.next()) {
                 toppings.add(mapTopping(rs));
             }
-
-        } catch (SQLException err) {
-            System.err.println("Error fetching toppings: " + err.getLocalizedMessage());
         }
 
         return toppings;
@@ -260,6 +260,16 @@ public class UserDAO {
     // DATABASE OPERATIONS (READ)
     // =====================================
     public static ObservableList<User> getAllUsers() {
+        try {
+            return loadAllUsers();
+        } catch (SQLException err) {
+            System.err.println("Error fetching all users: " + err.getLocalizedMessage());
+            return FXCollections.observableArrayList();
+        }
+    }
+
+    /** {@link #getAllUsers()} for the caches: a failed query throws instead of reading as an empty table. */
+    public static ObservableList<User> loadAllUsers() throws SQLException {
         ObservableList<User> users = FXCollections.observableArrayList();
 
         final String SQL_SELECT_ALL_USERS =
@@ -275,9 +285,6 @@ public class UserDAO {
                     users.add(extractUser(rs));
                 }
             }
-
-        } catch (SQLException ex) {
-            System.err.println("Error fetching all users: " + ex.getLocalizedMessage());
         }
 
         return users;
@@ -326,16 +333,23 @@ public class UserDAO {
     }
 
     public static User getUserById(int userId) {
+        try {
+            return loadUserById(userId);
+        } catch (SQLException err) {
+            System.err.println("Error fetching user: " + err.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    /** {@link #getUserById(int)} for the caches: null only if there is no such user; a failed query throws. */
+    public static User loadUserById(int userId) throws SQLException {
         String sql = "SELECT * FROM users WHERE user_id = ?";
         try (Connection con = DB.connect(); PreparedStatement stmt = con.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) return extractUser(rs);
+                return rs.next() ? extractUser(rs) : null;
             }
-        } catch (SQLException err) {
-            System.err.println("Error fetching user: " + err.getLocalizedMessage());
         }
-        return null;
     }
 
     public static ObservableList<User> getUsersByRole(int... roleIds) {
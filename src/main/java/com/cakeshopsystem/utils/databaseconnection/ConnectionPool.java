@@ -0,0 +1,377 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small bounded JDBC connection pool used behind {@link DB#connect()}.
+ * <p>
+ * Callers keep using try-with-resources: closing the handed-out connection returns the
+ * physical connection to the pool instead of tearing down the TCP/TLS/auth session.
+ */
+public class ConnectionPool {
+
+    // =====================================
+    // CONFIG & STATS
+    // =====================================
+    public record Config(
+            String name,
+            String url,
+            String username,
+            String password,
+            int maxSize,
+            int minIdle,
+            long borrowTimeoutMs,
+            long idleTimeoutMs,
+            long maxLifetimeMs,
+            long leakThresholdMs,
+            String validationQuery,
+            int validationTimeoutSeconds,
+            boolean readOnly
+    ) {}
+
+    public record Stats(
+            String name,
+            int active,
+            int idle,
+            int waiting,
+            int total,
+            int maxSize,
+            long borrowCount,
+            long borrowTimeouts,
+            double avgBorrowMillis,
+            double maxBorrowMillis,
+            long leaksDetected
+    ) {
+        @Override
+        public String toString() {
+            return String.format(
+                    "%s pool: active=%d idle=%d waiting=%d total=%d/%d borrows=%d timeouts=%d avgBorrow=%.2fms maxBorrow=%.2fms leaks=%d",
+                    name, active, idle, waiting, total, maxSize, borrowCount, borrowTimeouts,
+                    avgBorrowMillis, maxBorrowMillis, leaksDetected
+            );
+        }
+    }
+
+    // Skip the validation round trip for connections returned very recently
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final long HOUSEKEEPING_PERIOD_MS = 30_000;
+
+    // =====================================
+    // STATE
+    // =====================================
+    private final Config config;
+
+    private final BlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(Config config) {
+        this.config = config;
+        this.permits = new Semaphore(Math.max(1, config.maxSize()), true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper-" + config.name());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long period = Math.min(HOUSEKEEPING_PERIOD_MS, Math.max(1_000, config.leakThresholdMs() / 2));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    // =====================================
+    // BORROW / RELEASE
+    // =====================================
+    public Connection borrow() throws SQLException {
+        if (shutdown) throw new SQLException("Connection pool '" + config.name() + "' is shut down.");
+
+        long startNanos = System.nanoTime();
+
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(config.borrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.increment();
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + config.borrowTimeoutMs() + "ms waiting for a connection (" + getStats() + ")"
+                );
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection.", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        try {
+            PooledEntry entry = takeIdle();
+            if (entry == null) entry = openEntry();
+
+            entry.borrowedAtMs = System.currentTimeMillis();
+            entry.borrowSite = config.leakThresholdMs() > 0
+                    ? new Throwable("Connection borrowed by thread " + Thread.currentThread().getName())
+                    : null;
+            entry.leakReported = false;
+            borrowed.add(entry);
+
+            recordBorrow(System.nanoTime() - startNanos);
+            return entry.newHandle();
+
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeIdle() {
+        long now = System.currentTimeMillis();
+
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isPastLifetime(entry, now) || !validate(entry, now)) {
+                destroy(entry);
+                continue;
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    private PooledEntry openEntry() throws SQLException {
+        Connection raw = DriverManager.getConnection(config.url(), config.username(), config.password());
+        if (config.readOnly()) raw.setReadOnly(true);
+        total.incrementAndGet();
+        return new PooledEntry(raw);
+    }
+
+    void release(PooledEntry entry) {
+        if (!borrowed.remove(entry)) return;
+
+        try {
+            if (!resetState(entry) || shutdown || isPastLifetime(entry, System.currentTimeMillis())) {
+                destroy(entry);
+            } else {
+                entry.lastUsedMs = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Undo anything a caller may have left behind (e.g. a transaction without setAutoCommit(true))
+    private boolean resetState(PooledEntry entry) {
+        try {
+            Connection raw = entry.raw;
+            if (raw.isClosed()) return false;
+
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            if (raw.isReadOnly() != config.readOnly()) raw.setReadOnly(config.readOnly());
+            raw.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean validate(PooledEntry entry, long now) {
+        if (now - entry.lastUsedMs < VALIDATION_BYPASS_MS) return true;
+
+        try {
+            String query = config.validationQuery();
+            if (query == null || query.isBlank()) {
+                return entry.raw.isValid(config.validationTimeoutSeconds());
+            }
+
+            try (Statement st = entry.raw.createStatement()) {
+                st.setQueryTimeout(config.validationTimeoutSeconds());
+                st.execute(query);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isPastLifetime(PooledEntry entry, long now) {
+        return config.maxLifetimeMs() > 0 && now - entry.createdAtMs > config.maxLifetimeMs();
+    }
+
+    private void destroy(PooledEntry entry) {
+        total.decrementAndGet();
+        try {
+            entry.raw.close();
+        } catch (SQLException ignored) {}
+    }
+
+    private void recordBorrow(long nanos) {
+        borrowCount.increment();
+        borrowNanos.add(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // =====================================
+    // HOUSEKEEPING (idle eviction + leak detection)
+    // =====================================
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Oldest idle connections sit at the tail (LIFO reuse keeps hot ones at the head)
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledEntry entry = it.next();
+                boolean idleTooLong = config.idleTimeoutMs() > 0
+                        && now - entry.lastUsedMs > config.idleTimeoutMs()
+                        && total.get() > config.minIdle();
+
+                if ((idleTooLong || isPastLifetime(entry, now)) && idle.remove(entry)) {
+                    destroy(entry);
+                }
+            }
+
+            if (config.leakThresholdMs() > 0) {
+                for (PooledEntry entry : borrowed) {
+                    if (!entry.leakReported && now - entry.borrowedAtMs > config.leakThresholdMs()) {
+                        entry.leakReported = true;
+                        leaksDetected.increment();
+                        System.err.println("Possible connection leak in '" + config.name() + "' pool: held for "
+                                + (now - entry.borrowedAtMs) + "ms (threshold " + config.leakThresholdMs() + "ms)");
+                        if (entry.borrowSite != null) entry.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    // =====================================
+    // STATS & LIFECYCLE
+    // =====================================
+    public Stats getStats() {
+        long count = borrowCount.sum();
+        double avgMs = count == 0 ? 0.0 : borrowNanos.sum() / (double) count / 1_000_000.0;
+
+        return new Stats(
+                config.name(),
+                borrowed.size(),
+                idle.size(),
+                waiting.get(),
+                total.get(),
+                config.maxSize(),
+                count,
+                borrowTimeouts.sum(),
+                avgMs,
+                maxBorrowNanos.get() / 1_000_000.0,
+                leaksDetected.sum()
+        );
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    // =====================================
+    // POOLED CONNECTION
+    // =====================================
+    private final class PooledEntry {
+        final Connection raw;
+        final long createdAtMs = System.currentTimeMillis();
+        volatile long lastUsedMs = createdAtMs;
+        volatile long borrowedAtMs;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledEntry(Connection raw) {
+            this.raw = raw;
+        }
+
+        // A fresh proxy per borrow, so a stale reference closed twice can't return someone else's connection
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this)
+            );
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (closed.compareAndSet(false, true)) release(entry);
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed.get() || entry.raw.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + config.name() + "]" + entry.raw;
+                }
+                default -> {
+                    if (closed.get()) throw new SQLException("Connection is closed.");
+                }
+            }
+
+            try {
+                return method.invoke(entry.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
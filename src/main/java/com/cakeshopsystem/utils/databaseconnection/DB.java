@@ -3,27 +3,86 @@ package com.cakeshopsystem.utils.databaseconnection;
 import com.cakeshopsystem.utils.dotenv.dotenv;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DB {
 
-    private static final String USERNAME = dotenv.mysql_username;
-    private static final String PASSWORD = dotenv.mysql_password;
-    private static final String URL = dotenv.mysql_url;
+    // DB_PROFILE=embedded swaps MySQL for an in-process H2 database (dev, tests, benchmarks)
+    private static final boolean EMBEDDED = "embedded".equalsIgnoreCase(trim(dotenv.db_profile));
+
+    private static final String USERNAME = EMBEDDED ? "sa" : dotenv.mysql_username;
+    private static final String PASSWORD = EMBEDDED ? "" : dotenv.mysql_password;
+    private static final String URL = EMBEDDED ? embeddedUrl() : dotenv.mysql_url;
 
     static {
+        String driver = EMBEDDED ? EmbeddedDatabase.DRIVER : "com.mysql.cj.jdbc.Driver";
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver"); // load once
+            Class.forName(driver); // load once
         } catch (ClassNotFoundException e) {
-            throw new RuntimeException("MySQL Driver not found", e);
+            throw new RuntimeException("JDBC driver not found: " + driver, e);
         }
+
+        // In-memory H2 starts empty; create the schema before anything borrows a connection
+        if (EMBEDDED) EmbeddedDatabase.bootstrap(URL, USERNAME, PASSWORD);
+    }
+
+    private static final ConnectionPool POOL = new ConnectionPool(new ConnectionPool.Config(
+            "primary",
+            URL,
+            USERNAME,
+            PASSWORD,
+            dotenv.parseInt(dotenv.db_pool_max_size, 8),
+            dotenv.parseInt(dotenv.db_pool_min_idle, 2),
+            dotenv.parseLong(dotenv.db_pool_borrow_timeout_ms, 5_000),
+            dotenv.parseLong(dotenv.db_pool_idle_timeout_ms, 300_000),
+            dotenv.parseLong(dotenv.db_pool_max_lifetime_ms, 1_800_000),
+            dotenv.parseLong(dotenv.db_pool_leak_threshold_ms, 20_000),
+            dotenv.db_pool_validation_query,
+            2,
+            false
+    ));
+
+    // Reports read from here when MYSQL_REPLICA_URL is set and the replica is caught up
+    private static final long REPLICA_LAG_CHECK_MS = 5_000;
+    private static final long REPLICA_BORROW_TIMEOUT_MS = 1_000;
+    private static final ReplicaRouter REPLICA = createReplicaRouter();
+
+    private static final boolean METRICS_ENABLED = !"false".equalsIgnoreCase(dotenv.db_metrics_enabled);
+
+    // Applied to statements run from a QueryTask (0 = no timeout)
+    static final int QUERY_TIMEOUT_SECONDS = dotenv.parseInt(dotenv.db_query_timeout_seconds, 30);
+
+    static {
+        InstrumentedJdbc.configure(dotenv.parseLong(dotenv.db_slow_query_ms, 500), dotenv.db_slow_query_log);
     }
 
     private DB() {}
 
+    // Borrowed from the pool; close() hands it back
     public static Connection connect() throws SQLException {
-        return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        QueryScope scope = QueryScope.current();
+        if (scope != null) scope.checkNotCancelled();
+
+        return decorate(POOL.borrow(), scope);
+    }
+
+    // Reporting/analytics reads; falls back to the primary when no replica is usable
+    public static Connection connectReadOnly() throws SQLException {
+        QueryScope scope = QueryScope.current();
+        if (scope != null) scope.checkNotCancelled();
+
+        Connection con = REPLICA == null ? null : REPLICA.tryBorrow();
+        if (con == null) return connect();
+        return decorate(con, scope);
+    }
+
+    private static Connection decorate(Connection con, QueryScope scope) {
+        if (METRICS_ENABLED) con = InstrumentedJdbc.wrap(con);
+        return scope == null ? con : scope.track(con);
+    }
+
+    public static boolean isEmbedded() {
+        return EMBEDDED;
     }
 
     public static void disconnect(Connection con) {
@@ -32,4 +91,56 @@ public class DB {
             if (!con.isClosed()) con.close();
         } catch (SQLException ignored) {}
     }
+
+    // =====================================
+    // POOL MONITORING & LIFECYCLE
+    // =====================================
+    public static ConnectionPool.Stats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    // null when no replica is configured
+    public static ReplicaRouter.Status getReplicaStatus() {
+        return REPLICA == null ? null : REPLICA.getStatus();
+    }
+
+    public static void shutdown() {
+        if (REPLICA != null) REPLICA.shutdown();
+        POOL.shutdown();
+    }
+
+    // =====================================
+    // CONFIG HELPERS
+    // =====================================
+    private static ReplicaRouter createReplicaRouter() {
+        String url = dotenv.mysql_replica_url;
+        if (EMBEDDED || url == null || url.isBlank()) return null;
+
+        ConnectionPool replicaPool = new ConnectionPool(new ConnectionPool.Config(
+                "replica",
+                url.trim(),
+                dotenv.mysql_replica_username,
+                dotenv.mysql_replica_password,
+                dotenv.parseInt(dotenv.db_replica_pool_max_size, 4),
+                0,
+                REPLICA_BORROW_TIMEOUT_MS,
+                dotenv.parseLong(dotenv.db_pool_idle_timeout_ms, 300_000),
+                dotenv.parseLong(dotenv.db_pool_max_lifetime_ms, 1_800_000),
+                dotenv.parseLong(dotenv.db_pool_leak_threshold_ms, 20_000),
+                dotenv.db_pool_validation_query,
+                2,
+                true
+        ));
+
+        return new ReplicaRouter(replicaPool, dotenv.parseLong(dotenv.db_replica_max_lag_seconds, 30), REPLICA_LAG_CHECK_MS);
+    }
+
+    private static String embeddedUrl() {
+        String url = trim(dotenv.db_embedded_url);
+        return url.isEmpty() ? EmbeddedDatabase.DEFAULT_URL : url;
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
 }
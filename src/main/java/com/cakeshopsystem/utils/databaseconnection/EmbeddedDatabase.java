@@ -0,0 +1,144 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * In-process H2 database for {@code DB_PROFILE=embedded} (development, tests, benchmarks).
+ * <p>
+ * H2 runs in MySQL compatibility mode and is bootstrapped from {@code /db/embedded/schema.sql}
+ * before the pool opens, so every DAO runs unchanged without a MySQL server. The static methods
+ * below back the MySQL-only function and procedure the DAOs call.
+ */
+public final class EmbeddedDatabase {
+
+    static final String DRIVER = "org.h2.Driver";
+    static final String DEFAULT_URL = "jdbc:h2:mem:cakeshop;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String SCHEMA = "/db/embedded/schema.sql";
+
+    private EmbeddedDatabase() {}
+
+    static void bootstrap(String url, String username, String password) {
+        String script = readSchema();
+
+        try (Connection con = DriverManager.getConnection(url, username, password);
+             Statement st = con.createStatement()) {
+            for (String sql : SchemaMigrator.splitStatements(script)) {
+                st.execute(sql);
+            }
+        } catch (SQLException err) {
+            throw new IllegalStateException("Cannot bootstrap embedded database: " + err.getLocalizedMessage(), err);
+        }
+    }
+
+    private static String readSchema() {
+        try (InputStream in = EmbeddedDatabase.class.getResourceAsStream(SCHEMA)) {
+            if (in == null) throw new IllegalStateException("Missing embedded schema: " + SCHEMA);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read embedded schema: " + SCHEMA, e);
+        }
+    }
+
+    // =====================================
+    // MYSQL STAND-INS (bound with CREATE ALIAS)
+    // =====================================
+
+    /** {@code DATE_FORMAT(ts, fmt)} for the specifiers the reports use. */
+    public static String dateFormat(Timestamp value, String mysqlFormat) {
+        if (value == null || mysqlFormat == null) return null;
+        return value.toLocalDateTime().format(toJavaPattern(mysqlFormat));
+    }
+
+    /** Same effect as the MySQL {@code waste_expired_inventory} procedure; runs in the caller's transaction. */
+    public static void wasteExpiredInventory(Connection con, Integer userId) throws SQLException {
+        String insert = """
+                INSERT INTO inventory_movements (inventory_id, movement_type, qty_change, order_item_id, user_id)
+                SELECT inventory_id, 'WASTE', -quantity, NULL, ?
+                FROM inventory
+                WHERE quantity > 0
+                  AND exp_date IS NOT NULL
+                  AND exp_date < CURRENT_DATE
+                """;
+
+        String update = """
+                UPDATE inventory
+                SET quantity = 0
+                WHERE quantity > 0
+                  AND exp_date IS NOT NULL
+                  AND exp_date < CURRENT_DATE
+                """;
+
+        try (PreparedStatement ps = con.prepareStatement(insert)) {
+            if (userId == null) ps.setNull(1, Types.INTEGER);
+            else ps.setInt(1, userId);
+            ps.executeUpdate();
+        }
+
+        try (PreparedStatement ps = con.prepareStatement(update)) {
+            ps.executeUpdate();
+        }
+    }
+
+    static DateTimeFormatter toJavaPattern(String mysqlFormat) {
+        StringBuilder pattern = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+
+        for (int i = 0; i < mysqlFormat.length(); i++) {
+            char c = mysqlFormat.charAt(i);
+
+            if (c != '%' || i + 1 == mysqlFormat.length()) {
+                literal.append(c);
+                continue;
+            }
+
+            String field = switch (mysqlFormat.charAt(++i)) {
+                case 'Y' -> "yyyy";
+                case 'y' -> "yy";
+                case 'm' -> "MM";
+                case 'c' -> "M";
+                case 'd' -> "dd";
+                case 'e' -> "d";
+                case 'H' -> "HH";
+                case 'k' -> "H";
+                case 'h', 'I' -> "hh";
+                case 'i' -> "mm";
+                case 's', 'S' -> "ss";
+                case 'p' -> "a";
+                case 'M' -> "MMMM";
+                case 'b' -> "MMM";
+                case 'W' -> "EEEE";
+                case 'a' -> "EEE";
+                default -> null;
+            };
+
+            if (field == null) {
+                literal.append(mysqlFormat.charAt(i));
+                continue;
+            }
+
+            flushLiteral(pattern, literal);
+            pattern.append(field);
+        }
+
+        flushLiteral(pattern, literal);
+        return DateTimeFormatter.ofPattern(pattern.toString());
+    }
+
+    private static void flushLiteral(StringBuilder pattern, StringBuilder literal) {
+        if (literal.isEmpty()) return;
+        pattern.append('\'').append(literal.toString().replace("'", "''")).append('\'');
+        literal.setLength(0);
+    }
+}
@@ -0,0 +1,236 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Thin timing wrappers around the JDBC objects handed out by {@link DB#connect()}.
+ * <p>
+ * Every execute is attributed to its normalized SQL in {@link QueryMetrics}: execution time is
+ * the execute call itself, fetch time is the time spent inside {@code ResultSet.next()}.
+ * Statements whose execute + fetch time crosses the slow threshold go to {@link SlowQueryLog}.
+ */
+public final class InstrumentedJdbc {
+
+    private static volatile long slowThresholdNanos = Long.MAX_VALUE;
+
+    private InstrumentedJdbc() {}
+
+    static void configure(long slowQueryMs, String slowQueryLogPath) {
+        if (slowQueryMs <= 0) {
+            slowThresholdNanos = Long.MAX_VALUE;
+            return;
+        }
+        SlowQueryLog.init(slowQueryLogPath);
+        slowThresholdNanos = slowQueryMs * 1_000_000L;
+    }
+
+    public static Connection wrap(Connection con) {
+        if (con == null) return null;
+        return proxy(Connection.class, new ConnectionHandler(con));
+    }
+
+    // =====================================
+    // CONNECTION
+    // =====================================
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection raw;
+
+        ConnectionHandler(Connection raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identityMethod(proxy, raw, method, args);
+            if (identity != NOT_HANDLED) return identity;
+
+            Object result = invokeRaw(raw, method, args);
+
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement" -> proxy(Statement.class,
+                        new StatementHandler((Statement) result, null));
+                default -> result;
+            };
+        }
+    }
+
+    // =====================================
+    // STATEMENTS
+    // =====================================
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement raw;
+        private final String preparedSql;
+        private int boundParams = 0;
+        private ResultSetHandler openResult;
+
+        StatementHandler(Statement raw, String preparedSql) {
+            this.raw = raw;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identityMethod(proxy, raw, method, args);
+            if (identity != NOT_HANDLED) return identity;
+
+            String name = method.getName();
+
+            if (isParameterSetter(name, args)) {
+                boundParams = Math.max(boundParams, (Integer) args[0]);
+                return invokeRaw(raw, method, args);
+            }
+
+            if ("clearParameters".equals(name)) {
+                boundParams = 0;
+                return invokeRaw(raw, method, args);
+            }
+
+            if ("close".equals(name)) {
+                if (openResult != null) openResult.finish();
+                return invokeRaw(raw, method, args);
+            }
+
+            if (!name.startsWith("execute")) return invokeRaw(raw, method, args);
+
+            String sql = preparedSql != null
+                    ? preparedSql
+                    : (args != null && args.length > 0 && args[0] instanceof String s ? s : null);
+            QueryMetrics.StatementStats stats = QueryMetrics.statsFor(sql);
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeRaw(raw, method, args);
+            } catch (Throwable t) {
+                stats.errors.increment();
+                stats.calls.increment();
+                stats.execution.recordNanos(System.nanoTime() - start);
+                throw t;
+            }
+            long execNanos = System.nanoTime() - start;
+
+            stats.calls.increment();
+            stats.execution.recordNanos(execNanos);
+
+            if ("executeQuery".equals(name)) {
+                openResult = new ResultSetHandler((ResultSet) result, proxy, stats, execNanos, boundParams);
+                return proxy(ResultSet.class, openResult);
+            }
+
+            checkSlow(stats, execNanos, 0, boundParams);
+            return result;
+        }
+
+        private static boolean isParameterSetter(String name, Object[] args) {
+            return name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer;
+        }
+    }
+
+    // =====================================
+    // RESULT SETS
+    // =====================================
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet raw;
+        private final Object statementProxy;
+        private final QueryMetrics.StatementStats stats;
+        private final long execNanos;
+        private final int boundParams;
+
+        private long rows = 0;
+        private long fetchNanos = 0;
+        private boolean finished = false;
+
+        ResultSetHandler(ResultSet raw, Object statementProxy, QueryMetrics.StatementStats stats,
+                         long execNanos, int boundParams) {
+            this.raw = raw;
+            this.statementProxy = statementProxy;
+            this.stats = stats;
+            this.execNanos = execNanos;
+            this.boundParams = boundParams;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identityMethod(proxy, raw, method, args);
+            if (identity != NOT_HANDLED) return identity;
+
+            switch (method.getName()) {
+                case "next" -> {
+                    long start = System.nanoTime();
+                    boolean hasRow = (Boolean) invokeRaw(raw, method, args);
+                    fetchNanos += System.nanoTime() - start;
+
+                    if (hasRow) rows++;
+                    else finish();
+                    return hasRow;
+                }
+                case "close" -> {
+                    try {
+                        return invokeRaw(raw, method, args);
+                    } finally {
+                        finish();
+                    }
+                }
+                case "getStatement" -> {
+                    return statementProxy;
+                }
+                default -> {
+                    return invokeRaw(raw, method, args);
+                }
+            }
+        }
+
+        void finish() {
+            if (finished) return;
+            finished = true;
+
+            stats.rows.add(rows);
+            stats.fetch.recordNanos(fetchNanos);
+            checkSlow(stats, execNanos + fetchNanos, rows, boundParams);
+        }
+    }
+
+    // =====================================
+    // HELPERS
+    // =====================================
+    private static final Object NOT_HANDLED = new Object();
+
+    private static void checkSlow(QueryMetrics.StatementStats stats, long elapsedNanos, long rows, int boundParams) {
+        if (elapsedNanos < slowThresholdNanos) return;
+        SlowQueryLog.log(stats.sql, elapsedNanos / 1_000_000.0, rows, boundParams);
+    }
+
+    private static Object identityMethod(Object proxy, Object raw, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> method.getParameterCount() == 1 ? proxy == args[0] : NOT_HANDLED;
+            case "hashCode" -> method.getParameterCount() == 0 ? System.identityHashCode(proxy) : NOT_HANDLED;
+            case "toString" -> method.getParameterCount() == 0 ? raw.toString() : NOT_HANDLED;
+            default -> NOT_HANDLED;
+        };
+    }
+
+    private static Object invokeRaw(Object raw, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(raw, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
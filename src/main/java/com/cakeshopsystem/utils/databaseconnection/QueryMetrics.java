@@ -0,0 +1,119 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement execution statistics, keyed by normalized SQL text.
+ * <p>
+ * Fed by {@link InstrumentedJdbc}; read with {@link #snapshot()} or {@link #dump()}.
+ */
+public final class QueryMetrics {
+
+    public record StatementSnapshot(
+            String sql,
+            long calls,
+            long errors,
+            long rows,
+            LatencyHistogram.Summary execution,
+            LatencyHistogram.Summary fetch
+    ) {
+        public double totalMs() {
+            return execution.meanMs() * execution.count() + fetch.meanMs() * fetch.count();
+        }
+    }
+
+    static final class StatementStats {
+        final String sql;
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LatencyHistogram execution = new LatencyHistogram();
+        final LatencyHistogram fetch = new LatencyHistogram();
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private static final Map<String, StatementStats> STATS = new ConcurrentHashMap<>();
+
+    // Raw SQL -> stats, so the normalizing regexes run once per distinct statement text
+    private static final int MAX_RAW_ENTRIES = 4_096;
+    private static final Map<String, StatementStats> BY_RAW_SQL = new ConcurrentHashMap<>();
+
+    // Literal values are folded so "... WHERE DATE(x) = '2026-01-02'" and "... = '2026-01-03'" share a row
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryMetrics() {}
+
+    // =====================================
+    // RECORDING
+    // =====================================
+    static StatementStats statsFor(String rawSql) {
+        String key = rawSql == null ? "" : rawSql;
+
+        StatementStats cached = BY_RAW_SQL.get(key);
+        if (cached != null) return cached;
+
+        StatementStats stats = STATS.computeIfAbsent(normalize(key), StatementStats::new);
+        if (BY_RAW_SQL.size() < MAX_RAW_ENTRIES) BY_RAW_SQL.put(key, stats);
+        return stats;
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) return "";
+
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    // =====================================
+    // READING
+    // =====================================
+    public static List<StatementSnapshot> snapshot() {
+        List<StatementSnapshot> out = new ArrayList<>(STATS.size());
+
+        STATS.forEach((sql, s) -> out.add(new StatementSnapshot(
+                sql,
+                s.calls.sum(),
+                s.errors.sum(),
+                s.rows.sum(),
+                s.execution.summarize(),
+                s.fetch.summarize()
+        )));
+
+        out.sort(Comparator.comparingDouble(StatementSnapshot::totalMs).reversed());
+        return out;
+    }
+
+    // Prints nothing when no statement was recorded (DB_METRICS_ENABLED=false)
+    public static void dump() {
+        List<StatementSnapshot> statements = snapshot();
+        if (statements.isEmpty()) return;
+
+        System.out.println("===== JDBC statement metrics (slowest total first) =====");
+        for (StatementSnapshot s : statements) {
+            System.out.printf(
+                    "calls=%d errors=%d rows=%d exec p50/p95/p99=%.1f/%.1f/%.1fms fetch p50/p95/p99=%.1f/%.1f/%.1fms | %s%n",
+                    s.calls(), s.errors(), s.rows(),
+                    s.execution().p50Ms(), s.execution().p95Ms(), s.execution().p99Ms(),
+                    s.fetch().p50Ms(), s.fetch().p95Ms(), s.fetch().p99Ms(),
+                    s.sql()
+            );
+        }
+    }
+
+    public static void reset() {
+        BY_RAW_SQL.clear();
+        STATS.clear();
+    }
+}
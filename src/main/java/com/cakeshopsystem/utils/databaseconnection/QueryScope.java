@@ -0,0 +1,184 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Groups the statements a background job runs so they can be cancelled together.
+ * <p>
+ * While a scope is bound to a thread, every connection that thread gets from {@link DB} hands out
+ * statements that carry the scope's query timeout and are registered with it. {@link #cancel()}
+ * (safe from any thread, typically the FX thread) calls {@code Statement.cancel()} on whatever is
+ * still executing, so the server stops the scan instead of finishing it for nobody. Once cancelled,
+ * further connects/executes on the bound thread fail fast instead of starting new queries.
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final int timeoutSeconds;
+    private final Set<StatementHandler> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+
+    private QueryScope previous;
+    private Thread boundThread;
+
+    public QueryScope(int timeoutSeconds) {
+        this.timeoutSeconds = Math.max(0, timeoutSeconds);
+    }
+
+    // =====================================
+    // BINDING
+    // =====================================
+    /** Makes this scope current on the calling thread until {@link #close()}. */
+    public QueryScope bind() {
+        previous = CURRENT.get();
+        boundThread = Thread.currentThread();
+        CURRENT.set(this);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (boundThread != Thread.currentThread()) return;
+
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+
+        previous = null;
+        boundThread = null;
+    }
+
+    static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    // =====================================
+    // CANCELLATION
+    // =====================================
+    public void cancel() {
+        cancelled = true;
+
+        for (StatementHandler handler : running) {
+            try {
+                handler.raw.cancel();
+            } catch (SQLException err) {
+                System.err.println("Error cancelling statement: " + err.getLocalizedMessage());
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void checkNotCancelled() throws SQLException {
+        if (cancelled) throw new SQLTimeoutException("Query cancelled.");
+    }
+
+    // =====================================
+    // TRACKED CONNECTIONS
+    // =====================================
+    Connection track(Connection con) {
+        return proxy(Connection.class, new ConnectionHandler(con));
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection raw;
+
+        ConnectionHandler(Connection raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identityMethod(proxy, raw, method, args);
+            if (identity != NOT_HANDLED) return identity;
+
+            Object result = invokeRaw(raw, method, args);
+
+            return switch (method.getName()) {
+                case "prepareStatement" -> trackStatement(PreparedStatement.class, (Statement) result);
+                case "prepareCall" -> trackStatement(CallableStatement.class, (Statement) result);
+                case "createStatement" -> trackStatement(Statement.class, (Statement) result);
+                default -> result;
+            };
+        }
+    }
+
+    private <T extends Statement> T trackStatement(Class<T> type, Statement raw) throws SQLException {
+        if (timeoutSeconds > 0) raw.setQueryTimeout(timeoutSeconds);
+        return proxy(type, new StatementHandler(raw));
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement raw;
+
+        StatementHandler(Statement raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identityMethod(proxy, raw, method, args);
+            if (identity != NOT_HANDLED) return identity;
+
+            String name = method.getName();
+
+            if ("close".equals(name)) {
+                running.remove(this);
+                return invokeRaw(raw, method, args);
+            }
+
+            if (!name.startsWith("execute")) return invokeRaw(raw, method, args);
+
+            // Registered before the cancelled check so a cancel() racing with us either sees the
+            // statement or we see the flag
+            running.add(this);
+            try {
+                checkNotCancelled();
+                return invokeRaw(raw, method, args);
+            } finally {
+                // Results are buffered client-side once execute returns; nothing left to cancel
+                running.remove(this);
+            }
+        }
+    }
+
+    // =====================================
+    // HELPERS
+    // =====================================
+    private static final Object NOT_HANDLED = new Object();
+
+    private static Object identityMethod(Object proxy, Object raw, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> method.getParameterCount() == 1 ? proxy == args[0] : NOT_HANDLED;
+            case "hashCode" -> method.getParameterCount() == 0 ? System.identityHashCode(proxy) : NOT_HANDLED;
+            case "toString" -> method.getParameterCount() == 0 ? raw.toString() : NOT_HANDLED;
+            default -> NOT_HANDLED;
+        };
+    }
+
+    private static Object invokeRaw(Object raw, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(raw, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,42 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import javafx.concurrent.Task;
+
+/**
+ * A {@link Task} whose database work is cancelled on the server too.
+ * <p>
+ * {@link #query()} runs inside a {@link QueryScope}: DAO statements get a query timeout, and
+ * {@code cancel()} (e.g. when a newer filter selection replaces this load) kills the statement
+ * that is currently executing and makes the remaining DAO calls fail fast.
+ */
+public abstract class QueryTask<V> extends Task<V> {
+
+    private final QueryScope scope;
+
+    protected QueryTask() {
+        this(DB.QUERY_TIMEOUT_SECONDS);
+    }
+
+    protected QueryTask(int timeoutSeconds) {
+        this.scope = new QueryScope(timeoutSeconds);
+    }
+
+    protected abstract V query() throws Exception;
+
+    @Override
+    protected final V call() throws Exception {
+        scope.bind();
+        try {
+            return query();
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) scope.cancel();
+        return cancelled;
+    }
+}
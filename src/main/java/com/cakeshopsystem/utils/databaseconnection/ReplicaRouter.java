@@ -0,0 +1,176 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether read-only work may go to the replica pool behind {@link DB#connectReadOnly()}.
+ * <p>
+ * Replication lag is sampled at most once per check interval (by whichever caller notices the
+ * sample is stale; everyone else keeps using the last verdict). When the replica is lagging,
+ * unreachable, or its lag can't be read, callers get {@code null} and fall back to the primary.
+ */
+public final class ReplicaRouter {
+
+    public record Status(
+            boolean usable,
+            long lagSeconds,
+            long maxLagSeconds,
+            long replicaReads,
+            long primaryFallbacks,
+            ConnectionPool.Stats pool
+    ) {
+        @Override
+        public String toString() {
+            return String.format(
+                    "replica: usable=%s lag=%ss (max %ds) replicaReads=%d primaryFallbacks=%d | %s",
+                    usable, lagSeconds < 0 ? "?" : String.valueOf(lagSeconds), maxLagSeconds,
+                    replicaReads, primaryFallbacks, pool
+            );
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final long maxLagSeconds;
+    private final long checkIntervalMs;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile long checkedAtMs = 0;
+    private volatile boolean usable = false;
+    private volatile long lagSeconds = -1;
+
+    // null until we know which status statement the server understands
+    private volatile Boolean legacyStatusSyntax = null;
+    private volatile boolean lagUnreadableReported = false;
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    ReplicaRouter(ConnectionPool pool, long maxLagSeconds, long checkIntervalMs) {
+        this.pool = pool;
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    // =====================================
+    // ROUTING
+    // =====================================
+    /** A replica connection, or {@code null} when the caller should use the primary. */
+    Connection tryBorrow() {
+        if (!isUsable()) {
+            primaryFallbacks.increment();
+            return null;
+        }
+
+        try {
+            Connection con = pool.borrow();
+            replicaReads.increment();
+            return con;
+        } catch (SQLException err) {
+            System.err.println("Replica unavailable, using primary: " + err.getLocalizedMessage());
+            markUnusable();
+            primaryFallbacks.increment();
+            return null;
+        }
+    }
+
+    private boolean isUsable() {
+        long now = System.currentTimeMillis();
+        if (now - checkedAtMs >= checkIntervalMs && checking.compareAndSet(false, true)) {
+            try {
+                refreshLag();
+            } finally {
+                checkedAtMs = System.currentTimeMillis();
+                checking.set(false);
+            }
+        }
+        return usable;
+    }
+
+    private void markUnusable() {
+        usable = false;
+        checkedAtMs = System.currentTimeMillis();
+    }
+
+    // =====================================
+    // LAG CHECK
+    // =====================================
+    private void refreshLag() {
+        try (Connection con = pool.borrow()) {
+            long lag = readLagSeconds(con);
+            lagSeconds = lag;
+            usable = lag >= 0 && lag <= maxLagSeconds;
+        } catch (SQLException err) {
+            System.err.println("Error checking replica lag: " + err.getLocalizedMessage());
+            lagSeconds = -1;
+            usable = false;
+        }
+    }
+
+    /**
+     * Seconds behind the source; 0 when the server reports no replication channel (a plain
+     * read endpoint), -1 when replication is stopped or the status can't be read.
+     */
+    private long readLagSeconds(Connection con) throws SQLException {
+        if (legacyStatusSyntax == null) {
+            try {
+                long lag = queryLag(con, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+                legacyStatusSyntax = false;
+                return lag;
+            } catch (SQLException modernFailed) {
+                try {
+                    long lag = queryLag(con, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+                    legacyStatusSyntax = true;
+                    return lag;
+                } catch (SQLException legacyFailed) {
+                    reportLagUnreadable(modernFailed);
+                    return -1;
+                }
+            }
+        }
+
+        return legacyStatusSyntax
+                ? queryLag(con, "SHOW SLAVE STATUS", "Seconds_Behind_Master")
+                : queryLag(con, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+    }
+
+    private static long queryLag(Connection con, String sql, String column) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+
+            if (!rs.next()) return 0;
+
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? -1 : lag;
+        }
+    }
+
+    private void reportLagUnreadable(SQLException err) {
+        if (lagUnreadableReported) return;
+        lagUnreadableReported = true;
+        System.err.println("Cannot read replica lag (needs REPLICATION CLIENT privilege?), reports stay on primary: "
+                + err.getLocalizedMessage());
+    }
+
+    // =====================================
+    // STATUS & LIFECYCLE
+    // =====================================
+    Status getStatus() {
+        return new Status(
+                usable,
+                lagSeconds,
+                maxLagSeconds,
+                replicaReads.sum(),
+                primaryFallbacks.sum(),
+                pool.getStats()
+        );
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+}
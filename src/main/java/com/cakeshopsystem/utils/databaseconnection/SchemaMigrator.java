@@ -0,0 +1,334 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import com.cakeshopsystem.utils.dotenv.dotenv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the versioned SQL scripts under {@code /db/migration} in order, once each.
+ * <p>
+ * Applied versions are recorded in {@code schema_migrations} with a SHA-256 of the script; editing
+ * a script after it has been applied fails startup instead of silently drifting. A database that
+ * predates migrations (no history, but it already has {@code orders}) is baselined: V001 is
+ * recorded, not run. Each migration is recorded as started before it runs, so one that fails
+ * midway is retried on the next start rather than mistaken for an old database (MySQL DDL doesn't
+ * roll back, which is why every script must be safe to re-run). Terminals starting together
+ * serialize on a MySQL named lock.
+ */
+public final class SchemaMigrator {
+
+    private static final String LOCATION = "/db/migration/";
+
+    // Applied in this order; never edit or reorder a shipped entry, add a new version instead.
+    // A script that fails part way is run again from the top, so keep each one re-runnable
+    private static final List<String> MIGRATIONS = List.of(
+            "V001__baseline_schema.sql",
+            "V002__hot_path_indexes.sql",
+            "V003__cache_versions.sql"
+    );
+
+    private static final int BASELINE_VERSION = 1;
+    private static final String BASELINE_MARKER_TABLE = "orders";
+
+    private static final String LOCK_NAME = "cakeshop.schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "(?is)CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+\\w+\\s+ON\\s+`?(\\w+)`?\\s*\\(([^)]*)\\)\\s*");
+
+    record Migration(int version, String description, String fileName, String script, String checksum) {}
+
+    // A history row; execution_ms stays UNFINISHED until the script has run to the end
+    private record Applied(String checksum, boolean finished) {}
+
+    private static final long UNFINISHED = -1;
+
+    private SchemaMigrator() {}
+
+    // =====================================
+    // STARTUP
+    // =====================================
+    /** Migrate + verify as configured; any failure propagates so the app doesn't start half-ready. */
+    public static void runOnStartup() throws SQLException {
+        // The embedded database is created from db/embedded/schema.sql when DB loads
+        if (!DB.isEmbedded() && !"false".equalsIgnoreCase(dotenv.db_migrate_on_startup)) migrate();
+        if (!"false".equalsIgnoreCase(dotenv.db_verify_indexes)) SchemaVerifier.verifyIndexes();
+    }
+
+    /** Version of the newest migration this build ships, i.e. the schema it expects. */
+    public static int latestVersion() {
+        Matcher matcher = FILE_NAME.matcher(MIGRATIONS.getLast());
+        if (!matcher.matches()) throw new IllegalStateException("Bad migration file name: " + MIGRATIONS.getLast());
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    public static void migrate() throws SQLException {
+        List<Migration> migrations = loadMigrations();
+
+        try (Connection con = DB.connect()) {
+            acquireLock(con);
+            try {
+                createHistoryTable(con);
+                Map<Integer, Applied> applied = appliedMigrations(con);
+
+                // Any history at all (even an unfinished V001) means this isn't a pre-migration database
+                if (applied.isEmpty() && tableExists(con, BASELINE_MARKER_TABLE)) {
+                    Migration baseline = migrations.getFirst();
+                    record(con, baseline, 0, true);
+                    applied.put(baseline.version(), new Applied(baseline.checksum(), true));
+                    System.out.println("Schema baselined at V" + baseline.version() + " (existing database).");
+                }
+
+                for (Migration m : migrations) {
+                    Applied done = applied.get(m.version());
+
+                    if (done != null && done.finished()) {
+                        if (!done.checksum().equals(m.checksum())) {
+                            throw new IllegalStateException("Migration " + m.fileName()
+                                    + " was changed after it was applied (checksum mismatch).");
+                        }
+                        continue;
+                    }
+
+                    if (done != null) System.out.println("Retrying migration " + m.fileName() + " (it did not finish last time).");
+                    apply(con, m, done != null);
+                }
+            } finally {
+                releaseLock(con);
+            }
+        }
+    }
+
+    // =====================================
+    // APPLY
+    // =====================================
+    private static void apply(Connection con, Migration m, boolean retry) throws SQLException {
+        long start = System.currentTimeMillis();
+
+        // Recorded before the first statement, so a failure part way leaves an unfinished row
+        if (retry) restarted(con, m);
+        else record(con, m, UNFINISHED, false);
+
+        try (Statement st = con.createStatement()) {
+            for (String sql : splitStatements(m.script())) {
+                if (isCoveredIndex(con, sql)) continue;
+
+                try {
+                    st.execute(sql);
+                } catch (SQLException err) {
+                    throw new SQLException("Migration " + m.fileName() + " failed at: "
+                            + abbreviate(sql) + " (" + err.getLocalizedMessage() + ")", err);
+                }
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        finished(con, m, elapsed);
+        System.out.println("Applied migration " + m.fileName() + " in " + elapsed + "ms");
+    }
+
+    // CREATE INDEX is skipped when an index with the same leading columns already exists
+    private static boolean isCoveredIndex(Connection con, String sql) throws SQLException {
+        Matcher matcher = CREATE_INDEX.matcher(sql);
+        if (!matcher.matches()) return false;
+
+        List<String> columns = new ArrayList<>();
+        for (String col : matcher.group(2).split(",")) {
+            columns.add(col.replace("`", "").trim());
+        }
+        return SchemaVerifier.hasIndexStartingWith(con, matcher.group(1), columns);
+    }
+
+    /** Splits a script on {@code ;}, honouring mysql-client style {@code DELIMITER} lines. */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String delimiter = ";";
+
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+
+            if (current.isEmpty() && (trimmed.isEmpty() || trimmed.startsWith("--"))) continue;
+
+            if (trimmed.toUpperCase(Locale.ROOT).startsWith("DELIMITER ")) {
+                delimiter = trimmed.substring("DELIMITER ".length()).trim();
+                continue;
+            }
+
+            current.append(line).append('\n');
+
+            if (trimmed.endsWith(delimiter)) {
+                String sql = current.toString().trim();
+                sql = sql.substring(0, sql.length() - delimiter.length()).trim();
+                if (!sql.isEmpty()) statements.add(sql);
+                current.setLength(0);
+            }
+        }
+
+        if (!current.toString().isBlank()) statements.add(current.toString().trim());
+        return statements;
+    }
+
+    // =====================================
+    // HISTORY TABLE
+    // =====================================
+    private static void createHistoryTable(Connection con) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_migrations (
+                        version       INT          NOT NULL PRIMARY KEY,
+                        description   VARCHAR(200) NOT NULL,
+                        checksum      CHAR(64)     NOT NULL,
+                        execution_ms  BIGINT       NOT NULL DEFAULT 0,
+                        baselined     BOOLEAN      NOT NULL DEFAULT FALSE,
+                        applied_at    TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
+        }
+    }
+
+    private static Map<Integer, Applied> appliedMigrations(Connection con) throws SQLException {
+        Map<Integer, Applied> applied = new LinkedHashMap<>();
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum, execution_ms FROM schema_migrations ORDER BY version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), new Applied(rs.getString("checksum"), rs.getLong("execution_ms") != UNFINISHED));
+            }
+        }
+        return applied;
+    }
+
+    private static void record(Connection con, Migration m, long elapsedMs, boolean baselined) throws SQLException {
+        String sql = "INSERT INTO schema_migrations (version, description, checksum, execution_ms, baselined) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, m.version());
+            ps.setString(2, m.description());
+            ps.setString(3, m.checksum());
+            ps.setLong(4, elapsedMs);
+            ps.setBoolean(5, baselined);
+            ps.executeUpdate();
+        }
+    }
+
+    // The script may have been fixed since the failed attempt, so its checksum is taken again
+    private static void restarted(Connection con, Migration m) throws SQLException {
+        String sql = "UPDATE schema_migrations SET description = ?, checksum = ?, execution_ms = ? WHERE version = ?";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, m.description());
+            ps.setString(2, m.checksum());
+            ps.setLong(3, UNFINISHED);
+            ps.setInt(4, m.version());
+            ps.executeUpdate();
+        }
+    }
+
+    private static void finished(Connection con, Migration m, long elapsedMs) throws SQLException {
+        String sql = "UPDATE schema_migrations SET execution_ms = ?, applied_at = CURRENT_TIMESTAMP WHERE version = ?";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, elapsedMs);
+            ps.setInt(2, m.version());
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(Connection con, String table) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // =====================================
+    // LOCKING
+    // =====================================
+    private static void acquireLock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock.");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection con) {
+        try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException err) {
+            System.err.println("Error releasing schema migration lock: " + err.getLocalizedMessage());
+        }
+    }
+
+    // =====================================
+    // LOADING
+    // =====================================
+    static List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        int lastVersion = 0;
+
+        for (String fileName : MIGRATIONS) {
+            Matcher matcher = FILE_NAME.matcher(fileName);
+            if (!matcher.matches()) throw new IllegalStateException("Bad migration file name: " + fileName);
+
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= lastVersion) throw new IllegalStateException("Migrations out of order at " + fileName);
+            lastVersion = version;
+
+            String script = readResource(LOCATION + fileName);
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), fileName, script, sha256(script)));
+        }
+
+        if (migrations.isEmpty() || migrations.getFirst().version() != BASELINE_VERSION) {
+            throw new IllegalStateException("First migration must be V00" + BASELINE_VERSION + " (baseline).");
+        }
+        return migrations;
+    }
+
+    private static String readResource(String path) {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream(path)) {
+            if (in == null) throw new IllegalStateException("Missing migration resource: " + path);
+            // Normalized so a CRLF checkout doesn't change the checksum
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read migration resource: " + path, e);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        String oneLine = sql.replaceAll("\\s+", " ");
+        return oneLine.length() <= 120 ? oneLine : oneLine.substring(0, 117) + "...";
+    }
+}
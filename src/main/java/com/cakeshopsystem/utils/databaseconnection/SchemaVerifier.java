@@ -0,0 +1,91 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Startup check that the indexes our hot queries depend on actually exist.
+ * <p>
+ * An index counts as present when any index on the table (including PRIMARY and the ones InnoDB
+ * adds for foreign keys) starts with the expected columns in the same order.
+ */
+public final class SchemaVerifier {
+
+    public record IndexSpec(String table, List<String> columns) {
+        @Override
+        public String toString() {
+            return table + "(" + String.join(", ", columns) + ")";
+        }
+    }
+
+    // Keep in step with db/migration/V002__hot_path_indexes.sql
+    public static final List<IndexSpec> EXPECTED_INDEXES = List.of(
+            new IndexSpec("orders", List.of("order_date")),
+            new IndexSpec("orders", List.of("user_id", "order_date")),
+            new IndexSpec("order_items", List.of("order_id")),
+            new IndexSpec("inventory", List.of("product_id", "exp_date", "quantity")),
+            new IndexSpec("inventory_movements", List.of("inventory_id")),
+            new IndexSpec("members", List.of("phone"))
+    );
+
+    private SchemaVerifier() {}
+
+    /** Throws if any expected index is missing, listing all of them. */
+    public static void verifyIndexes() throws SQLException {
+        try (Connection con = DB.connect()) {
+            List<IndexSpec> missing = findMissingIndexes(con);
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException(
+                        "Missing required database indexes: " + missing
+                                + ". Run the schema migrations (DB_MIGRATE_ON_STARTUP=true) or create them manually."
+                );
+            }
+        }
+    }
+
+    public static List<IndexSpec> findMissingIndexes(Connection con) throws SQLException {
+        List<IndexSpec> missing = new ArrayList<>();
+        for (IndexSpec spec : EXPECTED_INDEXES) {
+            if (!hasIndexStartingWith(con, spec.table(), spec.columns())) missing.add(spec);
+        }
+        return missing;
+    }
+
+    static boolean hasIndexStartingWith(Connection con, String table, List<String> columns) throws SQLException {
+        for (List<String> indexColumns : indexesOf(con, table).values()) {
+            if (indexColumns.size() >= columns.size()
+                    && indexColumns.subList(0, columns.size()).equals(lower(columns))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // index name -> columns in key order (JDBC metadata, so it works on MySQL and embedded H2)
+    private static Map<String, List<String>> indexesOf(Connection con, String table) throws SQLException {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        DatabaseMetaData meta = con.getMetaData();
+
+        try (ResultSet rs = meta.getIndexInfo(con.getCatalog(), con.getSchema(), table, false, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null) continue; // table statistics row
+
+                indexes.computeIfAbsent(indexName, k -> new ArrayList<>()).add(column.toLowerCase(Locale.ROOT));
+            }
+        }
+        return indexes;
+    }
+
+    private static List<String> lower(List<String> columns) {
+        return columns.stream().map(c -> c.toLowerCase(Locale.ROOT)).toList();
+    }
+}
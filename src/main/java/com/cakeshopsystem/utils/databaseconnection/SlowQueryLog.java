@@ -0,0 +1,66 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.*;
+
+/**
+ * Rotating file log for statements slower than {@code DB_SLOW_QUERY_MS}.
+ * <p>
+ * Only normalized SQL and the number of bound parameters are written; parameter values are
+ * never logged (they can hold phone numbers, password hashes, OTP codes...).
+ */
+public final class SlowQueryLog {
+
+    private static final int FILE_LIMIT_BYTES = 5 * 1024 * 1024;
+    private static final int FILE_COUNT = 5;
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final Logger LOGGER = Logger.getLogger("com.cakeshopsystem.slowquery");
+    private static volatile boolean initialized = false;
+
+    private SlowQueryLog() {}
+
+    static void init(String path) {
+        if (initialized) return;
+
+        synchronized (SlowQueryLog.class) {
+            if (initialized) return;
+            initialized = true;
+
+            LOGGER.setUseParentHandlers(false);
+            try {
+                File parent = new File(path).getAbsoluteFile().getParentFile();
+                if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                    throw new IOException("Cannot create " + parent);
+                }
+
+                FileHandler handler = new FileHandler(path + ".%g", FILE_LIMIT_BYTES, FILE_COUNT, true);
+                handler.setFormatter(new Formatter() {
+                    @Override
+                    public String format(LogRecord record) {
+                        return record.getMessage() + System.lineSeparator();
+                    }
+                });
+                LOGGER.addHandler(handler);
+            } catch (IOException e) {
+                System.err.println("Slow query log disabled: " + e.getMessage());
+                LOGGER.setLevel(Level.OFF);
+            }
+        }
+    }
+
+    static void log(String normalizedSql, double elapsedMs, long rows, int boundParams) {
+        LOGGER.info(String.format(
+                "%s [%s] %.1fms rows=%d params=%s | %s",
+                LocalDateTime.now().format(TS),
+                Thread.currentThread().getName(),
+                elapsedMs,
+                rows,
+                boundParams == 0 ? "none" : "<" + boundParams + " redacted>",
+                normalizedSql
+        ));
+    }
+}
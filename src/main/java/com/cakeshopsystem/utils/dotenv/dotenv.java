@@ -3,12 +3,73 @@ package com.cakeshopsystem.utils.dotenv;
 import io.github.cdimascio.dotenv.Dotenv;
 
 public class dotenv {
-    static Dotenv dotenv = Dotenv.load();
+    // A missing .env is fine: values then come from the environment or the defaults below
+    static Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+
+    // "mysql" (default) or "embedded" (in-process H2, no server needed)
+    public static String db_profile = dotenv.get("DB_PROFILE", "mysql");
+    public static String db_embedded_url = dotenv.get("DB_EMBEDDED_URL", "");
 
     public static String mysql_username = dotenv.get("MYSQL_USERNAME");
     public static String mysql_password = dotenv.get("MYSQL_PASSWORD");
     public static String mysql_url = dotenv.get("MYSQL_URL");
 
+    // Connection pool (size per terminal; timeouts in milliseconds)
+    public static String db_pool_max_size = dotenv.get("DB_POOL_MAX_SIZE", "8");
+    public static String db_pool_min_idle = dotenv.get("DB_POOL_MIN_IDLE", "2");
+    public static String db_pool_borrow_timeout_ms = dotenv.get("DB_POOL_BORROW_TIMEOUT_MS", "5000");
+    public static String db_pool_idle_timeout_ms = dotenv.get("DB_POOL_IDLE_TIMEOUT_MS", "300000");
+    public static String db_pool_max_lifetime_ms = dotenv.get("DB_POOL_MAX_LIFETIME_MS", "1800000");
+    public static String db_pool_leak_threshold_ms = dotenv.get("DB_POOL_LEAK_THRESHOLD_MS", "20000");
+    public static String db_pool_validation_query = dotenv.get("DB_POOL_VALIDATION_QUERY", "SELECT 1");
+
+    // Optional read replica for reports (blank URL = everything on the primary)
+    public static String mysql_replica_url = dotenv.get("MYSQL_REPLICA_URL", "");
+    public static String mysql_replica_username = dotenv.get("MYSQL_REPLICA_USERNAME", mysql_username);
+    public static String mysql_replica_password = dotenv.get("MYSQL_REPLICA_PASSWORD", mysql_password);
+    public static String db_replica_max_lag_seconds = dotenv.get("DB_REPLICA_MAX_LAG_SECONDS", "30");
+    public static String db_replica_pool_max_size = dotenv.get("DB_REPLICA_POOL_MAX_SIZE", "4");
+
+    // Per-statement timeout for cancellable report loads (0 disables)
+    public static String db_query_timeout_seconds = dotenv.get("DB_QUERY_TIMEOUT_SECONDS", "30");
+
+    // Schema migrations (src/main/resources/db/migration) + required-index check at startup
+    public static String db_migrate_on_startup = dotenv.get("DB_MIGRATE_ON_STARTUP", "true");
+    public static String db_verify_indexes = dotenv.get("DB_VERIFY_INDEXES", "true");
+
+    // How often each terminal checks cache_versions for other terminals' writes (0 disables)
+    public static String cache_poll_seconds = dotenv.get("CACHE_POLL_SECONDS", "5");
+
+    // Catalog caches saved here on exit and loaded at the next start (blank disables)
+    public static String cache_snapshot_path = dotenv.get("CACHE_SNAPSHOT_PATH", "cache/catalog.snapshot");
+
+    // Decoded avatar/product image bytes kept in memory (LRU)
+    public static String image_cache_mb = dotenv.get("IMAGE_CACHE_MB", "64");
+
+    // Statement metrics + slow query log (threshold 0 disables the log)
+    public static String db_metrics_enabled = dotenv.get("DB_METRICS_ENABLED", "true");
+    public static String db_slow_query_ms = dotenv.get("DB_SLOW_QUERY_MS", "500");
+    public static String db_slow_query_log = dotenv.get("DB_SLOW_QUERY_LOG", "logs/slow-query.log");
+
     public static String gmail_account = dotenv.get("GMAIL_ACCOUNT");
     public static String app_password = dotenv.get("APP_PASSWORD");
-}
\ No newline at end of file
+
+    // Numeric settings: blank or not a number falls back to the default
+    public static int parseInt(String value, int fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    public static long parseLong(String value, long fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import javafx.beans.property.SimpleIntegerProperty;
 
 public final class AppEvents {
     private static final IntegerProperty orderCompletedCounter = new SimpleIntegerProperty(0);
+    private static final IntegerProperty dayRolledOverCounter = new SimpleIntegerProperty(0);
 
     private AppEvents() {}
 
@@ -15,4 +16,13 @@ public final class AppEvents {
     public static void fireOrderCompleted() {
         orderCompletedCounter.set(orderCompletedCounter.get() + 1);
     }
+
+    // Stock was reclassified for a new day (expired / discounted); fired on the FX thread
+    public static IntegerProperty dayRolledOverCounterProperty() {
+        return dayRolledOverCounter;
+    }
+
+    public static void fireDayRolledOver() {
+        dayRolledOverCounter.set(dayRolledOverCounter.get() + 1);
+    }
 }
@@ -1,7 +1,11 @@
 package com.cakeshopsystem.utils.services;
 
 import com.cakeshopsystem.models.CartItem;
+import com.cakeshopsystem.models.Drink;
+import com.cakeshopsystem.models.InventoryDelta;
+import com.cakeshopsystem.models.Product;
 import com.cakeshopsystem.models.ReceiptData;
+import com.cakeshopsystem.utils.cache.CheckoutReference;
 import com.cakeshopsystem.utils.constants.BookingStatus;
 import com.cakeshopsystem.utils.dao.BookingDAO;
 import com.cakeshopsystem.utils.databaseconnection.DB;
@@ -89,8 +93,10 @@ public class OrderService {
                     throw new SQLException("Cannot combine Custom Cake and DIY booking in the same order.");
                 }
 
-                // 2) Totals + timestamp
-                Totals totals = computeTotals(con, items);
+                // 2) Totals + timestamp (per-line product/drink lookups come from the cached
+                // reference when it is still current, otherwise from the database)
+                CheckoutReference ref = CheckoutReference.ifCurrent(con);
+                Totals totals = computeTotals(con, ref, items);
                 LocalDateTime orderDate = LocalDateTime.now();
 
                 // 3) Reserve slots + create booking rows (same transaction)
@@ -119,11 +125,12 @@ public class OrderService {
                 );
 
                 // 5) Insert order items + special bookings + inventory
+                List<InventoryDelta> inventoryDeltas = new ArrayList<>();
                 for (CartItem it : items) {
                     String opt = normalize(it.getOption());
 
                     if (isDrink(opt)) {
-                        int drinkId = getDrinkId(con, it.getProductId(), "COLD".equals(opt));
+                        int drinkId = getDrinkId(con, ref, it.getProductId(), "COLD".equals(opt));
                         insertDrinkOrderItem(con, orderId, drinkId, opt, it.getQuantity(), money2(BigDecimal.valueOf(it.getUnitPrice())));
                         continue;
                     }
@@ -157,9 +164,9 @@ public class OrderService {
                         );
                     }
 
-                    if (isTrackInventory(con, it.getProductId())) {
+                    if (isTrackInventory(con, ref, it.getProductId())) {
                         boolean discount = "DISCOUNT".equals(productOpt);
-                        deductInventoryFEFO(con, it.getProductId(), it.getQuantity(), discount, orderItemId, userId);
+                        deductInventoryFEFO(con, it.getProductId(), it.getQuantity(), discount, orderItemId, userId, inventoryDeltas);
                     }
                 }
 
@@ -173,7 +180,8 @@ public class OrderService {
                         receiptItems,
                         totals.subtotal,
                         totals.discountAmount,
-                        totals.grandTotal
+                        totals.grandTotal,
+                        List.copyOf(inventoryDeltas)
                 );
 
             } catch (Exception ex) {
@@ -187,7 +195,7 @@ public class OrderService {
 
     // ================= Totals =================
 
-    private static Totals computeTotals(Connection con, List<CartItem> items) throws SQLException {
+    private static Totals computeTotals(Connection con, CheckoutReference ref, List<CartItem> items) throws SQLException {
         BigDecimal subtotal = BigDecimal.ZERO;
         BigDecimal discountAmount = BigDecimal.ZERO;
         BigDecimal grandTotal = BigDecimal.ZERO;
@@ -203,7 +211,7 @@ public class OrderService {
             grandTotal = grandTotal.add(lineCharged);
 
             if ("DISCOUNT".equals(opt)) {
-                BigDecimal normalUnit = getProductBasePrice(con, it.getProductId());
+                BigDecimal normalUnit = getProductBasePrice(con, ref, it.getProductId());
                 BigDecimal lineNormal = normalUnit.multiply(qtyBD);
 
                 subtotal = subtotal.add(lineNormal);
@@ -364,7 +372,9 @@ public class OrderService {
 
     // ================= Inventory (same as yours) =================
 
-    private static void deductInventoryFEFO(Connection con, int productId, int qtyNeeded, boolean discount, int orderItemId, int userId) throws SQLException {
+    // Every batch deducted is added to deltas, so the caller can update InventoryCache without a reload
+    private static void deductInventoryFEFO(Connection con, int productId, int qtyNeeded, boolean discount, int orderItemId, int userId,
+                                            List<InventoryDelta> deltas) throws SQLException {
         String selectSql = discount
                 ? """
                 SELECT inventory_id, quantity
@@ -398,6 +408,7 @@ public class OrderService {
 
                     updateInventoryQty(con, inventoryId, take);
                     insertMovement(con, inventoryId, -take, orderItemId, userId);
+                    deltas.add(new InventoryDelta(inventoryId, -take));
 
                     remaining -= take;
                 }
@@ -435,8 +446,12 @@ public class OrderService {
     }
 
     // ================= Lookups =================
+    // ref is null when the cached reference is behind the database; a row missing from it is queried
+
+    private static boolean isTrackInventory(Connection con, CheckoutReference ref, int productId) throws SQLException {
+        Product cached = ref == null ? null : ref.product(productId);
+        if (cached != null) return cached.isTrackInventory();
 
-    private static boolean isTrackInventory(Connection con, int productId) throws SQLException {
         String sql = "SELECT track_inventory FROM products WHERE product_id = ?";
         try (PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, productId);
@@ -447,7 +462,10 @@ public class OrderService {
         }
     }
 
-    private static int getDrinkId(Connection con, int productId, boolean isCold) throws SQLException {
+    private static int getDrinkId(Connection con, CheckoutReference ref, int productId, boolean isCold) throws SQLException {
+        Drink cached = ref == null ? null : ref.drink(productId, isCold);
+        if (cached != null) return cached.getDrinkId();
+
         String sql = "SELECT drink_id FROM drinks WHERE product_id = ? AND is_cold = ? LIMIT 1";
         try (PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, productId);
@@ -459,7 +477,10 @@ public class OrderService {
         }
     }
 
-    private static BigDecimal getProductBasePrice(Connection con, int productId) throws SQLException {
+    private static BigDecimal getProductBasePrice(Connection con, CheckoutReference ref, int productId) throws SQLException {
+        Product cached = ref == null ? null : ref.product(productId);
+        if (cached != null) return money2(BigDecimal.valueOf(cached.getPrice()));
+
         String sql = "SELECT price FROM products WHERE product_id = ? LIMIT 1";
         try (PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, productId);
@@ -37,6 +37,9 @@ public class SessionManager {
     public static boolean isAdmin;
     public static boolean isDarkModeOn = false;
 
+    // System.nanoTime() of the last login, for the time-to-first-screen log lines
+    private static long loggedInAtNanos = 0;
+
     public static boolean isIsDarkModeOn() {
         return isDarkModeOn;
     }
@@ -64,6 +67,7 @@ public class SessionManager {
     // Session Setup / Update
     // =========================
     public static void setUser(User user) {
+        if (user != null && SessionManager.user == null) loggedInAtNanos = System.nanoTime();
         SessionManager.user = user;
         updateAdminFlag();
 
@@ -77,6 +81,10 @@ public class SessionManager {
         return user;
     }
 
+    public static long getLoggedInAtNanos() {
+        return loggedInAtNanos;
+    }
+
     public static void addUserListener(Consumer<User> listener) {
         if (listener != null) USER_LISTENERS.add(listener);
     }
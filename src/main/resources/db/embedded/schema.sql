@@ -0,0 +1,286 @@
+-- =====================================
+-- Embedded (H2, MODE=MySQL) schema for DB_PROFILE=embedded
+--
+-- Mirrors db/migration (V001 baseline, V002 indexes, V003 cache versions) in H2's dialect. Keep the two in step:
+-- a table, column or index added by a new migration goes here as well.
+-- Everything is idempotent so a file-backed DB_EMBEDDED_URL can be reopened.
+-- =====================================
+
+-- ---------- MySQL function/procedure stand-ins ----------
+CREATE ALIAS IF NOT EXISTS DATE_FORMAT FOR 'com.cakeshopsystem.utils.databaseconnection.EmbeddedDatabase.dateFormat';
+CREATE ALIAS IF NOT EXISTS waste_expired_inventory FOR 'com.cakeshopsystem.utils.databaseconnection.EmbeddedDatabase.wasteExpiredInventory';
+
+-- ---------- Users & auth ----------
+CREATE TABLE IF NOT EXISTS roles (
+    role_id     INT AUTO_INCREMENT PRIMARY KEY,
+    role_name   VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_roles_name UNIQUE (role_name)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id        INT AUTO_INCREMENT PRIMARY KEY,
+    user_name      VARCHAR(50)  NOT NULL,
+    password_hash  VARCHAR(255) NOT NULL,
+    role_id        INT          NOT NULL,
+    email          VARCHAR(100) NULL,
+    image_path     VARCHAR(255) NULL,
+    is_active      BOOLEAN      NOT NULL DEFAULT TRUE,
+    last_login     TIMESTAMP    NULL,
+    created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_users_name UNIQUE (user_name),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_role FOREIGN KEY (role_id) REFERENCES roles (role_id)
+);
+
+CREATE TABLE IF NOT EXISTS otps (
+    otp_id      INT AUTO_INCREMENT PRIMARY KEY,
+    user_id     INT          NOT NULL,
+    otp_code    VARCHAR(255) NOT NULL,
+    expires_at  TIMESTAMP    NOT NULL,
+    used_at     TIMESTAMP    NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_otps_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+-- ---------- Catalog ----------
+CREATE TABLE IF NOT EXISTS categories (
+    category_id    INT AUTO_INCREMENT PRIMARY KEY,
+    category_name  VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_categories_name UNIQUE (category_name)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    product_id       INT AUTO_INCREMENT PRIMARY KEY,
+    product_name     VARCHAR(100)  NOT NULL,
+    category_id      INT           NOT NULL,
+    price            DECIMAL(10,2) NOT NULL DEFAULT 0,
+    is_active        BOOLEAN       NOT NULL DEFAULT TRUE,
+    track_inventory  BOOLEAN       NOT NULL DEFAULT TRUE,
+    shelf_life_days  INT           NULL,
+    img_path         VARCHAR(255)  NULL,
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (category_id)
+);
+
+CREATE TABLE IF NOT EXISTS flavours (
+    flavour_id    INT AUTO_INCREMENT PRIMARY KEY,
+    flavour_name  VARCHAR(50)   NOT NULL,
+    price         DECIMAL(10,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_flavours_name UNIQUE (flavour_name)
+);
+
+CREATE TABLE IF NOT EXISTS toppings (
+    topping_id    INT AUTO_INCREMENT PRIMARY KEY,
+    topping_name  VARCHAR(50)   NOT NULL,
+    price         DECIMAL(10,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_toppings_name UNIQUE (topping_name)
+);
+
+CREATE TABLE IF NOT EXISTS sizes (
+    size_id      INT AUTO_INCREMENT PRIMARY KEY,
+    size_inches  INT           NOT NULL,
+    price        DECIMAL(10,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_sizes_inches UNIQUE (size_inches)
+);
+
+CREATE TABLE IF NOT EXISTS cakes (
+    cake_id         INT AUTO_INCREMENT PRIMARY KEY,
+    product_id      INT     NOT NULL,
+    flavour_id      INT     NULL,
+    topping_id      INT     NULL,
+    size_id         INT     NULL,
+    cake_type       ENUM('Prebaked', 'Custom') NOT NULL,
+    shape           ENUM('Circle', 'Square', 'Heart') NULL,
+    is_diy_allowed  BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT fk_cakes_product FOREIGN KEY (product_id) REFERENCES products (product_id),
+    CONSTRAINT fk_cakes_flavour FOREIGN KEY (flavour_id) REFERENCES flavours (flavour_id),
+    CONSTRAINT fk_cakes_topping FOREIGN KEY (topping_id) REFERENCES toppings (topping_id),
+    CONSTRAINT fk_cakes_size FOREIGN KEY (size_id) REFERENCES sizes (size_id)
+);
+
+CREATE TABLE IF NOT EXISTS drinks (
+    drink_id     INT AUTO_INCREMENT PRIMARY KEY,
+    product_id   INT           NOT NULL,
+    is_cold      BOOLEAN       NOT NULL DEFAULT FALSE,
+    price_delta  DECIMAL(10,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_drinks_product_temp UNIQUE (product_id, is_cold),
+    CONSTRAINT fk_drinks_product FOREIGN KEY (product_id) REFERENCES products (product_id)
+);
+
+CREATE TABLE IF NOT EXISTS ingredients (
+    ingredient_id    INT AUTO_INCREMENT PRIMARY KEY,
+    ingredient_name  VARCHAR(100) NOT NULL,
+    unit             ENUM('Gram', 'Kilogram', 'Liter', 'Teaspoon', 'Tablespoon', 'Yolk', 'White') NOT NULL,
+    CONSTRAINT uk_ingredients_name UNIQUE (ingredient_name)
+);
+
+CREATE TABLE IF NOT EXISTS cake_recipes (
+    cake_recipe_id     INT AUTO_INCREMENT PRIMARY KEY,
+    cake_id            INT           NOT NULL,
+    ingredient_id      INT           NOT NULL,
+    required_quantity  DECIMAL(10,2) NOT NULL,
+    CONSTRAINT fk_cake_recipes_cake FOREIGN KEY (cake_id) REFERENCES cakes (cake_id) ON DELETE CASCADE,
+    CONSTRAINT fk_cake_recipes_ingredient FOREIGN KEY (ingredient_id) REFERENCES ingredients (ingredient_id)
+);
+
+CREATE TABLE IF NOT EXISTS cake_recipe_instructions (
+    cake_recipe_instruction_id  INT AUTO_INCREMENT PRIMARY KEY,
+    cake_id                     INT           NOT NULL,
+    instruction                 VARCHAR(4000) NOT NULL,
+    CONSTRAINT fk_cake_instructions_cake FOREIGN KEY (cake_id) REFERENCES cakes (cake_id) ON DELETE CASCADE
+);
+
+-- ---------- Sales ----------
+CREATE TABLE IF NOT EXISTS payments (
+    payment_id    INT AUTO_INCREMENT PRIMARY KEY,
+    payment_name  VARCHAR(50) NOT NULL,
+    is_active     BOOLEAN     NOT NULL DEFAULT TRUE,
+    CONSTRAINT uk_payments_name UNIQUE (payment_name)
+);
+
+CREATE TABLE IF NOT EXISTS members (
+    member_id           INT AUTO_INCREMENT PRIMARY KEY,
+    member_name         VARCHAR(100) NOT NULL,
+    phone               VARCHAR(20)  NOT NULL,
+    member_since        TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    qualified_order_id  INT          NULL,
+    created_at          TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_members_phone UNIQUE (phone)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    order_id         INT AUTO_INCREMENT PRIMARY KEY,
+    order_date       TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    subtotal         DECIMAL(10,2) NOT NULL DEFAULT 0,
+    discount_amount  DECIMAL(10,2) NOT NULL DEFAULT 0,
+    grand_total      DECIMAL(10,2) NOT NULL DEFAULT 0,
+    member_id        INT           NULL,
+    user_id          INT           NOT NULL,
+    payment_id       INT           NOT NULL,
+    updated_at       TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_orders_member FOREIGN KEY (member_id) REFERENCES members (member_id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (user_id),
+    CONSTRAINT fk_orders_payment FOREIGN KEY (payment_id) REFERENCES payments (payment_id)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    order_item_id  INT AUTO_INCREMENT PRIMARY KEY,
+    order_id       INT           NOT NULL,
+    product_id     INT           NULL,
+    drink_id       INT           NULL,
+    order_option   ENUM('REGULAR', 'DISCOUNT', 'HOT', 'COLD') NOT NULL DEFAULT 'REGULAR',
+    quantity       INT           NOT NULL,
+    unit_price     DECIMAL(10,2) NOT NULL,
+    line_total     DECIMAL(12,2) GENERATED ALWAYS AS (quantity * unit_price),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (order_id) ON DELETE CASCADE,
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (product_id),
+    CONSTRAINT fk_order_items_drink FOREIGN KEY (drink_id) REFERENCES drinks (drink_id)
+);
+
+-- ---------- Inventory ----------
+CREATE TABLE IF NOT EXISTS inventory (
+    inventory_id  INT AUTO_INCREMENT PRIMARY KEY,
+    product_id    INT       NOT NULL,
+    quantity      INT       NOT NULL DEFAULT 0,
+    exp_date      DATE      NULL,
+    created_at    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_inventory_product FOREIGN KEY (product_id) REFERENCES products (product_id)
+);
+
+CREATE TABLE IF NOT EXISTS inventory_movements (
+    inventory_movement_id  INT AUTO_INCREMENT PRIMARY KEY,
+    inventory_id           INT       NOT NULL,
+    movement_type          ENUM('ADD', 'SALE', 'WASTE') NOT NULL,
+    qty_change             INT       NOT NULL,
+    order_item_id          INT       NULL,
+    user_id                INT       NULL,
+    moved_at               TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_movements_inventory FOREIGN KEY (inventory_id) REFERENCES inventory (inventory_id) ON DELETE CASCADE,
+    CONSTRAINT fk_movements_order_item FOREIGN KEY (order_item_id) REFERENCES order_items (order_item_id) ON DELETE SET NULL,
+    CONSTRAINT fk_movements_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE SET NULL
+);
+
+-- ---------- Bookings ----------
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_id      INT AUTO_INCREMENT PRIMARY KEY,
+    booking_date    DATE NOT NULL,
+    booking_status  ENUM('Pending', 'Confirmed', 'Cancelled') NOT NULL DEFAULT 'Pending'
+);
+
+CREATE TABLE IF NOT EXISTS custom_cake_bookings (
+    custom_cake_booking_id  INT AUTO_INCREMENT PRIMARY KEY,
+    order_id                INT          NOT NULL,
+    cake_id                 INT          NOT NULL,
+    booking_id              INT          NULL,
+    pickup_date             DATE         NOT NULL,
+    flavour_id              INT          NULL,
+    topping_id              INT          NULL,
+    size_id                 INT          NULL,
+    shape                   ENUM('Circle', 'Square', 'Heart') NULL,
+    custom_message          VARCHAR(100) NULL,
+    CONSTRAINT fk_ccb_order FOREIGN KEY (order_id) REFERENCES orders (order_id),
+    CONSTRAINT fk_ccb_cake FOREIGN KEY (cake_id) REFERENCES cakes (cake_id),
+    CONSTRAINT fk_ccb_booking FOREIGN KEY (booking_id) REFERENCES bookings (booking_id),
+    CONSTRAINT fk_ccb_flavour FOREIGN KEY (flavour_id) REFERENCES flavours (flavour_id),
+    CONSTRAINT fk_ccb_topping FOREIGN KEY (topping_id) REFERENCES toppings (topping_id),
+    CONSTRAINT fk_ccb_size FOREIGN KEY (size_id) REFERENCES sizes (size_id)
+);
+
+CREATE TABLE IF NOT EXISTS diy_cake_bookings (
+    diy_cake_booking_id  INT AUTO_INCREMENT PRIMARY KEY,
+    booking_id           INT  NOT NULL,
+    member_id            INT  NOT NULL,
+    cake_id              INT  NOT NULL,
+    order_id             INT  NOT NULL,
+    session_date         DATE NOT NULL,
+    session_start        TIME NOT NULL,
+    CONSTRAINT fk_dcb_booking FOREIGN KEY (booking_id) REFERENCES bookings (booking_id),
+    CONSTRAINT fk_dcb_member FOREIGN KEY (member_id) REFERENCES members (member_id),
+    CONSTRAINT fk_dcb_cake FOREIGN KEY (cake_id) REFERENCES cakes (cake_id),
+    CONSTRAINT fk_dcb_order FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE TABLE IF NOT EXISTS custom_cake_daily_quota (
+    pickup_date   DATE NOT NULL PRIMARY KEY,
+    booked_count  INT  NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS diy_session_quota (
+    session_date   DATE NOT NULL,
+    session_start  TIME NOT NULL,
+    booked_count   INT  NOT NULL DEFAULT 0,
+    PRIMARY KEY (session_date, session_start)
+);
+
+-- ---------- Cache change versions (V003) ----------
+CREATE TABLE IF NOT EXISTS cache_versions (
+    entity     VARCHAR(64) NOT NULL,
+    version    BIGINT      NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (entity)
+);
+
+-- ---------- Hot path indexes (V002) ----------
+CREATE INDEX IF NOT EXISTS idx_orders_order_date ON orders (order_date);
+CREATE INDEX IF NOT EXISTS idx_orders_user_date ON orders (user_id, order_date);
+CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items (order_id);
+CREATE INDEX IF NOT EXISTS idx_inventory_fefo ON inventory (product_id, exp_date, quantity);
+CREATE INDEX IF NOT EXISTS idx_inventory_movements_inventory ON inventory_movements (inventory_id);
+
+-- ---------- Reporting ----------
+CREATE OR REPLACE VIEW staff_performance_view AS
+SELECT o.user_id                                                 AS staff_id,
+       'Order'                                                   AS type,
+       CONCAT('Order #', o.order_id, ' - ', o.grand_total)       AS details,
+       FORMATDATETIME(o.order_date, 'yyyy-MM-dd HH:mm:ss')       AS activity_date
+FROM orders o
+UNION ALL
+SELECT m.user_id                                                 AS staff_id,
+       CONCAT('Stock ', LOWER(CAST(m.movement_type AS VARCHAR))) AS type,
+       CONCAT(p.product_name, ' (', m.qty_change, ')')           AS details,
+       FORMATDATETIME(m.moved_at, 'yyyy-MM-dd HH:mm:ss')         AS activity_date
+FROM inventory_movements m
+JOIN inventory i ON i.inventory_id = m.inventory_id
+JOIN products p ON p.product_id = i.product_id
+WHERE m.user_id IS NOT NULL
+  AND m.movement_type <> 'SALE';
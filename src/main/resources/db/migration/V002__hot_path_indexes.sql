@@ -0,0 +1,25 @@
+-- =====================================
+-- Indexes for the hot query paths
+--
+-- SchemaMigrator skips a CREATE INDEX when the table already has an index starting with the
+-- same columns (e.g. one InnoDB created for a foreign key), so this is safe on existing DBs.
+-- SchemaVerifier checks the same list at startup.
+-- =====================================
+
+-- Dashboard / revenue / sales range scans (order_date >= ? AND order_date < ?)
+CREATE INDEX idx_orders_order_date ON orders (order_date);
+
+-- Staff performance and cashier cards (user_id = ? AND order_date range)
+CREATE INDEX idx_orders_user_date ON orders (user_id, order_date);
+
+-- Order detail lookups and every orders -> order_items join
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+
+-- OrderService.deductInventoryFEFO: product_id = ? AND quantity > 0 ORDER BY exp_date
+CREATE INDEX idx_inventory_fefo ON inventory (product_id, exp_date, quantity);
+
+-- Movement history per lot
+CREATE INDEX idx_inventory_movements_inventory ON inventory_movements (inventory_id);
+
+-- Member lookup by phone at checkout / registration
+CREATE INDEX idx_members_phone ON members (phone);
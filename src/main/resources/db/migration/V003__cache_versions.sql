@@ -0,0 +1,15 @@
+-- =====================================
+-- Change versions for cross-terminal cache invalidation
+--
+-- Every cache write bumps the row for its entity type (e.g. 'products'); each terminal polls
+-- this table and reloads only the caches whose version moved. One row per entity type, so the
+-- poll is a scan of a couple of dozen rows. There are no seed rows: an entity's row is created by
+-- its first bump (INSERT ... ON DUPLICATE KEY UPDATE), so re-running this script changes nothing.
+-- =====================================
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+    entity     VARCHAR(64) NOT NULL,
+    version    BIGINT      NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (entity)
+);
@@ -0,0 +1,140 @@
+package com.cakeshopsystem.utils.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Slot files written and read back: every field helper, the header/index walk that picks a slot
+ * without mapping it, and the files it must refuse (torn writes, leftover row bytes, another
+ * codec layout).
+ */
+class CacheSnapshotTest {
+
+    enum Shape { ROUND, SQUARE }
+
+    record Row(int id, String name, Integer days, Double weight, Shape shape, boolean active) {}
+
+    private static final CacheSnapshot.Codec<Row> CODEC = new CacheSnapshot.Codec<>(
+            1,
+            (out, r) -> {
+                out.writeInt(r.id());
+                CacheSnapshot.writeString(out, r.name());
+                CacheSnapshot.writeNullableInt(out, r.days());
+                CacheSnapshot.writeNullableDouble(out, r.weight());
+                CacheSnapshot.writeEnum(out, r.shape());
+                out.writeBoolean(r.active());
+            },
+            in -> new Row(
+                    in.getInt(), CacheSnapshot.readString(in), CacheSnapshot.readNullableInt(in),
+                    CacheSnapshot.readNullableDouble(in), CacheSnapshot.readEnum(in, Shape.class),
+                    CacheSnapshot.readBoolean(in))
+    );
+
+    private static final List<Row> CAKES = List.of(
+            new Row(1, "Crème brûlée tart", 3, 0.75, Shape.ROUND, true),
+            new Row(2, null, null, null, null, false),
+            new Row(3, "", 0, -1.5, Shape.SQUARE, true));
+
+    private static final List<Row> DRINKS = List.of(new Row(10, "Latte ☕", null, 0.3, null, true));
+
+    @TempDir
+    Path dir;
+
+    private static CacheSnapshot.Table table(String name, long version, List<Row> rows) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        for (Row row : rows) CODEC.writer().write(out, row);
+        out.flush();
+        return new CacheSnapshot.Table(name, version, CODEC.layout(), rows.size(), buffer.toByteArray());
+    }
+
+    private Path writeSample() throws IOException {
+        Path file = dir.resolve("catalog.snapshot.0");
+        CacheSnapshot.write(file, 7, List.of(table("cakes", 41, CAKES), table("drinks", 3, DRINKS), table("empty", 1, List.of())));
+        return file;
+    }
+
+    @Test
+    void writtenTablesReadBackThroughTheMapping() throws IOException {
+        Path file = writeSample();
+
+        CacheSnapshot.Index index = CacheSnapshot.readIndex(file);
+        assertEquals(7, index.seq());
+        assertEquals(List.of("cakes", "drinks", "empty"), index.entries().stream().map(CacheSnapshot.Entry::name).toList());
+
+        Map<String, CacheSnapshot.Section> sections = CacheSnapshot.map(file, index);
+        assertEquals(41, sections.get("cakes").version());
+        assertEquals(CODEC.layout(), sections.get("cakes").layout());
+        assertEquals(CAKES, CacheSnapshot.decode(sections.get("cakes"), CODEC));
+        assertEquals(DRINKS, CacheSnapshot.decode(sections.get("drinks"), CODEC));
+        assertEquals(List.of(), CacheSnapshot.decode(sections.get("empty"), CODEC));
+
+        // Decoding works on a duplicate, so a section can be read again (save() copies it)
+        assertEquals(CAKES, CacheSnapshot.decode(sections.get("cakes"), CODEC));
+    }
+
+    @Test
+    void tornWritesAreRefused() throws IOException {
+        Path file = writeSample();
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            size = channel.size();
+
+            // Trailer cut short
+            channel.truncate(size - 4);
+        }
+        assertThrows(EOFException.class, () -> CacheSnapshot.readIndex(file));
+
+        // Cut inside the second table's rows
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size / 2);
+        }
+        assertThrows(EOFException.class, () -> CacheSnapshot.readIndex(file));
+    }
+
+    @Test
+    void otherFilesAreRefused() throws IOException {
+        Path file = dir.resolve("not-a-snapshot");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x12345678);
+            out.writeLong(0);
+        }
+        assertThrows(IllegalStateException.class, () -> CacheSnapshot.readIndex(file));
+    }
+
+    @Test
+    void changedRowLayoutIsRefused() throws IOException {
+        CacheSnapshot.Table cakes = table("cakes", 41, CAKES);
+        CacheSnapshot.Table claimsFewer = new CacheSnapshot.Table("cakes", 41, CODEC.layout(), CAKES.size() - 1, cakes.bytes());
+
+        Path file = dir.resolve("catalog.snapshot.1");
+        CacheSnapshot.write(file, 8, List.of(claimsFewer));
+        CacheSnapshot.Index index = CacheSnapshot.readIndex(file);
+
+        CacheSnapshot.Section section = CacheSnapshot.map(file, index).get("cakes");
+        assertThrows(IllegalArgumentException.class, () -> CacheSnapshot.decode(section, CODEC));
+    }
+
+    @Test
+    void otherCodecLayoutIsRefused() throws IOException {
+        Path file = writeSample();
+        CacheSnapshot.Section cakes = CacheSnapshot.map(file, CacheSnapshot.readIndex(file)).get("cakes");
+
+        // Same bytes, but the code now reads a row differently
+        CacheSnapshot.Codec<Row> changed = new CacheSnapshot.Codec<>(2, CODEC.writer(), CODEC.reader());
+        assertThrows(IllegalArgumentException.class, () -> CacheSnapshot.decode(cakes, changed));
+    }
+}
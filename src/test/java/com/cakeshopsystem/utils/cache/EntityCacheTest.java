@@ -0,0 +1,318 @@
+package com.cakeshopsystem.utils.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes against an unversioned cache (no database): rows, key map and indexes must stay in step,
+ * rows keep their table position, and groups follow a row that changes group.
+ */
+class EntityCacheTest {
+
+    record Row(int id, String group, String code) {}
+
+    // Loaded, so the writes below apply to the table instead of being replaced by its first load
+    private static EntityCache<Integer, Row> cacheOf(Row... rows) {
+        List<Row> table = List.of(rows);
+        EntityCache<Integer, Row> cache = new EntityCache<>("test-rows", Row::id, () -> table, false);
+        cache.snapshot();
+        return cache;
+    }
+
+    private static List<Integer> ids(List<Row> rows) {
+        return rows.stream().map(Row::id).toList();
+    }
+
+    // =====================================
+    // ROWS
+    // =====================================
+    @Test
+    void upsertReplacesInPlaceAndAppendsNewKeys() {
+        EntityCache<Integer, Row> cache = cacheOf(new Row(1, "a", "x"), new Row(2, "b", "y"), new Row(3, "a", "z"));
+        assertEquals(List.of(1, 2, 3), ids(cache.snapshot()));
+
+        cache.upsert(new Row(2, "b", "changed"));
+        cache.upsert(new Row(4, "c", "w"));
+
+        assertEquals(List.of(1, 2, 3, 4), ids(cache.snapshot()));
+        assertEquals("changed", cache.get(2).code());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    void removeDropsTheRowEverywhere() {
+        EntityCache<Integer, Row> cache = cacheOf(new Row(1, "a", "x"), new Row(2, "a", "y"), new Row(3, "b", "z"));
+        EntityCache.Unique<String, Row> byCode = cache.uniqueIndex(Row::code);
+        EntityCache.Group<String, Row> byGroup = cache.groupIndex(Row::group);
+
+        assertEquals(2, cache.remove(2).id());
+        assertNull(cache.remove(2));
+
+        assertEquals(List.of(1, 3), ids(cache.snapshot()));
+        assertNull(cache.peek(2));
+        assertFalse(cache.asMap().containsKey(2));
+        assertNull(byCode.get("y"));
+        assertEquals(List.of(1), ids(byGroup.snapshot("a")));
+    }
+
+    @Test
+    void sortReordersRowsAndGroups() {
+        EntityCache<Integer, Row> cache = cacheOf(new Row(1, "a", "c"), new Row(2, "a", "a"), new Row(3, "a", "b"));
+        EntityCache.Group<String, Row> byGroup = cache.groupIndex(Row::group);
+
+        cache.sort(Comparator.comparing(Row::code));
+
+        assertEquals(List.of(2, 3, 1), ids(cache.snapshot()));
+        assertEquals(List.of(2, 3, 1), ids(byGroup.snapshot("a")));
+    }
+
+    // =====================================
+    // INDEXES
+    // =====================================
+    @Test
+    void groupMoveLandsAtTablePosition() {
+        EntityCache<Integer, Row> cache = cacheOf(
+                new Row(1, "a", "p"), new Row(2, "b", "q"), new Row(3, "a", "r"), new Row(4, "b", "s"));
+        EntityCache.Group<String, Row> byGroup = cache.groupIndex(Row::group);
+
+        cache.upsert(new Row(3, "b", "r"));
+        assertEquals(List.of(1), ids(byGroup.snapshot("a")));
+        assertEquals(List.of(2, 3, 4), ids(byGroup.snapshot("b")));
+
+        cache.upsert(new Row(1, "b", "p"));
+        assertEquals(List.of(), byGroup.snapshot("a"));
+        assertEquals(List.of(1, 2, 3, 4), ids(byGroup.snapshot("b")));
+
+        // A null group key files the row nowhere
+        cache.upsert(new Row(2, null, "q"));
+        assertEquals(List.of(1, 3, 4), ids(byGroup.snapshot("b")));
+    }
+
+    @Test
+    void uniqueIndexFollowsChangedKeys() {
+        EntityCache<Integer, Row> cache = cacheOf(new Row(1, "a", "x"), new Row(2, "a", "y"));
+        EntityCache.Unique<String, Row> byCode = cache.uniqueIndex(Row::code);
+
+        cache.upsert(new Row(1, "a", "moved"));
+        assertNull(byCode.get("x"));
+        assertEquals(1, byCode.get("moved").id());
+
+        // Another row taking the code keeps it when the first row moves away
+        cache.upsert(new Row(3, "a", "y"));
+        cache.upsert(new Row(2, "a", "free"));
+        assertEquals(3, byCode.get("y").id());
+        assertEquals(2, byCode.get("free").id());
+    }
+
+    @Test
+    void randomWritesMatchAPlainModel() {
+        EntityCache<Integer, Row> cache = cacheOf();
+        EntityCache.Group<String, Row> byGroup = cache.groupIndex(Row::group);
+        EntityCache.Unique<String, Row> byCode = cache.uniqueIndex(Row::code);
+
+        // Insertion-ordered: an upsert keeps its place, a removed key comes back at the end
+        Map<Integer, Row> model = new LinkedHashMap<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 5_000; step++) {
+            int id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                Row removed = model.remove(id);
+                assertEquals(removed, cache.remove(id));
+            } else {
+                Row row = new Row(id, "g" + random.nextInt(7), "c" + id);
+                model.put(id, row);
+                cache.upsert(row);
+            }
+        }
+
+        List<Row> expected = new ArrayList<>(model.values());
+        assertEquals(expected, cache.snapshot());
+        for (Row row : expected) {
+            assertEquals(row, cache.get(row.id()));
+            assertEquals(row, byCode.get(row.code()));
+        }
+        for (int g = 0; g < 7; g++) {
+            String group = "g" + g;
+            assertEquals(expected.stream().filter(r -> r.group().equals(group)).toList(), byGroup.snapshot(group));
+        }
+    }
+
+    @Test
+    void prefixFindsRowsByTypedDigitsInKeyOrder() {
+        EntityCache<Integer, Row> cache = cacheOf(
+                new Row(1, "a", "09-771"), new Row(2, "a", "0912"), new Row(3, "a", "09 770"),
+                new Row(4, "a", "0812"), new Row(5, "a", "no digits"), new Row(6, "a", null));
+        EntityCache.Prefix<Row> byCode = cache.prefixIndex(Row::code);
+
+        // Only digits count, on both sides
+        assertEquals(List.of(2, 3, 1), ids(byCode.startingWith("09", 10)));
+        assertEquals(List.of(3, 1), ids(byCode.startingWith("0-97", 10)));
+        assertEquals(List.of(4, 2, 3, 1), ids(byCode.startingWith("", 10)));
+
+        assertEquals(List.of(2, 3), ids(byCode.startingWith("09", 2)));
+        assertEquals(List.of(), byCode.startingWith("07", 10));
+        assertEquals(List.of(), byCode.startingWith("09", 0));
+    }
+
+    @Test
+    void prefixFollowsRemovalsAndChangedKeys() {
+        EntityCache<Integer, Row> cache = cacheOf(new Row(1, "a", "0911"), new Row(2, "a", "0911"), new Row(3, "a", "0922"));
+        EntityCache.Prefix<Row> byCode = cache.prefixIndex(Row::code);
+
+        cache.remove(1);
+        assertEquals(List.of(2), ids(byCode.startingWith("0911", 10)));
+
+        cache.upsert(new Row(2, "a", "0933"));
+        assertEquals(List.of(), byCode.startingWith("0911", 10));
+        assertEquals(List.of(3, 2), ids(byCode.startingWith("09", 10)));
+
+        cache.upsert(new Row(3, "a", null));
+        assertEquals(List.of(2), ids(byCode.startingWith("09", 10)));
+
+        cache.remove(2);
+        assertEquals(List.of(), byCode.startingWith("", 10));
+    }
+
+    @Test
+    void intIndexFollowsWritesAndSkipsNullKeys() {
+        EntityCache<Integer, Row> cache = cacheOf(new Row(1, "a", "40"), new Row(2, "b", "41"), new Row(3, "a", null));
+        EntityCache.IntUnique<Row> byCode = cache.intIndex(r -> r.code() == null ? null : Integer.valueOf(r.code()));
+
+        assertEquals(1, byCode.get(40).id());
+        assertNull(byCode.get(-1));
+        assertNull(byCode.get(0));
+
+        cache.upsert(new Row(1, "a", "70000"));
+        assertNull(byCode.get(40));
+        assertEquals(1, byCode.get(70000).id());
+
+        // A later row taking the key keeps it when the first row moves away, as with Unique
+        cache.upsert(new Row(3, "a", "41"));
+        cache.upsert(new Row(2, "b", null));
+        assertEquals(3, byCode.get(41).id());
+
+        cache.remove(3);
+        assertNull(byCode.get(41));
+        assertEquals(1, byCode.table().size());
+    }
+
+    @Test
+    void intIndexMatchesAPlainModel() {
+        EntityCache<Integer, Row> cache = cacheOf();
+        EntityCache.IntUnique<Row> byCode = cache.intIndex(r -> Integer.valueOf(r.code()));
+
+        // code = id + 1000 * n, so no two rows share one; large n grows the trie a level at a time
+        Map<Integer, Row> model = new LinkedHashMap<>();
+        List<Integer> used = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (int step = 0; step < 5_000; step++) {
+            int id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                model.remove(id);
+                cache.remove(id);
+            } else {
+                int code = id + 1000 * random.nextInt(1 << random.nextInt(21));
+                Row row = new Row(id, "g", String.valueOf(code));
+                model.put(id, row);
+                cache.upsert(row);
+                used.add(code);
+            }
+        }
+
+        Map<Integer, Row> byCodeModel = new LinkedHashMap<>();
+        for (Row row : model.values()) byCodeModel.put(Integer.valueOf(row.code()), row);
+        for (int code : used) assertEquals(byCodeModel.get(code), byCode.get(code), "code " + code);
+        assertEquals(model.size(), byCode.table().size());
+
+        // A full reload builds the same index in one pass
+        cache.sort(Comparator.comparing(Row::id));
+        for (int code : used) assertEquals(byCodeModel.get(code), byCode.get(code), "code " + code + " after rebuild");
+    }
+
+    // =====================================
+    // getOrFetch
+    // =====================================
+    @Test
+    void getOrFetchCachesRowsAndRemembersMisses() throws SQLException {
+        EntityCache<Integer, Row> cache = cacheOf(new Row(1, "a", "x"));
+        AtomicInteger fetches = new AtomicInteger();
+
+        assertEquals(1, cache.getOrFetch(1, id -> fail("cached rows aren't fetched")).id());
+
+        Row fetched = cache.getOrFetch(2, id -> {
+            fetches.incrementAndGet();
+            return new Row(id, "b", "y");
+        });
+        assertEquals(2, fetched.id());
+        assertEquals(fetched, cache.getOrFetch(2, id -> fail("a fetched row is cached")));
+
+        assertNull(cache.getOrFetch(9, id -> {
+            fetches.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.getOrFetch(9, id -> fail("a miss is remembered")));
+        assertEquals(2, fetches.get());
+
+        // Writing the key forgets the miss
+        cache.upsert(new Row(9, "c", "z"));
+        assertEquals("z", Objects.requireNonNull(cache.getOrFetch(9, id -> fail("upserted"))).code());
+    }
+
+    @Test
+    void failedFetchIsThrownAndNotRemembered() throws Exception {
+        EntityCache<Integer, Row> cache = cacheOf();
+        SQLException down = new SQLException("connection reset");
+
+        assertSame(down, assertThrows(SQLException.class, () -> cache.getOrFetch(5, id -> {
+            throw down;
+        })));
+        assertEquals(5, cache.getOrFetch(5, id -> new Row(id, "a", "x")).id());
+
+        // A caller waiting on someone else's fetch gets the same exception, not a CompletionException
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = new Thread(() -> assertThrows(SQLException.class, () -> cache.getOrFetch(6, id -> {
+            fetching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException err) {
+                Thread.currentThread().interrupt();
+            }
+            throw down;
+        })));
+        first.start();
+        fetching.await();
+
+        CompletableFuture<Throwable> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                cache.getOrFetch(6, id -> {
+                    throw down;
+                });
+                return null;
+            } catch (Throwable err) {
+                return err;
+            }
+        });
+        Thread.sleep(50);
+        release.countDown();
+
+        first.join();
+        assertSame(down, second.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,119 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.models.Inventory;
+import com.cakeshopsystem.models.InventoryDelta;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The midnight rollover only redoes the batches expiring between the old day and the new one; it
+ * must end up where a full rebuild for the new day would. A sale's deltas likewise only touch the
+ * batches it took from.
+ */
+class InventoryCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    private static Inventory batch(int id, int productId, int qty, LocalDate exp, LocalDate made) {
+        LocalDateTime createdAt = made.atTime(8, 0);
+        return new Inventory(id, productId, qty, exp, createdAt, createdAt);
+    }
+
+    @Test
+    void batchMovesFromRegularToDiscountToExpired() {
+        List<Inventory> rows = List.of(
+                batch(1, 7, 5, DAY.plusDays(1), DAY.minusDays(1)),
+                batch(2, 7, 3, DAY.plusDays(5), DAY));
+
+        InventoryCache.Snapshot day0 = InventoryCache.build(rows, DAY);
+        assertEquals(Map.of(7, 8), day0.totalQtyByProduct());
+        assertEquals(Map.of(7, 8), day0.regularQtyByProduct());
+        assertEquals(List.of(), day0.discountCandidates());
+
+        // Expiring today and made before today: still stock, but sold at a discount
+        InventoryCache.Snapshot day1 = InventoryCache.roll(day0, DAY.plusDays(1));
+        assertEquals(Map.of(7, 8), day1.totalQtyByProduct());
+        assertEquals(Map.of(7, 3), day1.regularQtyByProduct());
+        assertEquals(List.of(1), day1.discountCandidates().stream().map(Inventory::getInventoryId).toList());
+
+        InventoryCache.Snapshot day2 = InventoryCache.roll(day1, DAY.plusDays(2));
+        assertEquals(Map.of(7, 3), day2.totalQtyByProduct());
+        assertEquals(Map.of(7, 3), day2.regularQtyByProduct());
+        assertEquals(List.of(), day2.discountCandidates());
+    }
+
+    @Test
+    void rollMatchesAFullRebuild() {
+        List<Inventory> rows = List.of(
+                batch(1, 1, 4, DAY, DAY.minusDays(2)),
+                batch(2, 1, 6, DAY.plusDays(1), DAY.minusDays(1)),
+                batch(3, 1, 2, DAY.plusDays(1), DAY.plusDays(1)),
+                batch(4, 2, 9, DAY.plusDays(2), DAY.minusDays(3)),
+                batch(5, 2, 0, DAY.plusDays(1), DAY.minusDays(1)),
+                batch(6, 3, 5, null, DAY.minusDays(10)),
+                batch(7, 3, 1, DAY.minusDays(1), DAY.minusDays(4)),
+                batch(8, 4, 7, DAY.plusDays(3), DAY.minusDays(1)));
+
+        InventoryCache.Snapshot start = InventoryCache.build(rows, DAY);
+        for (int days = 0; days <= 4; days++) {
+            LocalDate today = DAY.plusDays(days);
+            assertEquals(InventoryCache.build(rows, today), InventoryCache.roll(start, today), "jump to " + today);
+        }
+
+        // Night by night as well as in one jump
+        InventoryCache.Snapshot nightly = start;
+        for (int days = 1; days <= 4; days++) {
+            LocalDate today = DAY.plusDays(days);
+            nightly = InventoryCache.roll(nightly, today);
+            assertEquals(InventoryCache.build(rows, today), nightly, "night before " + today);
+        }
+    }
+
+    @Test
+    void saleMovesTotalsAndCandidatesLikeARebuild() {
+        List<Inventory> rows = List.of(
+                batch(1, 7, 5, DAY, DAY.minusDays(1)),
+                batch(2, 7, 4, DAY.plusDays(3), DAY.minusDays(1)),
+                batch(3, 7, 2, DAY, DAY.minusDays(2)),
+                batch(4, 8, 6, null, DAY));
+        InventoryCache.Snapshot start = InventoryCache.build(rows, DAY);
+        assertEquals(List.of(1, 3), start.discountCandidates().stream().map(Inventory::getInventoryId).toList());
+
+        InventoryCache.Snapshot sold = InventoryCache.apply(start, List.of(
+                new InventoryDelta(2, -3), new InventoryDelta(1, -5), new InventoryDelta(3, -1), new InventoryDelta(4, -6)));
+
+        List<Inventory> after = List.of(
+                batch(1, 7, 0, DAY, DAY.minusDays(1)),
+                batch(2, 7, 1, DAY.plusDays(3), DAY.minusDays(1)),
+                batch(3, 7, 1, DAY, DAY.minusDays(2)),
+                batch(4, 8, 0, null, DAY));
+        InventoryCache.Snapshot rebuilt = InventoryCache.build(after, DAY);
+
+        assertEquals(Map.of(7, 2), sold.totalQtyByProduct());
+        assertEquals(rebuilt.totalQtyByProduct(), sold.totalQtyByProduct());
+        assertEquals(rebuilt.regularQtyByProduct(), sold.regularQtyByProduct());
+        assertEquals(List.of(3), sold.discountCandidates().stream().map(Inventory::getInventoryId).toList());
+        assertEquals(1, sold.discountCandidates().get(0).getQuantity());
+        assertEquals(0, sold.byId().get(1).getQuantity());
+
+        // The published state is left as it was
+        assertEquals(Map.of(7, 11, 8, 6), start.totalQtyByProduct());
+        assertEquals(5, start.byId().get(1).getQuantity());
+    }
+
+    @Test
+    void deltaThatDoesNotFitIsRefused() {
+        InventoryCache.Snapshot start = InventoryCache.build(List.of(batch(1, 7, 2, DAY.plusDays(1), DAY)), DAY);
+
+        // A batch the cache never loaded (added on another terminal), or more than the cache thinks is left
+        assertNull(InventoryCache.apply(start, List.of(new InventoryDelta(99, -1))));
+        assertNull(InventoryCache.apply(start, List.of(new InventoryDelta(1, -1), new InventoryDelta(1, -2))));
+        assertEquals(Map.of(7, 1), InventoryCache.apply(start, List.of(new InventoryDelta(1, -1))).totalQtyByProduct());
+    }
+}
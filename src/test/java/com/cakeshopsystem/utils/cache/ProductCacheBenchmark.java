@@ -0,0 +1,91 @@
+package com.cakeshopsystem.utils.cache;
+
+import com.cakeshopsystem.models.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Micro-benchmark for the product cache: full refresh, then upserts, category moves and deletes
+ * against 10k and 100k synthetic products. Uses the same indexes as {@link ProductCache} with an
+ * in-memory loader, so only cache work is timed (no database).
+ * <p>
+ * Not a test: run with {@code mvn test-compile exec:java@cache-benchmark}.
+ */
+public final class ProductCacheBenchmark {
+
+    private static final int[] SIZES = {10_000, 100_000};
+    private static final int CATEGORIES = 8;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int OPS = 1_000;
+
+    private ProductCacheBenchmark() {}
+
+    public static void main(String[] args) {
+        for (int size : SIZES) run(size);
+    }
+
+    private static void run(int size) {
+        List<Product> products = products(size);
+
+        // Unversioned, so no refresh asks cache_versions either
+        EntityCache<Integer, Product> cache =
+                new EntityCache<>("products-benchmark-" + size, Product::getProductId, () -> products, false);
+        cache.uniqueIndex(p -> p.getProductName().trim().toLowerCase());
+        cache.groupIndex(Product::getCategoryId);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) cache.refresh();
+
+        long refreshNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            cache.refresh();
+            refreshNanos += System.nanoTime() - start;
+        }
+
+        // Spread the touched ids over the whole table so positions come from everywhere
+        int step = size / OPS;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            Product p = products.get(i * step);
+            cache.upsert(copy(p, p.getCategoryId(), p.getPrice() + 1));
+        }
+        long upsertNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            Product p = products.get(i * step);
+            cache.upsert(copy(p, (p.getCategoryId() % CATEGORIES) + 1, p.getPrice()));
+        }
+        long moveNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPS; i++) cache.remove(products.get(i * step).getProductId());
+        long deleteNanos = System.nanoTime() - start;
+
+        System.out.printf("%,d products: refresh %.2f ms, upsert %.2f us, category move %.2f us, delete %.2f us (%d categories, %,d rows left)%n",
+                size,
+                refreshNanos / (MEASURED_ROUNDS * 1_000_000.0),
+                upsertNanos / (OPS * 1_000.0),
+                moveNanos / (OPS * 1_000.0),
+                deleteNanos / (OPS * 1_000.0),
+                CATEGORIES,
+                cache.size());
+    }
+
+    private static List<Product> products(int size) {
+        List<Product> products = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            products.add(new Product(id, "Product " + id, (id % CATEGORIES) + 1, 1000 + id % 500,
+                    true, id % 3 == 0, null, null));
+        }
+        return products;
+    }
+
+    private static Product copy(Product p, int categoryId, double price) {
+        return new Product(p.getProductId(), p.getProductName(), categoryId, price,
+                p.isActive(), p.isTrackInventory(), p.getShelfLifeDays(), p.getImgPath());
+    }
+}
@@ -0,0 +1,182 @@
+package com.cakeshopsystem.utils.databaseconnection;
+
+import com.cakeshopsystem.models.CartItem;
+import com.cakeshopsystem.models.Drink;
+import com.cakeshopsystem.models.Inventory;
+import com.cakeshopsystem.models.InventoryDelta;
+import com.cakeshopsystem.models.Product;
+import com.cakeshopsystem.models.ReceiptData;
+import com.cakeshopsystem.utils.cache.InventoryCache;
+import com.cakeshopsystem.utils.dao.CacheVersionDAO;
+import com.cakeshopsystem.utils.dao.DashboardDAO;
+import com.cakeshopsystem.utils.dao.DrinkDAO;
+import com.cakeshopsystem.utils.dao.InventoryDAO;
+import com.cakeshopsystem.utils.dao.OrderDAO;
+import com.cakeshopsystem.utils.dao.ProductDAO;
+import com.cakeshopsystem.utils.services.OrderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots DB_PROFILE=embedded (set for every test by surefire) and runs the startup checks, the
+ * catalog DAOs, a checkout (and the inventory cache following it), a report and the waste
+ * procedure against it.
+ */
+class EmbeddedProfileSmokeTest {
+
+    private static int userId;
+    private static int paymentId;
+    private static int categoryId;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        assertTrue(DB.isEmbedded(), "tests must run on the embedded profile");
+
+        try (Connection con = DB.connect(); Statement st = con.createStatement()) {
+            st.executeUpdate("INSERT INTO roles (role_name) VALUES ('SmokeCashier')");
+            st.executeUpdate("""
+                    INSERT INTO users (user_name, password_hash, role_id)
+                    SELECT 'smoke', 'x', role_id FROM roles WHERE role_name = 'SmokeCashier'
+                    """);
+            st.executeUpdate("INSERT INTO payments (payment_name) VALUES ('SmokeCash')");
+            st.executeUpdate("INSERT INTO categories (category_name) VALUES ('SmokeCategory')");
+
+            userId = single(st, "SELECT user_id FROM users WHERE user_name = 'smoke'");
+            paymentId = single(st, "SELECT payment_id FROM payments WHERE payment_name = 'SmokeCash'");
+            categoryId = single(st, "SELECT category_id FROM categories WHERE category_name = 'SmokeCategory'");
+        }
+    }
+
+    @Test
+    void startupChecksPass() {
+        assertDoesNotThrow(SchemaMigrator::runOnStartup);
+    }
+
+    @Test
+    void catalogDaosRoundTrip() {
+        Product product = insertProduct("Smoke Tart", 4.50, true);
+
+        assertTrue(ProductDAO.getAllProducts().stream().anyMatch(p -> p.getProductId() == product.getProductId()));
+        assertEquals(4.50, ProductDAO.getProductById(product.getProductId()).getPrice(), 0.001);
+
+        Drink cold = new Drink(0, product.getProductId(), true, 0.5);
+        assertTrue(DrinkDAO.insertDrink(cold));
+        assertEquals(cold.getDrinkId(), DrinkDAO.getDrinkByProductIdAndCold(product.getProductId(), true).getDrinkId());
+    }
+
+    @Test
+    void checkoutWritesOrderAndDeductsStock() throws Exception {
+        Product cake = insertProduct("Smoke Cake", 10.00, true);
+        Product latte = insertProduct("Smoke Latte", 3.00, false);
+        assertTrue(DrinkDAO.insertDrink(new Drink(0, latte.getProductId(), true, 0.5)));
+        assertTrue(InventoryDAO.addStockBatch(cake.getProductId(), 5, LocalDate.now().plusDays(3), userId));
+        // DISCOUNT lines sell the lots expiring today
+        assertTrue(InventoryDAO.addStockBatch(cake.getProductId(), 1, LocalDate.now(), userId));
+        int laterLot = lotExpiring(cake, LocalDate.now().plusDays(3));
+        int todayLot = lotExpiring(cake, LocalDate.now());
+
+        InventoryCache.refresh();
+        assertEquals(6, InventoryCache.getTotalQtyByProductId(cake.getProductId()));
+
+        ReceiptData receipt = OrderService.placeOrderAndBuildReceipt(userId, paymentId, "smoke", "cash", List.of(
+                new CartItem(cake.getProductId(), "Smoke Cake", "REGULAR", 10.00, 2),
+                new CartItem(cake.getProductId(), "Smoke Cake", "DISCOUNT", 8.00, 1),
+                new CartItem(latte.getProductId(), "Smoke Latte", "COLD", 3.50, 1)
+        ));
+
+        assertNotNull(OrderDAO.getOrderById(receipt.getOrderId()));
+        assertEquals(new BigDecimal("33.50"), receipt.getSubtotal());
+        assertEquals(new BigDecimal("2.00"), receipt.getDiscountAmount());
+        assertEquals(new BigDecimal("31.50"), receipt.getGrandTotal());
+        assertEquals(3, InventoryDAO.getTotalAvailableQuantityByProductId(cake.getProductId()));
+
+        // One delta per lot taken from; the latte tracks no stock
+        List<InventoryDelta> deltas = receipt.getInventoryDeltas();
+        assertEquals(2, deltas.size());
+        assertEquals(Set.of(new InventoryDelta(laterLot, -2), new InventoryDelta(todayLot, -1)), Set.copyOf(deltas));
+
+        InventoryCache.applySale(deltas);
+        assertEquals(3, InventoryCache.getTotalQtyByProductId(cake.getProductId()));
+    }
+
+    @Test
+    void saleFromALotTheCacheNeverLoadedReloadsIt() throws Exception {
+        Product scone = insertProduct("Smoke Scone", 2.00, true);
+        InventoryCache.refresh();
+        assertEquals(0, InventoryCache.getTotalQtyByProductId(scone.getProductId()));
+
+        // Restocked behind the cache's back, as from another terminal
+        assertTrue(InventoryDAO.addStockBatch(scone.getProductId(), 4, LocalDate.now().plusDays(2), userId));
+        ReceiptData receipt = OrderService.placeOrderAndBuildReceipt(userId, paymentId, "smoke", "cash", List.of(
+                new CartItem(scone.getProductId(), "Smoke Scone", "REGULAR", 2.00, 1)));
+
+        InventoryCache.applySale(receipt.getInventoryDeltas());
+        assertEquals(3, InventoryCache.getTotalQtyByProductId(scone.getProductId()));
+    }
+
+    @Test
+    void reportsRunThroughDateFormat() throws SQLException {
+        LocalDate today = LocalDate.now();
+        List<DashboardDAO.BucketValue> trend = DashboardDAO.fetchRevenueTrend(
+                today.minusDays(7).atStartOfDay(), today.plusDays(1).atStartOfDay(), "Weekly", null);
+        assertNotNull(trend);
+    }
+
+    @Test
+    void wasteProcedureZeroesExpiredStock() {
+        Product bun = insertProduct("Smoke Bun", 1.00, true);
+        assertTrue(InventoryDAO.addStockBatch(bun.getProductId(), 4, LocalDate.now().minusDays(1), userId));
+
+        InventoryDAO.wasteExpiredInventory(userId);
+
+        int left = InventoryDAO.getInventoryByProductId(bun.getProductId()).stream().mapToInt(Inventory::getQuantity).sum();
+        assertEquals(0, left);
+    }
+
+    @Test
+    void cacheVersionsBumpAndRead() throws SQLException {
+        assertEquals(0, CacheVersionDAO.getVersion("smoke"));
+        assertEquals(1, CacheVersionDAO.bump("smoke"));
+        assertEquals(2, CacheVersionDAO.bump("smoke"));
+
+        try (Connection con = DB.connect()) {
+            Map<String, Long> versions = CacheVersionDAO.getVersions(con, "smoke", "never-bumped");
+            assertEquals(2L, versions.get("smoke"));
+            assertEquals(0L, versions.get("never-bumped"));
+        }
+    }
+
+    // =====================================
+    // HELPERS
+    // =====================================
+    private static Product insertProduct(String name, double price, boolean trackInventory) {
+        Product product = new Product(0, name, categoryId, price, true, trackInventory, null, null);
+        assertTrue(ProductDAO.insertProduct(product), "insert " + name);
+        assertTrue(product.getProductId() > 0, "generated id for " + name);
+        return product;
+    }
+
+    private static int lotExpiring(Product product, LocalDate exp) {
+        return InventoryDAO.getInventoryByProductId(product.getProductId()).stream()
+                .filter(inv -> exp.equals(inv.getExpDate()))
+                .findFirst().orElseThrow().getInventoryId();
+    }
+
+    private static int single(Statement st, String sql) throws SQLException {
+        try (var rs = st.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getInt(1);
+        }
+    }
+}